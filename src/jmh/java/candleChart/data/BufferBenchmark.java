@@ -0,0 +1,65 @@
+package candleChart.data;
+
+import candleChart.model.Candle;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara el coste de añadir velas en los extremos de un buffer lleno, con descarte de la vela del extremo opuesto,
+ * entre el buffer circular y la implementación anterior basada en un ArrayList.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+public class BufferBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    private Buffer buffer;
+    private List<Candle> arrayList;
+    private Candle candle;
+
+    @Setup
+    public void setup() {
+        candle = new Candle(LocalDateTime.of(2024, 1, 1, 0, 0), 1.1, 1.2, 1.0, 1.15);
+
+        ArrayList<Candle> candleList = new ArrayList<>(size);
+        for(int i = 0; i < size; i++) {
+            candleList.add(candle);
+        }
+
+        buffer = new Buffer();
+        buffer.setMaxSize(size);
+        buffer.addAll(candleList);
+        arrayList = new ArrayList<>(candleList);
+    }
+
+    @Benchmark
+    public void bufferAddLast() {
+        buffer.addLast(candle);
+    }
+
+    @Benchmark
+    public void bufferAddFirst() {
+        buffer.addFirst(candle);
+    }
+
+    @Benchmark
+    public void arrayListAddLast() {
+        arrayList.remove(0);
+        arrayList.add(candle);
+    }
+
+    @Benchmark
+    public void arrayListAddFirst() {
+        arrayList.remove(arrayList.size() - 1);
+        arrayList.add(0, candle);
+    }
+}
@@ -0,0 +1,39 @@
+package candleChart.data;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide el coste de agregar un tick en la vela en formación, con un tick cada 10 ms y velas de un minuto sobre un
+ * buffer lleno.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+public class CandleAggregatorBenchmark {
+
+    private CandleAggregator aggregator;
+    private long time;
+    private double price;
+
+    @Setup
+    public void setup() {
+        Buffer buffer = new Buffer();
+        buffer.setMaxSize(100_000);
+        aggregator = new CandleAggregator(buffer, Duration.ofMinutes(1));
+        aggregator.setListener(newCandle -> { });
+        time = 0;
+        price = 1.1;
+    }
+
+    @Benchmark
+    public boolean addTick() {
+        time += 10;
+        price = time % 2000 < 1000 ? price + 0.00001 : price - 0.00001;
+        return aggregator.addTick(time, price);
+    }
+}
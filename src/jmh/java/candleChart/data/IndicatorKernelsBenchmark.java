@@ -0,0 +1,84 @@
+package candleChart.data;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara el coste del recálculo completo de las medias móviles, las desviaciones típicas móviles y los rangos
+ * verdaderos entre los cálculos vectoriales (VectorKernels) y los escalares (IndicatorKernels).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+public class IndicatorKernelsBenchmark {
+
+    @Param({"100000", "1000000"})
+    private int size;
+
+    @Param({"20", "200"})
+    private int period;
+
+    private double[] highs;
+    private double[] lows;
+    private double[] closes;
+    private double[] averages;
+    private double[] deviations;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        highs = new double[size];
+        lows = new double[size];
+        closes = new double[size];
+        averages = new double[size];
+        deviations = new double[size];
+
+        double price = 1.2;
+        for(int i = 0; i < size; i++) {
+            price += (random.nextDouble() - 0.5) * 0.001;
+            closes[i] = price;
+            highs[i] = price + random.nextDouble() * 0.001;
+            lows[i] = price - random.nextDouble() * 0.001;
+        }
+    }
+
+    @Benchmark
+    public double[] vectorMovingAverage() {
+        VectorKernels.movingAverage(closes, size, period, averages);
+        return averages;
+    }
+
+    @Benchmark
+    public double[] scalarMovingAverage() {
+        IndicatorKernels.scalarMovingAverage(closes, size, period, averages);
+        return averages;
+    }
+
+    @Benchmark
+    public double[] vectorMovingDeviation() {
+        VectorKernels.movingDeviation(closes, size, period, averages, deviations);
+        return deviations;
+    }
+
+    @Benchmark
+    public double[] scalarMovingDeviation() {
+        IndicatorKernels.scalarMovingDeviation(closes, size, period, averages, deviations);
+        return deviations;
+    }
+
+    @Benchmark
+    public double[] vectorTrueRange() {
+        VectorKernels.trueRange(highs, lows, closes, size, averages);
+        return averages;
+    }
+
+    @Benchmark
+    public double[] scalarTrueRange() {
+        IndicatorKernels.scalarTrueRange(highs, lows, closes, size, averages);
+        return averages;
+    }
+}
@@ -0,0 +1,63 @@
+package candleChart.data;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara el coste de obtener el máximo y mínimo de las columnas de un gráfico de 1000 píxeles de ancho que representa
+ * todo el buffer, mediante la pirámide de agrupación del buffer y mediante el índice de máximos y mínimos.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+public class LevelBenchmark {
+    private static final int WIDTH = 1000;
+
+    @Param({"100000", "1000000", "10000000"})
+    private int size;
+
+    private Buffer buffer;
+    private int level;
+
+    @Setup
+    public void setup() {
+        buffer = new Buffer();
+        buffer.setMaxSize(size);
+        Random random = new Random(1);
+        double price = 100;
+        for(int i = 0; i < size; i++) {
+            double next = Math.max(price + random.nextGaussian(), 1);
+            buffer.addLast(i, price, Math.max(price, next) + 0.5, Math.min(price, next) - 0.5, next);
+            price = next;
+        }
+
+        // Nivel más alto que mantiene al menos un grupo por columna.
+        level = 31 - Integer.numberOfLeadingZeros(size / WIDTH);
+        buffer.getLevel(level).getHigh(0);  // Se construyen la pirámide y el índice antes de medir.
+        buffer.getHighest(0, size);
+    }
+
+    @Benchmark
+    public void pyramidColumns(Blackhole blackhole) {
+        CandleSeries groups = buffer.getLevel(level);
+        for(int i = 0; i < groups.size(); i++) {
+            blackhole.consume(groups.getHigh(i));
+            blackhole.consume(groups.getLow(i));
+        }
+    }
+
+    @Benchmark
+    public void rangeIndexColumns(Blackhole blackhole) {
+        int groupSize = 1 << level;
+        for(int from = 0; from < size; from += groupSize) {
+            int to = Math.min(from + groupSize, size);
+            blackhole.consume(buffer.getHighest(from, to));
+            blackhole.consume(buffer.getLowest(from, to));
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package candleChart.view;
+
+import candleChart.controller.CandleSize;
+import candleChart.model.Candle;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara el coste de pintar las velas de la vista en una imagen en memoria según el número de velas, entre el pintado
+ * por lotes de color de CandleView y el pintado anterior, que accedía a cada vela de la lista y creaba los colores de
+ * cada vela. Las velas se representan con el tamaño VERY_SMALL, por lo que el ancho de la imagen es de cuatro píxeles
+ * por vela.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+public class CandleViewBenchmark {
+    private static final int HEIGHT = 400;
+
+    @Param({"250", "1000", "4000"})
+    private int size;
+
+    private CandleView candleView;
+    private List<Candle> candleList;
+    private BufferedImage image;
+    private Graphics2D graphics;
+    private double rangeUp, rangeDown;
+
+    @Setup
+    public void setup() {
+        candleList = new ArrayList<>(size);
+        Random random = new Random(1);
+        double price = 100;
+        LocalDateTime time = LocalDateTime.of(2024, 1, 1, 0, 0);
+        for(int i = 0; i < size; i++) {
+            double next = Math.max(price + random.nextGaussian(), 1);
+            candleList.add(new Candle(time.plusMinutes(i), price, Math.max(price, next) + 0.5,
+                    Math.min(price, next) - 0.5, next));
+            price = next;
+        }
+        rangeUp = candleList.stream().mapToDouble(Candle::highPrice).max().orElse(0);
+        rangeDown = candleList.stream().mapToDouble(Candle::lowPrice).min().orElse(0);
+
+        int width = (int) (size * CandleSize.VERY_SMALL.getRelativePosition());
+        candleView = new CandleView();
+        candleView.setSize(width, HEIGHT);
+        candleView.setCandleSize(CandleSize.VERY_SMALL);
+        candleView.setPriceRange(rangeUp, rangeDown);
+        candleView.setCandleList(candleList);
+
+        image = new BufferedImage(width, HEIGHT, BufferedImage.TYPE_INT_ARGB_PRE);
+        graphics = image.createGraphics();
+    }
+
+    @TearDown
+    public void tearDown() {
+        graphics.dispose();
+    }
+
+    @Benchmark
+    public BufferedImage batched() {
+        candleView.paintLayer(graphics);
+        return image;
+    }
+
+    @Benchmark
+    public BufferedImage perCandle() {
+        int candleWidth = CandleSize.VERY_SMALL.getCandleWidth();
+        int relativePosition = (int) CandleSize.VERY_SMALL.getRelativePosition();
+        for(int i = candleList.size() - 1; i >= 0; i--) {
+            int positionX = i * relativePosition - 1;
+            graphics.setColor(candleList.get(i).openPrice() > candleList.get(i).closePrice()
+                    ? new Color(127, 0, 0) : new Color(0, 127, 0));
+            graphics.drawLine(positionX, positionOfPrice(candleList.get(i).highPrice()), positionX,
+                    positionOfPrice(candleList.get(i).lowPrice()));
+
+            int rectY = positionOfPrice(Math.max(candleList.get(i).openPrice(), candleList.get(i).closePrice()));
+            int rectHeight = positionOfPrice(Math.min(candleList.get(i).openPrice(), candleList.get(i).closePrice())) - rectY;
+            graphics.drawRect(positionX - (candleWidth / 2), rectY, candleWidth - 1, rectHeight);
+            graphics.setColor(candleList.get(i).openPrice() > candleList.get(i).closePrice()
+                    ? new Color(255, 0, 0) : new Color(0, 255, 0));
+            graphics.fillRect(positionX - (candleWidth / 2) + 1, rectY, candleWidth - 2, rectHeight);
+        }
+        return image;
+    }
+
+    private int positionOfPrice(double price) {
+        return (int) ((rangeUp - price) / ((rangeUp - rangeDown) / HEIGHT));
+    }
+}
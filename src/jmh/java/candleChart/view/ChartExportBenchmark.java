@@ -0,0 +1,61 @@
+package candleChart.view;
+
+import candleChart.controller.CandleSize;
+import candleChart.data.Buffer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide el tiempo de exportar un gráfico de 16000x4000 píxeles con 4000 velas en franjas de 512 píxeles según el número
+ * de hilos del pool en el que se dibujan las franjas. El consumidor descarta las franjas, por lo que solo se mide el
+ * dibujo.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@State(Scope.Benchmark)
+public class ChartExportBenchmark {
+    private static final int WIDTH = 16000;
+    private static final int HEIGHT = 4000;
+    private static final int TILE_WIDTH = 512;
+
+    @Param({"1", "4"})
+    private int threads;
+
+    private ChartRenderer chartRenderer;
+    private Buffer buffer;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setup() {
+        buffer = new Buffer();
+        Random random = new Random(1);
+        double price = 100;
+        for(int i = 0; i < 4000; i++) {
+            double next = Math.max(price + random.nextGaussian(), 1);
+            buffer.addLast(i * 60_000_000_000L, price, Math.max(price, next) + 0.5, Math.min(price, next) - 0.5, next);
+            price = next;
+        }
+
+        chartRenderer = new ChartRenderer();
+        chartRenderer.setCandleSize(CandleSize.VERY_SMALL);
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public void renderTiles(Blackhole blackhole) throws IOException {
+        chartRenderer.renderTiles(buffer, buffer.size(), WIDTH, HEIGHT, TILE_WIDTH, pool,
+                (tile, x) -> blackhole.consume(tile));
+    }
+}
@@ -0,0 +1,74 @@
+package candleChart.view;
+
+import candleChart.data.Buffer;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide el número de imágenes por segundo que genera ChartRenderer según el ancho de la imagen (con una altura de 5/8
+ * del ancho), tanto creando una imagen nueva por gráfico como reutilizando la misma imagen, y con uno y cuatro hilos.
+ * Cada hilo representa su propio buffer de 100.000 velas, como ocurre al generar gráficos de distintos símbolos.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+public class ChartRendererBenchmark {
+    private static final int SIZE = 100_000;
+
+    @Param({"320", "800"})
+    private int width;
+
+    private ChartRenderer chartRenderer;
+    private Buffer buffer;
+    private BufferedImage image;
+    private Graphics2D graphics;
+
+    @Setup
+    public void setup() {
+        buffer = new Buffer();
+        buffer.setMaxSize(SIZE);
+        Random random = new Random(1);
+        double price = 100;
+        for(int i = 0; i < SIZE; i++) {
+            double next = Math.max(price + random.nextGaussian(), 1);
+            buffer.addLast(i * 60_000_000_000L, price, Math.max(price, next) + 0.5, Math.min(price, next) - 0.5, next);
+            price = next;
+        }
+
+        chartRenderer = new ChartRenderer();
+        image = new BufferedImage(width, height(), BufferedImage.TYPE_INT_RGB);
+        graphics = image.createGraphics();
+    }
+
+    @TearDown
+    public void tearDown() {
+        graphics.dispose();
+    }
+
+    @Benchmark
+    public BufferedImage newImage() {
+        return chartRenderer.render(buffer, width, height());
+    }
+
+    @Benchmark
+    public BufferedImage reusedImage() {
+        chartRenderer.render(graphics, buffer, SIZE, width, height());
+        return image;
+    }
+
+    @Benchmark
+    @Threads(4)
+    public BufferedImage newImageFourThreads() {
+        return chartRenderer.render(buffer, width, height());
+    }
+
+    private int height() {
+        return width * 5 / 8;
+    }
+}
@@ -0,0 +1,51 @@
+package candleChart.view;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide el coste de formatear los precios de las divisiones de la línea de precios, tal como se hace al actualizar el
+ * eje en cada desplazamiento del gráfico. Se compara String.format con PriceFormatter. El rango de precios varía en
+ * cada llamada recorriendo un conjunto de rangos, como ocurre al desplazar el gráfico adelante y atrás.
+ * Para medir las asignaciones de memoria debe ejecutarse con el perfilador de memoria: -prof gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+public class PriceFormatterBenchmark {
+    private static final int HEIGHT = 800;
+    private static final int SIZE_GRID = 32;
+    private static final int RANGES = 64;
+
+    private final PriceFormatter priceFormatter = new PriceFormatter();
+    private final String[] labels = new String[HEIGHT / SIZE_GRID];
+    private int range;
+
+    @Benchmark
+    public String[] stringFormat() {
+        double rangeUp = nextRangeUp();
+        double pricePixel = 0.01 / HEIGHT;
+        for(int i = 1; i <= labels.length; i++) {
+            labels[i - 1] = String.format("%.5f", rangeUp - (HEIGHT - i * SIZE_GRID) * pricePixel);
+        }
+        return labels;
+    }
+
+    @Benchmark
+    public String[] priceFormatter() {
+        double rangeUp = nextRangeUp();
+        double pricePixel = 0.01 / HEIGHT;
+        for(int i = 1; i <= labels.length; i++) {
+            labels[i - 1] = priceFormatter.format(rangeUp - (HEIGHT - i * SIZE_GRID) * pricePixel);
+        }
+        return labels;
+    }
+
+    private double nextRangeUp() {
+        range = (range + 1) % RANGES;
+        return 1.1 + range * 0.0001;
+    }
+}
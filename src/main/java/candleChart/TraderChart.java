@@ -2,8 +2,14 @@ package candleChart;
 
 import candleChart.controller.*;
 import candleChart.data.Buffer;
+import candleChart.data.Indicator;
+import candleChart.model.Candle;
+import candleChart.view.ChartPane;
+import candleChart.view.IndicatorPane;
+import candleChart.view.VolumePane;
 
 import javax.swing.*;
+import java.awt.*;
 
 public class TraderChart extends JPanel {
 
@@ -51,6 +57,118 @@ public class TraderChart extends JPanel {
     }
 
 
+    /**
+     * Actualiza el gráfico tras modificar la última vela del buffer, como ocurre con la vela en formación de una fuente
+     * de datos en tiempo real. Solo se repinta la vela modificada, salvo que cambie el rango de precios representado.
+     * Cuando se añaden nuevas velas al buffer debe llamarse al método update.
+     */
+    public void updateLast() {
+        chartController.updateLast();
+    }
+
+
+    /**
+     * Reemplaza la última vela del buffer por la vela proporcionada y actualiza el gráfico.
+     *
+     * @param candle Vela que reemplaza a la última vela del buffer.
+     * @throws NullPointerException Si la vela proporcionada es nula.
+     * @throws IndexOutOfBoundsException Si el buffer está vacío.
+     */
+    public void updateLast(Candle candle) {
+        if(candle == null) {
+            throw new NullPointerException("El valor proporcionado para 'candle' es nulo.");
+        }
+        buffer.updateLast(candle);
+        updateLast();
+    }
+
+
+    /**
+     * Añade un indicador que será dibujado sobre las velas del gráfico. Si el indicador no está asociado a ningún
+     * buffer, se asocia al buffer del gráfico.
+     *
+     * @param indicator Indicador a representar.
+     * @param color Color de las líneas del indicador.
+     * @throws NullPointerException Si el indicador o el color proporcionados son nulos.
+     */
+    public void addIndicator(Indicator indicator, Color color) {
+        if(indicator == null) {
+            throw new NullPointerException("No se permiten valores nulos para el valor 'indicator'.");
+        }
+        if(indicator.getBuffer() == null) {
+            buffer.addIndicator(indicator);
+        }
+        chartController.addIndicator(indicator, color);
+    }
+
+
+    /**
+     * Elimina un indicador representado en el gráfico. El indicador sigue asociado a su buffer.
+     *
+     * @param indicator Indicador a eliminar.
+     * @return True si el indicador estaba representado, o false en caso contrario.
+     */
+    public boolean removeIndicator(Indicator indicator) {
+        return chartController.removeIndicator(indicator);
+    }
+
+
+    /**
+     * Añade un panel secundario bajo las velas del gráfico, que representa un indicador con su propia escala de
+     * valores, como un oscilador. El panel comparte la línea de tiempo con las velas. Si el indicador no está asociado
+     * a ningún buffer, se asocia al buffer del gráfico.
+     *
+     * @param indicator Indicador a representar.
+     * @param color Color de las líneas del indicador.
+     * @return El panel añadido, al que pueden añadirse otros indicadores.
+     * @throws NullPointerException Si el indicador o el color proporcionados son nulos.
+     */
+    public IndicatorPane addIndicatorPane(Indicator indicator, Color color) {
+        if(indicator == null) {
+            throw new NullPointerException("No se permiten valores nulos para el valor 'indicator'.");
+        }
+        if(indicator.getBuffer() == null) {
+            buffer.addIndicator(indicator);
+        }
+        return chartController.addIndicatorPane(indicator, color);
+    }
+
+
+    /**
+     * Añade un panel secundario bajo las velas del gráfico que representa el volumen de las velas como un histograma,
+     * con su escala ajustada al mayor volumen de las velas visibles.
+     *
+     * @return El panel añadido.
+     */
+    public VolumePane addVolumePane() {
+        return chartController.addVolumePane();
+    }
+
+
+    /**
+     * Añade un panel secundario bajo las velas del gráfico, con su propia escala de valores y la misma línea de tiempo
+     * que las velas. Los indicadores representados en el panel deben estar asociados al buffer del gráfico.
+     *
+     * @param pane Panel a añadir.
+     * @throws NullPointerException Si el panel proporcionado es nulo.
+     * @throws IllegalArgumentException Si el panel ya se encuentra en el gráfico.
+     */
+    public void addPane(ChartPane pane) {
+        chartController.addPane(pane);
+    }
+
+
+    /**
+     * Elimina un panel secundario del gráfico.
+     *
+     * @param pane Panel a eliminar.
+     * @return True si el panel se encontraba en el gráfico, o false en caso contrario.
+     */
+    public boolean removePane(ChartPane pane) {
+        return chartController.removePane(pane);
+    }
+
+
     /**
      * Establece la visibilidad de la cuadrícula del gráfico. Si visibility se establece a true la cuadrícula será
      * mostrada, o en caso de ser false, esta se ocultará.
@@ -73,6 +191,28 @@ public class TraderChart extends JPanel {
     }
 
 
+    /**
+     * Establece si las líneas de la cuadrícula se ajustan a las divisiones de las líneas de tiempo y precio, de forma
+     * que la cuadrícula y los ejes queden alineados. Por defecto la cuadrícula se ajusta a las divisiones.
+     *
+     * @param snapToAxes True para ajustar la cuadrícula a las divisiones de los ejes, o false para dibujarla con una
+     *                   separación fija.
+     */
+    public void setGridSnapToAxes(boolean snapToAxes) {
+        chartController.setGridSnapToAxes(snapToAxes);
+    }
+
+
+    /**
+     * Indica si las líneas de la cuadrícula se ajustan a las divisiones de las líneas de tiempo y precio.
+     *
+     * @return True si la cuadrícula se ajusta a las divisiones de los ejes, o false en caso contrario.
+     */
+    public boolean isGridSnapToAxes() {
+        return chartController.isGridSnapToAxes();
+    }
+
+
     /**
      * Establece la visibilidad de las líneas del cursor en el gráfico. En caso de establecer visibility como true,
      * las líneas del cursor serán mostradas en el gráfico. En caso de ser false esta no se mostrarán.
@@ -119,6 +259,83 @@ public class TraderChart extends JPanel {
     }
 
 
+    /**
+     * Establece el número de velas agrupadas en cada columna de un píxel del gráfico. Con el valor 1 (valor por
+     * defecto) las velas se dibujan con el tamaño de vela establecido. Con valores mayores el gráfico se dibuja en modo
+     * de nivel de detalle, donde cada columna muestra el máximo y mínimo de sus velas, permitiendo representar buffers
+     * de millones de velas con un coste de pintado proporcional al ancho del gráfico.
+     *
+     * @param candlesPerColumn Número de velas por columna.
+     * @throws IllegalArgumentException Si el número de velas por columna no es positivo.
+     */
+    public void setCandlesPerColumn(int candlesPerColumn) {
+        if(candlesPerColumn < 1) {
+            throw new IllegalArgumentException("El número de velas por columna debe ser un valor positivo.");
+        }
+        chartController.setCandlesPerColumn(candlesPerColumn);
+    }
+
+
+    /**
+     * Obtiene el número de velas agrupadas en cada columna de un píxel del gráfico.
+     *
+     * @return Número de velas por columna.
+     */
+    public int getCandlesPerColumn() {
+        return chartController.getCandlesPerColumn();
+    }
+
+
+    /**
+     * Establece la escala horizontal del gráfico como número de píxeles por vela, permitiendo un zoom continuo entre
+     * los tamaños de vela predefinidos. Con menos de un píxel por vela el gráfico se dibuja en modo de nivel de
+     * detalle. El zoom también puede modificarse con la rueda del ratón o arrastrando con el botón derecho sobre el
+     * gráfico, manteniendo fija la vela situada bajo el puntero.
+     *
+     * @param pixelsPerCandle Número de píxeles por vela, entre 1/65536 y 64.
+     * @throws IllegalArgumentException Si el número de píxeles por vela no se encuentra entre los valores permitidos.
+     */
+    public void setPixelsPerCandle(double pixelsPerCandle) {
+        chartController.setPixelsPerCandle(pixelsPerCandle);
+    }
+
+
+    /**
+     * Obtiene la escala horizontal del gráfico como número de píxeles por vela.
+     *
+     * @return Número de píxeles por vela.
+     */
+    public double getPixelsPerCandle() {
+        return chartController.getPixelsPerCandle();
+    }
+
+
+    /**
+     * Establece el número máximo de fotogramas por segundo del gráfico. Las actualizaciones del gráfico se agrupan y
+     * se aplican una vez por fotograma, por lo que con fuentes de datos de alta frecuencia el coste del pintado
+     * depende de este valor y no del número de actualizaciones. Por defecto se establecen 60 fotogramas por segundo.
+     *
+     * @param maxFrameRate Número máximo de fotogramas por segundo.
+     * @throws IllegalArgumentException Si el número de fotogramas no es positivo.
+     */
+    public void setMaxFrameRate(int maxFrameRate) {
+        if(maxFrameRate < 1) {
+            throw new IllegalArgumentException("La tasa máxima de fotogramas debe ser un valor positivo.");
+        }
+        chartController.setMaxFrameRate(maxFrameRate);
+    }
+
+
+    /**
+     * Obtiene el número máximo de fotogramas por segundo del gráfico.
+     *
+     * @return Número máximo de fotogramas por segundo.
+     */
+    public int getMaxFrameRate() {
+        return chartController.getMaxFrameRate();
+    }
+
+
     /**
      * Establece el símbolo del gráfico en la barra de información.
      *
@@ -142,6 +359,57 @@ public class TraderChart extends JPanel {
     }
 
 
+    /**
+     * Establece el símbolo del gráfico junto con el formato de sus precios.
+     *
+     * @param symbol El símbolo del gráfico.
+     * @param tickSize Variación mínima del precio del símbolo. Los precios se redondean a múltiplos de este valor.
+     * @param decimals Número de decimales con los que se muestran los precios, entre 0 y 15.
+     * @throws NullPointerException Si el símbolo es nulo.
+     * @throws IllegalArgumentException Si el tamaño del tick no es positivo o el número de decimales no es válido.
+     */
+    public void setSymbol(String symbol, double tickSize, int decimals) {
+        if(symbol == null) {
+            throw new NullPointerException("El valor proporcionado para 'symbol' es nulo.");
+        }
+        chartController.setPriceFormat(tickSize, decimals);
+        chartController.setSymbol(symbol);
+    }
+
+
+    /**
+     * Establece el formato de los precios del gráfico. Por defecto los precios se muestran con cinco decimales y un
+     * tamaño de tick de 0.00001.
+     *
+     * @param tickSize Variación mínima del precio del símbolo. Los precios se redondean a múltiplos de este valor.
+     * @param decimals Número de decimales con los que se muestran los precios, entre 0 y 15.
+     * @throws IllegalArgumentException Si el tamaño del tick no es positivo o el número de decimales no es válido.
+     */
+    public void setPriceFormat(double tickSize, int decimals) {
+        chartController.setPriceFormat(tickSize, decimals);
+    }
+
+
+    /**
+     * Obtiene el tamaño del tick con el que se formatean los precios del gráfico.
+     *
+     * @return Tamaño del tick.
+     */
+    public double getTickSize() {
+        return chartController.getTickSize();
+    }
+
+
+    /**
+     * Obtiene el número de decimales con los que se muestran los precios del gráfico.
+     *
+     * @return Número de decimales.
+     */
+    public int getPriceDecimals() {
+        return chartController.getPriceDecimals();
+    }
+
+
     /**
      * Avanza una posición en el gráfico siempre que haya datos que mostrar.
      */
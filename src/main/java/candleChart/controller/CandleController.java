@@ -1,25 +1,42 @@
 package candleChart.controller;
 
 import candleChart.data.Buffer;
+import candleChart.data.CandleSeries;
 import candleChart.model.Candle;
 import candleChart.view.CandleView;
+import candleChart.view.ChartPane;
 
-import java.awt.event.ComponentAdapter;
-import java.awt.event.ComponentEvent;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
- * Controller for candle view (CandleView) on the candle chart.
+ * Controlador de la vista de velas (CandleView) del gráfico de velas.
+ * El controlador calcula una sola vez la ventana de velas representada y la establece tanto en la vista de velas como
+ * en los paneles secundarios (ChartPane) apilados bajo ella, que comparten el eje de tiempo pero ajustan su propio rango
+ * de valores.
  */
 public class CandleController {
-    private static final double DEFAULT_MAX_PRICE = -Double.MAX_VALUE;
-    private static final double DEFAULT_MIN_PRICE = Double.MAX_VALUE;
+    /**
+     * Número mínimo de píxeles por vela, con el que cada columna de un píxel agrupa 65536 velas.
+     */
+    public static final double MIN_PIXELS_PER_CANDLE = 1.0 / 65536;
+
+    /**
+     * Número máximo de píxeles por vela.
+     */
+    public static final double MAX_PIXELS_PER_CANDLE = CandleSize.MAX_RELATIVE_POSITION;
 
     private final CandleView candleView;
+    private final List<ChartPane> panes;    // Paneles secundarios que comparten la ventana de velas.
     private List<Candle> candleList;
     private CandleSize candleSize;
+    private int candlesPerColumn;   // Velas agrupadas en cada columna en el modo de nivel de detalle.
+    private double scale;           // Píxeles por vela sin redondear, acumulados por los sucesivos pasos de zoom.
     private int currentCandleIndex; // Indice de inicio de la lista de velas.
+    private int candleFirst, candleLast;    // Rango del buffer representado en la vista (el último exclusive).
+    private int visibleBufferSize;          // Tamaño del buffer al calcular el rango representado.
+    private long visibleFirstSequence;      // Número de secuencia de la primera vela representada.
+    private long visibleBufferSequence;     // Número de secuencia de la primera vela del buffer en ese momento.
 
     private Buffer buffer;
     private double maxPrice, minPrice;
@@ -33,11 +50,13 @@ public class CandleController {
     public CandleController(CandleView candleView) {
         this.candleView = candleView;
 
+        panes = new ArrayList<>();
         candleList = new ArrayList<>();
         candleSize = CandleSize.SMALL;
+        candlesPerColumn = 1;
+        scale = candleSize.getRelativePosition();
         currentCandleIndex = 0;
         buffer = new Buffer();
-        setupView();
     }
 
 
@@ -66,6 +85,36 @@ public class CandleController {
     }
 
 
+    /**
+     * Añade un panel secundario que representará la misma ventana de velas que la vista de velas, con su propio rango
+     * de valores.
+     *
+     * @param pane Panel a añadir.
+     * @throws NullPointerException Si el panel proporcionado es nulo.
+     */
+    public void addPane(ChartPane pane) {
+        if(pane == null) {
+            throw new NullPointerException("No se permiten valores nulos para el valor 'pane'.");
+        }
+        panes.add(pane);
+        pane.setCandleSize(candleSize);
+        pane.setCandlesPerColumn(candlesPerColumn);
+        pane.setCandleList(candleList, candleFirst);
+        pane.updateValueRange();
+    }
+
+
+    /**
+     * Elimina un panel secundario del controlador.
+     *
+     * @param pane Panel a eliminar.
+     * @return True si el panel pertenecía al controlador, o false en caso contrario.
+     */
+    public boolean removePane(ChartPane pane) {
+        return panes.remove(pane);
+    }
+
+
     /**
      * Obtiene el precio máximo que será representado en el gráfico.
      *
@@ -97,7 +146,11 @@ public class CandleController {
             throw new NullPointerException("No se permiten valores nulos para 'candleSize'.");
         }
         this.candleSize = candleSize;
+        scale = getPixelsPerCandle();
         candleView.setCandleSize(candleSize);
+        for(int i = 0; i < panes.size(); i++) {
+            panes.get(i).setCandleSize(candleSize);
+        }
         updateCandleView();
     }
 
@@ -112,6 +165,96 @@ public class CandleController {
     }
 
 
+    /**
+     * Establece el número de velas agrupadas en cada columna de un píxel de la vista. Con valores mayores que 1 la
+     * vista dibuja en modo de nivel de detalle, lo que permite representar muchas más velas de las que admite el menor
+     * tamaño de vela.
+     *
+     * @param candlesPerColumn Número de velas por columna.
+     * @throws IllegalArgumentException Si el número de velas por columna no es positivo.
+     */
+    public void setCandlesPerColumn(int candlesPerColumn) {
+        if(candlesPerColumn < 1) {
+            throw new IllegalArgumentException("El número de velas por columna debe ser un valor positivo.");
+        }
+        this.candlesPerColumn = candlesPerColumn;
+        scale = getPixelsPerCandle();
+        candleView.setCandlesPerColumn(candlesPerColumn);
+        for(int i = 0; i < panes.size(); i++) {
+            panes.get(i).setCandlesPerColumn(candlesPerColumn);
+        }
+        updateCandleView();
+    }
+
+
+    /**
+     * Obtiene el número de velas agrupadas en cada columna de un píxel de la vista.
+     *
+     * @return Número de velas por columna.
+     */
+    public int getCandlesPerColumn() {
+        return candlesPerColumn;
+    }
+
+
+    /**
+     * Establece la escala horizontal del gráfico como número de píxeles por vela, que puede ser fraccionario. Con un
+     * píxel o más por vela, las velas se dibujan con el tamaño de vela correspondiente, y con menos de un píxel por
+     * vela la vista pasa al modo de nivel de detalle con el número de velas por columna más cercano.
+     *
+     * @param pixelsPerCandle Número de píxeles por vela.
+     * @throws IllegalArgumentException Si el número de píxeles por vela no se encuentra entre los valores permitidos.
+     */
+    public void setPixelsPerCandle(double pixelsPerCandle) {
+        setScale(pixelsPerCandle);
+        updateCandleView();
+    }
+
+
+    /**
+     * Obtiene la escala horizontal del gráfico como número de píxeles por vela.
+     *
+     * @return Número de píxeles por vela.
+     */
+    public double getPixelsPerCandle() {
+        return candlesPerColumn > 1? 1.0 / candlesPerColumn: candleSize.getRelativePosition();
+    }
+
+
+    /**
+     * Multiplica la escala horizontal del gráfico por el factor indicado, manteniendo en la misma posición la vela
+     * situada en la posición de anclaje, siempre que el rango del buffer representado lo permita. La escala resultante
+     * se limita a los valores permitidos. El factor se aplica sobre la escala sin redondear, de forma que los pasos de
+     * zoom pequeños se acumulan aunque no lleguen a cambiar por sí solos el número de velas por columna.
+     *
+     * @param factor Factor de zoom, mayor que 1 para acercar y menor que 1 para alejar.
+     * @param anchorX Posición de anclaje en el eje X de la vista, normalmente la posición del puntero.
+     * @throws IllegalArgumentException Si el factor de zoom no es un valor positivo.
+     */
+    public void zoom(double factor, int anchorX) {
+        if(!(factor > 0) || Double.isInfinite(factor)) {
+            throw new IllegalArgumentException("El factor de zoom debe ser un valor positivo.");
+        }
+
+        double anchorIndex = candleFirst + Math.max(anchorX, 0) / getPixelsPerCandle();  // Vela bajo el anclaje.
+        setScale(Math.min(Math.max(scale * factor, MIN_PIXELS_PER_CANDLE), MAX_PIXELS_PER_CANDLE));
+
+        // Se desplaza el rango representado para que la vela de anclaje quede en la misma posición.
+        long first = Math.round(anchorIndex - Math.max(anchorX, 0) / getPixelsPerCandle());
+        long last = first + visibleCandleCount();
+        currentCandleIndex = (int) Math.min(Math.max(buffer.size() - last, 0), Math.max(buffer.size() - 1, 0));
+        updateCandleView();
+    }
+
+
+    /**
+     * Actualiza la vista con las velas del buffer que caben en ella, como es necesario tras cambiar su tamaño.
+     */
+    public void update() {
+        updateCandleView();
+    }
+
+
     /**
      * Avanza un paso en la representación del gráfico siempre que no haya llegado al principio de este.
      */
@@ -133,7 +276,7 @@ public class CandleController {
         }
 
         currentCandleIndex = Math.max(currentCandleIndex - steps, 0);
-        updateCandleView();
+        scrollCandleView();
     }
 
 
@@ -158,22 +301,58 @@ public class CandleController {
             throw new IllegalArgumentException("No se permiten valores negativos.");
         }
 
-        int maxSteps = buffer.size() - candleList.size() - 1;
+        int maxSteps = buffer.size() - candleList.size();
         currentCandleIndex = maxSteps - currentCandleIndex > steps? currentCandleIndex + steps: maxSteps ;
-        updateCandleView();
+        scrollCandleView();
     }
 
 
     /**
-     * Configura los distintos elementos de la vista.
+     * Actualiza la vista tras reemplazar la última vela del buffer. Si la vela está representada en la vista, el rango
+     * de precios se recalcula mediante el índice de máximos y mínimos del buffer. Si el rango no varía, solo se repinta
+     * la columna de la vela, y en caso contrario se establece el nuevo rango en la vista. Lo mismo se aplica a cada
+     * panel secundario con su propio rango de valores. Si el tamaño del buffer o su primera vela han cambiado desde la
+     * última actualización, se actualiza la vista completa. La primera vela cambia al añadir nuevas velas a un buffer
+     * que ha alcanzado su tamaño máximo, ya que se descartan velas del principio sin que varíe el tamaño.
+     *
+     * @return True si ha cambiado el rango de precios o de valores, o las velas representadas, o false en caso
+     * contrario.
      */
-    private void setupView() {
-        candleView.addComponentListener(new ComponentAdapter() {
-            @Override
-            public void componentResized(ComponentEvent e) {
-                updateCandleView();
+    public boolean updateLast() {
+        if(buffer.size() != visibleBufferSize
+                || (visibleBufferSize > 0 && buffer.getSequence(0) != visibleBufferSequence)) {
+            updateCandleView();
+            return true;
+        }
+
+        int last = visibleBufferSize - 1;
+        if(last < candleFirst || last >= candleLast) {
+            return false;   // La última vela no está representada en la vista.
+        }
+
+        boolean changed = false;
+        double max = buffer.getHighest(candleFirst, candleLast);
+        double min = buffer.getLowest(candleFirst, candleLast);
+        if(max != maxPrice || min != minPrice) {
+            maxPrice = max;
+            minPrice = min;
+            candleView.setPriceRange(maxPrice, minPrice);
+            changed = true;
+        }
+        else {
+            candleView.repaintCandle(last - candleFirst);
+        }
+
+        for(int i = 0; i < panes.size(); i++) {
+            ChartPane pane = panes.get(i);
+            if(pane.updateValueRange()) {
+                changed = true;
+            }
+            else {
+                pane.repaintCandle(last - candleFirst);
             }
-        });
+        }
+        return changed;
     }
 
 
@@ -186,13 +365,99 @@ public class CandleController {
     }
 
 
+    /**
+     * Actualiza la vista tras desplazar el rango de velas representadas. Si el rango de precios no varía, se indica a
+     * la vista el número de velas desplazadas para que solo dibuje las columnas de las velas que no estaban
+     * representadas, y lo mismo se aplica a cada panel secundario cuyo rango de valores no varía. El desplazamiento se
+     * calcula mediante el número de secuencia de las velas, que no varía al descartar velas del inicio del buffer.
+     */
+    private void scrollCandleView() {
+        boolean scrollable = !candleList.isEmpty() && buffer.size() == visibleBufferSize;
+        long previousFirstSequence = visibleFirstSequence;
+        double previousMaxPrice = maxPrice;
+        double previousMinPrice = minPrice;
+
+        updateCandleList();
+        if(!scrollable || candleList.isEmpty()) {
+            updatePriceRange();
+            return;
+        }
+
+        int shift = (int) (visibleFirstSequence - previousFirstSequence);
+        maxPrice = buffer.getHighest(candleFirst, candleLast);
+        minPrice = buffer.getLowest(candleFirst, candleLast);
+        if(maxPrice == previousMaxPrice && minPrice == previousMinPrice) {
+            candleView.scrollCandles(shift);
+        }
+        else {
+            candleView.setPriceRange(maxPrice, minPrice);
+        }
+
+        for(int i = 0; i < panes.size(); i++) {
+            ChartPane pane = panes.get(i);
+            if(!pane.updateValueRange()) {
+                pane.scrollCandles(shift);
+            }
+        }
+    }
+
+
+    /**
+     * Método auxiliar que establece el tamaño de vela y el número de velas por columna correspondientes al número de
+     * píxeles por vela indicado, sin actualizar la vista. El número de píxeles por vela se guarda sin redondear como
+     * escala de los siguientes pasos de zoom.
+     *
+     * @param pixelsPerCandle Número de píxeles por vela.
+     * @throws IllegalArgumentException Si el número de píxeles por vela no se encuentra entre los valores permitidos.
+     */
+    private void setScale(double pixelsPerCandle) {
+        if(!(pixelsPerCandle >= MIN_PIXELS_PER_CANDLE && pixelsPerCandle <= MAX_PIXELS_PER_CANDLE)) {
+            throw new IllegalArgumentException("El número de píxeles por vela debe estar entre 1/65536 y "
+                    + (int) MAX_PIXELS_PER_CANDLE + ".");
+        }
+
+        scale = pixelsPerCandle;
+        if(pixelsPerCandle >= CandleSize.MIN_RELATIVE_POSITION) {
+            candleSize = CandleSize.of(pixelsPerCandle);
+            candlesPerColumn = 1;
+        }
+        else {
+            candlesPerColumn = (int) Math.round(1 / pixelsPerCandle);
+            if(candlesPerColumn == 1) {
+                candleSize = CandleSize.of(CandleSize.MIN_RELATIVE_POSITION);   // Redondeado a un píxel por vela.
+            }
+        }
+        candleView.setCandleSize(candleSize);
+        candleView.setCandlesPerColumn(candlesPerColumn);
+        for(int i = 0; i < panes.size(); i++) {
+            panes.get(i).setCandleSize(candleSize);
+            panes.get(i).setCandlesPerColumn(candlesPerColumn);
+        }
+    }
+
+
     /**
      * Método que establece la lista de velas que deben ser representadas en la vista.
      */
     private void updateCandleList() {
-        int visibleCandleCount = Math.max(candleView.getWidth() / candleSize.getRelativePosition(), 0);
-        calculateVisibleCandleRange(visibleCandleCount);
-        candleView.setCandleList(candleList);
+        calculateVisibleCandleRange(visibleCandleCount());
+        candleView.setCandleList(candleList, candleFirst);
+        for(int i = 0; i < panes.size(); i++) {
+            panes.get(i).setCandleList(candleList, candleFirst);
+        }
+    }
+
+
+    /**
+     * Método auxiliar que obtiene el número de velas que pueden ser representadas en la vista.
+     *
+     * @return Número de velas que caben en la vista.
+     */
+    private int visibleCandleCount() {
+        if(candlesPerColumn > 1) {
+            return (int) Math.min(Math.max(candleView.getWidth(), 0) * (long) candlesPerColumn, Integer.MAX_VALUE);
+        }
+        return (int) Math.max(candleView.getWidth() / candleSize.getRelativePosition(), 0);
     }
 
 
@@ -202,30 +467,51 @@ public class CandleController {
      */
     private void calculateVisibleCandleRange(int visibleCandleCount) {
         int bufferSize = buffer.size();
+        visibleBufferSize = bufferSize;
+        visibleBufferSequence = bufferSize > 0? buffer.getSequence(0): 0;
         if (bufferSize == 0) {
             currentCandleIndex = 0;
+            candleFirst = 0;
+            candleLast = 0;
+            candleList = buffer.getAll().subList(0, 0);
             return;
         }
         currentCandleIndex = Math.min(currentCandleIndex, bufferSize - 1); // Índice de inicio de las velas a mostrar.
-        int candleLast = bufferSize - 1 - currentCandleIndex;   // Índice de la ultima vela a mostrar (Índice inferior).
-        int candleFirst = Math.max(candleLast - visibleCandleCount, 0); // Índice de la primera vela (Índice superior).
+        candleLast = bufferSize - currentCandleIndex;   // Índice siguiente a la ultima vela a mostrar (Índice inferior).
+        if(candlesPerColumn > 1 && visibleCandleCount > 0) {
+            // Las columnas se alinean según el número de secuencia de las velas a múltiplos de candlesPerColumn, de forma
+            // que no varían al añadir o descartar velas y coinciden con los grupos de la pirámide del buffer.
+            long firstSequence = buffer.getSequence(0);
+            long lastColumn = Math.floorDiv(buffer.getSequence(candleLast - 1), candlesPerColumn) * candlesPerColumn;
+            candleFirst = (int) Math.max(lastColumn - firstSequence - (visibleCandleCount - candlesPerColumn), 0);
+        }
+        else {
+            candleFirst = Math.max(candleLast - visibleCandleCount, 0); // Índice de la primera vela (Índice superior).
+        }
         candleList = buffer.getAll().subList(candleFirst, candleLast);
+        visibleFirstSequence = candleFirst < candleLast? buffer.getSequence(candleFirst): 0;
     }
 
 
     /**
      * Método auxiliar que establece el rango de precio en la vista (candleView). En caso de existir una lista de velas
      * vacía, se establece el rando de precio mínimo y máximo en 0. En caso contrario se establecerá el rango superior
-     * con el mayor valor de precio de la lista y el rango inferior con el rango inferior de la lista.
+     * con el mayor valor de precio de la lista y el rango inferior con el rango inferior de la lista. Los paneles
+     * secundarios ajustan su rango de valores a la nueva lista.
      */
     private void updatePriceRange() {
         if (candleList.isEmpty()) {
             maxPrice = 0;
             minPrice = 0;
         } else {
-            maxPrice = candleList.stream().mapToDouble(Candle::highPrice).max().orElse(DEFAULT_MAX_PRICE);
-            minPrice = candleList.stream().mapToDouble(Candle::lowPrice).min().orElse(DEFAULT_MIN_PRICE);
+            // El buffer resuelve el rango de precios mediante su índice de máximos y mínimos.
+            CandleSeries series = CandleSeries.of(candleList);
+            maxPrice = series.getHighest(0, series.size());
+            minPrice = series.getLowest(0, series.size());
         }
         candleView.setPriceRange(maxPrice, minPrice);
+        for(int i = 0; i < panes.size(); i++) {
+            panes.get(i).updateValueRange();
+        }
     }
 }
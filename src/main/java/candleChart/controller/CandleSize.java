@@ -5,61 +5,112 @@ import java.util.Map;
 
 
 /**
- * Enumeración que representa diferentes tamaños de velas con sus propiedades asociadas.
+ * Clase que representa el tamaño de las velas con sus propiedades asociadas: la distancia en píxeles entre velas
+ * consecutivas y el ancho de cada vela. Además de los cuatro tamaños predefinidos, el método of permite obtener un
+ * tamaño con cualquier distancia entre velas, incluso fraccionaria, lo que permite un zoom continuo.
+ * Las velas se dibujan en la posición entera resultante de multiplicar su índice por la distancia entre velas, de
+ * forma que con distancias fraccionarias la separación entre velas consecutivas varía como mucho en un píxel.
  */
-public enum CandleSize {
+public final class CandleSize {
     /**
      * Vela muy pequeña con un índice de 1, posición relativa de 4 y ancho de 3.
      */
-    VERY_SMALL(1, 4, 3),
+    public static final CandleSize VERY_SMALL = new CandleSize(1, 4);
 
     /**
      * Vela pequeña con un índice de 2, posición relativa de 8 y ancho de 5.
      */
-    SMALL(2, 8, 5),
+    public static final CandleSize SMALL = new CandleSize(2, 8);
 
     /**
      * Vela grande con un índice de 3, posición relativa de 16 y ancho de 11.
      */
-    LARGE(3, 16, 11),
+    public static final CandleSize LARGE = new CandleSize(3, 16);
 
     /**
      * Vela muy grande con un índice de 4, posición relativa de 32 y ancho de 19.
      */
-    VERY_LARGE(4, 32, 19);
+    public static final CandleSize VERY_LARGE = new CandleSize(4, 32);
 
-    private final int index;
-    private final int relativePosition;
-    private final int candleWidth;
+    /**
+     * Posición relativa mínima de las velas, de un píxel por vela.
+     */
+    public static final double MIN_RELATIVE_POSITION = 1;
+
+    /**
+     * Posición relativa máxima de las velas.
+     */
+    public static final double MAX_RELATIVE_POSITION = 64;
 
+    private static final CandleSize[] VALUES = {VERY_SMALL, SMALL, LARGE, VERY_LARGE};
     private static final Map<Integer, CandleSize> INDEX_MAP = new HashMap<>();
 
+    private final int index;
+    private final double relativePosition;
+    private final int candleWidth;
+
     // Bloque estático para inicializar el mapa de índices
     static {
-        for (CandleSize size : CandleSize.values()) {
+        for (CandleSize size : VALUES) {
             INDEX_MAP.put(size.index, size);
         }
     }
 
 
     /**
-     * Constructor para CandleSize.
+     * Constructor para CandleSize. El ancho de la vela es el número impar más cercano al 60% de la posición relativa,
+     * reducido si es necesario para que quede al menos un píxel de separación entre velas.
      *
-     * @param index El índice del tamaño de la vela.
+     * @param index El índice del tamaño de la vela, o 0 si no es un tamaño predefinido.
      * @param relativePosition La posición relativa del tamaño de la vela.
-     * @param candleWidth El ancho del tamaño de la vela.
      */
-    CandleSize(int index, int relativePosition, int candleWidth) {
+    private CandleSize(int index, double relativePosition) {
         this.index = index;
         this.relativePosition = relativePosition;
-        this.candleWidth = candleWidth;
+        int width = (int) Math.round(relativePosition * 0.6) | 1;
+        while(width > 1 && width >= relativePosition) {
+            width -= 2;
+        }
+        this.candleWidth = width;
+    }
+
+
+    /**
+     * Obtiene el tamaño de vela con la posición relativa indicada. Si la posición coincide con la de un tamaño
+     * predefinido se devuelve dicho tamaño.
+     *
+     * @param relativePosition Distancia en píxeles entre velas consecutivas, entre 1 y 64.
+     * @return Tamaño de vela con la posición relativa indicada.
+     * @throws IllegalArgumentException Si la posición relativa no se encuentra entre 1 y 64.
+     */
+    public static CandleSize of(double relativePosition) {
+        if(!(relativePosition >= MIN_RELATIVE_POSITION && relativePosition <= MAX_RELATIVE_POSITION)) {
+            throw new IllegalArgumentException("La posición relativa de la vela debe estar entre "
+                    + (int) MIN_RELATIVE_POSITION + " y " + (int) MAX_RELATIVE_POSITION + ".");
+        }
+        for(CandleSize size: VALUES) {
+            if(size.relativePosition == relativePosition) {
+                return size;
+            }
+        }
+        return new CandleSize(0, relativePosition);
+    }
+
+
+    /**
+     * Obtiene los tamaños de vela predefinidos, ordenados de menor a mayor.
+     *
+     * @return Tamaños de vela predefinidos.
+     */
+    public static CandleSize[] values() {
+        return VALUES.clone();
     }
 
 
     /**
      * Obtiene el índice del tamaño de la vela.
      *
-     * @return El índice del tamaño de la vela.
+     * @return El índice del tamaño de la vela, o 0 si no es un tamaño predefinido.
      */
     public int getIndex() {
         return index;
@@ -67,11 +118,11 @@ public enum CandleSize {
 
 
     /**
-     * Obtiene la posición relativa del tamaño de la vela.
+     * Obtiene la posición relativa del tamaño de la vela, que es la distancia en píxeles entre velas consecutivas.
      *
      * @return La posición relativa del tamaño de la vela.
      */
-    public int getRelativePosition() {
+    public double getRelativePosition() {
         return relativePosition;
     }
 
@@ -86,6 +137,28 @@ public enum CandleSize {
     }
 
 
+    /**
+     * Obtiene la posición en píxeles en el eje X de la vela del índice indicado.
+     *
+     * @param index Índice de la vela.
+     * @return Posición en píxeles en el eje X.
+     */
+    public int positionOf(int index) {
+        return (int) Math.floor(index * relativePosition) - 1;
+    }
+
+
+    /**
+     * Obtiene el índice de la primera vela cuya posición en el eje X es igual o posterior a la indicada.
+     *
+     * @param positionX Posición en el eje X.
+     * @return Índice de la vela, que puede ser negativo si la posición es anterior a la primera vela.
+     */
+    public long firstIndexAt(double positionX) {
+        return (long) Math.ceil((positionX + 1) / relativePosition);
+    }
+
+
     /**
      * Obtiene una instancia de CandleSize por su índice.
      *
@@ -95,4 +168,22 @@ public enum CandleSize {
     public static CandleSize getByIndex(int index) {
         return INDEX_MAP.get(index);
     }
+
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof CandleSize size && size.relativePosition == relativePosition;
+    }
+
+
+    @Override
+    public int hashCode() {
+        return Double.hashCode(relativePosition);
+    }
+
+
+    @Override
+    public String toString() {
+        return "CandleSize[relativePosition=" + relativePosition + ", candleWidth=" + candleWidth + "]";
+    }
 }
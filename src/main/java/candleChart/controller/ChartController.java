@@ -1,17 +1,36 @@
 package candleChart.controller;
 
 import candleChart.data.Buffer;
+import candleChart.data.Indicator;
 import candleChart.view.*;
 import candleChart.view.Cursor;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Clase encargada de controlar y gestionar los componentes y eventos del gráfico de velas.
+ * El gráfico se compone de un panel principal con las velas y de paneles secundarios apilados bajo él (ChartPane), como
+ * los de los osciladores, cada uno con su propia línea de precios y cuadrícula. Todos los paneles comparten la línea de
+ * tiempo, el planificador de fotogramas y la ventana de velas representada, que se calcula una sola vez por fotograma
+ * para todos ellos, al igual que la vela a la que apunta el cursor.
  */
 public class ChartController {
+    // Indicadores de los cambios pendientes de aplicar en el siguiente fotograma.
+    private static final int BUFFER = 1;    // Se ha establecido un nuevo buffer.
+    private static final int CANDLES = 2;   // Deben recalcularse las velas representadas.
+    private static final int LAST = 4;      // Se ha modificado la última vela del buffer.
+    private static final int AXLES = 8;     // Deben actualizarse las líneas de precio y tiempo.
+    private static final int HOVER = 16;    // Se ha movido el cursor del ratón sobre el gráfico.
+
+    private static final double WHEEL_ZOOM_FACTOR = 1.1;    // Factor de zoom por cada paso de la rueda del ratón.
+    private static final double DRAG_ZOOM_PIXELS = 100;     // Píxeles de arrastre para multiplicar el zoom por e.
+    private static final double MAIN_PANE_WEIGHT = 3;       // Proporción de la altura del panel principal.
+    private static final double PANE_WEIGHT = 1;            // Proporción de la altura de cada panel secundario.
+
     private final ChartArea chartArea;
     private final PriceLine priceLine;
     private final TimeLine timeLine;
@@ -20,6 +39,13 @@ public class ChartController {
     private final Grid grid;
     private final CandleView candleView;
     private final CandleController candleController;
+    private final HoverController hoverController;
+    private final FrameScheduler frameScheduler;
+    private final JPanel paneContainer;     // Contenedor de las filas de los paneles, apiladas en vertical.
+    private final List<Pane> panes;         // Paneles del gráfico, empezando por el panel principal.
+    private volatile Buffer pendingBuffer;  // Buffer pendiente de establecer en el siguiente fotograma.
+    private int zoomAnchorX, zoomDragX;     // Anclaje y última posición del arrastre de zoom.
+    private int[] ticksX, ticksY;           // Posiciones de las divisiones de los ejes en la cuadrícula.
 
     /**
      * Constructor de la clase ChartController.
@@ -35,10 +61,15 @@ public class ChartController {
         grid = new Grid();
         candleView = new CandleView();
         candleController = new CandleController(candleView);
-
-        chartArea.add(candleView);
-        chartArea.add(cursor);
-        chartArea.add(grid);
+        hoverController = new HoverController(timeLine, priceLine, cursor, info);
+        frameScheduler = new FrameScheduler(this::applyFrame);
+        ticksX = new int[16];
+        ticksY = new int[64];
+        grid.setSnapToTicks(true);
+        paneContainer = new JPanel(new GridBagLayout());
+        paneContainer.setOpaque(false);
+        panes = new ArrayList<>();
+        panes.add(createPane(candleView, chartArea, priceLine, cursor, grid));
 
         info.addInfo("");
         info.addInfo("");
@@ -48,17 +79,18 @@ public class ChartController {
         jPanel.setBackground(Color.BLACK);
         jPanel.setBorder(BorderFactory.createEmptyBorder(5, 10, 0, 5));
 
-        jPanel.add(chartArea, BorderLayout.CENTER);
+        jPanel.add(paneContainer, BorderLayout.CENTER);
         jPanel.add(timeLine, BorderLayout.SOUTH);
-        jPanel.add(priceLine, BorderLayout.EAST);
         jPanel.add(info, BorderLayout.NORTH);
+        layoutPanes();
 
-        setupMouse();
+        setupMouse(chartArea);
         setupChartListener();
     }
 
     /**
-     * Establece un buffer de datos en el gráfico.
+     * Establece un buffer de datos en el gráfico. El gráfico se actualiza en el siguiente fotograma, por lo que varias
+     * llamadas durante el mismo fotograma solo actualizan el gráfico una vez.
      *
      * @param buffer El buffer de datos a agregar al grafico.
      * @throws NullPointerException En caso de que el buffer sea nulo.
@@ -67,8 +99,8 @@ public class ChartController {
         if(buffer == null) {
             throw new NullPointerException("No se permiten valores nulos para el valor 'buffer'.");
         }
-        candleController.setBuffer(buffer);
-        updateAxles();
+        pendingBuffer = buffer;
+        frameScheduler.request(BUFFER);
     }
 
 
@@ -78,7 +110,164 @@ public class ChartController {
      * @return El buffer de datos del grafico.
      */
     public Buffer getBuffer() {
-        return candleController.getBuffer();
+        Buffer buffer = pendingBuffer;
+        return buffer != null? buffer: candleController.getBuffer();
+    }
+
+
+    /**
+     * Actualiza el gráfico tras reemplazar la última vela del buffer. Solo se repinta la columna de la vela, y las
+     * líneas de precio y tiempo únicamente se actualizan si cambia el rango de precios representado. La actualización
+     * se aplica en el siguiente fotograma, por lo que con una fuente de datos de alta frecuencia la vela se repinta
+     * como mucho una vez por fotograma.
+     */
+    public void updateLast() {
+        frameScheduler.request(LAST);
+    }
+
+
+    /**
+     * Establece el número máximo de fotogramas por segundo con el que se aplican los cambios del gráfico.
+     *
+     * @param maxFrameRate Número máximo de fotogramas por segundo.
+     * @throws IllegalArgumentException Si el número de fotogramas no es positivo.
+     */
+    public void setMaxFrameRate(int maxFrameRate) {
+        frameScheduler.setMaxFrameRate(maxFrameRate);
+    }
+
+
+    /**
+     * Obtiene el número máximo de fotogramas por segundo con el que se aplican los cambios del gráfico.
+     *
+     * @return Número máximo de fotogramas por segundo.
+     */
+    public int getMaxFrameRate() {
+        return frameScheduler.getMaxFrameRate();
+    }
+
+
+    /**
+     * Añade un indicador que será dibujado sobre las velas del gráfico, con la misma escala de precios que las velas.
+     * El indicador debe estar asociado al buffer del gráfico.
+     *
+     * @param indicator Indicador a representar.
+     * @param color Color de las líneas del indicador.
+     * @throws NullPointerException Si el indicador o el color proporcionados son nulos.
+     */
+    public void addIndicator(Indicator indicator, Color color) {
+        candleView.addIndicator(indicator, color);
+    }
+
+
+    /**
+     * Elimina un indicador representado en el gráfico.
+     *
+     * @param indicator Indicador a eliminar.
+     * @return True si el indicador estaba representado, o false en caso contrario.
+     */
+    public boolean removeIndicator(Indicator indicator) {
+        return candleView.removeIndicator(indicator);
+    }
+
+
+    /**
+     * Añade un panel secundario bajo el panel principal del gráfico, con su propia línea de precios y cuadrícula. El
+     * panel representa la misma ventana de velas que el panel principal y comparte con él la línea de tiempo y el
+     * cursor.
+     *
+     * @param pane Panel a añadir.
+     * @throws NullPointerException Si el panel proporcionado es nulo.
+     * @throws IllegalArgumentException Si el panel ya se encuentra en el gráfico.
+     */
+    public void addPane(ChartPane pane) {
+        if(pane == null) {
+            throw new NullPointerException("No se permiten valores nulos para el valor 'pane'.");
+        }
+        if(indexOfPane(pane) >= 0) {
+            throw new IllegalArgumentException("El panel ya se encuentra en el gráfico.");
+        }
+
+        Pane row = createPane(pane, new ChartArea(), new PriceLine(), new Cursor(), new Grid());
+        row.cursor().setVisible(cursor.isVisible());
+        row.grid().setVisible(grid.isVisible());
+        row.grid().setSnapToTicks(grid.isSnapToTicks());
+        panes.add(row);
+        hoverController.addPane(row.priceLine(), row.cursor());
+        candleController.addPane(pane);
+
+        setupMouse(row.area());
+        pane.addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                frameScheduler.request(AXLES);
+            }
+        });
+        layoutPanes();
+        frameScheduler.request(AXLES);
+    }
+
+
+    /**
+     * Añade un panel secundario que representa un indicador con su propia escala de valores, como un oscilador. El
+     * indicador debe estar asociado al buffer del gráfico.
+     *
+     * @param indicator Indicador a representar.
+     * @param color Color de las líneas del indicador.
+     * @return El panel añadido, al que pueden añadirse otros indicadores.
+     * @throws NullPointerException Si el indicador o el color proporcionados son nulos.
+     */
+    public IndicatorPane addIndicatorPane(Indicator indicator, Color color) {
+        IndicatorPane pane = new IndicatorPane(indicator, color);
+        addPane(pane);
+        return pane;
+    }
+
+
+    /**
+     * Añade un panel secundario que representa el volumen de las velas como un histograma.
+     *
+     * @return El panel añadido.
+     */
+    public VolumePane addVolumePane() {
+        VolumePane pane = new VolumePane();
+        addPane(pane);
+        return pane;
+    }
+
+
+    /**
+     * Elimina un panel secundario del gráfico.
+     *
+     * @param pane Panel a eliminar.
+     * @return True si el panel se encontraba en el gráfico, o false en caso contrario.
+     */
+    public boolean removePane(ChartPane pane) {
+        int index = indexOfPane(pane);
+        if(index < 1) {
+            return false;   // El panel principal no puede eliminarse.
+        }
+
+        panes.remove(index);
+        hoverController.removePane(index);
+        candleController.removePane(pane);
+        layoutPanes();
+        frameScheduler.request(AXLES);
+        return true;
+    }
+
+
+    /**
+     * Obtiene los paneles secundarios del gráfico, en el orden en que se muestran bajo el panel principal.
+     *
+     * @return Lista de los paneles secundarios.
+     */
+    public List<ChartPane> getPanes() {
+        List<ChartPane> list = new ArrayList<>();
+        for(int i = 1; i < panes.size(); i++) {
+            list.add(panes.get(i).view());
+        }
+        return list;
     }
 
 
@@ -89,7 +278,9 @@ public class ChartController {
      * @param visibility Visibilidad de la cuadrícula.
      */
     public void setGridVisible(boolean visibility) {
-        grid.setVisible(visibility);
+        for(Pane pane: panes) {
+            pane.grid().setVisible(visibility);
+        }
     }
 
 
@@ -104,6 +295,29 @@ public class ChartController {
     }
 
 
+    /**
+     * Establece si las líneas de la cuadrícula se ajustan a las divisiones de las líneas de tiempo y precio (valor por
+     * defecto), o si se dibujan con una separación fija.
+     *
+     * @param snapToAxes True para ajustar la cuadrícula a las divisiones de los ejes, o false en caso contrario.
+     */
+    public void setGridSnapToAxes(boolean snapToAxes) {
+        for(Pane pane: panes) {
+            pane.grid().setSnapToTicks(snapToAxes);
+        }
+    }
+
+
+    /**
+     * Indica si las líneas de la cuadrícula se ajustan a las divisiones de las líneas de tiempo y precio.
+     *
+     * @return True si la cuadrícula se ajusta a las divisiones de los ejes, o false en caso contrario.
+     */
+    public boolean isGridSnapToAxes() {
+        return grid.isSnapToTicks();
+    }
+
+
     /**
      * Establece la visibilidad de las líneas del cursor en el gráfico. En caso de establecer visibility como true,
      * las líneas del cursor serán mostradas en el gráfico. En caso de ser false esta no se mostrarán.
@@ -111,7 +325,9 @@ public class ChartController {
      * @param visibility Visibilidad de las líneas del cursor.
      */
     public void setCursorVisible(boolean visibility) {
-        cursor.setVisible(visibility);
+        for(Pane pane: panes) {
+            pane.cursor().setVisible(visibility);
+        }
     }
 
 
@@ -137,7 +353,7 @@ public class ChartController {
             throw new NullPointerException("La propiedad 'candleSize' no puede ser nula");
         }
         candleController.setCandleSize(candleSize);
-        updateAxles();
+        frameScheduler.request(AXLES);
     }
 
 
@@ -151,11 +367,78 @@ public class ChartController {
     }
 
 
+    /**
+     * Establece el número de velas agrupadas en cada columna de un píxel del gráfico. Con el valor 1 las velas se
+     * dibujan con el tamaño de vela establecido, y con valores mayores el gráfico se representa en modo de nivel de
+     * detalle, pudiendo alejarse mucho más que con el menor tamaño de vela.
+     *
+     * @param candlesPerColumn Número de velas por columna.
+     * @throws IllegalArgumentException Si el número de velas por columna no es positivo.
+     */
+    public void setCandlesPerColumn(int candlesPerColumn) {
+        if(candlesPerColumn < 1) {
+            throw new IllegalArgumentException("El número de velas por columna debe ser un valor positivo.");
+        }
+        candleController.setCandlesPerColumn(candlesPerColumn);
+        frameScheduler.request(AXLES);
+    }
+
+
+    /**
+     * Obtiene el número de velas agrupadas en cada columna de un píxel del gráfico.
+     *
+     * @return Número de velas por columna.
+     */
+    public int getCandlesPerColumn() {
+        return candleController.getCandlesPerColumn();
+    }
+
+
+    /**
+     * Establece la escala horizontal del gráfico como número de píxeles por vela, que puede ser fraccionario. Con un
+     * píxel o más por vela las velas se dibujan con el tamaño de vela correspondiente, y con menos de un píxel por vela
+     * el gráfico se representa en modo de nivel de detalle.
+     *
+     * @param pixelsPerCandle Número de píxeles por vela, entre 1/65536 y 64.
+     * @throws IllegalArgumentException Si el número de píxeles por vela no se encuentra entre los valores permitidos.
+     */
+    public void setPixelsPerCandle(double pixelsPerCandle) {
+        candleController.setPixelsPerCandle(pixelsPerCandle);
+        frameScheduler.request(AXLES);
+    }
+
+
+    /**
+     * Obtiene la escala horizontal del gráfico como número de píxeles por vela.
+     *
+     * @return Número de píxeles por vela.
+     */
+    public double getPixelsPerCandle() {
+        return candleController.getPixelsPerCandle();
+    }
+
+
+    /**
+     * Multiplica la escala horizontal del gráfico por el factor indicado, manteniendo en la misma posición la vela
+     * situada en la posición de anclaje. Es la operación que realizan la rueda del ratón y el arrastre con el botón
+     * derecho sobre el gráfico, con el anclaje en la posición del puntero.
+     *
+     * @param factor Factor de zoom, mayor que 1 para acercar y menor que 1 para alejar.
+     * @param anchorX Posición de anclaje en el eje X del gráfico.
+     * @throws IllegalArgumentException Si el factor de zoom no es un valor positivo.
+     */
+    public void zoom(double factor, int anchorX) {
+        candleController.zoom(factor, anchorX);
+        frameScheduler.request(AXLES);
+    }
+
+
     /**
      * Avanza un paso en la representación del gráfico siempre que no haya llegado al principio de este.
      */
     public void advance() {
         candleController.advance();
+        frameScheduler.request(AXLES);
     }
 
 
@@ -170,6 +453,7 @@ public class ChartController {
             throw new IllegalArgumentException("No se permiten valores negativos para la propiedad 'steps'.");
         }
         candleController.advance(steps);
+        frameScheduler.request(AXLES);
     }
 
 
@@ -178,6 +462,7 @@ public class ChartController {
      */
     public void retrieve() {
         candleController.retrieve();
+        frameScheduler.request(AXLES);
     }
 
 
@@ -192,6 +477,7 @@ public class ChartController {
             throw new IllegalArgumentException("No se permiten valores negativos para la propiedad 'steps'.");
         }
         candleController.retrieve(steps);
+        frameScheduler.request(AXLES);
     }
 
 
@@ -216,21 +502,253 @@ public class ChartController {
 
 
     /**
-     * Método auxiliar que actualiza las líneas de tiempo y precio.
+     * Establece el formato de los precios del gráfico según el tamaño del tick y el número de decimales del símbolo
+     * representado.
+     *
+     * @param tickSize Variación mínima del precio del símbolo.
+     * @param decimals Número de decimales con los que se muestran los precios.
+     * @throws IllegalArgumentException Si el tamaño del tick no es positivo o el número de decimales no es válido.
+     */
+    public void setPriceFormat(double tickSize, int decimals) {
+        priceLine.setPriceFormat(tickSize, decimals);
+    }
+
+
+    /**
+     * Obtiene el tamaño del tick con el que se formatean los precios del gráfico.
+     *
+     * @return Tamaño del tick.
+     */
+    public double getTickSize() {
+        return priceLine.getTickSize();
+    }
+
+
+    /**
+     * Obtiene el número de decimales con los que se muestran los precios del gráfico.
+     *
+     * @return Número de decimales.
+     */
+    public int getPriceDecimals() {
+        return priceLine.getPriceDecimals();
+    }
+
+
+    /**
+     * Método auxiliar que aplica los cambios pendientes en cada fotograma. El buffer o las velas representadas se
+     * recalculan una sola vez, y las líneas de tiempo y precio solo se actualizan si ha cambiado lo representado. El
+     * cursor se actualiza con su última posición si se ha movido o si ha cambiado la vela a la que apunta.
+     *
+     * @param flags Indicadores de los cambios pendientes.
+     */
+    private void applyFrame(int flags) {
+        boolean axles = (flags & AXLES) != 0;
+        Buffer buffer = pendingBuffer;
+        if(buffer != null) {
+            pendingBuffer = null;
+            candleController.setBuffer(buffer);
+            axles = true;
+        }
+        else if((flags & CANDLES) != 0) {
+            candleController.update();
+            axles = true;
+        }
+        else if((flags & LAST) != 0) {
+            axles |= candleController.updateLast();
+        }
+
+        if(axles) {
+            updateAxles();
+        }
+        if((flags & HOVER) != 0 || (axles && hoverController.isVisible())) {
+            hoverController.apply();
+        }
+    }
+
+
+    /**
+     * Método auxiliar que actualiza las líneas de tiempo y precio. La línea de precios de cada panel secundario
+     * representa el rango de valores del panel.
      */
     private void updateAxles() {
         priceLine.setPriceRange(candleController.getMaxPrice(), candleController.getMinPrice());
-        timeLine.setCandleList(candleView.getCandleList());
+        for(int i = 1; i < panes.size(); i++) {
+            Pane pane = panes.get(i);
+            pane.priceLine().setPriceRange(pane.view().getRangeUp(), pane.view().getRangeDown());
+        }
         timeLine.setCandleSize(candleController.getCandleSize());
+        timeLine.setCandlesPerColumn(candleController.getCandlesPerColumn());
+        timeLine.setCandleList(candleView.getCandleList());
+        updateGridTicks();
+    }
+
+
+    /**
+     * Método auxiliar que establece en la cuadrícula de cada panel las posiciones de las divisiones de la línea de
+     * tiempo y de su línea de precios, convertidas a coordenadas de la cuadrícula. Las filas de los paneles están
+     * alineadas horizontalmente, por lo que las divisiones de la línea de tiempo se convierten una sola vez. Cada
+     * cuadrícula solo se vuelve a dibujar si sus posiciones cambian.
+     */
+    private void updateGridTicks() {
+        int offsetX = locationX(timeLine) - locationX(grid);
+        int ticksXCount = timeLine.getTickCount();
+        if(ticksX.length < ticksXCount) {
+            ticksX = new int[Math.max(ticksXCount, ticksX.length * 2)];
+        }
+        for(int i = 0; i < ticksXCount; i++) {
+            ticksX[i] = timeLine.getTickPosition(i) + offsetX;
+        }
+
+        for(int p = 0; p < panes.size(); p++) {
+            Pane pane = panes.get(p);
+            int offsetY = locationY(pane.priceLine()) - locationY(pane.grid());
+            int ticksYCount = pane.priceLine().getTickCount();
+            if(ticksY.length < ticksYCount) {
+                ticksY = new int[Math.max(ticksYCount, ticksY.length * 2)];
+            }
+            for(int i = 0; i < ticksYCount; i++) {
+                ticksY[i] = pane.priceLine().getTickPosition(i) + offsetY;
+            }
+            pane.grid().setTicks(ticksX, ticksXCount, ticksY, ticksYCount);
+        }
     }
 
 
     /**
-     * Establece la configuración de los oyentes del ratón.
+     * Método auxiliar que obtiene la posición en el eje X de un componente respecto a la raíz de su jerarquía.
+     *
+     * @param component Componente.
+     * @return Posición del componente en el eje X.
      */
-    private void setupMouse() {
+    private static int locationX(Component component) {
+        int x = 0;
+        for(Component c = component; c != null; c = c.getParent()) {
+            x += c.getX();
+        }
+        return x;
+    }
+
+
+    /**
+     * Método auxiliar que obtiene la posición en el eje Y de un componente respecto a la raíz de su jerarquía.
+     *
+     * @param component Componente.
+     * @return Posición del componente en el eje Y.
+     */
+    private static int locationY(Component component) {
+        int y = 0;
+        for(Component c = component; c != null; c = c.getParent()) {
+            y += c.getY();
+        }
+        return y;
+    }
+
+
+    /**
+     * Método auxiliar que crea la fila de un panel, con el área del panel a la izquierda y su línea de precios a la
+     * derecha. El área superpone el panel, el cursor y la cuadrícula.
+     *
+     * @param view Vista del panel.
+     * @param area Área del panel.
+     * @param priceLine Línea de precios del panel.
+     * @param cursor Cursor del panel.
+     * @param grid Cuadrícula del panel.
+     * @return Componentes del panel.
+     */
+    private static Pane createPane(ChartPane view, ChartArea area, PriceLine priceLine, Cursor cursor, Grid grid) {
+        area.add(view);
+        area.add(cursor);
+        area.add(grid);
+
+        JPanel row = new JPanel(new BorderLayout());
+        row.setOpaque(false);
+        row.setPreferredSize(new Dimension(0, 0));  // La altura de las filas solo depende de su proporción.
+        row.setMinimumSize(new Dimension(0, 0));
+        row.add(area, BorderLayout.CENTER);
+        row.add(priceLine, BorderLayout.EAST);
+        return new Pane(view, area, priceLine, cursor, grid, row);
+    }
+
+
+    /**
+     * Método auxiliar que apila las filas de los paneles en su contenedor, con el panel principal en la parte superior.
+     */
+    private void layoutPanes() {
+        paneContainer.removeAll();
+        GridBagConstraints constraints = new GridBagConstraints();
+        constraints.gridx = 0;
+        constraints.fill = GridBagConstraints.BOTH;
+        constraints.weightx = 1;
+        for(int i = 0; i < panes.size(); i++) {
+            constraints.gridy = i;
+            constraints.weighty = i == 0? MAIN_PANE_WEIGHT: PANE_WEIGHT;
+            paneContainer.add(panes.get(i).row(), constraints);
+        }
+        paneContainer.revalidate();
+        paneContainer.repaint();
+    }
+
+
+    /**
+     * Método auxiliar que obtiene la posición de un panel en la lista de paneles del gráfico.
+     *
+     * @param view Vista del panel.
+     * @return Posición del panel, o -1 si no se encuentra en el gráfico.
+     */
+    private int indexOfPane(ChartPane view) {
+        for(int i = 0; i < panes.size(); i++) {
+            if(panes.get(i).view() == view) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+
+    /**
+     * Método auxiliar que obtiene la posición del panel de un área en la lista de paneles del gráfico.
+     *
+     * @param area Área del panel.
+     * @return Posición del panel, o -1 si el área no pertenece a ningún panel del gráfico.
+     */
+    private int indexOfArea(Component area) {
+        for(int i = 0; i < panes.size(); i++) {
+            if(panes.get(i).area() == area) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+
+    /**
+     * Establece la configuración de los oyentes del ratón. Los eventos del ratón solo guardan la posición del cursor,
+     * que se aplica en el siguiente fotograma, por lo que varios movimientos durante el mismo fotograma solo
+     * actualizan el cursor una vez. La rueda del ratón y el arrastre con el botón derecho modifican el zoom del
+     * gráfico, anclado en la posición del puntero. Todos los paneles comparten el eje X, por lo que la posición del
+     * puntero es válida para cualquiera de ellos.
+     *
+     * @param chartArea Área del panel cuyos eventos se atienden.
+     */
+    private void setupMouse(ChartArea chartArea) {
+        chartArea.addMouseWheelListener(e -> zoom(Math.pow(WHEEL_ZOOM_FACTOR, -e.getPreciseWheelRotation()), e.getX()));
+
         chartArea.addMouseListener(new MouseAdapter() {
 
+            /**
+             * Al pulsar el botón derecho se guarda la posición del puntero como anclaje del arrastre de zoom.
+             *
+             * @param e Evento del ratón.
+             */
+            @Override
+            public void mousePressed(MouseEvent e) {
+                super.mousePressed(e);
+                if(SwingUtilities.isRightMouseButton(e)) {
+                    zoomAnchorX = e.getX();
+                    zoomDragX = e.getX();
+                }
+            }
+
             /**
              * Cuando el ratón sale del gráfico, los elementos del cursor, precio y fecha a la que apunta el cursor e
              * información de la vela, son ocultados.
@@ -240,10 +758,8 @@ public class ChartController {
             @Override
             public void mouseExited(MouseEvent e) {
                 super.mouseExited(e);
-                timeLine.setCursorVisible(false);
-                priceLine.setCursorVisible(false);
-                cursor.setCursorVisible(false);
-                info.setVisibilityInfo(1, false);
+                hoverController.exit();
+                frameScheduler.request(HOVER);
             }
         });
 
@@ -258,22 +774,18 @@ public class ChartController {
             @Override
             public void mouseMoved(MouseEvent e) {
                 super.mouseMoved(e);
-                timeLine.setCursorLocation(e.getX());
-                timeLine.setCursorVisible(true);
-                priceLine.setCursorLocation(e.getY());
-                priceLine.setCursorVisible(true);
-                cursor.setCursorLocation(e.getX()-1, e.getY()-1);
-                cursor.setCursorVisible(true);
-
-                String strInfo = timeLine.getCandleFromCursor() != null? timeLine.getCandleFromCursor().toString(): "";
-                info.updateInfo(1, strInfo);
-                info.setVisibilityInfo(1, true);
+                int pane = indexOfArea(chartArea);
+                if(pane >= 0) {
+                    hoverController.move(pane, e.getX(), e.getY());
+                    frameScheduler.request(HOVER);
+                }
             }
 
 
             /**
              * Si el ratón abandona el gráfico mientras se mantiene pulsado el botón, los elementos del ratón son
              * ocultados, y si vuelve a entrar mientras sigue pulsado el botón se vuelven a mostrar estos elementos.
+             * Con el botón derecho pulsado, el arrastre horizontal modifica además el zoom del gráfico.
              *
              * @param e Evento del ratón.
              */
@@ -281,17 +793,17 @@ public class ChartController {
             public void mouseDragged(MouseEvent e) {
                 super.mouseDragged(e);
 
-                if (e.getX() > 0 && e.getY() > 0 && e.getX() < chartArea.getWidth() && e.getY() < chartArea.getHeight()) {
-                    timeLine.setCursorLocation(e.getX());
-                    timeLine.setCursorVisible(true);
-                    priceLine.setCursorLocation(e.getY());
-                    priceLine.setCursorVisible(true);
-                    cursor.setCursorLocation(e.getX()-1, e.getY()-1);
-                    cursor.setCursorVisible(true);
-
-                    String strInfo = timeLine.getCandleFromCursor() != null? timeLine.getCandleFromCursor().toString(): "";
-                    info.updateInfo(1, strInfo);
-                    info.setVisibilityInfo(1, true);
+                // Arrastrar con el botón derecho hacia la derecha acerca el gráfico y hacia la izquierda lo aleja.
+                if(SwingUtilities.isRightMouseButton(e) && e.getX() != zoomDragX) {
+                    zoom(Math.exp((e.getX() - zoomDragX) / DRAG_ZOOM_PIXELS), zoomAnchorX);
+                    zoomDragX = e.getX();
+                }
+
+                int pane = indexOfArea(chartArea);
+                if (pane >= 0 && e.getX() > 0 && e.getY() > 0 && e.getX() < chartArea.getWidth()
+                        && e.getY() < chartArea.getHeight()) {
+                    hoverController.move(pane, e.getX(), e.getY());
+                    frameScheduler.request(HOVER);
                 }
             }
         });
@@ -299,14 +811,29 @@ public class ChartController {
 
 
     /**
-     * Establece la configuración del oyente de redimensionado del gráfico.
+     * Establece la configuración del oyente de redimensionado del gráfico. Las velas representadas y las líneas de
+     * tiempo y precio se actualizan en el siguiente fotograma.
      */
     private void setupChartListener() {
         candleView.addComponentListener(new ComponentAdapter() {
             @Override
             public void componentResized(ComponentEvent e) {
-                updateAxles();
+                frameScheduler.request(CANDLES | AXLES);
             }
         });
     }
+
+
+    /**
+     * Componentes de un panel del gráfico.
+     *
+     * @param view Vista del panel.
+     * @param area Área que superpone la vista, el cursor y la cuadrícula.
+     * @param priceLine Línea de precios del panel.
+     * @param cursor Cursor del panel.
+     * @param grid Cuadrícula del panel.
+     * @param row Fila que contiene el área y la línea de precios.
+     */
+    private record Pane(ChartPane view, ChartArea area, PriceLine priceLine, Cursor cursor, Grid grid, JPanel row) {
+    }
 }
@@ -0,0 +1,113 @@
+package candleChart.controller;
+
+import javax.swing.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+
+/**
+ * Planificador de fotogramas del gráfico. Los cambios del gráfico no se aplican en el momento en que se producen, sino
+ * que se marcan como pendientes mediante indicadores, y se aplican todos juntos una sola vez por fotograma en el hilo
+ * de eventos de Swing. La frecuencia de los fotogramas se limita a la tasa máxima establecida, por lo que cuando los
+ * datos se actualizan con una frecuencia mayor, el coste del pintado depende de la tasa de fotogramas y no del número
+ * de actualizaciones.
+ * Los cambios pueden marcarse como pendientes desde cualquier hilo.
+ */
+class FrameScheduler {
+    private static final int DEFAULT_MAX_FRAME_RATE = 60;
+
+    private final IntConsumer frame;
+    private final AtomicInteger pending;    // Indicadores de los cambios pendientes de aplicar.
+    private final Timer timer;
+    private volatile int maxFrameRate;
+    private volatile long lastFrame;        // Instante del último fotograma, en nanosegundos.
+
+
+    /**
+     * Constructor de la clase FrameScheduler.
+     *
+     * @param frame Acción que aplica los cambios pendientes, y que recibe los indicadores de los cambios.
+     */
+    FrameScheduler(IntConsumer frame) {
+        this.frame = frame;
+        pending = new AtomicInteger();
+        maxFrameRate = DEFAULT_MAX_FRAME_RATE;
+        lastFrame = System.nanoTime() - frameInterval();
+
+        timer = new Timer(0, e -> runFrame());
+        timer.setRepeats(false);
+    }
+
+
+    /**
+     * Marca como pendientes los cambios indicados. Si no había cambios pendientes se planifica un fotograma, que se
+     * ejecuta en cuanto haya transcurrido el intervalo mínimo entre fotogramas desde el anterior.
+     *
+     * @param flags Indicadores de los cambios.
+     */
+    void request(int flags) {
+        if(flags != 0 && pending.getAndUpdate(value -> value | flags) == 0) {
+            long delay = Math.max(lastFrame + frameInterval() - System.nanoTime(), 0);
+            timer.setInitialDelay((int) TimeUnit.NANOSECONDS.toMillis(delay));
+            timer.restart();
+        }
+    }
+
+
+    /**
+     * Aplica inmediatamente los cambios pendientes, en caso de haberlos. Debe llamarse desde el hilo de eventos de
+     * Swing.
+     */
+    void runFrame() {
+        int flags = pending.getAndSet(0);
+        if(flags != 0) {
+            lastFrame = System.nanoTime();
+            frame.accept(flags);
+        }
+    }
+
+
+    /**
+     * Indica si hay cambios pendientes de aplicar.
+     *
+     * @return True si hay cambios pendientes, o false en caso contrario.
+     */
+    boolean isPending() {
+        return pending.get() != 0;
+    }
+
+
+    /**
+     * Establece el número máximo de fotogramas por segundo.
+     *
+     * @param maxFrameRate Número máximo de fotogramas por segundo.
+     * @throws IllegalArgumentException Si el número de fotogramas no es positivo.
+     */
+    void setMaxFrameRate(int maxFrameRate) {
+        if(maxFrameRate < 1) {
+            throw new IllegalArgumentException("La tasa máxima de fotogramas debe ser un valor positivo.");
+        }
+        this.maxFrameRate = maxFrameRate;
+    }
+
+
+    /**
+     * Obtiene el número máximo de fotogramas por segundo.
+     *
+     * @return Número máximo de fotogramas por segundo.
+     */
+    int getMaxFrameRate() {
+        return maxFrameRate;
+    }
+
+
+    /**
+     * Método auxiliar que obtiene el intervalo mínimo entre fotogramas.
+     *
+     * @return Intervalo mínimo entre fotogramas, en nanosegundos.
+     */
+    private long frameInterval() {
+        return TimeUnit.SECONDS.toNanos(1) / maxFrameRate;
+    }
+}
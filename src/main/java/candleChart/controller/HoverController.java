@@ -0,0 +1,238 @@
+package candleChart.controller;
+
+import candleChart.data.CandleSeries;
+import candleChart.model.Candle;
+import candleChart.view.Cursor;
+import candleChart.view.Info;
+import candleChart.view.PriceLine;
+import candleChart.view.TimeLine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Controlador del cursor del ratón sobre el gráfico. Los eventos del ratón solo guardan la última posición del cursor,
+ * y el cursor, las líneas de tiempo y precio y la información de la vela se actualizan una sola vez por fotograma con
+ * la última posición, independientemente del número de eventos recibidos.
+ * Los textos de la información de las velas se guardan en una caché de tamaño fijo indexada por el número de secuencia
+ * de la vela, junto con los valores de la vela, de forma que al mover el cursor sobre velas ya visitadas no se crea
+ * ningún objeto, aunque se haya desplazado el gráfico. En el modo de nivel de detalle la caché se indexa por columna,
+ * ya que el cursor solo apunta a la primera vela de cada columna.
+ * El gráfico puede tener varios paneles apilados que comparten la línea de tiempo. La vela a la que apunta el cursor se
+ * obtiene una sola vez para todos ellos, todos los paneles muestran la línea vertical del cursor, y solo el panel sobre
+ * el que se encuentra el ratón muestra la línea horizontal y el valor en su línea de precios.
+ */
+class HoverController {
+    private static final int INFO_INDEX = 1;    // Posición de la información de la vela en el panel de información.
+    private static final int CACHE_SIZE = 256;  // Debe ser potencia de dos.
+
+    private final TimeLine timeLine;
+    private final List<PriceLine> priceLines;   // Líneas de precios de cada panel, empezando por el principal.
+    private final List<Cursor> cursors;         // Cursores de cada panel, empezando por el principal.
+    private final Info info;
+
+    private int pane;                   // Panel sobre el que se encuentra el cursor.
+    private int locationX, locationY;   // Última posición del cursor.
+    private boolean visible;            // Indica si el cursor se encuentra sobre el gráfico.
+
+    private String infoText;            // Texto de información que se está mostrando.
+    private List<Candle> candleList;    // Lista de velas representada en la línea de tiempo.
+    private CandleSeries candleSeries;  // Lista de velas accedida por columnas.
+
+    // Textos de información guardados por número de secuencia, junto con los valores de la vela que representan.
+    private final String[] cachedInfo;
+    private final long[] cachedSequences, cachedTimes;
+    private final double[] cachedOpens, cachedHighs, cachedLows, cachedCloses, cachedVolumes;
+
+
+    /**
+     * Constructor de la clase HoverController.
+     *
+     * @param timeLine Línea de tiempo del gráfico.
+     * @param priceLine Línea de precio del panel principal del gráfico.
+     * @param cursor Cursor del panel principal del gráfico.
+     * @param info Panel de información del gráfico.
+     */
+    HoverController(TimeLine timeLine, PriceLine priceLine, Cursor cursor, Info info) {
+        this.timeLine = timeLine;
+        this.info = info;
+        priceLines = new ArrayList<>();
+        cursors = new ArrayList<>();
+        addPane(priceLine, cursor);
+
+        cachedInfo = new String[CACHE_SIZE];
+        cachedSequences = new long[CACHE_SIZE];
+        cachedTimes = new long[CACHE_SIZE];
+        cachedOpens = new double[CACHE_SIZE];
+        cachedHighs = new double[CACHE_SIZE];
+        cachedLows = new double[CACHE_SIZE];
+        cachedCloses = new double[CACHE_SIZE];
+        cachedVolumes = new double[CACHE_SIZE];
+    }
+
+
+    /**
+     * Añade un panel secundario al final de los paneles del gráfico.
+     *
+     * @param priceLine Línea de precio del panel.
+     * @param cursor Cursor del panel.
+     */
+    void addPane(PriceLine priceLine, Cursor cursor) {
+        priceLines.add(priceLine);
+        cursors.add(cursor);
+    }
+
+
+    /**
+     * Elimina un panel secundario, ocultando su cursor.
+     *
+     * @param index Posición del panel, siendo 0 el panel principal.
+     */
+    void removePane(int index) {
+        priceLines.remove(index).setCursorVisible(false);
+        cursors.remove(index).setCursorVisible(false);
+        if(pane == index) {
+            visible = false;
+        }
+        else if(pane > index) {
+            pane--;
+        }
+    }
+
+
+    /**
+     * Guarda la posición del cursor sobre el panel principal del gráfico. Los componentes no se actualizan hasta
+     * llamar al método apply.
+     *
+     * @param x Posición del cursor en el eje X.
+     * @param y Posición del cursor en el eje Y.
+     */
+    void move(int x, int y) {
+        move(0, x, y);
+    }
+
+
+    /**
+     * Guarda la posición del cursor sobre un panel del gráfico. Los componentes no se actualizan hasta llamar al
+     * método apply.
+     *
+     * @param pane Posición del panel, siendo 0 el panel principal.
+     * @param x Posición del cursor en el eje X.
+     * @param y Posición del cursor en el eje Y del panel.
+     */
+    void move(int pane, int x, int y) {
+        this.pane = pane;
+        locationX = x;
+        locationY = y;
+        visible = true;
+    }
+
+
+    /**
+     * Indica que el cursor ha salido del gráfico. Los componentes no se actualizan hasta llamar al método apply.
+     */
+    void exit() {
+        visible = false;
+    }
+
+
+    /**
+     * Indica si el cursor se encuentra sobre el gráfico.
+     *
+     * @return True si el cursor se encuentra sobre el gráfico, o false en caso contrario.
+     */
+    boolean isVisible() {
+        return visible;
+    }
+
+
+    /**
+     * Actualiza el cursor, las líneas de tiempo y precio y la información de la vela con la última posición del
+     * cursor. Debe llamarse desde el hilo de eventos de Swing.
+     */
+    void apply() {
+        if(!visible) {
+            timeLine.setCursorVisible(false);
+            for(int i = 0; i < cursors.size(); i++) {
+                priceLines.get(i).setCursorVisible(false);
+                cursors.get(i).setCursorVisible(false);
+            }
+            info.setVisibilityInfo(INFO_INDEX, false);
+            return;
+        }
+
+        timeLine.setCursorLocation(locationX);
+        timeLine.setCursorVisible(true);
+        for(int i = 0; i < cursors.size(); i++) {
+            PriceLine priceLine = priceLines.get(i);
+            Cursor cursor = cursors.get(i);
+            if(i == pane) {
+                priceLine.setCursorLocation(locationY);
+                priceLine.setCursorVisible(true);
+                cursor.setHorizontalLineVisible(true);
+                cursor.setCursorLocation(locationX - 1, locationY - 1);
+            }
+            else {
+                if(priceLine.isCursorVisible()) {
+                    priceLine.setCursorVisible(false);
+                }
+                cursor.setHorizontalLineVisible(false);
+                cursor.setCursorLocation(locationX - 1, cursor.getLocationY());
+            }
+            if(!cursor.isCursorVisible()) {
+                cursor.setCursorVisible(true);
+            }
+        }
+
+        String text = candleInfo(timeLine.getCandleIndexFromCursor());
+        if(text != infoText) {
+            info.updateInfo(INFO_INDEX, text);
+            infoText = text;
+        }
+        info.setVisibilityInfo(INFO_INDEX, true);
+    }
+
+
+    /**
+     * Método auxiliar que obtiene el texto de información de una vela, reutilizando el texto guardado para su número
+     * de secuencia si la vela no ha cambiado desde que se creó.
+     *
+     * @param index Índice de la vela en la lista de velas representadas, o -1 si el cursor no apunta a ninguna vela.
+     * @return Texto de información de la vela.
+     */
+    private String candleInfo(int index) {
+        if(index < 0) {
+            return "";
+        }
+
+        if(timeLine.getCandleList() != candleList) {
+            candleList = timeLine.getCandleList();
+            candleSeries = CandleSeries.of(candleList);
+        }
+
+        // Las columnas del modo de nivel de detalle están alineadas a múltiplos de candlesPerColumn, por lo que las
+        // velas a las que apunta el cursor ocupan posiciones consecutivas de la caché.
+        long sequence = candleSeries.getSequence(index);
+        int slot = (int) Math.floorDiv(sequence, timeLine.getCandlesPerColumn()) & (CACHE_SIZE - 1);
+        long time = candleSeries.getTime(index);
+        double open = candleSeries.getOpen(index);
+        double high = candleSeries.getHigh(index);
+        double low = candleSeries.getLow(index);
+        double close = candleSeries.getClose(index);
+        double volume = candleSeries.getVolume(index);
+        if(cachedInfo[slot] == null || cachedSequences[slot] != sequence || cachedTimes[slot] != time
+                || cachedOpens[slot] != open || cachedHighs[slot] != high || cachedLows[slot] != low
+                || cachedCloses[slot] != close || cachedVolumes[slot] != volume) {
+            cachedInfo[slot] = candleList.get(index).toString();
+            cachedSequences[slot] = sequence;
+            cachedTimes[slot] = time;
+            cachedOpens[slot] = open;
+            cachedHighs[slot] = high;
+            cachedLows[slot] = low;
+            cachedCloses[slot] = close;
+            cachedVolumes[slot] = volume;
+        }
+        return cachedInfo[slot];
+    }
+}
@@ -0,0 +1,105 @@
+package candleChart.data;
+
+
+/**
+ * Rango verdadero medio (ATR) de las velas. El rango verdadero de una vela es la mayor distancia entre su máximo, su
+ * mínimo y el cierre de la vela anterior, y se promedia con el suavizado de Wilder: el primer valor es la media simple
+ * de los rangos del periodo, y cada valor posterior se calcula con un coste constante a partir del anterior.
+ * En el recálculo completo los rangos verdaderos de todas las velas se calculan a la vez sobre las columnas del buffer
+ * (IndicatorKernels.trueRange), y solo el suavizado, que depende del valor anterior, se calcula vela a vela.
+ */
+public class AverageTrueRange extends Indicator {
+    private double previousClose;   // Precio de cierre de la última vela cerrada.
+    private double average;         // Rango medio de las velas cerradas, o su suma mientras no se completa el periodo.
+    private long count;             // Número de velas cerradas procesadas.
+
+    private double[] highs;         // Arrays auxiliares del recálculo completo.
+    private double[] lows;
+    private double[] closes;
+    private double[] ranges;
+
+
+    /**
+     * Constructor de la clase AverageTrueRange.
+     *
+     * @param period Número de velas de la media.
+     * @throws IllegalArgumentException Si el periodo no es positivo.
+     */
+    public AverageTrueRange(int period) {
+        super(1, period);
+    }
+
+
+    @Override
+    void reset() {
+        previousClose = 0;
+        average = 0;
+        count = 0;
+    }
+
+
+    @Override
+    void computeAll(Buffer buffer, int size) {
+        int period = getPeriod();
+        reset();
+        highs = ensureCapacity(highs, size);
+        lows = ensureCapacity(lows, size);
+        closes = ensureCapacity(closes, size);
+        ranges = ensureCapacity(ranges, size);
+        buffer.getHighs(0, highs, size);
+        buffer.getLows(0, lows, size);
+        buffer.getCloses(0, closes, size);
+        IndicatorKernels.trueRange(highs, lows, closes, size, ranges);
+
+        // Los rangos se reemplazan por sus medias, guardando en el estado la media de la última vela cerrada.
+        double value = 0;
+        for(int i = 0; i < size; i++) {
+            if(i + 1 < period) {
+                value += ranges[i];
+                ranges[i] = Double.NaN;
+            }
+            else {
+                value = i + 1 == period? (value + ranges[i]) / period: (value * (period - 1) + ranges[i]) / period;
+                ranges[i] = value;
+            }
+            if(i == size - 2) {
+                previousClose = closes[i];
+                average = value;
+                count = size - 1;
+            }
+        }
+        setValues(0, 0, ranges, size);
+    }
+
+
+    @Override
+    void compute(Buffer buffer, int index, boolean commit) {
+        int period = getPeriod();
+        double high = buffer.getHigh(index);
+        double low = buffer.getLow(index);
+        double range = high - low;
+        if(count > 0) {
+            range = Math.max(range, Math.max(Math.abs(high - previousClose), Math.abs(low - previousClose)));
+        }
+
+        double value;
+        if(count + 1 < period) {
+            value = average + range;    // Suma de los rangos del periodo inicial.
+            setValue(0, index, Double.NaN);
+        }
+        else if(count + 1 == period) {
+            value = (average + range) / period;
+            setValue(0, index, value);
+        }
+        else {
+            value = (average * (period - 1) + range) / period;
+            setValue(0, index, value);
+        }
+
+        if(commit) {
+            previousClose = buffer.getClose(index);
+            average = value;
+            count++;
+        }
+    }
+}
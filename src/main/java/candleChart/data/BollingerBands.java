@@ -0,0 +1,146 @@
+package candleChart.data;
+
+
+/**
+ * Bandas de Bollinger del precio de cierre. La línea central es la media móvil simple del periodo indicado, y las
+ * bandas superior e inferior se sitúan a un múltiplo de la desviación típica de los precios del mismo periodo. La
+ * desviación se obtiene a partir de la suma de los precios y de la suma de sus cuadrados, que se mantienen igual que
+ * en SimpleMovingAverage, por lo que cada vela se calcula con un coste constante.
+ * El recálculo completo se realiza sobre la columna de precios de cierre del buffer (IndicatorKernels.movingDeviation).
+ */
+public class BollingerBands extends Indicator {
+    /**
+     * Línea de la media móvil central.
+     */
+    public static final int MIDDLE = 0;
+
+    /**
+     * Línea de la banda superior.
+     */
+    public static final int UPPER = 1;
+
+    /**
+     * Línea de la banda inferior.
+     */
+    public static final int LOWER = 2;
+
+    private final double multiplier;
+
+    private double[] window;        // Últimos precios de cierre de las velas cerradas.
+    private double sum;             // Suma de los precios de la ventana.
+    private double sumOfSquares;    // Suma de los cuadrados de los precios de la ventana.
+    private long count;             // Número de velas cerradas procesadas.
+
+    private double[] closes;        // Arrays auxiliares del recálculo completo.
+    private double[] middle;
+    private double[] upper;
+    private double[] lower;
+
+
+    /**
+     * Constructor de la clase BollingerBands.
+     *
+     * @param period Número de velas de la media y de la desviación típica.
+     * @param multiplier Número de desviaciones típicas entre la línea central y las bandas.
+     * @throws IllegalArgumentException Si el periodo no es positivo o el multiplicador es negativo.
+     */
+    public BollingerBands(int period, double multiplier) {
+        super(3, period);
+        if(!(multiplier >= 0) || Double.isInfinite(multiplier)) {
+            throw new IllegalArgumentException("El multiplicador de las bandas no puede ser negativo.");
+        }
+        this.multiplier = multiplier;
+        window = new double[period];
+    }
+
+
+    /**
+     * Obtiene el número de desviaciones típicas entre la línea central y las bandas.
+     *
+     * @return Multiplicador de las bandas.
+     */
+    public double getMultiplier() {
+        return multiplier;
+    }
+
+
+    @Override
+    void reset() {
+        if(window.length != getPeriod()) {
+            window = new double[getPeriod()];
+        }
+        sum = 0;
+        sumOfSquares = 0;
+        count = 0;
+    }
+
+
+    @Override
+    void computeAll(Buffer buffer, int size) {
+        int period = getPeriod();
+        reset();
+        closes = ensureCapacity(closes, size);
+        middle = ensureCapacity(middle, size);
+        upper = ensureCapacity(upper, size);
+        lower = ensureCapacity(lower, size);
+        buffer.getCloses(0, closes, size);
+        IndicatorKernels.movingDeviation(closes, size, period, middle, upper);
+        for(int i = 0; i < size; i++) {
+            double deviation = multiplier * upper[i];
+            upper[i] = middle[i] + deviation;
+            lower[i] = middle[i] - deviation;
+        }
+        setValues(MIDDLE, 0, middle, size);
+        setValues(UPPER, 0, upper, size);
+        setValues(LOWER, 0, lower, size);
+
+        // Se restaura el estado de las velas cerradas, que son todas salvo la última.
+        count = Math.max(size - 1, 0);
+        for(int i = (int) Math.max(count - period, 0); i < count; i++) {
+            window[i % period] = closes[i];
+            sum += closes[i];
+            sumOfSquares += closes[i] * closes[i];
+        }
+    }
+
+
+    @Override
+    void compute(Buffer buffer, int index, boolean commit) {
+        int period = getPeriod();
+        double close = buffer.getClose(index);
+        int position = (int) (count % period);      // Posición del precio que sale de la ventana.
+        double removed = count >= period? window[position]: 0;
+        double previous = sum - removed;
+        double previousSquares = sumOfSquares - removed * removed;
+
+        if(count + 1 >= period) {
+            double mean = (previous + close) / period;
+            double variance = Math.max((previousSquares + close * close) / period - mean * mean, 0);
+            double deviation = multiplier * Math.sqrt(variance);
+            setValue(MIDDLE, index, mean);
+            setValue(UPPER, index, mean + deviation);
+            setValue(LOWER, index, mean - deviation);
+        }
+        else {
+            setValue(MIDDLE, index, Double.NaN);
+            setValue(UPPER, index, Double.NaN);
+            setValue(LOWER, index, Double.NaN);
+        }
+
+        if(commit) {
+            window[position] = close;
+            sum = previous + close;
+            sumOfSquares = previousSquares + close * close;
+            count++;
+            if(count % period == 0) {
+                // Se recalculan las sumas para que no se acumulen los errores de redondeo.
+                sum = 0;
+                sumOfSquares = 0;
+                for(double value: window) {
+                    sum += value;
+                    sumOfSquares += value * value;
+                }
+            }
+        }
+    }
+}
@@ -1,20 +1,42 @@
 package candleChart.data;
 
+import candleChart.exceptions.InvalidCandleException;
 import candleChart.model.Candle;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 
 
 /**
- * Clase que representa un buffer para almacenar velas.
+ * Clase que representa un buffer para almacenar velas. Las velas se almacenan en columnas de tipos primitivos (fecha,
+ * apertura, máximo, mínimo y cierre), de forma que el acceso por índice a sus valores no requiere crear objetos de
+ * tipo Candle. Los objetos Candle solo se crean cuando se solicitan mediante los métodos get o getAll.
+ * Las columnas se gestionan como un buffer circular, por lo que añadir o descartar velas en cualquiera de los dos
+ * extremos del buffer tiene un coste constante. Las columnas pueden residir en memoria (comportamiento por defecto) o
+ * en cualquier otro almacenamiento de tipo CandleStore, como un fichero mapeado en memoria (MappedCandleStore).
+ * El buffer mantiene además una pirámide de niveles de agrupación de las velas (2, 4, 8... velas por grupo), de forma
+ * que las series agrupadas obtenidas mediante getLevel permiten representar grandes rangos de velas con un coste
+ * proporcional al número de grupos.
+ * Al buffer se le pueden asociar indicadores técnicos (Indicator), cuyos valores se mantienen alineados con los índices
+ * del buffer y se actualizan con un coste constante al añadir velas al final o al actualizar la vela en formación.
  */
-public class Buffer {
+public class Buffer implements CandleSeries {
+    private static final int INITIAL_CAPACITY = 16;   // Capacidad inicial del almacenamiento en memoria.
 
     private int maxSize;
     private boolean autoSize;
 
-    private List<Candle> candleList;
+    private final CandleStore store;    // Almacenamiento de las columnas de datos de las velas.
+    private final RangeIndex rangeIndex;    // Índice de precios máximos y mínimos.
+    private final RangeIndex volumeIndex;   // Índice de volúmenes máximos, sin mínimos.
+    private final CandlePyramid pyramid;    // Niveles de agrupación de las velas.
+    private final List<Indicator> indicators;   // Indicadores asociados al buffer.
+    private long firstSequence;     // Número de secuencia de la primera vela del buffer.
+    private int capacity;   // Capacidad actual del almacenamiento.
+    private int head;   // Posición en el almacenamiento de la primera vela del buffer.
+    private int size;
 
     /**
      * Constructor predeterminado
@@ -23,7 +45,41 @@ public class Buffer {
         maxSize = 1000;
         autoSize = false;
 
-        candleList = new ArrayList<>();
+        store = new HeapCandleStore(INITIAL_CAPACITY);
+        rangeIndex = new RangeIndex(store::getHigh, store::getLow);
+        volumeIndex = new RangeIndex(store::getVolume);
+        pyramid = new CandlePyramid(this);
+        indicators = new ArrayList<>();
+        capacity = store.capacity();
+        head = 0;
+        size = 0;
+        firstSequence = 0;
+    }
+
+
+    /**
+     * Constructor que crea un buffer sobre el almacenamiento proporcionado. El buffer recupera las velas que contenga
+     * el almacenamiento, y su tamaño máximo se establece a la capacidad máxima de este.
+     *
+     * @param store Almacenamiento de las velas del buffer.
+     * @throws NullPointerException Si el almacenamiento proporcionado es nulo.
+     */
+    public Buffer(CandleStore store) {
+        if(store == null) {
+            throw new NullPointerException("No se permiten valores nulos para el valor 'store'.");
+        }
+        this.store = store;
+        rangeIndex = new RangeIndex(store::getHigh, store::getLow);
+        volumeIndex = new RangeIndex(store::getVolume);
+        pyramid = new CandlePyramid(this);
+        indicators = new ArrayList<>();
+        maxSize = store.getMaxCapacity();
+        autoSize = false;
+
+        capacity = store.capacity();
+        head = store.getHead();
+        size = store.getSize();
+        firstSequence = 0;
     }
 
 
@@ -32,8 +88,9 @@ public class Buffer {
      *
      * @return El tamaño actual del buffer.
      */
+    @Override
     public int size() {
-        return candleList.size();
+        return size;
     }
 
 
@@ -56,7 +113,7 @@ public class Buffer {
         this.maxSize = maxSize;
 
         if(!autoSize && size() > maxSize) {
-            candleList = candleList.subList(0, maxSize);
+            removeLast(size - maxSize);
         }
     }
 
@@ -83,18 +140,20 @@ public class Buffer {
         this.autoSize = autoSize;
 
         if(size() > maxSize) {
-            candleList = candleList.subList(0, maxSize);
+            removeLast(size - maxSize);
         }
     }
 
 
     /**
-     * Método que obtiene una lista con todos los elementos que contiene el buffer.
+     * Método que obtiene una lista con todos los elementos que contiene el buffer. La lista es una vista sobre los
+     * datos del buffer, por lo que refleja los cambios realizados en este y las velas se crean a medida que se accede
+     * a ellas. Las sublistas obtenidas de esta lista implementan también la interfaz CandleSeries.
      *
      * @return Lista con los elementos del buffer.
      */
     public List<Candle> getAll() {
-        return candleList;
+        return new CandleListView(this);
     }
 
 
@@ -105,7 +164,130 @@ public class Buffer {
      * @return Elemento del índice especificado.
      */
     public Candle get(int index) {
-        return candleList.get(index);
+        int slot = slot(Objects.checkIndex(index, size));
+        return new Candle(CandleSeries.toDateTime(store.getTime(slot)), store.getOpen(slot), store.getHigh(slot),
+                store.getLow(slot), store.getClose(slot), store.getVolume(slot));
+    }
+
+
+    @Override
+    public long getTime(int index) {
+        return store.getTime(slot(Objects.checkIndex(index, size)));
+    }
+
+    @Override
+    public double getOpen(int index) {
+        return store.getOpen(slot(Objects.checkIndex(index, size)));
+    }
+
+    @Override
+    public double getHigh(int index) {
+        return store.getHigh(slot(Objects.checkIndex(index, size)));
+    }
+
+    @Override
+    public double getLow(int index) {
+        return store.getLow(slot(Objects.checkIndex(index, size)));
+    }
+
+    @Override
+    public double getClose(int index) {
+        return store.getClose(slot(Objects.checkIndex(index, size)));
+    }
+
+    @Override
+    public double getVolume(int index) {
+        return store.getVolume(slot(Objects.checkIndex(index, size)));
+    }
+
+
+    /**
+     * Método que obtiene el precio máximo de las velas del rango indicado. El buffer mantiene un índice de precios
+     * máximos que se actualiza con cada vela añadida, por lo que la consulta tiene un coste logarítmico respecto al
+     * tamaño del rango.
+     *
+     * @param fromIndex Índice de la primera vela del rango (inclusive).
+     * @param toIndex Índice de la última vela del rango (exclusive).
+     * @return El precio máximo del rango, o -Double.MAX_VALUE si el rango está vacío.
+     * @throws IndexOutOfBoundsException Si el rango indicado no es válido.
+     */
+    @Override
+    public double getHighest(int fromIndex, int toIndex) {
+        Objects.checkFromToIndex(fromIndex, toIndex, size);
+        if(fromIndex == toIndex) {
+            return -Double.MAX_VALUE;
+        }
+        return rangeIndex.max(this, fromIndex, toIndex, capacity);
+    }
+
+
+    /**
+     * Método que obtiene el precio mínimo de las velas del rango indicado. El buffer mantiene un índice de precios
+     * mínimos que se actualiza con cada vela añadida, por lo que la consulta tiene un coste logarítmico respecto al
+     * tamaño del rango.
+     *
+     * @param fromIndex Índice de la primera vela del rango (inclusive).
+     * @param toIndex Índice de la última vela del rango (exclusive).
+     * @return El precio mínimo del rango, o Double.MAX_VALUE si el rango está vacío.
+     * @throws IndexOutOfBoundsException Si el rango indicado no es válido.
+     */
+    @Override
+    public double getLowest(int fromIndex, int toIndex) {
+        Objects.checkFromToIndex(fromIndex, toIndex, size);
+        if(fromIndex == toIndex) {
+            return Double.MAX_VALUE;
+        }
+        return rangeIndex.min(this, fromIndex, toIndex, capacity);
+    }
+
+
+    /**
+     * Método que obtiene el volumen máximo de las velas del rango indicado. Al igual que con los precios, el buffer
+     * mantiene un índice de volúmenes máximos que se actualiza con cada vela añadida, de forma que la escala de un
+     * panel de volumen no requiere recorrer todas las velas visibles.
+     *
+     * @param fromIndex Índice de la primera vela del rango (inclusive).
+     * @param toIndex Índice de la última vela del rango (exclusive).
+     * @return El volumen máximo del rango, o -Double.MAX_VALUE si el rango está vacío.
+     * @throws IndexOutOfBoundsException Si el rango indicado no es válido.
+     */
+    @Override
+    public double getHighestVolume(int fromIndex, int toIndex) {
+        Objects.checkFromToIndex(fromIndex, toIndex, size);
+        if(fromIndex == toIndex) {
+            return -Double.MAX_VALUE;
+        }
+        return volumeIndex.max(this, fromIndex, toIndex, capacity);
+    }
+
+
+    /**
+     * Método que obtiene la serie de velas del buffer agrupadas de 2^level en 2^level. Si la primera vela del buffer
+     * está alineada con los grupos de la pirámide del buffer (su número de secuencia es múltiplo de 2^level), los
+     * máximos y mínimos de los grupos se obtienen directamente de la pirámide con un coste constante.
+     *
+     * @param level Nivel de agrupación, entre 0 y 30.
+     * @return Serie de velas agrupadas.
+     * @throws IllegalArgumentException Si el nivel de agrupación no es válido.
+     */
+    @Override
+    public CandleSeries getLevel(int level) {
+        return LevelSeries.checkLevel(level) == 0? this: getLevel(this, 0, level);
+    }
+
+
+    /**
+     * Método que obtiene el número de secuencia de la vela del índice indicado. Cada vela del buffer tiene un número
+     * de secuencia consecutivo al de la vela anterior que no varía al añadir o descartar velas en los extremos del
+     * buffer, por lo que permite identificar las velas independientemente de su índice. Las velas añadidas al
+     * principio del buffer pueden tener números de secuencia negativos.
+     *
+     * @param index Índice de la vela.
+     * @return Número de secuencia de la vela.
+     */
+    @Override
+    public long getSequence(int index) {
+        return firstSequence + Objects.checkIndex(index, size);
     }
 
 
@@ -118,9 +300,10 @@ public class Buffer {
      */
     public void addAll(ArrayList<Candle> candleList) {
         if(!candleList.isEmpty()) {
-            int sizeLimit = Math.min(candleList.size(), maxSize);
-            this.candleList.clear();
-            this.candleList.addAll(autoSize? candleList: candleList.subList(0, sizeLimit));
+            int sizeLimit = Math.min(candleList.size(), limit());
+            clear();
+            addSpaceLast(sizeLimit);
+            write(0, candleList, sizeLimit);
         }
     }
 
@@ -135,22 +318,10 @@ public class Buffer {
      */
     public void addAllFirst(ArrayList<Candle> candleList) {
         if(!candleList.isEmpty()) {
-            if(autoSize) {
-                this.candleList.addAll(0, candleList);
-            }
-            else {
-                if(candleList.size() >= maxSize) {
-                    this.candleList = candleList.subList(0, maxSize);
-                }
-                else {
-                    int remainingSize = maxSize - candleList.size();
-                    List<Candle> newList = new ArrayList<>();
-
-                    newList.addAll(candleList);
-                    newList.addAll(this.candleList.subList(0, remainingSize));
-                    this.candleList = newList;
-                }
-            }
+            int count = Math.min(candleList.size(), limit());
+            removeLast(size - Math.min(size, limit() - count));     // Se descartan las velas del final sin cabida.
+            addSpaceFirst(count);
+            write(0, candleList, count);
         }
     }
 
@@ -165,15 +336,10 @@ public class Buffer {
      */
     public void addAllLast(ArrayList<Candle> candleList) {
         if(!candleList.isEmpty()) {
-            if(autoSize) {
-                this.candleList.addAll(candleList);
-            }
-            else {
-                if(this.candleList.size() < maxSize) {
-                    int sizeLimit = Math.min(maxSize - this.candleList.size(), candleList.size());
-                    this.candleList.addAll(candleList.subList(0, sizeLimit));
-                }
-            }
+            int count = Math.max(Math.min(limit() - size, candleList.size()), 0);
+            int index = size;
+            addSpaceLast(count);
+            write(index, candleList, count);
         }
     }
 
@@ -188,18 +354,11 @@ public class Buffer {
      */
     public void addFirst(Candle candle) {
         if(candle != null) {
-            if(autoSize) {
-                candleList.add(0, candle);
-            }
-            else {
-                if(candleList.size() < maxSize) {
-                    candleList.add(0, candle);
-                }
-                else {
-                    candleList.remove(maxSize - 1);
-                    candleList.add(0, candle);
-                }
+            if(size >= limit()) {
+                removeLast(size - limit() + 1);     // Se descarta la última vela del buffer.
             }
+            addSpaceFirst(1);
+            set(0, candle);
         }
     }
 
@@ -214,34 +373,500 @@ public class Buffer {
      */
     public void addLast(Candle candle) {
         if(candle != null) {
-            if(autoSize) {
-                candleList.add(candle);
-            }
-            else {
-                if(candleList.size() < maxSize - 1) {
-                    candleList.add(candle);
-                }
-                else {
-                    candleList.remove(0);
-                    candleList.add(candle);
-                }
+            if(size >= limit()) {
+                removeFirst(size - limit() + 1);    // Se descarta la primera vela del buffer.
             }
+            addSpaceLast(1);
+            set(size - 1, candle);
         }
     }
 
+    /**
+     * Método que añade una vela al final del buffer a partir de sus valores, sin necesidad de crear un objeto Candle.
+     * Se aplican las mismas reglas de tamaño que en el método addLast(Candle).
+     *
+     * @param time Fecha de la vela en nanosegundos desde la época (UTC).
+     * @param open Precio de apertura.
+     * @param high Precio máximo.
+     * @param low Precio mínimo.
+     * @param close Precio de cierre.
+     * @throws InvalidCandleException Si los precios no forman una vela válida.
+     */
+    public void addLast(long time, double open, double high, double low, double close) {
+        addLast(time, open, high, low, close, 0);
+    }
+
+
+    /**
+     * Método que añade una vela con volumen al final del buffer a partir de sus valores, sin necesidad de crear un
+     * objeto Candle. Se aplican las mismas reglas de tamaño que en el método addLast(Candle).
+     *
+     * @param time Fecha de la vela en nanosegundos desde la época (UTC).
+     * @param open Precio de apertura.
+     * @param high Precio máximo.
+     * @param low Precio mínimo.
+     * @param close Precio de cierre.
+     * @param volume Volumen de la vela.
+     * @throws InvalidCandleException Si los valores no forman una vela válida.
+     */
+    public void addLast(long time, double open, double high, double low, double close, double volume) {
+        checkValues(open, high, low, close, volume);
+        if(size >= limit()) {
+            removeFirst(size - limit() + 1);    // Se descarta la primera vela del buffer.
+        }
+        addSpaceLast(1);
+        set(size - 1, time, open, high, low, close, volume);
+    }
+
+
+    /**
+     * Método que reemplaza los precios de la última vela del buffer, sin necesidad de crear un objeto Candle. Este
+     * método permite mantener actualizada la vela en formación sin modificar el tamaño del buffer. El volumen de la
+     * vela se conserva.
+     *
+     * @param time Fecha de la vela en nanosegundos desde la época (UTC).
+     * @param open Precio de apertura.
+     * @param high Precio máximo.
+     * @param low Precio mínimo.
+     * @param close Precio de cierre.
+     * @throws InvalidCandleException Si los precios no forman una vela válida.
+     * @throws IndexOutOfBoundsException Si el buffer está vacío.
+     */
+    public void updateLast(long time, double open, double high, double low, double close) {
+        updateLast(time, open, high, low, close, store.getVolume(slot(Objects.checkIndex(size - 1, size))));
+    }
+
+
+    /**
+     * Método que reemplaza los valores de la última vela del buffer, incluido su volumen, sin necesidad de crear un
+     * objeto Candle.
+     *
+     * @param time Fecha de la vela en nanosegundos desde la época (UTC).
+     * @param open Precio de apertura.
+     * @param high Precio máximo.
+     * @param low Precio mínimo.
+     * @param close Precio de cierre.
+     * @param volume Volumen de la vela.
+     * @throws InvalidCandleException Si los valores no forman una vela válida.
+     * @throws IndexOutOfBoundsException Si el buffer está vacío.
+     */
+    public void updateLast(long time, double open, double high, double low, double close, double volume) {
+        checkValues(open, high, low, close, volume);
+        set(Objects.checkIndex(size - 1, size), time, open, high, low, close, volume);
+    }
+
+
+    /**
+     * Método que reemplaza la última vela del buffer por la vela proporcionada, sin modificar el tamaño del buffer.
+     *
+     * @param candle Vela que reemplaza a la última vela del buffer.
+     * @throws NullPointerException Si la vela proporcionada es nula.
+     * @throws IndexOutOfBoundsException Si el buffer está vacío.
+     */
+    public void updateLast(Candle candle) {
+        if(candle == null) {
+            throw new NullPointerException("No se permiten valores nulos para el valor 'candle'.");
+        }
+        set(Objects.checkIndex(size - 1, size), candle);
+    }
+
+
     /**
      * Método que elimina el elemento del buffer indicado en el índice.
      *
      * @param index Elemento a eliminar.
      */
     public void remove(int index) {
-        candleList.remove(index);
+        Objects.checkIndex(index, size);
+
+        // Se desplaza el lado más corto del buffer para cubrir el hueco de la vela eliminada.
+        if(index < size / 2) {
+            for(int i = index; i > 0; i--) {
+                store.move(slot(i - 1), slot(i));
+            }
+            removeFirst(1);
+        }
+        else {
+            for(int i = index; i < size - 1; i++) {
+                store.move(slot(i + 1), slot(i));
+            }
+            setBounds(head, size - 1);
+        }
+        rangeIndex.invalidate();
+        volumeIndex.invalidate();
+        pyramid.invalidate();
+        invalidateIndicators();
     }
 
     /**
      * Método que elimina todos los elementos del buffer.
      */
     public void clear() {
-        candleList.clear();
+        setBounds(0, 0);
+        invalidateIndicators();
+    }
+
+
+    /**
+     * Asocia un indicador al buffer. Los valores del indicador se calculan la primera vez que se consultan, y a partir
+     * de ese momento se mantienen actualizados con los cambios del buffer.
+     *
+     * @param indicator Indicador a asociar.
+     * @throws NullPointerException Si el indicador proporcionado es nulo.
+     * @throws IllegalArgumentException Si el indicador ya está asociado a un buffer.
+     */
+    public void addIndicator(Indicator indicator) {
+        if(indicator == null) {
+            throw new NullPointerException("No se permiten valores nulos para el valor 'indicator'.");
+        }
+        if(indicator.getBuffer() != null) {
+            throw new IllegalArgumentException("El indicador ya está asociado a un buffer.");
+        }
+        indicator.attach(this);
+        indicators.add(indicator);
+    }
+
+
+    /**
+     * Desasocia un indicador del buffer.
+     *
+     * @param indicator Indicador a desasociar.
+     * @return True si el indicador estaba asociado al buffer, o false en caso contrario.
+     */
+    public boolean removeIndicator(Indicator indicator) {
+        if(indicators.remove(indicator)) {
+            indicator.attach(null);
+            return true;
+        }
+        return false;
+    }
+
+
+    /**
+     * Obtiene los indicadores asociados al buffer.
+     *
+     * @return Lista no modificable de los indicadores asociados.
+     */
+    public List<Indicator> getIndicators() {
+        return Collections.unmodifiableList(indicators);
+    }
+
+
+    /**
+     * Obtiene el número de secuencia de la primera vela del buffer, o de la siguiente vela a añadir si está vacío.
+     *
+     * @return Número de secuencia de la primera vela.
+     */
+    long getFirstSequence() {
+        return firstSequence;
+    }
+
+
+    /**
+     * Copia los precios máximos de las velas consecutivas indicadas a un array, en el orden del buffer.
+     *
+     * @param fromIndex Índice de la primera vela.
+     * @param destination Array de destino, en el que se copian los precios desde su primera posición.
+     * @param count Número de velas a copiar.
+     */
+    void getHighs(int fromIndex, double[] destination, int count) {
+        copyColumn(store::getHighs, fromIndex, destination, count);
+    }
+
+
+    /**
+     * Copia los precios mínimos de las velas consecutivas indicadas a un array, en el orden del buffer.
+     *
+     * @param fromIndex Índice de la primera vela.
+     * @param destination Array de destino, en el que se copian los precios desde su primera posición.
+     * @param count Número de velas a copiar.
+     */
+    void getLows(int fromIndex, double[] destination, int count) {
+        copyColumn(store::getLows, fromIndex, destination, count);
+    }
+
+
+    /**
+     * Copia los precios de cierre de las velas consecutivas indicadas a un array, en el orden del buffer.
+     *
+     * @param fromIndex Índice de la primera vela.
+     * @param destination Array de destino, en el que se copian los precios desde su primera posición.
+     * @param count Número de velas a copiar.
+     */
+    void getCloses(int fromIndex, double[] destination, int count) {
+        copyColumn(store::getCloses, fromIndex, destination, count);
+    }
+
+
+    /**
+     * Obtiene la serie agrupada de un rango de velas del buffer, utilizando la pirámide si el rango está alineado con
+     * sus grupos.
+     *
+     * @param source Serie que representa el rango de velas del buffer.
+     * @param fromIndex Índice del buffer de la primera vela del rango.
+     * @param level Nivel de agrupación, mayor que 0.
+     * @return Serie de velas agrupadas.
+     */
+    CandleSeries getLevel(CandleSeries source, int fromIndex, int level) {
+        long sequence = firstSequence + fromIndex;
+        if((sequence & ((1L << level) - 1)) == 0 && level <= CandlePyramid.levels(capacity)) {
+            return new LevelSeries(source, level, this, sequence >> level);
+        }
+        return new LevelSeries(source, level);
+    }
+
+
+    /**
+     * Obtiene el precio máximo de un grupo de la pirámide.
+     *
+     * @param level Nivel de agrupación.
+     * @param group Número del grupo.
+     * @return Precio máximo del grupo.
+     */
+    double getGroupHigh(int level, long group) {
+        return pyramid.high(level, group, capacity);
+    }
+
+
+    /**
+     * Obtiene el precio mínimo de un grupo de la pirámide.
+     *
+     * @param level Nivel de agrupación.
+     * @param group Número del grupo.
+     * @return Precio mínimo del grupo.
+     */
+    double getGroupLow(int level, long group) {
+        return pyramid.low(level, group, capacity);
+    }
+
+
+    /**
+     * Método auxiliar que obtiene el número máximo de velas que puede contener el buffer según su configuración y la
+     * capacidad máxima del almacenamiento.
+     *
+     * @return Número máximo de velas del buffer.
+     */
+    private int limit() {
+        return autoSize? store.getMaxCapacity(): Math.min(maxSize, store.getMaxCapacity());
+    }
+
+
+    /**
+     * Método auxiliar que obtiene la posición en el almacenamiento de la vela del índice indicado. También lo utilizan
+     * los índices de rangos para acceder a las columnas del almacenamiento.
+     *
+     * @param index Índice de la vela en el buffer.
+     * @return Posición de la vela en el almacenamiento.
+     */
+    int slot(int index) {
+        int slot = head + index;
+        return slot >= capacity? slot - capacity: slot;
+    }
+
+
+    /**
+     * Método auxiliar que copia una columna de las velas consecutivas indicadas a un array, en dos tramos si las velas
+     * dan la vuelta al buffer circular.
+     *
+     * @param column Columna del almacenamiento a copiar.
+     * @param fromIndex Índice de la primera vela.
+     * @param destination Array de destino.
+     * @param count Número de velas a copiar.
+     */
+    private void copyColumn(ColumnReader column, int fromIndex, double[] destination, int count) {
+        Objects.checkFromIndexSize(fromIndex, count, size);
+        if(count > 0) {
+            int fromSlot = slot(fromIndex);
+            int first = Math.min(count, capacity - fromSlot);
+            column.read(fromSlot, destination, 0, first);
+            column.read(0, destination, first, count - first);
+        }
+    }
+
+
+    /**
+     * Método auxiliar que establece la posición de la primera vela y el tamaño del buffer, guardándolos también en el
+     * almacenamiento.
+     *
+     * @param head Posición de la primera vela del buffer.
+     * @param size Tamaño del buffer.
+     */
+    private void setBounds(int head, int size) {
+        this.head = head;
+        this.size = size;
+        store.setBounds(head, size);
+    }
+
+
+    /**
+     * Método auxiliar que añade al principio del buffer el número de posiciones indicado, desplazando el inicio del
+     * buffer circular sin mover las velas existentes.
+     *
+     * @param count Número de posiciones a añadir.
+     */
+    private void addSpaceFirst(int count) {
+        ensureCapacity(size + count);
+        int newHead = head - count;
+        firstSequence -= count;
+        setBounds(newHead < 0? newHead + capacity: newHead, size + count);
+    }
+
+
+    /**
+     * Método auxiliar que añade al final del buffer el número de posiciones indicado.
+     *
+     * @param count Número de posiciones a añadir.
+     */
+    private void addSpaceLast(int count) {
+        ensureCapacity(size + count);
+        setBounds(head, size + count);
+    }
+
+
+    /**
+     * Método auxiliar que descarta el número de velas indicado del principio del buffer.
+     *
+     * @param count Número de velas a descartar.
+     */
+    private void removeFirst(int count) {
+        setBounds(slot(count), size - count);
+        firstSequence += count;
+        if(size > 0) {
+            pyramid.update(firstSequence);  // El grupo de la nueva primera vela ha perdido velas.
+        }
+    }
+
+
+    /**
+     * Método auxiliar que descarta el número de velas indicado del final del buffer.
+     *
+     * @param count Número de velas a descartar.
+     */
+    private void removeLast(int count) {
+        if(count > 0) {
+            setBounds(head, size - count);
+            if(size > 0) {
+                pyramid.update(firstSequence + size - 1);   // El grupo de la nueva última vela ha perdido velas.
+            }
+            invalidateIndicators();
+        }
+    }
+
+
+    /**
+     * Método auxiliar que asegura que el almacenamiento tiene capacidad para el número de velas indicado. En caso de
+     * que el almacenamiento tenga que crecer, las velas se reordenan de forma que la primera vela del buffer quede en
+     * la primera posición.
+     *
+     * @param minCapacity Capacidad mínima requerida.
+     */
+    private void ensureCapacity(int minCapacity) {
+        if(minCapacity > capacity) {
+            int newCapacity = (int) Math.min(Math.max(minCapacity, 2L * capacity), store.getMaxCapacity());
+            store.resize(Math.max(newCapacity, minCapacity), head, size);
+            capacity = store.capacity();
+            setBounds(0, size);
+            rangeIndex.invalidate();
+            volumeIndex.invalidate();
+            pyramid.invalidate();
+        }
+    }
+
+
+    /**
+     * Método auxiliar que escribe en el buffer las primeras velas de la lista a partir del índice indicado.
+     *
+     * @param index Índice del buffer a partir del cual se escriben las velas.
+     * @param candleList Lista de velas a escribir.
+     * @param count Número de velas de la lista a escribir.
+     */
+    private void write(int index, List<Candle> candleList, int count) {
+        for(int i = 0; i < count; i++) {
+            Candle candle = candleList.get(i);
+            store.set(slot(index + i), CandleSeries.toEpochNanos(candle.dateTime()), candle.openPrice(),
+                    candle.highPrice(), candle.lowPrice(), candle.closePrice(), candle.volume());
+        }
+        rangeIndex.invalidate();    // Los índices se reconstruyen una sola vez en la siguiente consulta.
+        volumeIndex.invalidate();
+        pyramid.invalidate();
+        invalidateIndicators();
+    }
+
+
+    /**
+     * Método auxiliar que escribe una vela en el índice indicado del buffer, actualizando el índice de precios y la
+     * pirámide de agrupación.
+     *
+     * @param index Índice del buffer.
+     * @param candle Vela a escribir.
+     */
+    private void set(int index, Candle candle) {
+        set(index, CandleSeries.toEpochNanos(candle.dateTime()), candle.openPrice(), candle.highPrice(),
+                candle.lowPrice(), candle.closePrice(), candle.volume());
+    }
+
+
+    /**
+     * Método auxiliar que escribe los valores de una vela en el índice indicado del buffer, actualizando los índices de
+     * precios y volúmenes y la pirámide de agrupación.
+     *
+     * @param index Índice del buffer.
+     * @param time Fecha de la vela en nanosegundos desde la época.
+     * @param open Precio de apertura.
+     * @param high Precio máximo.
+     * @param low Precio mínimo.
+     * @param close Precio de cierre.
+     * @param volume Volumen de la vela.
+     */
+    private void set(int index, long time, double open, double high, double low, double close, double volume) {
+        int slot = slot(index);
+        store.set(slot, time, open, high, low, close, volume);
+        rangeIndex.update(this, firstSequence + index);
+        volumeIndex.update(this, firstSequence + index);
+        pyramid.update(firstSequence + index);
+        for(int i = 0; i < indicators.size(); i++) {
+            indicators.get(i).update(index);
+        }
+    }
+
+
+    /**
+     * Método auxiliar que invalida todos los indicadores asociados al buffer.
+     */
+    private void invalidateIndicators() {
+        for(int i = 0; i < indicators.size(); i++) {
+            indicators.get(i).invalidate();
+        }
+    }
+
+
+    /**
+     * Método auxiliar que valida los valores de una vela con las mismas condiciones que el registro Candle.
+     *
+     * @param open Precio de apertura.
+     * @param high Precio máximo.
+     * @param low Precio mínimo.
+     * @param close Precio de cierre.
+     * @param volume Volumen de la vela.
+     * @throws InvalidCandleException Si los valores no forman una vela válida.
+     */
+    private static void checkValues(double open, double high, double low, double close, double volume) {
+        if (open < 0 || high < 0 || low < 0 || close < 0) {
+            throw new InvalidCandleException("No pueden haber precios negativos");
+        }
+        if (high < low || open > high || open < low || close > high || close < low) {
+            throw new InvalidCandleException("Formato de precios incorrecto");
+        }
+        if (volume < 0) {
+            throw new InvalidCandleException("No puede haber un volumen negativo");
+        }
+    }
+
+
+    /**
+     * Columna de precios del almacenamiento que puede copiarse a un array.
+     */
+    private interface ColumnReader {
+        void read(int fromSlot, double[] destination, int offset, int count);
     }
-}
\ No newline at end of file
+}
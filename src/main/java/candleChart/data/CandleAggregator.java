@@ -0,0 +1,182 @@
+package candleChart.data;
+
+import java.time.Duration;
+
+
+/**
+ * Clase que agrega ticks (fecha y precio) en velas de un periodo de tiempo fijo y las añade de forma incremental a un
+ * buffer. La vela en formación se mantiene como última vela del buffer y se actualiza en el mismo lugar con cada tick,
+ * quedando cerrada cuando llega un tick que pertenece a un periodo posterior. Después de cada tick se notifica al
+ * oyente únicamente el cambio de la última vela.
+ * El procesamiento de un tick no crea ningún objeto. La clase no es segura para su uso desde varios hilos, y el oyente
+ * es llamado desde el hilo que entrega los ticks.
+ */
+public class CandleAggregator {
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    private final Buffer buffer;
+    private final long timeframe;   // Duración del periodo de las velas en nanosegundos.
+    private CandleListener listener;
+
+    // Vela en formación.
+    private boolean forming;
+    private long candleTime;
+    private double open, high, low, close;
+
+
+    /**
+     * Constructor de la clase CandleAggregator. Si la última vela del buffer corresponde al periodo del primer tick
+     * recibido, esta se toma como vela en formación.
+     *
+     * @param buffer Buffer al que se añaden las velas.
+     * @param timeframe Duración del periodo de cada vela.
+     * @throws NullPointerException Si el buffer o el periodo proporcionados son nulos.
+     * @throws IllegalArgumentException Si el periodo no es positivo.
+     */
+    public CandleAggregator(Buffer buffer, Duration timeframe) {
+        if(buffer == null) {
+            throw new NullPointerException("No se permiten valores nulos para el valor 'buffer'.");
+        }
+        if(timeframe == null) {
+            throw new NullPointerException("No se permiten valores nulos para el valor 'timeframe'.");
+        }
+        if(timeframe.isNegative() || timeframe.isZero()) {
+            throw new IllegalArgumentException("El periodo de las velas debe ser positivo.");
+        }
+
+        this.buffer = buffer;
+        this.timeframe = timeframe.toNanos();
+        forming = false;
+    }
+
+
+    /**
+     * Establece el oyente que será notificado de los cambios de la última vela del buffer.
+     *
+     * @param listener Oyente a notificar, o null para no notificar los cambios.
+     */
+    public void setListener(CandleListener listener) {
+        this.listener = listener;
+    }
+
+
+    /**
+     * Obtiene el oyente notificado de los cambios de la última vela del buffer.
+     *
+     * @return El oyente, o null si no se ha establecido.
+     */
+    public CandleListener getListener() {
+        return listener;
+    }
+
+
+    /**
+     * Obtiene el buffer al que se añaden las velas.
+     *
+     * @return El buffer de velas.
+     */
+    public Buffer getBuffer() {
+        return buffer;
+    }
+
+
+    /**
+     * Obtiene la duración del periodo de las velas.
+     *
+     * @return La duración del periodo.
+     */
+    public Duration getTimeframe() {
+        return Duration.ofNanos(timeframe);
+    }
+
+
+    /**
+     * Añade un tick con la fecha expresada en milisegundos desde la época (UTC).
+     *
+     * @param epochMillis Fecha del tick en milisegundos desde la época.
+     * @param price Precio del tick.
+     * @return True si el tick ha sido agregado, o false si se ha descartado por pertenecer a un periodo anterior al de
+     * la vela en formación.
+     * @throws IllegalArgumentException Si el precio es negativo o no es un número.
+     */
+    public boolean addTick(long epochMillis, double price) {
+        return addTickNanos(epochMillis * NANOS_PER_MILLI, price);
+    }
+
+
+    /**
+     * Añade un tick con la fecha expresada en nanosegundos desde la época (UTC). Si el tick pertenece al periodo de la
+     * vela en formación, esta se actualiza en el buffer. Si pertenece a un periodo posterior, la vela en formación se
+     * cierra y se añade una nueva vela al final del buffer. Los ticks de periodos anteriores son descartados.
+     *
+     * @param epochNanos Fecha del tick en nanosegundos desde la época.
+     * @param price Precio del tick.
+     * @return True si el tick ha sido agregado, o false si se ha descartado por pertenecer a un periodo anterior al de
+     * la vela en formación.
+     * @throws IllegalArgumentException Si el precio es negativo o no es un número.
+     */
+    public boolean addTickNanos(long epochNanos, double price) {
+        if(!(price >= 0)) {
+            throw new IllegalArgumentException("El precio del tick debe ser un valor positivo.");
+        }
+
+        long time = Math.floorDiv(epochNanos, timeframe) * timeframe;  // Inicio del periodo del tick.
+        if(!forming) {
+            resume(time);
+        }
+
+        if(forming && time < candleTime) {
+            return false;
+        }
+
+        boolean newCandle = !forming || time > candleTime;
+        if(newCandle) {
+            forming = true;
+            candleTime = time;
+            open = price;
+            high = price;
+            low = price;
+            close = price;
+            buffer.addLast(candleTime, open, high, low, close);
+        }
+        else {
+            high = Math.max(high, price);
+            low = Math.min(low, price);
+            close = price;
+            buffer.updateLast(candleTime, open, high, low, close);
+        }
+
+        if(listener != null) {
+            listener.lastCandleChanged(newCandle);
+        }
+        return true;
+    }
+
+
+    /**
+     * Descarta el estado de la vela en formación. El siguiente tick volverá a tomar la última vela del buffer como
+     * vela en formación si corresponde a su periodo, o empezará una nueva vela en caso contrario. Este método debe
+     * llamarse si el buffer es modificado por otros medios mientras se agregan ticks.
+     */
+    public void reset() {
+        forming = false;
+    }
+
+
+    /**
+     * Método auxiliar que toma la última vela del buffer como vela en formación si corresponde al periodo indicado.
+     *
+     * @param time Inicio del periodo del tick recibido.
+     */
+    private void resume(long time) {
+        int last = buffer.size() - 1;
+        if(last >= 0 && buffer.getTime(last) == time) {
+            forming = true;
+            candleTime = time;
+            open = buffer.getOpen(last);
+            high = buffer.getHigh(last);
+            low = buffer.getLow(last);
+            close = buffer.getClose(last);
+        }
+    }
+}
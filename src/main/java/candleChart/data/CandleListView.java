@@ -0,0 +1,135 @@
+package candleChart.data;
+
+import candleChart.model.Candle;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+
+/**
+ * Vista perezosa en forma de lista sobre las columnas de un buffer. Los objetos Candle solo se crean cuando se accede
+ * a ellos mediante el método get, mientras que el acceso a través de la interfaz CandleSeries lee directamente los
+ * valores primitivos del buffer.
+ */
+class CandleListView extends AbstractList<Candle> implements CandleSeries, RandomAccess {
+    private final Buffer buffer;
+    private final int offset;
+    private final int length;   // Tamaño fijo de la vista, o -1 si la vista abarca todo el buffer.
+
+
+    /**
+     * Crea una vista que abarca todo el buffer, reflejando en todo momento su tamaño actual.
+     *
+     * @param buffer Buffer sobre el que se crea la vista.
+     */
+    CandleListView(Buffer buffer) {
+        this(buffer, 0, -1);
+    }
+
+
+    /**
+     * Crea una vista sobre un rango fijo del buffer.
+     *
+     * @param buffer Buffer sobre el que se crea la vista.
+     * @param offset Índice del buffer de la primera vela de la vista.
+     * @param length Número de velas de la vista, o -1 si la vista abarca todo el buffer.
+     */
+    private CandleListView(Buffer buffer, int offset, int length) {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.length = length;
+    }
+
+
+    /**
+     * Obtiene el índice del buffer que corresponde al índice de la vista.
+     *
+     * @param index Índice de la vista.
+     * @return Índice del buffer.
+     */
+    private int bufferIndex(int index) {
+        if(index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        return offset + index;
+    }
+
+
+    @Override
+    public int size() {
+        return length < 0 ? buffer.size() : length;
+    }
+
+    @Override
+    public Candle get(int index) {
+        return buffer.get(bufferIndex(index));
+    }
+
+    @Override
+    public List<Candle> subList(int fromIndex, int toIndex) {
+        if(fromIndex < 0 || toIndex > size() || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("fromIndex: " + fromIndex + ", toIndex: " + toIndex + ", Size: " + size());
+        }
+        return new CandleListView(buffer, offset + fromIndex, toIndex - fromIndex);
+    }
+
+    @Override
+    public long getTime(int index) {
+        return buffer.getTime(bufferIndex(index));
+    }
+
+    @Override
+    public double getOpen(int index) {
+        return buffer.getOpen(bufferIndex(index));
+    }
+
+    @Override
+    public double getHigh(int index) {
+        return buffer.getHigh(bufferIndex(index));
+    }
+
+    @Override
+    public double getLow(int index) {
+        return buffer.getLow(bufferIndex(index));
+    }
+
+    @Override
+    public double getClose(int index) {
+        return buffer.getClose(bufferIndex(index));
+    }
+
+    @Override
+    public double getVolume(int index) {
+        return buffer.getVolume(bufferIndex(index));
+    }
+
+    @Override
+    public long getSequence(int index) {
+        return buffer.getSequence(bufferIndex(index));
+    }
+
+    @Override
+    public double getHighest(int fromIndex, int toIndex) {
+        Objects.checkFromToIndex(fromIndex, toIndex, size());
+        return buffer.getHighest(offset + fromIndex, offset + toIndex);
+    }
+
+    @Override
+    public double getLowest(int fromIndex, int toIndex) {
+        Objects.checkFromToIndex(fromIndex, toIndex, size());
+        return buffer.getLowest(offset + fromIndex, offset + toIndex);
+    }
+
+    @Override
+    public double getHighestVolume(int fromIndex, int toIndex) {
+        Objects.checkFromToIndex(fromIndex, toIndex, size());
+        return buffer.getHighestVolume(offset + fromIndex, offset + toIndex);
+    }
+
+    @Override
+    public CandleSeries getLevel(int level) {
+        return LevelSeries.checkLevel(level) == 0? this: buffer.getLevel(this, offset, level);
+    }
+}
@@ -0,0 +1,17 @@
+package candleChart.data;
+
+
+/**
+ * Interfaz para recibir notificaciones de los cambios de la última vela de un buffer.
+ */
+@FunctionalInterface
+public interface CandleListener {
+
+    /**
+     * Se llama cada vez que cambia la última vela del buffer.
+     *
+     * @param newCandle True si se ha añadido una nueva vela al final del buffer (quedando cerrada la vela anterior),
+     *                  o false si solo se han actualizado los valores de la última vela.
+     */
+    void lastCandleChanged(boolean newCandle);
+}
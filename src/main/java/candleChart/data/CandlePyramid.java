@@ -0,0 +1,226 @@
+package candleChart.data;
+
+
+/**
+ * Pirámide de niveles de agrupación de las velas de un buffer. El nivel k agrupa las velas en grupos de 2^k velas
+ * consecutivas y guarda el precio máximo y mínimo de cada grupo, calculado a partir de los dos grupos del nivel
+ * anterior. Los grupos se identifican por el número de secuencia de las velas, que no varía al añadir o descartar velas
+ * en los extremos del buffer, por lo que cada cambio de una vela solo requiere recalcular un grupo por nivel.
+ * Los grupos de los extremos del buffer pueden estar incompletos, y en ese caso solo contienen las velas presentes en
+ * el buffer. Los precios de apertura y cierre de un grupo no se guardan, ya que se obtienen directamente de la primera
+ * y última vela del grupo.
+ * La pirámide se construye la primera vez que se consulta tras ser invalidada, y a partir de ese momento se mantiene
+ * actualizada con cada vela escrita.
+ * Para no ocupar memoria proporcional a la capacidad del almacenamiento, que en un almacenamiento mapeado puede ser de
+ * decenas de millones de velas, los niveles se dimensionan a partir del tamaño del buffer y crecen junto con él, y los
+ * niveles inferiores a MIN_LEVEL no se guardan, sino que sus grupos se calculan recorriendo sus velas. De esta forma la
+ * pirámide ocupa alrededor de una octava parte del número de velas del buffer en valores double.
+ */
+class CandlePyramid {
+    static final int MIN_LEVEL = 5;    // Primer nivel guardado, con grupos de 32 velas.
+
+    private final Buffer buffer;
+
+    private double[][] highs;   // Máximos de los grupos de cada nivel, indexados como buffer circular.
+    private double[][] lows;    // Mínimos de los grupos de cada nivel, indexados como buffer circular.
+    private int[] masks;        // Máscara de la posición de los grupos de cada nivel (tamaño potencia de dos).
+    private int capacity;   // Capacidad del almacenamiento del buffer al construir la pirámide.
+    private int sizedFor;   // Tamaño máximo del buffer para el que se han dimensionado los niveles.
+    private boolean valid;
+
+
+    /**
+     * Constructor de la clase CandlePyramid.
+     *
+     * @param buffer Buffer cuyas velas se agrupan.
+     */
+    CandlePyramid(Buffer buffer) {
+        this.buffer = buffer;
+        valid = false;
+    }
+
+
+    /**
+     * Obtiene el número de niveles de agrupación que se mantienen para la capacidad indicada. El nivel más alto es el
+     * mayor cuyo tamaño de grupo no supera la capacidad.
+     *
+     * @param capacity Capacidad del almacenamiento.
+     * @return Número de niveles de agrupación.
+     */
+    static int levels(int capacity) {
+        return 31 - Integer.numberOfLeadingZeros(Math.max(capacity, 1));
+    }
+
+
+    /**
+     * Invalida la pirámide, que será reconstruida en la siguiente consulta.
+     */
+    void invalidate() {
+        valid = false;
+    }
+
+
+    /**
+     * Actualiza los grupos que contienen la vela indicada tras haber sido escrita, o tras haberse descartado una vela
+     * contigua a ella en el extremo del buffer.
+     *
+     * @param sequence Número de secuencia de la vela.
+     */
+    void update(long sequence) {
+        if(valid) {
+            if(buffer.size() > sizedFor) {
+                valid = false;  // Los niveles se redimensionan en la siguiente consulta.
+                return;
+            }
+            for(int level = MIN_LEVEL; level < highs.length; level++) {
+                compute(level, sequence >> level);
+            }
+        }
+    }
+
+
+    /**
+     * Obtiene el precio máximo del grupo indicado.
+     *
+     * @param level Nivel de agrupación, entre 1 y el número de niveles de la capacidad indicada.
+     * @param group Número del grupo, obtenido como el número de secuencia de su primera vela dividido entre 2^level.
+     * @param capacity Capacidad actual del almacenamiento.
+     * @return Precio máximo del grupo.
+     */
+    double high(int level, long group, int capacity) {
+        if(level < MIN_LEVEL) {
+            return scan(level, group, true);
+        }
+        ensureValid(capacity);
+        return highs[level][position(level, group)];
+    }
+
+
+    /**
+     * Obtiene el precio mínimo del grupo indicado.
+     *
+     * @param level Nivel de agrupación, entre 1 y el número de niveles de la capacidad indicada.
+     * @param group Número del grupo, obtenido como el número de secuencia de su primera vela dividido entre 2^level.
+     * @param capacity Capacidad actual del almacenamiento.
+     * @return Precio mínimo del grupo.
+     */
+    double low(int level, long group, int capacity) {
+        if(level < MIN_LEVEL) {
+            return scan(level, group, false);
+        }
+        ensureValid(capacity);
+        return lows[level][position(level, group)];
+    }
+
+
+    /**
+     * Método auxiliar que reconstruye la pirámide en caso de que no sea válida, haya cambiado la capacidad del
+     * almacenamiento o el buffer haya superado el tamaño para el que se dimensionaron los niveles. Los niveles se
+     * dimensionan para el doble del tamaño actual del buffer, sin superar la capacidad, de forma que el coste de
+     * reconstruirlos mientras el buffer crece se amortiza entre las velas añadidas. Cada nivel debe guardar un grupo
+     * más de los que caben en ese tamaño, ya que el buffer puede empezar y terminar en mitad de un grupo, y su tamaño se
+     * redondea a una potencia de dos para obtener la posición de los grupos mediante una máscara.
+     *
+     * @param capacity Capacidad actual del almacenamiento.
+     */
+    private void ensureValid(int capacity) {
+        if(!valid || this.capacity != capacity || buffer.size() > sizedFor) {
+            this.capacity = capacity;
+            sizedFor = (int) Math.min(Math.max(2L * buffer.size(), 1L << MIN_LEVEL), capacity);
+            int levels = levels(capacity);
+            highs = new double[levels + 1][];
+            lows = new double[levels + 1][];
+            masks = new int[levels + 1];
+            for(int level = MIN_LEVEL; level <= levels; level++) {
+                int length = Integer.highestOneBit((sizedFor >> level) + 1) << 1;
+                highs[level] = new double[length];
+                lows[level] = new double[length];
+                masks[level] = length - 1;
+            }
+
+            if(buffer.size() > 0) {
+                long first = buffer.getFirstSequence();
+                long last = first + buffer.size() - 1;
+                for(int level = MIN_LEVEL; level <= levels; level++) {
+                    for(long group = first >> level; group <= last >> level; group++) {
+                        compute(level, group);
+                    }
+                }
+            }
+            valid = true;
+        }
+    }
+
+
+    /**
+     * Método auxiliar que calcula el máximo o el mínimo de un grupo recorriendo las velas del grupo presentes en el
+     * buffer.
+     *
+     * @param level Nivel del grupo.
+     * @param group Número del grupo.
+     * @param highest True para obtener el máximo, o false para obtener el mínimo.
+     * @return Máximo o mínimo del grupo.
+     */
+    private double scan(int level, long group, boolean highest) {
+        long first = buffer.getFirstSequence();
+        int from = (int) (Math.max(group << level, first) - first);
+        int to = (int) (Math.min((group + 1) << level, first + buffer.size()) - first);
+        return highest? buffer.getHighest(from, to): buffer.getLowest(from, to);
+    }
+
+
+    /**
+     * Método auxiliar que calcula el máximo y mínimo de un grupo a partir de los grupos del nivel inferior que
+     * contienen velas del buffer, o de sus velas en el primer nivel guardado.
+     *
+     * @param level Nivel del grupo.
+     * @param group Número del grupo.
+     */
+    private void compute(int level, long group) {
+        int size = buffer.size();
+        long first = buffer.getFirstSequence();
+        long from = Math.max(group << level, first);                        // Primera vela del grupo en el buffer.
+        long to = Math.min((group + 1) << level, first + size) - 1;         // Última vela del grupo en el buffer.
+        if(from > to) {
+            return;
+        }
+
+        double high, low;
+        if(level == MIN_LEVEL) {
+            high = -Double.MAX_VALUE;
+            low = Double.MAX_VALUE;
+            for(int i = (int) (from - first); i <= (int) (to - first); i++) {
+                high = Math.max(high, buffer.getHigh(i));
+                low = Math.min(low, buffer.getLow(i));
+            }
+        }
+        else {
+            long firstChild = from >> (level - 1);
+            long lastChild = to >> (level - 1);
+            int child = position(level - 1, firstChild);
+            high = highs[level - 1][child];
+            low = lows[level - 1][child];
+            if(lastChild != firstChild) {
+                child = position(level - 1, lastChild);
+                high = Math.max(high, highs[level - 1][child]);
+                low = Math.min(low, lows[level - 1][child]);
+            }
+        }
+
+        int position = position(level, group);
+        highs[level][position] = high;
+        lows[level][position] = low;
+    }
+
+
+    /**
+     * Método auxiliar que obtiene la posición de un grupo en el buffer circular de su nivel.
+     *
+     * @param level Nivel del grupo.
+     * @param group Número del grupo.
+     * @return Posición del grupo.
+     */
+    private int position(int level, long group) {
+        return (int) group & masks[level];
+    }
+}
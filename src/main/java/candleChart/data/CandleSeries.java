@@ -0,0 +1,267 @@
+package candleChart.data;
+
+import candleChart.model.Candle;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+
+/**
+ * Interfaz que proporciona acceso por índice a los valores primitivos de una serie de velas. Permite recorrer las
+ * fechas y precios de las velas sin necesidad de crear objetos de tipo Candle, por lo que es la forma de acceso
+ * utilizada por las vistas y controladores en los recorridos más costosos.
+ * Las fechas se representan como nanosegundos desde la época (1970-01-01T00:00) en UTC.
+ */
+public interface CandleSeries {
+
+    /**
+     * Obtiene el número de velas de la serie.
+     *
+     * @return El número de velas de la serie.
+     */
+    int size();
+
+
+    /**
+     * Obtiene la fecha de la vela del índice indicado en nanosegundos desde la época.
+     *
+     * @param index Índice de la vela.
+     * @return Fecha de la vela en nanosegundos desde la época.
+     */
+    long getTime(int index);
+
+
+    /**
+     * Obtiene el precio de apertura de la vela del índice indicado.
+     *
+     * @param index Índice de la vela.
+     * @return Precio de apertura de la vela.
+     */
+    double getOpen(int index);
+
+
+    /**
+     * Obtiene el precio máximo de la vela del índice indicado.
+     *
+     * @param index Índice de la vela.
+     * @return Precio máximo de la vela.
+     */
+    double getHigh(int index);
+
+
+    /**
+     * Obtiene el precio mínimo de la vela del índice indicado.
+     *
+     * @param index Índice de la vela.
+     * @return Precio mínimo de la vela.
+     */
+    double getLow(int index);
+
+
+    /**
+     * Obtiene el precio de cierre de la vela del índice indicado.
+     *
+     * @param index Índice de la vela.
+     * @return Precio de cierre de la vela.
+     */
+    double getClose(int index);
+
+
+    /**
+     * Obtiene el volumen de la vela del índice indicado. La implementación por defecto corresponde a una serie sin
+     * volumen y devuelve cero.
+     *
+     * @param index Índice de la vela.
+     * @return Volumen de la vela.
+     */
+    default double getVolume(int index) {
+        return 0;
+    }
+
+
+    /**
+     * Obtiene el número de secuencia de la vela del índice indicado, que identifica la vela aunque cambie su índice al
+     * desplazar la serie. La implementación por defecto corresponde a una serie fija y devuelve el propio índice.
+     *
+     * @param index Índice de la vela.
+     * @return Número de secuencia de la vela.
+     */
+    default long getSequence(int index) {
+        return index;
+    }
+
+
+    /**
+     * Obtiene el precio máximo de las velas del rango indicado. La implementación por defecto recorre el rango.
+     *
+     * @param fromIndex Índice de la primera vela del rango (inclusive).
+     * @param toIndex Índice de la última vela del rango (exclusive).
+     * @return El precio máximo del rango, o -Double.MAX_VALUE si el rango está vacío.
+     */
+    default double getHighest(int fromIndex, int toIndex) {
+        double max = -Double.MAX_VALUE;
+        for(int i = fromIndex; i < toIndex; i++) {
+            max = Math.max(max, getHigh(i));
+        }
+        return max;
+    }
+
+
+    /**
+     * Obtiene el precio mínimo de las velas del rango indicado. La implementación por defecto recorre el rango.
+     *
+     * @param fromIndex Índice de la primera vela del rango (inclusive).
+     * @param toIndex Índice de la última vela del rango (exclusive).
+     * @return El precio mínimo del rango, o Double.MAX_VALUE si el rango está vacío.
+     */
+    default double getLowest(int fromIndex, int toIndex) {
+        double min = Double.MAX_VALUE;
+        for(int i = fromIndex; i < toIndex; i++) {
+            min = Math.min(min, getLow(i));
+        }
+        return min;
+    }
+
+
+    /**
+     * Obtiene el volumen máximo de las velas del rango indicado. La implementación por defecto recorre el rango.
+     *
+     * @param fromIndex Índice de la primera vela del rango (inclusive).
+     * @param toIndex Índice de la última vela del rango (exclusive).
+     * @return El volumen máximo del rango, o -Double.MAX_VALUE si el rango está vacío.
+     */
+    default double getHighestVolume(int fromIndex, int toIndex) {
+        double max = -Double.MAX_VALUE;
+        for(int i = fromIndex; i < toIndex; i++) {
+            max = Math.max(max, getVolume(i));
+        }
+        return max;
+    }
+
+
+    /**
+     * Obtiene el índice de la primera vela del rango indicado cuya fecha es igual o posterior a la fecha proporcionada,
+     * mediante una búsqueda binaria en las fechas de las velas. Las velas del rango deben estar ordenadas por fecha.
+     *
+     * @param time Fecha en nanosegundos desde la época.
+     * @param fromIndex Índice de la primera vela del rango (inclusive).
+     * @param toIndex Índice de la última vela del rango (exclusive).
+     * @return Índice de la primera vela con fecha igual o posterior, o toIndex si no hay ninguna.
+     */
+    default int indexOfTime(long time, int fromIndex, int toIndex) {
+        int low = fromIndex;
+        int high = toIndex;
+        while(low < high) {
+            int middle = (low + high) >>> 1;
+            if(getTime(middle) < time) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+
+    /**
+     * Obtiene la serie de velas agrupadas de 2^level en 2^level. La vela i de la serie agrupada contiene las velas
+     * desde el índice i·2^level hasta el siguiente grupo, con la fecha y apertura de su primera vela, el cierre de su
+     * última vela, el máximo y mínimo del grupo y la suma de los volúmenes del grupo.
+     * El último grupo está incompleto si el tamaño de la serie no es múltiplo del tamaño de grupo. La implementación
+     * por defecto calcula cada grupo al acceder a él mediante los métodos getHighest y getLowest.
+     *
+     * @param level Nivel de agrupación, entre 0 y 30. El nivel 0 corresponde a la propia serie.
+     * @return Serie de velas agrupadas.
+     * @throws IllegalArgumentException Si el nivel de agrupación no es válido.
+     */
+    default CandleSeries getLevel(int level) {
+        return LevelSeries.checkLevel(level) == 0? this: new LevelSeries(this, level);
+    }
+
+
+    /**
+     * Obtiene la fecha de la vela del índice indicado como un objeto LocalDateTime.
+     *
+     * @param index Índice de la vela.
+     * @return Fecha de la vela.
+     */
+    default LocalDateTime getDateTime(int index) {
+        return toDateTime(getTime(index));
+    }
+
+
+    /**
+     * Obtiene una serie de velas a partir de una lista. En caso de que la lista ya sea una serie (como las listas
+     * devueltas por el buffer), se devuelve la propia lista, evitando así tener que acceder a los objetos Candle.
+     *
+     * @param candleList Lista de velas.
+     * @return Serie de velas con el contenido de la lista.
+     */
+    static CandleSeries of(List<Candle> candleList) {
+        if(candleList instanceof CandleSeries series) {
+            return series;
+        }
+
+        return new CandleSeries() {
+            @Override
+            public int size() {
+                return candleList.size();
+            }
+
+            @Override
+            public long getTime(int index) {
+                return toEpochNanos(candleList.get(index).dateTime());
+            }
+
+            @Override
+            public double getOpen(int index) {
+                return candleList.get(index).openPrice();
+            }
+
+            @Override
+            public double getHigh(int index) {
+                return candleList.get(index).highPrice();
+            }
+
+            @Override
+            public double getLow(int index) {
+                return candleList.get(index).lowPrice();
+            }
+
+            @Override
+            public double getClose(int index) {
+                return candleList.get(index).closePrice();
+            }
+
+            @Override
+            public double getVolume(int index) {
+                return candleList.get(index).volume();
+            }
+        };
+    }
+
+
+    /**
+     * Convierte una fecha en nanosegundos desde la época en UTC.
+     *
+     * @param dateTime Fecha a convertir.
+     * @return Nanosegundos desde la época.
+     */
+    static long toEpochNanos(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + dateTime.getNano();
+    }
+
+
+    /**
+     * Convierte nanosegundos desde la época en UTC en una fecha.
+     *
+     * @param epochNanos Nanosegundos desde la época.
+     * @return Fecha correspondiente.
+     */
+    static LocalDateTime toDateTime(long epochNanos) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochNanos, 1_000_000_000L),
+                (int) Math.floorMod(epochNanos, 1_000_000_000L), ZoneOffset.UTC);
+    }
+}
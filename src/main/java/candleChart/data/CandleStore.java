@@ -0,0 +1,202 @@
+package candleChart.data;
+
+
+/**
+ * Interfaz que representa el almacenamiento por columnas de las velas de un buffer. El almacenamiento se organiza en
+ * posiciones (slots) que el buffer utiliza como un buffer circular, cuyo inicio y tamaño son guardados también en el
+ * almacenamiento mediante el método setBounds, de forma que un almacenamiento persistente pueda ser reabierto con los
+ * mismos datos.
+ */
+public interface CandleStore {
+
+    /**
+     * Obtiene el número de posiciones disponibles actualmente en el almacenamiento.
+     *
+     * @return Número de posiciones disponibles.
+     */
+    int capacity();
+
+
+    /**
+     * Obtiene el número máximo de posiciones que puede llegar a tener el almacenamiento.
+     *
+     * @return Capacidad máxima del almacenamiento.
+     */
+    int getMaxCapacity();
+
+
+    /**
+     * Cambia la capacidad del almacenamiento. Las velas del buffer circular definido por head y size son
+     * reordenadas de forma que la primera vela quede en la posición 0.
+     *
+     * @param capacity Nueva capacidad del almacenamiento.
+     * @param head Posición de la primera vela del buffer.
+     * @param size Número de velas del buffer.
+     * @throws IllegalStateException Si la capacidad solicitada supera la capacidad máxima del almacenamiento.
+     */
+    void resize(int capacity, int head, int size);
+
+
+    /**
+     * Obtiene la posición de la primera vela del buffer guardada en el almacenamiento.
+     *
+     * @return Posición de la primera vela.
+     */
+    int getHead();
+
+
+    /**
+     * Obtiene el número de velas del buffer guardado en el almacenamiento.
+     *
+     * @return Número de velas del buffer.
+     */
+    int getSize();
+
+
+    /**
+     * Guarda en el almacenamiento la posición de la primera vela y el número de velas del buffer.
+     *
+     * @param head Posición de la primera vela.
+     * @param size Número de velas del buffer.
+     */
+    void setBounds(int head, int size);
+
+
+    /**
+     * Obtiene la fecha, en nanosegundos desde la época, de la vela de la posición indicada.
+     *
+     * @param slot Posición de la vela.
+     * @return Fecha de la vela.
+     */
+    long getTime(int slot);
+
+
+    /**
+     * Obtiene el precio de apertura de la vela de la posición indicada.
+     *
+     * @param slot Posición de la vela.
+     * @return Precio de apertura.
+     */
+    double getOpen(int slot);
+
+
+    /**
+     * Obtiene el precio máximo de la vela de la posición indicada.
+     *
+     * @param slot Posición de la vela.
+     * @return Precio máximo.
+     */
+    double getHigh(int slot);
+
+
+    /**
+     * Obtiene el precio mínimo de la vela de la posición indicada.
+     *
+     * @param slot Posición de la vela.
+     * @return Precio mínimo.
+     */
+    double getLow(int slot);
+
+
+    /**
+     * Obtiene el precio de cierre de la vela de la posición indicada.
+     *
+     * @param slot Posición de la vela.
+     * @return Precio de cierre.
+     */
+    double getClose(int slot);
+
+
+    /**
+     * Obtiene el volumen de la vela de la posición indicada.
+     *
+     * @param slot Posición de la vela.
+     * @return Volumen de la vela.
+     */
+    double getVolume(int slot);
+
+
+    /**
+     * Copia los precios máximos de las posiciones consecutivas indicadas a un array.
+     *
+     * @param fromSlot Primera posición a copiar.
+     * @param destination Array de destino.
+     * @param offset Posición del array a partir de la cual se copian los precios.
+     * @param count Número de posiciones a copiar.
+     */
+    default void getHighs(int fromSlot, double[] destination, int offset, int count) {
+        for(int i = 0; i < count; i++) {
+            destination[offset + i] = getHigh(fromSlot + i);
+        }
+    }
+
+
+    /**
+     * Copia los precios mínimos de las posiciones consecutivas indicadas a un array.
+     *
+     * @param fromSlot Primera posición a copiar.
+     * @param destination Array de destino.
+     * @param offset Posición del array a partir de la cual se copian los precios.
+     * @param count Número de posiciones a copiar.
+     */
+    default void getLows(int fromSlot, double[] destination, int offset, int count) {
+        for(int i = 0; i < count; i++) {
+            destination[offset + i] = getLow(fromSlot + i);
+        }
+    }
+
+
+    /**
+     * Copia los precios de cierre de las posiciones consecutivas indicadas a un array.
+     *
+     * @param fromSlot Primera posición a copiar.
+     * @param destination Array de destino.
+     * @param offset Posición del array a partir de la cual se copian los precios.
+     * @param count Número de posiciones a copiar.
+     */
+    default void getCloses(int fromSlot, double[] destination, int offset, int count) {
+        for(int i = 0; i < count; i++) {
+            destination[offset + i] = getClose(fromSlot + i);
+        }
+    }
+
+
+    /**
+     * Escribe los valores de una vela en la posición indicada.
+     *
+     * @param slot Posición de la vela.
+     * @param time Fecha de la vela en nanosegundos desde la época.
+     * @param open Precio de apertura.
+     * @param high Precio máximo.
+     * @param low Precio mínimo.
+     * @param close Precio de cierre.
+     * @param volume Volumen de la vela.
+     */
+    void set(int slot, long time, double open, double high, double low, double close, double volume);
+
+
+    /**
+     * Escribe los valores de una vela sin volumen en la posición indicada.
+     *
+     * @param slot Posición de la vela.
+     * @param time Fecha de la vela en nanosegundos desde la época.
+     * @param open Precio de apertura.
+     * @param high Precio máximo.
+     * @param low Precio mínimo.
+     * @param close Precio de cierre.
+     */
+    default void set(int slot, long time, double open, double high, double low, double close) {
+        set(slot, time, open, high, low, close, 0);
+    }
+
+
+    /**
+     * Copia la vela de una posición a otra.
+     *
+     * @param from Posición de origen.
+     * @param to Posición de destino.
+     */
+    default void move(int from, int to) {
+        set(to, getTime(from), getOpen(from), getHigh(from), getLow(from), getClose(from), getVolume(from));
+    }
+}
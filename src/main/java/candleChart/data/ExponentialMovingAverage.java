@@ -0,0 +1,57 @@
+package candleChart.data;
+
+
+/**
+ * Media móvil exponencial del precio de cierre, con un factor de suavizado de 2 / (periodo + 1). El primer valor se
+ * obtiene como la media simple de las primeras velas del periodo, y a partir de él cada valor se calcula con un coste
+ * constante a partir del valor anterior.
+ */
+public class ExponentialMovingAverage extends Indicator {
+    private double alpha;           // Factor de suavizado.
+    private double average;         // Media de las velas cerradas, o su suma mientras no se completa el periodo.
+    private long count;             // Número de velas cerradas procesadas.
+
+
+    /**
+     * Constructor de la clase ExponentialMovingAverage.
+     *
+     * @param period Número de velas de la media.
+     * @throws IllegalArgumentException Si el periodo no es positivo.
+     */
+    public ExponentialMovingAverage(int period) {
+        super(1, period);
+    }
+
+
+    @Override
+    void reset() {
+        alpha = 2.0 / (getPeriod() + 1);
+        average = 0;
+        count = 0;
+    }
+
+
+    @Override
+    void compute(Buffer buffer, int index, boolean commit) {
+        int period = getPeriod();
+        double close = buffer.getClose(index);
+        double value;
+        if(count + 1 < period) {
+            value = average + close;    // Suma de las velas del periodo inicial.
+            setValue(0, index, Double.NaN);
+        }
+        else if(count + 1 == period) {
+            value = (average + close) / period;
+            setValue(0, index, value);
+        }
+        else {
+            value = average + alpha * (close - average);
+            setValue(0, index, value);
+        }
+
+        if(commit) {
+            average = value;
+            count++;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package candleChart.data;
+
+
+/**
+ * Almacenamiento de velas en columnas de arrays de tipos primitivos en memoria. Es el almacenamiento utilizado por
+ * defecto por el buffer y su capacidad crece según sea necesario.
+ */
+class HeapCandleStore implements CandleStore {
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private long[] times;
+    private double[] opens;
+    private double[] highs;
+    private double[] lows;
+    private double[] closes;
+    private double[] volumes;
+    private int head;
+    private int size;
+
+
+    /**
+     * Constructor de la clase HeapCandleStore.
+     *
+     * @param capacity Capacidad inicial del almacenamiento.
+     */
+    HeapCandleStore(int capacity) {
+        times = new long[capacity];
+        opens = new double[capacity];
+        highs = new double[capacity];
+        lows = new double[capacity];
+        closes = new double[capacity];
+        volumes = new double[capacity];
+    }
+
+
+    @Override
+    public int capacity() {
+        return times.length;
+    }
+
+    @Override
+    public int getMaxCapacity() {
+        return MAX_CAPACITY;
+    }
+
+    @Override
+    public void resize(int capacity, int head, int size) {
+        if(capacity > MAX_CAPACITY) {
+            throw new IllegalStateException("Se ha superado la capacidad máxima del buffer.");
+        }
+        times = unwrap(times, capacity, head, size);
+        opens = unwrap(opens, capacity, head, size);
+        highs = unwrap(highs, capacity, head, size);
+        lows = unwrap(lows, capacity, head, size);
+        closes = unwrap(closes, capacity, head, size);
+        volumes = unwrap(volumes, capacity, head, size);
+    }
+
+    @Override
+    public int getHead() {
+        return head;
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public void setBounds(int head, int size) {
+        this.head = head;
+        this.size = size;
+    }
+
+    @Override
+    public long getTime(int slot) {
+        return times[slot];
+    }
+
+    @Override
+    public double getOpen(int slot) {
+        return opens[slot];
+    }
+
+    @Override
+    public double getHigh(int slot) {
+        return highs[slot];
+    }
+
+    @Override
+    public double getLow(int slot) {
+        return lows[slot];
+    }
+
+    @Override
+    public double getClose(int slot) {
+        return closes[slot];
+    }
+
+    @Override
+    public double getVolume(int slot) {
+        return volumes[slot];
+    }
+
+    @Override
+    public void getHighs(int fromSlot, double[] destination, int offset, int count) {
+        System.arraycopy(highs, fromSlot, destination, offset, count);
+    }
+
+    @Override
+    public void getLows(int fromSlot, double[] destination, int offset, int count) {
+        System.arraycopy(lows, fromSlot, destination, offset, count);
+    }
+
+    @Override
+    public void getCloses(int fromSlot, double[] destination, int offset, int count) {
+        System.arraycopy(closes, fromSlot, destination, offset, count);
+    }
+
+    @Override
+    public void set(int slot, long time, double open, double high, double low, double close, double volume) {
+        times[slot] = time;
+        opens[slot] = open;
+        highs[slot] = high;
+        lows[slot] = low;
+        closes[slot] = close;
+        volumes[slot] = volume;
+    }
+
+    @Override
+    public void move(int from, int to) {
+        times[to] = times[from];
+        opens[to] = opens[from];
+        highs[to] = highs[from];
+        lows[to] = lows[from];
+        closes[to] = closes[from];
+        volumes[to] = volumes[from];
+    }
+
+
+    /**
+     * Método auxiliar que copia una columna a un nuevo array de la capacidad indicada, colocando la primera vela del
+     * buffer en la primera posición.
+     *
+     * @param column Columna a copiar.
+     * @param capacity Capacidad de la nueva columna.
+     * @param head Posición de la primera vela del buffer.
+     * @param size Número de velas del buffer.
+     * @return La nueva columna.
+     */
+    private static long[] unwrap(long[] column, int capacity, int head, int size) {
+        long[] newColumn = new long[capacity];
+        int firstPart = Math.min(size, column.length - head);
+        System.arraycopy(column, head, newColumn, 0, firstPart);
+        System.arraycopy(column, 0, newColumn, firstPart, size - firstPart);
+        return newColumn;
+    }
+
+
+    /**
+     * Método auxiliar que copia una columna a un nuevo array de la capacidad indicada, colocando la primera vela del
+     * buffer en la primera posición.
+     *
+     * @param column Columna a copiar.
+     * @param capacity Capacidad de la nueva columna.
+     * @param head Posición de la primera vela del buffer.
+     * @param size Número de velas del buffer.
+     * @return La nueva columna.
+     */
+    private static double[] unwrap(double[] column, int capacity, int head, int size) {
+        double[] newColumn = new double[capacity];
+        int firstPart = Math.min(size, column.length - head);
+        System.arraycopy(column, head, newColumn, 0, firstPart);
+        System.arraycopy(column, 0, newColumn, firstPart, size - firstPart);
+        return newColumn;
+    }
+}
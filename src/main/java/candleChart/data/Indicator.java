@@ -0,0 +1,278 @@
+package candleChart.data;
+
+import java.util.Objects;
+
+
+/**
+ * Clase base de los indicadores técnicos calculados sobre las velas de un buffer. Un indicador se asocia a un buffer
+ * mediante el método Buffer.addIndicator, y a partir de ese momento sus valores se mantienen alineados con los índices
+ * del buffer: el valor de un índice corresponde a la vela del buffer de ese mismo índice.
+ * Cada indicador mantiene el estado de su cálculo (sumas acumuladas, medias suavizadas...) con todas las velas cerradas,
+ * es decir, todas salvo la última. El valor de la última vela se calcula a partir de ese estado sin modificarlo, por lo
+ * que actualizar la vela en formación mediante Buffer.updateLast tiene un coste constante, y al añadir una vela al final
+ * del buffer solo es necesario incorporar al estado la vela que se cierra. Cualquier otro cambio en el buffer invalida
+ * el indicador, que se recalcula completo la primera vez que se consulta. Los valores de las velas que ya no se pueden
+ * calcular por no haber suficientes velas anteriores son Double.NaN.
+ * Al descartar velas del principio del buffer, el resto de valores se conservan tal como fueron calculados.
+ * El recálculo completo se realiza mediante el método computeAll, que los indicadores basados en medias móviles y
+ * rangos sobrescriben para calcular todas las velas a la vez sobre las columnas del buffer (IndicatorKernels).
+ */
+public abstract class Indicator {
+    private final int lineCount;
+    private int period;
+    private Buffer buffer;
+
+    private double[][] values;  // Valores de cada línea, indexados por número de secuencia como buffer circular.
+    private int mask;           // Máscara de la posición de los valores (tamaño potencia de dos).
+    private long lastSequence;  // Número de secuencia de la última vela calculada, que es la vela en formación.
+    private boolean valid;
+
+
+    /**
+     * Constructor de la clase Indicator.
+     *
+     * @param lineCount Número de líneas de valores del indicador.
+     * @param period Número de velas del periodo del indicador.
+     * @throws IllegalArgumentException Si el periodo no es positivo.
+     */
+    Indicator(int lineCount, int period) {
+        this.lineCount = lineCount;
+        this.period = checkPeriod(period);
+        valid = false;
+    }
+
+
+    /**
+     * Obtiene el número de velas del periodo del indicador.
+     *
+     * @return Periodo del indicador.
+     */
+    public int getPeriod() {
+        return period;
+    }
+
+
+    /**
+     * Establece el número de velas del periodo del indicador. El indicador se recalcula completo la siguiente vez que
+     * se consulta.
+     *
+     * @param period Número de velas del periodo.
+     * @throws IllegalArgumentException Si el periodo no es positivo.
+     */
+    public void setPeriod(int period) {
+        this.period = checkPeriod(period);
+        valid = false;
+    }
+
+
+    /**
+     * Obtiene el buffer al que está asociado el indicador.
+     *
+     * @return El buffer del indicador, o null si no está asociado a ningún buffer.
+     */
+    public Buffer getBuffer() {
+        return buffer;
+    }
+
+
+    /**
+     * Obtiene el número de líneas de valores del indicador. La mayoría de indicadores tienen una sola línea, mientras
+     * que otros como las bandas de Bollinger tienen varias.
+     *
+     * @return Número de líneas del indicador.
+     */
+    public int getLineCount() {
+        return lineCount;
+    }
+
+
+    /**
+     * Obtiene el valor de la primera línea del indicador para la vela del índice indicado.
+     *
+     * @param index Índice de la vela en el buffer.
+     * @return Valor del indicador, o Double.NaN si no puede calcularse.
+     * @throws IllegalStateException Si el indicador no está asociado a ningún buffer.
+     * @throws IndexOutOfBoundsException Si el índice no pertenece al buffer.
+     */
+    public double getValue(int index) {
+        return getValue(0, index);
+    }
+
+
+    /**
+     * Obtiene el valor de una línea del indicador para la vela del índice indicado.
+     *
+     * @param line Línea del indicador.
+     * @param index Índice de la vela en el buffer.
+     * @return Valor del indicador, o Double.NaN si no puede calcularse.
+     * @throws IllegalStateException Si el indicador no está asociado a ningún buffer.
+     * @throws IndexOutOfBoundsException Si la línea o el índice no son válidos.
+     */
+    public double getValue(int line, int index) {
+        Objects.checkIndex(line, lineCount);
+        if(buffer == null) {
+            throw new IllegalStateException("El indicador no está asociado a ningún buffer.");
+        }
+        long sequence = buffer.getSequence(index);
+        ensureValid();
+        return values[line][(int) sequence & mask];
+    }
+
+
+    /**
+     * Reinicia el estado del cálculo, como si no se hubiera procesado ninguna vela.
+     */
+    abstract void reset();
+
+
+    /**
+     * Calcula los valores de todas las velas del buffer, dejando en el estado todas las velas cerradas. Por defecto se
+     * calcula cada vela en orden mediante el método compute.
+     *
+     * @param buffer Buffer del indicador.
+     * @param size Número de velas del buffer.
+     */
+    void computeAll(Buffer buffer, int size) {
+        reset();
+        for(int i = 0; i < size; i++) {
+            compute(buffer, i, i < size - 1);
+        }
+    }
+
+
+    /**
+     * Calcula los valores de la vela del índice indicado a partir del estado de las velas anteriores, guardándolos
+     * mediante el método setValue. Si la vela está cerrada, se incorpora además al estado.
+     *
+     * @param buffer Buffer del indicador.
+     * @param index Índice de la vela en el buffer.
+     * @param commit True si la vela se incorpora al estado, o false si se trata de la vela en formación.
+     */
+    abstract void compute(Buffer buffer, int index, boolean commit);
+
+
+    /**
+     * Guarda el valor de una línea del indicador para la vela del índice indicado.
+     *
+     * @param line Línea del indicador.
+     * @param index Índice de la vela en el buffer.
+     * @param value Valor a guardar.
+     */
+    final void setValue(int line, int index, double value) {
+        values[line][(int) buffer.getSequence(index) & mask] = value;
+    }
+
+
+    /**
+     * Guarda los valores de una línea del indicador para las velas consecutivas a partir del índice indicado.
+     *
+     * @param line Línea del indicador.
+     * @param fromIndex Índice en el buffer de la primera vela.
+     * @param source Array con los valores a guardar desde su primera posición.
+     * @param count Número de valores a guardar.
+     */
+    final void setValues(int line, int fromIndex, double[] source, int count) {
+        if(count > 0) {
+            // Los valores se copian en dos tramos si dan la vuelta al buffer circular.
+            int start = (int) buffer.getSequence(fromIndex) & mask;
+            int first = Math.min(count, mask + 1 - start);
+            System.arraycopy(source, 0, values[line], start, first);
+            System.arraycopy(source, first, values[line], 0, count - first);
+        }
+    }
+
+
+    /**
+     * Obtiene un array con capacidad para el número de valores indicado, reutilizando el array recibido si es
+     * suficiente. Se utiliza para los arrays auxiliares de computeAll, que se conservan entre recálculos.
+     *
+     * @param array Array actual, o null si aún no se ha reservado.
+     * @param size Número de valores necesarios.
+     * @return El array recibido, o uno nuevo si no tiene capacidad suficiente.
+     */
+    static double[] ensureCapacity(double[] array, int size) {
+        return array != null && array.length >= size? array: new double[size];
+    }
+
+
+    /**
+     * Asocia el indicador a un buffer.
+     *
+     * @param buffer Buffer al que se asocia el indicador, o null para desasociarlo.
+     */
+    void attach(Buffer buffer) {
+        this.buffer = buffer;
+        valid = false;
+    }
+
+
+    /**
+     * Invalida el indicador, que será recalculado en la siguiente consulta.
+     */
+    void invalidate() {
+        valid = false;
+    }
+
+
+    /**
+     * Actualiza el indicador tras escribir la vela del índice indicado. Si se trata de la vela en formación solo se
+     * recalcula su valor, y si es una vela nueva añadida tras la vela en formación, esta se incorpora al estado antes
+     * de calcular la nueva. En cualquier otro caso el indicador se invalida.
+     *
+     * @param index Índice de la vela escrita.
+     */
+    void update(int index) {
+        if(!valid) {
+            return;
+        }
+
+        int last = buffer.size() - 1;
+        long sequence = buffer.getSequence(index);
+        if(index == last && sequence == lastSequence) {
+            compute(buffer, index, false);
+        }
+        else if(index == last && index > 0 && sequence == lastSequence + 1 && index <= mask) {
+            compute(buffer, index - 1, true);
+            compute(buffer, index, false);
+            lastSequence = sequence;
+        }
+        else {
+            valid = false;
+        }
+    }
+
+
+    /**
+     * Método auxiliar que recalcula todos los valores del indicador en caso de que no sea válido. Los arrays de valores
+     * solo se reservan de nuevo si el buffer no cabe en ellos.
+     */
+    private void ensureValid() {
+        if(!valid) {
+            int size = buffer.size();
+            int length = Integer.highestOneBit(Math.max(size - 1, 1)) << 1;
+            if(values == null || values[0].length < length) {
+                values = new double[lineCount][length];
+                mask = length - 1;
+            }
+
+            computeAll(buffer, size);
+            lastSequence = size > 0? buffer.getSequence(size - 1): Long.MIN_VALUE;
+            valid = true;
+        }
+    }
+
+
+    /**
+     * Método auxiliar que valida el periodo de un indicador.
+     *
+     * @param period Periodo a validar.
+     * @return El periodo validado.
+     * @throws IllegalArgumentException Si el periodo no es positivo.
+     */
+    private static int checkPeriod(int period) {
+        if(period < 1) {
+            throw new IllegalArgumentException("El periodo del indicador debe ser un valor positivo.");
+        }
+        return period;
+    }
+}
@@ -0,0 +1,198 @@
+package candleChart.data;
+
+
+/**
+ * Cálculos por lotes de los indicadores sobre columnas completas de precios, utilizados al recalcular un indicador tras
+ * un cambio de sus parámetros o la llegada de un histórico de velas. Si el módulo jdk.incubator.vector está disponible
+ * (la JVM se ha iniciado con --add-modules jdk.incubator.vector) y el procesador dispone de instrucciones vectoriales,
+ * los cálculos se realizan mediante la Vector API (VectorKernels). En caso contrario se utilizan las implementaciones
+ * escalares de esta clase, que obtienen los mismos resultados salvo por errores de redondeo.
+ * Los valores de las velas que no tienen suficientes velas anteriores para completar el periodo son Double.NaN.
+ */
+final class IndicatorKernels {
+    private static final boolean VECTORIZED = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()
+            && VectorKernels.lanes() > 1;
+
+
+    /**
+     * Constructor privado, ya que la clase solo contiene métodos estáticos.
+     */
+    private IndicatorKernels() {
+    }
+
+
+    /**
+     * Indica si los cálculos se realizan mediante la Vector API.
+     *
+     * @return True si los cálculos son vectoriales, o false si son escalares.
+     */
+    static boolean isVectorized() {
+        return VECTORIZED;
+    }
+
+
+    /**
+     * Calcula la media móvil simple de una columna de valores.
+     *
+     * @param values Valores de la columna.
+     * @param count Número de valores.
+     * @param period Número de valores de la media.
+     * @param averages Array en el que se guardan las medias.
+     */
+    static void movingAverage(double[] values, int count, int period, double[] averages) {
+        if(VECTORIZED) {
+            VectorKernels.movingAverage(values, count, period, averages);
+        }
+        else {
+            scalarMovingAverage(values, count, period, averages);
+        }
+    }
+
+
+    /**
+     * Calcula la media móvil simple y la desviación típica móvil de una columna de valores.
+     *
+     * @param values Valores de la columna.
+     * @param count Número de valores.
+     * @param period Número de valores de la media y la desviación.
+     * @param averages Array en el que se guardan las medias.
+     * @param deviations Array en el que se guardan las desviaciones típicas.
+     */
+    static void movingDeviation(double[] values, int count, int period, double[] averages, double[] deviations) {
+        if(VECTORIZED) {
+            VectorKernels.movingDeviation(values, count, period, averages, deviations);
+        }
+        else {
+            scalarMovingDeviation(values, count, period, averages, deviations);
+        }
+    }
+
+
+    /**
+     * Calcula el rango verdadero de cada vela, que es la mayor distancia entre su máximo, su mínimo y el cierre de la
+     * vela anterior. El rango de la primera vela es la distancia entre su máximo y su mínimo.
+     *
+     * @param highs Precios máximos.
+     * @param lows Precios mínimos.
+     * @param closes Precios de cierre.
+     * @param count Número de velas.
+     * @param ranges Array en el que se guardan los rangos.
+     */
+    static void trueRange(double[] highs, double[] lows, double[] closes, int count, double[] ranges) {
+        if(VECTORIZED) {
+            VectorKernels.trueRange(highs, lows, closes, count, ranges);
+        }
+        else {
+            scalarTrueRange(highs, lows, closes, count, ranges);
+        }
+    }
+
+
+    /**
+     * Implementación escalar de movingAverage, que mantiene la suma de la ventana y la recalcula cada vez que se
+     * completa un periodo para que no se acumulen los errores de redondeo.
+     *
+     * @param values Valores de la columna.
+     * @param count Número de valores.
+     * @param period Número de valores de la media.
+     * @param averages Array en el que se guardan las medias.
+     */
+    static void scalarMovingAverage(double[] values, int count, int period, double[] averages) {
+        double sum = 0;
+        int remaining = period;     // Valores hasta que se completa el siguiente periodo.
+        for(int i = 0; i < count; i++) {
+            sum += values[i];
+            if(i >= period) {
+                sum -= values[i - period];
+            }
+            if(--remaining == 0) {
+                sum = sum(values, i + 1 - period, i + 1, 0, false);
+                remaining = period;
+            }
+            averages[i] = i + 1 >= period? sum / period: Double.NaN;
+        }
+    }
+
+
+    /**
+     * Implementación escalar de movingDeviation. Los valores se desplazan restándoles el primero, lo que no modifica
+     * la desviación y reduce los errores de redondeo de la suma de los cuadrados.
+     *
+     * @param values Valores de la columna.
+     * @param count Número de valores.
+     * @param period Número de valores de la media y la desviación.
+     * @param averages Array en el que se guardan las medias.
+     * @param deviations Array en el que se guardan las desviaciones típicas.
+     */
+    static void scalarMovingDeviation(double[] values, int count, int period, double[] averages,
+                                      double[] deviations) {
+        double center = count > 0? values[0]: 0;
+        double sum = 0, sumOfSquares = 0;
+        int remaining = period;     // Valores hasta que se completa el siguiente periodo.
+        for(int i = 0; i < count; i++) {
+            double x = values[i] - center;
+            sum += x;
+            sumOfSquares += x * x;
+            if(i >= period) {
+                double removed = values[i - period] - center;
+                sum -= removed;
+                sumOfSquares -= removed * removed;
+            }
+            if(--remaining == 0) {
+                sum = sum(values, i + 1 - period, i + 1, center, false);
+                sumOfSquares = sum(values, i + 1 - period, i + 1, center, true);
+                remaining = period;
+            }
+
+            if(i + 1 >= period) {
+                double mean = sum / period;
+                averages[i] = mean + center;
+                deviations[i] = Math.sqrt(Math.max(sumOfSquares / period - mean * mean, 0));
+            }
+            else {
+                averages[i] = Double.NaN;
+                deviations[i] = Double.NaN;
+            }
+        }
+    }
+
+
+    /**
+     * Implementación escalar de trueRange.
+     *
+     * @param highs Precios máximos.
+     * @param lows Precios mínimos.
+     * @param closes Precios de cierre.
+     * @param count Número de velas.
+     * @param ranges Array en el que se guardan los rangos.
+     */
+    static void scalarTrueRange(double[] highs, double[] lows, double[] closes, int count, double[] ranges) {
+        if(count > 0) {
+            ranges[0] = highs[0] - lows[0];
+        }
+        for(int i = 1; i < count; i++) {
+            double close = closes[i - 1];
+            ranges[i] = Math.max(highs[i] - lows[i], Math.max(Math.abs(highs[i] - close), Math.abs(lows[i] - close)));
+        }
+    }
+
+
+    /**
+     * Método auxiliar que suma un rango de valores desplazados, o sus cuadrados.
+     *
+     * @param values Valores a sumar.
+     * @param from Posición del primer valor (inclusive).
+     * @param to Posición del último valor (exclusive).
+     * @param center Valor que se resta a cada valor antes de sumarlo.
+     * @param squares True para sumar los cuadrados de los valores desplazados.
+     * @return Suma de los valores.
+     */
+    private static double sum(double[] values, int from, int to, double center, boolean squares) {
+        double sum = 0;
+        for(int i = from; i < to; i++) {
+            double x = values[i] - center;
+            sum += squares? x * x: x;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,140 @@
+package candleChart.data;
+
+import java.util.Objects;
+
+
+/**
+ * Serie de velas agrupadas de 2^level en 2^level a partir de otra serie. La vela i de la serie agrupa las velas de la
+ * serie original desde el índice i·2^level hasta el siguiente grupo, siendo el último grupo incompleto si el tamaño de
+ * la serie original no es múltiplo del tamaño de grupo. La fecha y el precio de apertura de cada grupo son los de su
+ * primera vela, el precio de cierre el de su última vela y el volumen la suma de los volúmenes del grupo.
+ * Cuando la serie original es un rango de un buffer alineado con su pirámide de agrupación, los máximos y mínimos de
+ * los grupos completos se obtienen directamente de la pirámide. En caso contrario se calculan mediante los métodos
+ * getHighest y getLowest de la serie original.
+ */
+class LevelSeries implements CandleSeries {
+    static final int MAX_LEVEL = 30;
+
+    private final CandleSeries source;
+    private final int level;
+    private final int groupSize;
+    private final Buffer buffer;    // Buffer cuya pirámide contiene los grupos, o null si no está alineada.
+    private final long firstGroup;  // Grupo de la pirámide que corresponde a la primera vela de la serie.
+
+
+    /**
+     * Crea una serie agrupada que calcula los máximos y mínimos a partir de la serie original.
+     *
+     * @param source Serie original.
+     * @param level Nivel de agrupación.
+     */
+    LevelSeries(CandleSeries source, int level) {
+        this(source, level, null, 0);
+    }
+
+
+    /**
+     * Crea una serie agrupada que obtiene los máximos y mínimos de los grupos completos de la pirámide de un buffer.
+     *
+     * @param source Serie original, que debe ser un rango del buffer que empiece al principio de un grupo.
+     * @param level Nivel de agrupación.
+     * @param buffer Buffer cuya pirámide contiene los grupos, o null para calcularlos a partir de la serie original.
+     * @param firstGroup Grupo de la pirámide que corresponde a la primera vela de la serie.
+     */
+    LevelSeries(CandleSeries source, int level, Buffer buffer, long firstGroup) {
+        this.source = source;
+        this.level = level;
+        this.groupSize = 1 << level;
+        this.buffer = buffer;
+        this.firstGroup = firstGroup;
+    }
+
+
+    /**
+     * Comprueba que el nivel de agrupación indicado es válido.
+     *
+     * @param level Nivel de agrupación.
+     * @return El nivel de agrupación.
+     * @throws IllegalArgumentException Si el nivel no está entre 0 y MAX_LEVEL.
+     */
+    static int checkLevel(int level) {
+        if(level < 0 || level > MAX_LEVEL) {
+            throw new IllegalArgumentException("El nivel de agrupación debe estar entre 0 y " + MAX_LEVEL + ".");
+        }
+        return level;
+    }
+
+
+    @Override
+    public int size() {
+        return (int) (((long) source.size() + groupSize - 1) >> level);
+    }
+
+    @Override
+    public long getTime(int index) {
+        return source.getTime(from(index));
+    }
+
+    @Override
+    public double getOpen(int index) {
+        return source.getOpen(from(index));
+    }
+
+    @Override
+    public double getHigh(int index) {
+        int from = from(index);
+        int to = to(from);
+        if(buffer != null && to - from == groupSize) {
+            return buffer.getGroupHigh(level, firstGroup + index);
+        }
+        return source.getHighest(from, to);
+    }
+
+    @Override
+    public double getLow(int index) {
+        int from = from(index);
+        int to = to(from);
+        if(buffer != null && to - from == groupSize) {
+            return buffer.getGroupLow(level, firstGroup + index);
+        }
+        return source.getLowest(from, to);
+    }
+
+    @Override
+    public double getClose(int index) {
+        return source.getClose(to(from(index)) - 1);
+    }
+
+    @Override
+    public double getVolume(int index) {
+        int from = from(index);
+        int to = to(from);
+        double volume = 0;
+        for(int i = from; i < to; i++) {
+            volume += source.getVolume(i);
+        }
+        return volume;
+    }
+
+
+    /**
+     * Método auxiliar que obtiene el índice en la serie original de la primera vela de un grupo.
+     *
+     * @param index Índice del grupo.
+     * @return Índice de la primera vela del grupo.
+     */
+    private int from(int index) {
+        return Objects.checkIndex(index, size()) << level;
+    }
+
+
+    /**
+     * Método auxiliar que obtiene el índice en la serie original siguiente a la última vela de un grupo.
+     *
+     * @param from Índice de la primera vela del grupo.
+     * @return Índice siguiente a la última vela del grupo.
+     */
+    private int to(int from) {
+        return (int) Math.min((long) from + groupSize, source.size());
+    }
+}
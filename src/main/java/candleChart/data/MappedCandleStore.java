@@ -0,0 +1,229 @@
+package candleChart.data;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+
+/**
+ * Almacenamiento de velas en un fichero mapeado en memoria. Cada vela ocupa un registro de tamaño fijo (fecha,
+ * apertura, máximo, mínimo, cierre y volumen), de forma que el buffer puede contener decenas de millones de velas sin ocupar
+ * memoria del heap, siendo el sistema operativo el encargado de mantener en memoria las páginas del fichero utilizadas.
+ * La capacidad del almacenamiento es fija y se establece al crear el fichero. El inicio y tamaño del buffer se guardan
+ * en la cabecera del fichero, por lo que al volver a abrirlo el buffer recupera las velas almacenadas.
+ */
+public final class MappedCandleStore implements CandleStore, AutoCloseable {
+    private static final int MAGIC = 0x54434453;
+    private static final int VERSION = 2;       // La versión 2 añade el volumen a los registros.
+    private static final int HEADER_SIZE = 64;
+    private static final int RECORD_SIZE = 48;
+    private static final int CHUNK_SHIFT = 20;  // Cada región mapeada contiene 2^20 registros.
+    private static final int CHUNK_MASK = (1 << CHUNK_SHIFT) - 1;
+
+    // Posiciones de los campos en la cabecera y en los registros.
+    private static final int HEADER_CAPACITY = 8;
+    private static final int HEADER_HEAD = 12;
+    private static final int HEADER_SIZE_FIELD = 16;
+    private static final int OPEN = 8;
+    private static final int HIGH = 16;
+    private static final int LOW = 24;
+    private static final int CLOSE = 32;
+    private static final int VOLUME = 40;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final MappedByteBuffer[] chunks;
+    private final int capacity;
+
+
+    /**
+     * Abre el fichero indicado como almacenamiento de velas, o lo crea en caso de no existir.
+     *
+     * @param file Ruta del fichero.
+     * @param capacity Número de velas que puede contener el almacenamiento.
+     * @throws IllegalArgumentException Si la capacidad no es positiva o no coincide con la de un fichero existente.
+     * @throws UncheckedIOException Si se produce un error al abrir o mapear el fichero.
+     */
+    public MappedCandleStore(Path file, int capacity) {
+        if(capacity <= 0) {
+            throw new IllegalArgumentException("La capacidad debe ser un valor positivo.");
+        }
+        this.capacity = capacity;
+
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se ha podido abrir el fichero " + file, e);
+        }
+
+        try {
+            boolean newFile = channel.size() == 0;
+
+            header = map(0, HEADER_SIZE);
+            if(newFile) {
+                header.putInt(0, MAGIC);
+                header.putInt(4, VERSION);
+                header.putInt(HEADER_CAPACITY, capacity);
+                setBounds(0, 0);
+            }
+            else if(header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                channel.close();
+                throw new IllegalArgumentException("El fichero no contiene un almacenamiento de velas válido.");
+            }
+            else if(header.getInt(HEADER_CAPACITY) != capacity) {
+                channel.close();
+                throw new IllegalArgumentException("La capacidad no coincide con la del fichero: " +
+                        header.getInt(HEADER_CAPACITY));
+            }
+
+            chunks = new MappedByteBuffer[((capacity - 1) >>> CHUNK_SHIFT) + 1];
+            for(int i = 0; i < chunks.length; i++) {
+                int records = Math.min(capacity - (i << CHUNK_SHIFT), 1 << CHUNK_SHIFT);
+                chunks[i] = map(HEADER_SIZE + ((long) i << CHUNK_SHIFT) * RECORD_SIZE, (long) records * RECORD_SIZE);
+            }
+        } catch (IOException e) {
+            // El canal ya está abierto, por lo que se cierra antes de propagar el error al igual que en las
+            // comprobaciones de la cabecera.
+            UncheckedIOException exception = new UncheckedIOException("No se ha podido mapear el fichero " + file, e);
+            try {
+                channel.close();
+            } catch (IOException closeException) {
+                exception.addSuppressed(closeException);
+            }
+            throw exception;
+        }
+    }
+
+
+    @Override
+    public int capacity() {
+        return capacity;
+    }
+
+    @Override
+    public int getMaxCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public void resize(int capacity, int head, int size) {
+        throw new IllegalStateException("La capacidad de un almacenamiento mapeado es fija.");
+    }
+
+    @Override
+    public int getHead() {
+        return header.getInt(HEADER_HEAD);
+    }
+
+    @Override
+    public int getSize() {
+        return header.getInt(HEADER_SIZE_FIELD);
+    }
+
+    @Override
+    public void setBounds(int head, int size) {
+        header.putInt(HEADER_HEAD, head);
+        header.putInt(HEADER_SIZE_FIELD, size);
+    }
+
+    @Override
+    public long getTime(int slot) {
+        return chunks[slot >>> CHUNK_SHIFT].getLong(offset(slot));
+    }
+
+    @Override
+    public double getOpen(int slot) {
+        return chunks[slot >>> CHUNK_SHIFT].getDouble(offset(slot) + OPEN);
+    }
+
+    @Override
+    public double getHigh(int slot) {
+        return chunks[slot >>> CHUNK_SHIFT].getDouble(offset(slot) + HIGH);
+    }
+
+    @Override
+    public double getLow(int slot) {
+        return chunks[slot >>> CHUNK_SHIFT].getDouble(offset(slot) + LOW);
+    }
+
+    @Override
+    public double getClose(int slot) {
+        return chunks[slot >>> CHUNK_SHIFT].getDouble(offset(slot) + CLOSE);
+    }
+
+    @Override
+    public double getVolume(int slot) {
+        return chunks[slot >>> CHUNK_SHIFT].getDouble(offset(slot) + VOLUME);
+    }
+
+    @Override
+    public void set(int slot, long time, double open, double high, double low, double close, double volume) {
+        MappedByteBuffer chunk = chunks[slot >>> CHUNK_SHIFT];
+        int offset = offset(slot);
+        chunk.putLong(offset, time);
+        chunk.putDouble(offset + OPEN, open);
+        chunk.putDouble(offset + HIGH, high);
+        chunk.putDouble(offset + LOW, low);
+        chunk.putDouble(offset + CLOSE, close);
+        chunk.putDouble(offset + VOLUME, volume);
+    }
+
+
+    /**
+     * Fuerza la escritura en disco de los cambios realizados en el almacenamiento.
+     */
+    public void force() {
+        header.force();
+        for(MappedByteBuffer chunk: chunks) {
+            chunk.force();
+        }
+    }
+
+
+    /**
+     * Escribe en disco los cambios pendientes y cierra el fichero. Las regiones mapeadas se liberan cuando dejan de
+     * estar referenciadas, por lo que el almacenamiento no debe utilizarse después de ser cerrado.
+     *
+     * @throws UncheckedIOException Si se produce un error al cerrar el fichero.
+     */
+    @Override
+    public void close() {
+        force();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se ha podido cerrar el fichero", e);
+        }
+    }
+
+
+    /**
+     * Método auxiliar que mapea en memoria una región del fichero.
+     *
+     * @param position Posición de inicio de la región.
+     * @param size Tamaño de la región.
+     * @return Región mapeada en memoria.
+     * @throws IOException Si se produce un error al mapear el fichero.
+     */
+    private MappedByteBuffer map(long position, long size) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, position, size);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+
+
+    /**
+     * Método auxiliar que obtiene la posición del registro de la vela dentro de su región mapeada.
+     *
+     * @param slot Posición de la vela.
+     * @return Posición del registro en bytes.
+     */
+    private static int offset(int slot) {
+        return (slot & CHUNK_MASK) * RECORD_SIZE;
+    }
+}
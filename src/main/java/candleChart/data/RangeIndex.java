@@ -0,0 +1,273 @@
+package candleChart.data;
+
+import java.util.function.IntToDoubleFunction;
+
+
+/**
+ * Índice de máximos y mínimos sobre las velas de un buffer. Las velas se agrupan en bloques de tamaño fijo según su
+ * número de secuencia, y sobre los bloques se mantiene un árbol de segmentos con el máximo y el mínimo de cada uno, de
+ * forma que el máximo y mínimo de un rango de velas se obtiene en tiempo logarítmico recorriendo como mucho dos bloques
+ * parciales. El valor de un bloque solo se utiliza cuando todas sus velas pertenecen al rango consultado, por lo que
+ * los bloques de los que se descartan velas no necesitan ser actualizados.
+ * El índice se construye la primera vez que se consulta tras ser invalidado, y a partir de ese momento se mantiene
+ * actualizado con cada vela escrita. Las columnas que solo necesitan el máximo, como el volumen, utilizan un índice sin
+ * columna de mínimos, que no calcula ni guarda el árbol de mínimos.
+ * Al igual que la pirámide de agrupación, el árbol se dimensiona a partir del tamaño del buffer y crece junto con él,
+ * en lugar de a partir de la capacidad del almacenamiento, y los bloques ocupan sus hojas como un buffer circular. De
+ * esta forma un almacenamiento mapeado con capacidad para decenas de millones de velas no ocupa memoria ni requiere
+ * recorrer posiciones vacías al construir el índice.
+ */
+class RangeIndex {
+    private static final int BLOCK_SHIFT = 5;   // Cada bloque agrupa 32 velas.
+    private static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+
+    private final IntToDoubleFunction maxColumn;
+    private final IntToDoubleFunction minColumn;    // Nulo si el índice solo mantiene los máximos.
+
+    private double[] maxTree;
+    private double[] minTree;
+    private int leaves;     // Número de hojas del árbol (potencia de dos).
+    private int capacity;   // Capacidad del almacenamiento del buffer al construir el índice.
+    private int sizedFor;   // Tamaño máximo del buffer para el que se ha dimensionado el árbol.
+    private boolean valid;
+
+
+    /**
+     * Constructor de la clase RangeIndex que crea un índice que solo mantiene los máximos.
+     *
+     * @param maxColumn Columna de la que se obtienen los máximos, accedida por posición del almacenamiento.
+     */
+    RangeIndex(IntToDoubleFunction maxColumn) {
+        this(maxColumn, null);
+    }
+
+
+    /**
+     * Constructor de la clase RangeIndex.
+     *
+     * @param maxColumn Columna de la que se obtienen los máximos, accedida por posición del almacenamiento.
+     * @param minColumn Columna de la que se obtienen los mínimos, accedida por posición del almacenamiento, o null si
+     *                  el índice solo mantiene los máximos.
+     */
+    RangeIndex(IntToDoubleFunction maxColumn, IntToDoubleFunction minColumn) {
+        this.maxColumn = maxColumn;
+        this.minColumn = minColumn;
+        valid = false;
+    }
+
+
+    /**
+     * Invalida el índice, que será reconstruido en la siguiente consulta.
+     */
+    void invalidate() {
+        valid = false;
+    }
+
+
+    /**
+     * Actualiza el bloque que contiene la vela indicada tras haber sido escrita.
+     *
+     * @param buffer Buffer cuyas velas se indexan.
+     * @param sequence Número de secuencia de la vela.
+     */
+    void update(Buffer buffer, long sequence) {
+        if(valid) {
+            if(buffer.size() > sizedFor) {
+                valid = false;  // El árbol se redimensiona en la siguiente consulta.
+                return;
+            }
+            int leaf = leaf(sequence >> BLOCK_SHIFT);
+            computeBlock(buffer, leaf, sequence >> BLOCK_SHIFT);
+            for(int node = leaf >>> 1; node > 0; node >>>= 1) {
+                maxTree[node] = Math.max(maxTree[2 * node], maxTree[2 * node + 1]);
+            }
+            if(minTree != null) {
+                for(int node = leaf >>> 1; node > 0; node >>>= 1) {
+                    minTree[node] = Math.min(minTree[2 * node], minTree[2 * node + 1]);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Obtiene el valor máximo del rango de velas indicado.
+     *
+     * @param buffer Buffer cuyas velas se indexan.
+     * @param fromIndex Índice de la primera vela del rango (inclusive).
+     * @param toIndex Índice de la última vela del rango (exclusive).
+     * @param capacity Capacidad actual del almacenamiento.
+     * @return Valor máximo del rango, o -Double.MAX_VALUE si el rango está vacío.
+     */
+    double max(Buffer buffer, int fromIndex, int toIndex, int capacity) {
+        ensureValid(buffer, capacity);
+        double max = -Double.MAX_VALUE;
+        long first = buffer.getFirstSequence();
+        long firstBlock = (first + fromIndex + BLOCK_SIZE - 1) >> BLOCK_SHIFT;  // Primer bloque completo del rango.
+        long lastBlock = (first + toIndex) >> BLOCK_SHIFT;                      // Bloque siguiente al último completo.
+
+        if(firstBlock >= lastBlock) {
+            for(int i = fromIndex; i < toIndex; i++) {
+                max = Math.max(max, maxColumn.applyAsDouble(buffer.slot(i)));
+            }
+            return max;
+        }
+
+        for(int i = fromIndex; i < (firstBlock << BLOCK_SHIFT) - first; i++) {
+            max = Math.max(max, maxColumn.applyAsDouble(buffer.slot(i)));
+        }
+        for(int i = (int) ((lastBlock << BLOCK_SHIFT) - first); i < toIndex; i++) {
+            max = Math.max(max, maxColumn.applyAsDouble(buffer.slot(i)));
+        }
+        int l = leaf(firstBlock);
+        int r = l + (int) (lastBlock - firstBlock);
+        if(r <= 2 * leaves) {
+            return Math.max(max, query(maxTree, l, r, true));
+        }
+        // Los bloques del rango dan la vuelta a las hojas del árbol.
+        return Math.max(max, Math.max(query(maxTree, l, 2 * leaves, true), query(maxTree, leaves, r - leaves, true)));
+    }
+
+
+    /**
+     * Obtiene el valor mínimo del rango de velas indicado. El índice debe haberse creado con una columna de mínimos.
+     *
+     * @param buffer Buffer cuyas velas se indexan.
+     * @param fromIndex Índice de la primera vela del rango (inclusive).
+     * @param toIndex Índice de la última vela del rango (exclusive).
+     * @param capacity Capacidad actual del almacenamiento.
+     * @return Valor mínimo del rango, o Double.MAX_VALUE si el rango está vacío.
+     */
+    double min(Buffer buffer, int fromIndex, int toIndex, int capacity) {
+        ensureValid(buffer, capacity);
+        double min = Double.MAX_VALUE;
+        long first = buffer.getFirstSequence();
+        long firstBlock = (first + fromIndex + BLOCK_SIZE - 1) >> BLOCK_SHIFT;
+        long lastBlock = (first + toIndex) >> BLOCK_SHIFT;
+
+        if(firstBlock >= lastBlock) {
+            for(int i = fromIndex; i < toIndex; i++) {
+                min = Math.min(min, minColumn.applyAsDouble(buffer.slot(i)));
+            }
+            return min;
+        }
+
+        for(int i = fromIndex; i < (firstBlock << BLOCK_SHIFT) - first; i++) {
+            min = Math.min(min, minColumn.applyAsDouble(buffer.slot(i)));
+        }
+        for(int i = (int) ((lastBlock << BLOCK_SHIFT) - first); i < toIndex; i++) {
+            min = Math.min(min, minColumn.applyAsDouble(buffer.slot(i)));
+        }
+        int l = leaf(firstBlock);
+        int r = l + (int) (lastBlock - firstBlock);
+        if(r <= 2 * leaves) {
+            return Math.min(min, query(minTree, l, r, false));
+        }
+        return Math.min(min, Math.min(query(minTree, l, 2 * leaves, false), query(minTree, leaves, r - leaves, false)));
+    }
+
+
+    /**
+     * Método auxiliar que reconstruye el índice en caso de que no sea válido, haya cambiado la capacidad del
+     * almacenamiento o el buffer haya superado el tamaño para el que se dimensionó el árbol. El árbol se dimensiona
+     * para el doble del tamaño actual del buffer, sin superar la capacidad, de forma que el coste de reconstruirlo
+     * mientras el buffer crece se amortiza entre las velas añadidas. Debe tener una hoja más de los bloques que caben
+     * en ese tamaño, ya que el buffer puede empezar y terminar en mitad de un bloque, y solo se calculan los bloques
+     * que contienen velas del buffer.
+     *
+     * @param buffer Buffer cuyas velas se indexan.
+     * @param capacity Capacidad actual del almacenamiento.
+     */
+    private void ensureValid(Buffer buffer, int capacity) {
+        if(!valid || this.capacity != capacity || buffer.size() > sizedFor) {
+            this.capacity = capacity;
+            sizedFor = (int) Math.min(Math.max(2L * buffer.size(), BLOCK_SIZE), capacity);
+            leaves = Integer.highestOneBit((sizedFor >> BLOCK_SHIFT) + 1) << 1;
+            maxTree = new double[2 * leaves];
+            minTree = minColumn != null? new double[2 * leaves]: null;
+
+            if(buffer.size() > 0) {
+                long first = buffer.getFirstSequence();
+                long last = first + buffer.size() - 1;
+                for(long block = first >> BLOCK_SHIFT; block <= last >> BLOCK_SHIFT; block++) {
+                    computeBlock(buffer, leaf(block), block);
+                }
+            }
+            for(int node = leaves - 1; node > 0; node--) {
+                maxTree[node] = Math.max(maxTree[2 * node], maxTree[2 * node + 1]);
+            }
+            if(minTree != null) {
+                for(int node = leaves - 1; node > 0; node--) {
+                    minTree[node] = Math.min(minTree[2 * node], minTree[2 * node + 1]);
+                }
+            }
+            valid = true;
+        }
+    }
+
+
+    /**
+     * Método auxiliar que calcula el máximo y mínimo de las velas del bloque indicado presentes en el buffer, o solo el
+     * máximo si el índice no tiene columna de mínimos.
+     *
+     * @param buffer Buffer cuyas velas se indexan.
+     * @param leaf Hoja del árbol que ocupa el bloque.
+     * @param block Número del bloque, obtenido como el número de secuencia de su primera vela dividido entre 32.
+     */
+    private void computeBlock(Buffer buffer, int leaf, long block) {
+        long first = buffer.getFirstSequence();
+        int from = (int) (Math.max(block << BLOCK_SHIFT, first) - first);
+        int to = (int) (Math.min((block + 1) << BLOCK_SHIFT, first + buffer.size()) - first);
+
+        double max = -Double.MAX_VALUE;
+        if(minTree == null) {
+            for(int i = from; i < to; i++) {
+                max = Math.max(max, maxColumn.applyAsDouble(buffer.slot(i)));
+            }
+            maxTree[leaf] = max;
+            return;
+        }
+
+        double min = Double.MAX_VALUE;
+        for(int i = from; i < to; i++) {
+            max = Math.max(max, maxColumn.applyAsDouble(buffer.slot(i)));
+            min = Math.min(min, minColumn.applyAsDouble(buffer.slot(i)));
+        }
+        maxTree[leaf] = max;
+        minTree[leaf] = min;
+    }
+
+
+    /**
+     * Método auxiliar que obtiene el máximo o el mínimo de los nodos de un árbol que cubren el rango de hojas indicado.
+     *
+     * @param tree Árbol a consultar.
+     * @param l Primera hoja del rango (inclusive).
+     * @param r Última hoja del rango (exclusive).
+     * @param highest True para obtener el máximo, o false para obtener el mínimo.
+     * @return Máximo o mínimo del rango de hojas.
+     */
+    private static double query(double[] tree, int l, int r, boolean highest) {
+        double value = highest? -Double.MAX_VALUE: Double.MAX_VALUE;
+        for(; l < r; l >>>= 1, r >>>= 1) {
+            if((l & 1) == 1) {
+                value = highest? Math.max(value, tree[l++]): Math.min(value, tree[l++]);
+            }
+            if((r & 1) == 1) {
+                value = highest? Math.max(value, tree[--r]): Math.min(value, tree[--r]);
+            }
+        }
+        return value;
+    }
+
+
+    /**
+     * Método auxiliar que obtiene la hoja del árbol que ocupa un bloque.
+     *
+     * @param block Número del bloque.
+     * @return Hoja del árbol.
+     */
+    private int leaf(long block) {
+        return leaves + ((int) block & (leaves - 1));
+    }
+}
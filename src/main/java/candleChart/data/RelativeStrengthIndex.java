@@ -0,0 +1,88 @@
+package candleChart.data;
+
+
+/**
+ * Índice de fuerza relativa (RSI) del precio de cierre, con valores entre 0 y 100. Las ganancias y pérdidas medias se
+ * obtienen con el suavizado de Wilder: la primera media es la media simple de las variaciones del periodo, y cada media
+ * posterior se calcula con un coste constante a partir de la anterior. Si no hay variaciones en el periodo el valor es
+ * 50.
+ */
+public class RelativeStrengthIndex extends Indicator {
+    private double previousClose;   // Precio de cierre de la última vela cerrada.
+    private double averageGain;     // Ganancia media, o su suma mientras no se completa el periodo.
+    private double averageLoss;     // Pérdida media, o su suma mientras no se completa el periodo.
+    private long count;             // Número de velas cerradas procesadas.
+
+
+    /**
+     * Constructor de la clase RelativeStrengthIndex.
+     *
+     * @param period Número de variaciones del precio de la media.
+     * @throws IllegalArgumentException Si el periodo no es positivo.
+     */
+    public RelativeStrengthIndex(int period) {
+        super(1, period);
+    }
+
+
+    @Override
+    void reset() {
+        previousClose = 0;
+        averageGain = 0;
+        averageLoss = 0;
+        count = 0;
+    }
+
+
+    @Override
+    void compute(Buffer buffer, int index, boolean commit) {
+        int period = getPeriod();
+        double close = buffer.getClose(index);
+        double gain = 0, loss = 0;
+        if(count > 0) {
+            gain = Math.max(close - previousClose, 0);
+            loss = Math.max(previousClose - close, 0);
+        }
+
+        // El número de variaciones hasta la vela es igual al número de velas cerradas anteriores.
+        if(count <= period) {
+            gain += averageGain;
+            loss += averageLoss;
+            if(count == period) {
+                gain /= period;
+                loss /= period;
+                setValue(0, index, rsi(gain, loss));
+            }
+            else {
+                setValue(0, index, Double.NaN);
+            }
+        }
+        else {
+            gain = (averageGain * (period - 1) + gain) / period;
+            loss = (averageLoss * (period - 1) + loss) / period;
+            setValue(0, index, rsi(gain, loss));
+        }
+
+        if(commit) {
+            previousClose = close;
+            averageGain = gain;
+            averageLoss = loss;
+            count++;
+        }
+    }
+
+
+    /**
+     * Método auxiliar que calcula el índice a partir de la ganancia y la pérdida medias.
+     *
+     * @param gain Ganancia media.
+     * @param loss Pérdida media.
+     * @return Valor del índice.
+     */
+    private static double rsi(double gain, double loss) {
+        if(loss == 0) {
+            return gain == 0? 50: 100;
+        }
+        return 100 - 100 / (1 + gain / loss);
+    }
+}
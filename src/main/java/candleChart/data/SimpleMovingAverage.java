@@ -0,0 +1,81 @@
+package candleChart.data;
+
+
+/**
+ * Media móvil simple del precio de cierre. El indicador mantiene los últimos precios de cierre en un buffer circular
+ * propio junto con su suma, de forma que cada vela se calcula con un coste constante. Para evitar que los errores de
+ * redondeo se acumulen en la suma, esta se recalcula desde los precios guardados cada vez que se completa una vuelta
+ * del buffer circular, lo que mantiene el coste constante amortizado.
+ * El recálculo completo se realiza sobre la columna de precios de cierre del buffer (IndicatorKernels.movingAverage).
+ */
+public class SimpleMovingAverage extends Indicator {
+    private double[] window;        // Últimos precios de cierre de las velas cerradas.
+    private double sum;             // Suma de los precios de la ventana.
+    private long count;             // Número de velas cerradas procesadas.
+
+    private double[] closes;        // Arrays auxiliares del recálculo completo.
+    private double[] averages;
+
+
+    /**
+     * Constructor de la clase SimpleMovingAverage.
+     *
+     * @param period Número de velas de la media.
+     * @throws IllegalArgumentException Si el periodo no es positivo.
+     */
+    public SimpleMovingAverage(int period) {
+        super(1, period);
+        window = new double[period];
+    }
+
+
+    @Override
+    void reset() {
+        if(window.length != getPeriod()) {
+            window = new double[getPeriod()];
+        }
+        sum = 0;
+        count = 0;
+    }
+
+
+    @Override
+    void computeAll(Buffer buffer, int size) {
+        int period = getPeriod();
+        reset();
+        closes = ensureCapacity(closes, size);
+        averages = ensureCapacity(averages, size);
+        buffer.getCloses(0, closes, size);
+        IndicatorKernels.movingAverage(closes, size, period, averages);
+        setValues(0, 0, averages, size);
+
+        // Se restaura el estado de las velas cerradas, que son todas salvo la última.
+        count = Math.max(size - 1, 0);
+        for(int i = (int) Math.max(count - period, 0); i < count; i++) {
+            window[i % period] = closes[i];
+            sum += closes[i];
+        }
+    }
+
+
+    @Override
+    void compute(Buffer buffer, int index, boolean commit) {
+        int period = getPeriod();
+        double close = buffer.getClose(index);
+        int position = (int) (count % period);      // Posición del precio que sale de la ventana.
+        double previous = count >= period? sum - window[position]: sum;
+        setValue(0, index, count + 1 >= period? (previous + close) / period: Double.NaN);
+
+        if(commit) {
+            window[position] = close;
+            sum = previous + close;
+            count++;
+            if(count % period == 0) {
+                sum = 0;
+                for(double value: window) {
+                    sum += value;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,395 @@
+package candleChart.data;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.util.Arrays;
+
+
+/**
+ * Implementaciones de los cálculos de IndicatorKernels mediante la Vector API (módulo jdk.incubator.vector). Esta clase
+ * solo se carga si el módulo está disponible.
+ * Las sumas móviles se obtienen a partir de sumas acumuladas, que se calculan por bloques de al menos un periodo de
+ * valores. Dentro de cada vector la suma acumulada se calcula sumando el vector desplazado 1, 2, 4... posiciones, y el
+ * acumulado de los vectores anteriores se propaga como un vector con todas sus posiciones iguales. La suma de la
+ * ventana de un valor es la diferencia entre la suma acumulada del valor y la del valor un periodo anterior, más la
+ * parte de la ventana del bloque anterior si la ventana empieza en él. Solo se conservan las sumas acumuladas del
+ * bloque actual y del anterior, de forma que las columnas se recorren una sola vez.
+ * Para limitar los errores de redondeo, los valores de cada bloque se desplazan restándoles el primero del bloque, de
+ * forma que las sumas acumuladas no crecen con el número de valores ni con la distancia a los primeros precios.
+ */
+final class VectorKernels {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    private static final int LANES = SPECIES.length();
+    private static final int MIN_BLOCK = 256;   // Tamaño mínimo de los bloques de sumas acumuladas.
+
+    // Reordenación que copia la última posición del vector en todas las posiciones.
+    private static final VectorShuffle<Double> LAST_LANE = VectorShuffle.fromOp(SPECIES, i -> LANES - 1);
+
+    // Reordenaciones que desplazan las posiciones del vector 1, 2, 4... posiciones, y máscaras de las posiciones a
+    // las que se suma el vector desplazado.
+    private static final VectorShuffle<Double>[] SHIFTS = shifts();
+    private static final VectorMask<Double>[] SHIFT_MASKS = shiftMasks();
+
+    // Vector con el número de cada posición.
+    private static final DoubleVector LANE_INDEX = DoubleVector.fromArray(SPECIES, laneIndex(), 0);
+
+
+    /**
+     * Constructor privado, ya que la clase solo contiene métodos estáticos.
+     */
+    private VectorKernels() {
+    }
+
+
+    /**
+     * Obtiene el número de valores de tipo double de cada vector.
+     *
+     * @return Número de posiciones de los vectores.
+     */
+    static int lanes() {
+        return LANES;
+    }
+
+
+    /**
+     * Calcula la media móvil simple de una columna de valores.
+     *
+     * @param values Valores de la columna.
+     * @param count Número de valores.
+     * @param period Número de valores de la media.
+     * @param averages Array en el que se guardan las medias.
+     */
+    static void movingAverage(double[] values, int count, int period, double[] averages) {
+        movingSums(values, count, period, averages, null);
+    }
+
+
+    /**
+     * Calcula la media móvil simple y la desviación típica móvil de una columna de valores.
+     *
+     * @param values Valores de la columna.
+     * @param count Número de valores.
+     * @param period Número de valores de la media y la desviación.
+     * @param averages Array en el que se guardan las medias.
+     * @param deviations Array en el que se guardan las desviaciones típicas.
+     */
+    static void movingDeviation(double[] values, int count, int period, double[] averages, double[] deviations) {
+        if(period == 1) {
+            // Cada ventana tiene un único valor, cuya desviación es nula.
+            System.arraycopy(values, 0, averages, 0, count);
+            Arrays.fill(deviations, 0, count, 0);
+            return;
+        }
+        movingSums(values, count, period, averages, deviations);
+    }
+
+
+    /**
+     * Calcula el rango verdadero de cada vela, que es la mayor distancia entre su máximo, su mínimo y el cierre de la
+     * vela anterior. El rango de la primera vela es la distancia entre su máximo y su mínimo.
+     *
+     * @param highs Precios máximos.
+     * @param lows Precios mínimos.
+     * @param closes Precios de cierre.
+     * @param count Número de velas.
+     * @param ranges Array en el que se guardan los rangos.
+     */
+    static void trueRange(double[] highs, double[] lows, double[] closes, int count, double[] ranges) {
+        if(count == 0) {
+            return;
+        }
+        ranges[0] = highs[0] - lows[0];
+
+        int i = 1;
+        int upperBound = 1 + SPECIES.loopBound(count - 1);
+        for(; i < upperBound; i += LANES) {
+            DoubleVector high = DoubleVector.fromArray(SPECIES, highs, i);
+            DoubleVector low = DoubleVector.fromArray(SPECIES, lows, i);
+            DoubleVector close = DoubleVector.fromArray(SPECIES, closes, i - 1);
+            high.sub(low).max(high.sub(close).abs()).max(low.sub(close).abs()).intoArray(ranges, i);
+        }
+        for(; i < count; i++) {
+            double close = closes[i - 1];
+            ranges[i] = Math.max(highs[i] - lows[i], Math.max(Math.abs(highs[i] - close), Math.abs(lows[i] - close)));
+        }
+    }
+
+
+    /**
+     * Método auxiliar que calcula las medias móviles y, opcionalmente, las desviaciones típicas móviles mediante sumas
+     * acumuladas. Los bloques se procesan en orden, calculando las sumas acumuladas de cada uno en un array auxiliar y
+     * obteniendo a partir de ellas y de las del bloque anterior los resultados del bloque, de forma que los valores se
+     * leen y los resultados se escriben una sola vez.
+     *
+     * @param values Valores de la columna.
+     * @param count Número de valores.
+     * @param period Número de valores de las ventanas.
+     * @param averages Array en el que se guardan las medias.
+     * @param deviations Array en el que se guardan las desviaciones típicas, o null si no se calculan.
+     */
+    private static void movingSums(double[] values, int count, int period, double[] averages, double[] deviations) {
+        int block = blockSize(period);
+        int length = Math.min(block, count);
+        double[] sums = new double[length], previousSums = new double[length];
+        double[] squares = null, previousSquares = null;
+        if(deviations != null) {
+            squares = new double[length];
+            previousSquares = new double[length];
+        }
+
+        for(int from = 0; from < count; from += block) {
+            int to = (int) Math.min((long) from + block, count);
+            prefixSums(values, from, to, sums, squares);
+            windowSums(values, from, to, period, block, sums, squares, previousSums, previousSquares, averages,
+                    deviations);
+
+            double[] swap = sums;
+            sums = previousSums;
+            previousSums = swap;
+            if(deviations != null) {
+                swap = squares;
+                squares = previousSquares;
+                previousSquares = swap;
+            }
+        }
+    }
+
+
+    /**
+     * Método auxiliar que obtiene el tamaño de los bloques de sumas acumuladas, que es múltiplo del número de
+     * posiciones de los vectores y no menor que el periodo, de forma que la ventana de cada valor empieza como mucho en
+     * el bloque anterior.
+     *
+     * @param period Periodo de las sumas móviles.
+     * @return Tamaño de los bloques.
+     */
+    private static int blockSize(int period) {
+        long block = Math.max(period, MIN_BLOCK);
+        return (int) Math.min((block + LANES - 1) / LANES * LANES, Integer.MAX_VALUE / 2);
+    }
+
+
+    /**
+     * Método auxiliar que calcula las sumas acumuladas de un bloque de valores desplazados y, opcionalmente, de sus
+     * cuadrados.
+     *
+     * @param values Valores a sumar.
+     * @param from Posición del primer valor del bloque (inclusive).
+     * @param to Posición del último valor del bloque (exclusive).
+     * @param sums Array en el que se guardan las sumas de los valores, desde su primera posición.
+     * @param squares Array en el que se guardan las sumas de los cuadrados, o null si no se calculan.
+     */
+    private static void prefixSums(double[] values, int from, int to, double[] sums, double[] squares) {
+        double center = values[from];
+        int count = to - from;
+        int i = 0;
+        int upperBound = SPECIES.loopBound(count);
+        DoubleVector carry = DoubleVector.zero(SPECIES);
+        DoubleVector squareCarry = DoubleVector.zero(SPECIES);
+        for(; i < upperBound; i += LANES) {
+            DoubleVector x = DoubleVector.fromArray(SPECIES, values, from + i).sub(center);
+            DoubleVector sum = scan(x).add(carry);
+            sum.intoArray(sums, i);
+            carry = sum.rearrange(LAST_LANE);
+            if(squares != null) {
+                DoubleVector square = scan(x.mul(x)).add(squareCarry);
+                square.intoArray(squares, i);
+                squareCarry = square.rearrange(LAST_LANE);
+            }
+        }
+
+        double sum = i > 0? sums[i - 1]: 0;
+        double square = i > 0 && squares != null? squares[i - 1]: 0;
+        for(; i < count; i++) {
+            double x = values[from + i] - center;
+            sum += x;
+            sums[i] = sum;
+            if(squares != null) {
+                square += x * x;
+                squares[i] = square;
+            }
+        }
+    }
+
+
+    /**
+     * Método auxiliar que obtiene las medias y, opcionalmente, las desviaciones típicas de un bloque a partir de las
+     * sumas de sus ventanas. La suma de una ventana contenida en el bloque es la diferencia entre dos sumas acumuladas
+     * del bloque. Si la ventana empieza en el bloque anterior, se añade la parte de la ventana de ese bloque, desplazada
+     * al primer valor del bloque actual: si la parte tiene k valores, su suma aumenta en k·d y la suma de sus cuadrados
+     * en 2·d·suma + k·d², siendo d la diferencia entre los primeros valores de ambos bloques. Los valores que no
+     * completan el periodo son Double.NaN.
+     *
+     * @param values Valores de la columna.
+     * @param from Posición del primer valor del bloque (inclusive).
+     * @param to Posición del último valor del bloque (exclusive).
+     * @param period Periodo de las ventanas.
+     * @param block Tamaño de los bloques, no menor que el periodo.
+     * @param sums Sumas acumuladas de los valores del bloque.
+     * @param squares Sumas acumuladas de los cuadrados del bloque, o null.
+     * @param previousSums Sumas acumuladas de los valores del bloque anterior.
+     * @param previousSquares Sumas acumuladas de los cuadrados del bloque anterior, o null.
+     * @param averages Array en el que se guardan las medias.
+     * @param deviations Array en el que se guardan las desviaciones típicas, o null.
+     */
+    private static void windowSums(double[] values, int from, int to, int period, int block, double[] sums,
+                                   double[] squares, double[] previousSums, double[] previousSquares,
+                                   double[] averages, double[] deviations) {
+        double center = values[from];
+        double scale = 1.0 / period;
+        int count = to - from;
+        int middle = Math.min(period, count);
+        int i = 0;
+
+        if(from == 0) {
+            // Las ventanas del primer periodo no están completas, salvo la última.
+            for(; i < middle && i < period - 1; i++) {
+                averages[i] = Double.NaN;
+                if(deviations != null) {
+                    deviations[i] = Double.NaN;
+                }
+            }
+            if(i == count) {
+                return;
+            }
+            finish(sums[i], squares != null? squares[i]: 0, center, scale, i, averages, deviations);
+            i++;
+        }
+        else {
+            // Valores cuya ventana empieza en el bloque anterior.
+            double d = values[from - block] - center;
+            double total = previousSums[block - 1];
+            double squareTotal = previousSquares != null? previousSquares[block - 1]: 0;
+            int upperBound = SPECIES.loopBound(middle);
+            for(; i < upperBound; i += LANES) {
+                DoubleVector k = LANE_INDEX.neg().add(period - 1 - i);
+                DoubleVector part = DoubleVector.fromArray(SPECIES, previousSums, i + block - period).neg().add(total);
+                DoubleVector sum = DoubleVector.fromArray(SPECIES, sums, i).add(part).add(k.mul(d));
+                DoubleVector mean = sum.mul(scale);
+                mean.add(center).intoArray(averages, from + i);
+                if(deviations != null) {
+                    DoubleVector.fromArray(SPECIES, squares, i)
+                            .add(squareTotal)
+                            .sub(DoubleVector.fromArray(SPECIES, previousSquares, i + block - period))
+                            .add(part.mul(2 * d))
+                            .add(k.mul(d * d))
+                            .mul(scale).sub(mean.mul(mean)).max(0).sqrt()
+                            .intoArray(deviations, from + i);
+                }
+            }
+            for(; i < middle; i++) {
+                double k = period - 1 - i;
+                double part = total - previousSums[i + block - period];
+                double square = 0;
+                if(squares != null) {
+                    square = squares[i] + squareTotal - previousSquares[i + block - period] + 2 * d * part + k * d * d;
+                }
+                finish(sums[i] + part + k * d, square, center, scale, from + i, averages, deviations);
+            }
+        }
+
+        // Valores cuya ventana está dentro del bloque.
+        int upperBound = i + SPECIES.loopBound(count - i);
+        for(; i < upperBound; i += LANES) {
+            DoubleVector mean = DoubleVector.fromArray(SPECIES, sums, i)
+                    .sub(DoubleVector.fromArray(SPECIES, sums, i - period))
+                    .mul(scale);
+            mean.add(center).intoArray(averages, from + i);
+            if(deviations != null) {
+                DoubleVector.fromArray(SPECIES, squares, i)
+                        .sub(DoubleVector.fromArray(SPECIES, squares, i - period))
+                        .mul(scale).sub(mean.mul(mean)).max(0).sqrt()
+                        .intoArray(deviations, from + i);
+            }
+        }
+        for(; i < count; i++) {
+            double square = squares != null? squares[i] - squares[i - period]: 0;
+            finish(sums[i] - sums[i - period], square, center, scale, from + i, averages, deviations);
+        }
+    }
+
+
+    /**
+     * Método auxiliar que obtiene la media y, opcionalmente, la desviación típica de una ventana a partir de la suma de
+     * sus valores desplazados y de sus cuadrados.
+     *
+     * @param sum Suma de los valores desplazados de la ventana.
+     * @param square Suma de los cuadrados de los valores desplazados.
+     * @param center Valor restado a los valores de la ventana.
+     * @param scale Inverso del periodo.
+     * @param index Posición de la ventana.
+     * @param averages Array en el que se guarda la media.
+     * @param deviations Array en el que se guarda la desviación típica, o null.
+     */
+    private static void finish(double sum, double square, double center, double scale, int index, double[] averages,
+                               double[] deviations) {
+        double mean = sum * scale;
+        averages[index] = mean + center;
+        if(deviations != null) {
+            deviations[index] = Math.sqrt(Math.max(square * scale - mean * mean, 0));
+        }
+    }
+
+
+    /**
+     * Método auxiliar que calcula la suma acumulada de las posiciones de un vector.
+     *
+     * @param vector Vector a sumar.
+     * @return Vector con la suma de cada posición y las anteriores.
+     */
+    private static DoubleVector scan(DoubleVector vector) {
+        for(int k = 0; k < SHIFTS.length; k++) {
+            vector = vector.add(vector.rearrange(SHIFTS[k]), SHIFT_MASKS[k]);
+        }
+        return vector;
+    }
+
+
+    /**
+     * Método auxiliar que crea las reordenaciones que desplazan las posiciones del vector 1, 2, 4... posiciones.
+     *
+     * @return Array de reordenaciones.
+     */
+    @SuppressWarnings("unchecked")
+    private static VectorShuffle<Double>[] shifts() {
+        VectorShuffle<Double>[] shifts = new VectorShuffle[Integer.numberOfTrailingZeros(LANES)];
+        for(int k = 0; k < shifts.length; k++) {
+            int shift = 1 << k;
+            shifts[k] = VectorShuffle.fromOp(SPECIES, i -> Math.max(i - shift, 0));
+        }
+        return shifts;
+    }
+
+
+    /**
+     * Método auxiliar que crea las máscaras de las posiciones a las que se suma el vector desplazado 1, 2, 4...
+     * posiciones, que son las posiciones iguales o mayores que el desplazamiento.
+     *
+     * @return Array de máscaras.
+     */
+    @SuppressWarnings("unchecked")
+    private static VectorMask<Double>[] shiftMasks() {
+        VectorMask<Double>[] masks = new VectorMask[Integer.numberOfTrailingZeros(LANES)];
+        for(int k = 0; k < masks.length; k++) {
+            masks[k] = SPECIES.indexInRange(-(1 << k), LANES - (1 << k));
+        }
+        return masks;
+    }
+
+
+    /**
+     * Método auxiliar que crea un array con el número de cada posición de los vectores.
+     *
+     * @return Array con los valores 0, 1, 2... hasta el número de posiciones.
+     */
+    private static double[] laneIndex() {
+        double[] index = new double[LANES];
+        for(int i = 0; i < LANES; i++) {
+            index[i] = i;
+        }
+        return index;
+    }
+}
@@ -9,9 +9,13 @@ import java.time.format.DateTimeFormatter;
 
 /**
  * Representa una vela individual en un gráfico de velas, que representa visualmente el movimiento del precio de un
- * valor durante un período de tiempo específico.
+ * valor durante un período de tiempo específico, junto con el volumen negociado durante ese período. Las fuentes de
+ * datos sin volumen, como muchas cotizaciones de divisas, crean las velas con volumen cero.
  */
-public record Candle(LocalDateTime dateTime, double openPrice, double highPrice, double lowPrice, double closePrice) {
+public record Candle(LocalDateTime dateTime, double openPrice, double highPrice, double lowPrice, double closePrice,
+                     double volume) {
+    // Formato de fecha a mostrar.
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("u.M.dd HH:mm");
 
     /**
      * Valída los parámetros proporcionados y crea un nuevo objeto `Candle`.
@@ -22,6 +26,7 @@ public record Candle(LocalDateTime dateTime, double openPrice, double highPrice,
      *                              - El precio de apertura debe estar entre el precio alto y bajo (inclusive).
      *                              - El precio de cierre debe estar entre el precio alto y bajo (inclusive).
      *                              - El precio bajo debe ser menor que los demás precios de la vela.
+     *                              - El volumen no puede ser negativo.
      */
     public Candle {
         if (dateTime == null) {
@@ -33,25 +38,42 @@ public record Candle(LocalDateTime dateTime, double openPrice, double highPrice,
         if (highPrice < lowPrice || openPrice > highPrice || openPrice < lowPrice || closePrice > highPrice || closePrice < lowPrice) {
             throw new InvalidCandleException("Formato de precios incorrecto");
         }
+        if (volume < 0) {
+            throw new InvalidCandleException("No puede haber un volumen negativo");
+        }
 
         // Las asignaciones de campos se manejan automáticamente por el constructor de registro en Java 17.
     }
 
 
+    /**
+     * Valída los parámetros proporcionados y crea un nuevo objeto `Candle` sin volumen.
+     *
+     * @param dateTime Fecha y hora de la vela.
+     * @param openPrice Precio de apertura.
+     * @param highPrice Precio máximo.
+     * @param lowPrice Precio mínimo.
+     * @param closePrice Precio de cierre.
+     * @throws InvalidCandleException si la fecha y hora es nula o los precios no son válidos.
+     */
+    public Candle(LocalDateTime dateTime, double openPrice, double highPrice, double lowPrice, double closePrice) {
+        this(dateTime, openPrice, highPrice, lowPrice, closePrice, 0);
+    }
+
+
     /**
      * Devuelve una representación de cadena de la vela en un formato legible por humanos, incluyendo precios de
-     * apertura, máximo, mínimo, cierre y fecha/hora.
+     * apertura, máximo, mínimo, cierre, volumen (solo si la vela tiene volumen) y fecha/hora.
      *
      * @return Una cadena formateada que representa los datos de la vela.
      */
     @Override
     public String toString() {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("u.M.dd HH:mm");  // Formato de fecha a mostrar.
-
         return "O: " + openPrice +
                 "  H: " + highPrice +
                 "  L: " + lowPrice +
                 "  C: " + closePrice +
-                "  D: " + dateTime.format(formatter);
+                (volume > 0? "  V: " + volume: "") +
+                "  D: " + dateTime.format(FORMATTER);
     }
 }
@@ -0,0 +1,173 @@
+package candleChart.view;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+
+
+/**
+ * Clase base de las capas del gráfico que se dibujan en una imagen en memoria. El contenido de la capa solo se vuelve a
+ * dibujar cuando cambian los datos que representa o el tamaño del componente, mientras que el resto de repintados, como
+ * los provocados por el movimiento del cursor sobre las capas superpuestas, se limitan a copiar la imagen.
+ * Las subclases dibujan su contenido en el método paintLayer, y deben llamar a invalidateLayer cada vez que cambie
+ * alguno de los datos que representan. Si solo cambia una parte de la capa, puede invalidarse únicamente esa región,
+ * que será la única redibujada en la imagen.
+ */
+public abstract class CachedLayer extends JPanel {
+    private BufferedImage image;
+    private double scaleX, scaleY;  // Escala del contexto gráfico con la que se creó la imagen.
+    private boolean valid;
+    private Rectangle dirtyRegion;  // Región de la imagen pendiente de redibujar, o null si está actualizada.
+
+
+    /**
+     * Constructor de la clase CachedLayer. Las capas son transparentes para poder superponerse.
+     */
+    protected CachedLayer() {
+        valid = false;
+        setOpaque(false);
+    }
+
+
+    /**
+     * Dibuja el contenido de la capa. Este método solo se llama cuando la imagen de la capa debe actualizarse, y el
+     * área de recorte del contexto gráfico indica la región de la capa que debe dibujarse.
+     *
+     * @param g El contexto gráfico de la imagen de la capa.
+     */
+    protected abstract void paintLayer(Graphics2D g);
+
+
+    /**
+     * Sobrescribe el método paintComponent para copiar la imagen de la capa, actualizándola previamente si ha sido
+     * invalidada o ha cambiado el tamaño del componente.
+     *
+     * @param g El contexto gráfico en el que dibujar la capa.
+     */
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+
+        int width = getWidth();
+        int height = getHeight();
+        if(width <= 0 || height <= 0) {
+            return;
+        }
+
+        // La imagen se crea con la resolución del dispositivo para no perder nitidez en pantallas escaladas.
+        AffineTransform transform = ((Graphics2D) g).getTransform();
+        if(image == null || image.getWidth() != (int) Math.ceil(width * transform.getScaleX())
+                || image.getHeight() != (int) Math.ceil(height * transform.getScaleY())) {
+            scaleX = transform.getScaleX();
+            scaleY = transform.getScaleY();
+            image = new BufferedImage((int) Math.ceil(width * scaleX), (int) Math.ceil(height * scaleY),
+                    BufferedImage.TYPE_INT_ARGB_PRE);
+            valid = false;
+        }
+
+        if(!valid) {
+            render(new Rectangle(0, 0, width, height));
+            valid = true;
+            dirtyRegion = null;
+        }
+        else if(dirtyRegion != null) {
+            render(dirtyRegion.intersection(new Rectangle(0, 0, width, height)));
+            dirtyRegion = null;
+        }
+
+        g.drawImage(image, 0, 0, width, height, null);
+    }
+
+
+    /**
+     * Invalida toda la imagen de la capa y solicita su repintado.
+     */
+    protected void invalidateLayer() {
+        discardLayer();
+        repaint();
+    }
+
+
+    /**
+     * Invalida toda la imagen de la capa sin solicitar su repintado, de forma que se vuelva a dibujar completa en el
+     * siguiente pintado.
+     */
+    protected void discardLayer() {
+        valid = false;
+    }
+
+
+    /**
+     * Invalida la región indicada de la imagen de la capa y solicita su repintado.
+     *
+     * @param x Coordenada X de la región.
+     * @param y Coordenada Y de la región.
+     * @param width Anchura de la región.
+     * @param height Altura de la región.
+     */
+    protected void invalidateLayer(int x, int y, int width, int height) {
+        if(valid) {
+            Rectangle region = new Rectangle(x, y, width, height);
+            dirtyRegion = dirtyRegion == null? region: dirtyRegion.union(region);
+        }
+        repaint(x, y, width, height);
+    }
+
+
+    /**
+     * Desplaza horizontalmente el contenido de la imagen de la capa, invalidando únicamente la franja que queda al
+     * descubierto. El desplazamiento solo es posible si la imagen está actualizada y el desplazamiento corresponde a
+     * un número entero de píxeles del dispositivo.
+     *
+     * @param dx Desplazamiento en el eje X, positivo hacia la derecha.
+     * @return True si se ha desplazado la imagen, o false si la capa debe volver a dibujarse por otros medios.
+     */
+    protected boolean scrollLayer(int dx) {
+        int width = getWidth();
+        int height = getHeight();
+        double deviceDx = dx * scaleX;
+        if(image == null || !valid || Math.abs(dx) >= width || deviceDx != Math.rint(deviceDx)
+                || image.getWidth() != (int) Math.ceil(width * scaleX)
+                || image.getHeight() != (int) Math.ceil(height * scaleY)) {
+            return false;
+        }
+
+        if(dx != 0) {
+            int shift = (int) deviceDx;
+            Graphics2D g = image.createGraphics();
+            g.setComposite(AlphaComposite.Src);
+            g.copyArea(Math.max(-shift, 0), 0, image.getWidth() - Math.abs(shift), image.getHeight(), shift, 0);
+            g.dispose();
+
+            Rectangle exposed = dx > 0? new Rectangle(0, 0, dx, height): new Rectangle(width + dx, 0, -dx, height);
+            if(dirtyRegion != null) {
+                dirtyRegion.translate(dx, 0);
+            }
+            dirtyRegion = dirtyRegion == null? exposed: dirtyRegion.union(exposed);
+            repaint();
+        }
+        return true;
+    }
+
+
+    /**
+     * Método auxiliar que borra y vuelve a dibujar una región de la imagen de la capa.
+     *
+     * @param region Región a dibujar.
+     */
+    private void render(Rectangle region) {
+        if(region.isEmpty()) {
+            return;
+        }
+
+        Graphics2D g = image.createGraphics();
+        g.scale(scaleX, scaleY);
+        g.clip(region);
+        g.setComposite(AlphaComposite.Clear);
+        g.fill(region);
+        g.setComposite(AlphaComposite.SrcOver);
+        paintLayer(g);
+        g.dispose();
+    }
+}
@@ -0,0 +1,324 @@
+package candleChart.view;
+
+import candleChart.controller.CandleSize;
+import candleChart.data.CandleSeries;
+import candleChart.data.Indicator;
+
+import java.awt.*;
+
+
+/**
+ * Clase encargada de dibujar una serie de velas en un contexto gráfico. Contiene la lógica de pintado de la vista de
+ * velas sin depender de ningún componente, de forma que puede utilizarse tanto desde CandleView como para dibujar el
+ * gráfico directamente en una imagen. Cada instancia reutiliza los arrays de geometría entre pintados, por lo que no
+ * debe compartirse entre hilos.
+ */
+class CandlePainter {
+    private static final Color BULLISH_BORDER = new Color(0, 127, 0);
+    private static final Color BULLISH_BODY = new Color(0, 255, 0);
+    private static final Color BEARISH_BORDER = new Color(127, 0, 0);
+    private static final Color BEARISH_BODY = new Color(255, 0, 0);
+
+    private CandleSize candleSize;
+    private int candlesPerColumn;
+    private double rangeUp, rangeDown;
+    private int height;
+
+    // Geometría de las velas calculada en cada pintado, reutilizada entre pintados.
+    private int[] positions = new int[0];   // Posición en el eje X de la mecha.
+    private int[] highs = new int[0];       // Posición en el eje Y del máximo.
+    private int[] lows = new int[0];        // Posición en el eje Y del mínimo.
+    private int[] tops = new int[0];        // Posición en el eje Y del lado superior del cuerpo.
+    private int[] bottoms = new int[0];     // Posición en el eje Y del lado inferior del cuerpo.
+    private int[] pointsX = new int[0];     // Puntos de las líneas de los indicadores.
+    private int[] pointsY = new int[0];
+
+
+    /**
+     * Constructor de la clase CandlePainter.
+     */
+    CandlePainter() {
+        candleSize = CandleSize.SMALL;
+        candlesPerColumn = 1;
+    }
+
+
+    /**
+     * Establece la escala con la que se dibujan las velas.
+     *
+     * @param candleSize Tamaño de las velas.
+     * @param candlesPerColumn Número de velas agrupadas en cada columna de un píxel.
+     * @param rangeUp Precio representado en el borde superior.
+     * @param rangeDown Precio representado en el borde inferior.
+     * @param height Altura en píxeles del área de dibujo.
+     */
+    void setScale(CandleSize candleSize, int candlesPerColumn, double rangeUp, double rangeDown, int height) {
+        this.candleSize = candleSize;
+        this.candlesPerColumn = candlesPerColumn;
+        this.rangeUp = rangeUp;
+        this.rangeDown = rangeDown;
+        this.height = height;
+    }
+
+
+    /**
+     * Dibuja las velas de la serie que intersecan con el rango de columnas indicado. Con una vela por columna se dibuja
+     * cada vela, y con varias velas por columna se dibuja una línea por columna entre su máximo y su mínimo.
+     *
+     * @param g El contexto gráfico en el que dibujar las velas.
+     * @param series Serie de velas a representar.
+     * @param fromX Primera columna a dibujar (inclusive).
+     * @param toX Última columna a dibujar (exclusive).
+     */
+    void paint(Graphics g, CandleSeries series, int fromX, int toX) {
+        if(series.size() == 0) {
+            return;
+        }
+
+        if(candlesPerColumn > 1) {
+            paintColumns(g, series, fromX, toX);
+        }
+        else {
+            // Una vela ocupa los píxeles desde su posición menos la mitad de su ancho hasta completar su ancho.
+            int candleWidth = candleSize.getCandleWidth();
+            int left = candleWidth / 2;
+            long from = candleSize.firstIndexAt((double) fromX + left - (candleWidth - 1));
+            long to = candleSize.firstIndexAt((double) toX + left);
+            paintCandles(g, series, (int) Math.max(from, 0), (int) Math.min(to, series.size()));
+        }
+    }
+
+
+    /**
+     * Dibuja las líneas de un indicador sobre las velas de la serie que intersecan con el rango de columnas indicado.
+     * Cada línea une los valores de las velas consecutivas, o de la última vela de cada columna en el modo de nivel de
+     * detalle, y se interrumpe en las velas sin valor. Se incluye además la vela anterior y la posterior al rango, de
+     * forma que los segmentos que lo cruzan quedan completos.
+     *
+     * @param g El contexto gráfico en el que dibujar las líneas, con el color ya establecido.
+     * @param indicator Indicador a representar.
+     * @param bufferIndex Índice en el buffer del indicador de la primera vela de la serie.
+     * @param size Número de velas de la serie.
+     * @param fromX Primera columna a dibujar (inclusive).
+     * @param toX Última columna a dibujar (exclusive).
+     */
+    void paintIndicator(Graphics g, Indicator indicator, int bufferIndex, int size, int fromX, int toX) {
+        if(indicator.getBuffer() == null) {
+            return;
+        }
+        size = Math.min(size, indicator.getBuffer().size() - bufferIndex);
+
+        // Cada punto se identifica por su posición y por el índice de su vela en la serie.
+        long from, to;
+        if(candlesPerColumn > 1) {
+            from = Math.max(fromX - 1L, 0);
+            to = Math.min(toX + 1L, ((long) size + candlesPerColumn - 1) / candlesPerColumn);
+        }
+        else {
+            from = Math.max(candleSize.firstIndexAt(fromX) - 1, 0);
+            to = Math.min(candleSize.firstIndexAt(toX) + 1, size);
+        }
+        int count = (int) Math.max(to - from, 0);
+        if(pointsX.length < count) {
+            int length = Math.max(count, pointsX.length * 2);
+            pointsX = new int[length];
+            pointsY = new int[length];
+        }
+
+        for(int line = 0; line < indicator.getLineCount(); line++) {
+            int points = 0;
+            for(int i = (int) from; i < to; i++) {
+                int x, index;
+                if(candlesPerColumn > 1) {
+                    x = i;
+                    index = (int) Math.min((i + 1L) * candlesPerColumn - 1, size - 1);
+                }
+                else {
+                    x = positionOfCandle(i, candleSize);
+                    index = i;
+                }
+
+                double value = indicator.getValue(line, bufferIndex + index);
+                if(Double.isNaN(value)) {
+                    paintPolyline(g, points);
+                    points = 0;
+                }
+                else {
+                    pointsX[points] = x;
+                    pointsY[points] = positionOfPrice(value);
+                    points++;
+                }
+            }
+            paintPolyline(g, points);
+        }
+    }
+
+
+    /**
+     * Calcula la posición en píxeles en el eje X del índice de vela proporcionado.
+     *
+     * @param index Índice de vela para calcular su posición.
+     * @param candleSize Tamaño de las velas.
+     * @return Posición en pixel en el eje X.
+     */
+    static int positionOfCandle(int index, CandleSize candleSize) {
+        return candleSize.positionOf(index);
+    }
+
+
+    /**
+     * Método auxiliar que dibuja las velas. En primer lugar se calcula la geometría de todas las velas en arrays de
+     * enteros, separando las velas alcistas de las bajistas, y a continuación se dibujan con una pasada por color: el
+     * borde y la mecha de las velas bajistas, el cuerpo de las velas bajistas, y lo mismo para las alcistas. De esta
+     * forma no se crean objetos por vela y el color del contexto gráfico solo cambia cuatro veces por pintado.
+     *
+     * @param g El contexto gráfico en el que dibujar las velas.
+     * @param series Serie de velas a representar.
+     * @param fromIndex Índice de la primera vela a dibujar (inclusive).
+     * @param toIndex Índice de la última vela a dibujar (exclusive).
+     */
+    private void paintCandles(Graphics g, CandleSeries series, int fromIndex, int toIndex) {
+        int size = Math.max(toIndex - fromIndex, 0);
+        if(positions.length < size) {
+            int length = Math.max(size, positions.length * 2);
+            positions = new int[length];
+            highs = new int[length];
+            lows = new int[length];
+            tops = new int[length];
+            bottoms = new int[length];
+        }
+
+        // Las velas bajistas se guardan desde el inicio de los arrays y las alcistas desde el final.
+        int bearish = 0;
+        int bullish = size;
+        for(int i = fromIndex; i < toIndex; i++) {
+            double open = series.getOpen(i);
+            double close = series.getClose(i);
+            int j = open > close? bearish++: --bullish;
+            positions[j] = positionOfCandle(i, candleSize);
+            highs[j] = positionOfPrice(series.getHigh(i));
+            lows[j] = positionOfPrice(series.getLow(i));
+            tops[j] = positionOfPrice(Math.max(open, close));
+            bottoms[j] = positionOfPrice(Math.min(open, close));
+        }
+
+        paintCandles(g, 0, bearish, BEARISH_BORDER, BEARISH_BODY);
+        paintCandles(g, bullish, size, BULLISH_BORDER, BULLISH_BODY);
+    }
+
+
+    /**
+     * Método auxiliar que dibuja las velas de un color a partir de la geometría calculada.
+     *
+     * @param g El contexto gráfico en el que dibujar las velas.
+     * @param from Posición de la primera vela en los arrays de geometría (inclusive).
+     * @param to Posición de la última vela en los arrays de geometría (exclusive).
+     * @param border Color de la mecha y el borde de las velas.
+     * @param body Color del cuerpo de las velas.
+     */
+    private void paintCandles(Graphics g, int from, int to, Color border, Color body) {
+        int candleWidth = candleSize.getCandleWidth();
+        int left = candleWidth / 2;
+
+        g.setColor(border);
+        for(int i = from; i < to; i++) {
+            g.drawLine(positions[i], highs[i], positions[i], lows[i]);
+            g.drawRect(positions[i] - left, tops[i], candleWidth - 1, bottoms[i] - tops[i]);
+        }
+
+        g.setColor(body);
+        for(int i = from; i < to; i++) {
+            g.fillRect(positions[i] - left + 1, tops[i], candleWidth - 2, bottoms[i] - tops[i]);
+        }
+    }
+
+
+    /**
+     * Método auxiliar que dibuja las velas agrupadas por columnas en el modo de nivel de detalle. Se utiliza el nivel
+     * de agrupación más alto de la serie que mantiene al menos un grupo por columna, de forma que cada columna combina
+     * uno o dos grupos. Cuando la serie es un rango del buffer alineado con su pirámide de agrupación, los máximos y
+     * mínimos de los grupos se obtienen directamente de la pirámide, y el coste del pintado es proporcional al ancho
+     * de la vista.
+     *
+     * @param g El contexto gráfico en el que dibujar las columnas.
+     * @param series Serie de velas a representar.
+     * @param fromX Primera columna a dibujar (inclusive).
+     * @param toX Última columna a dibujar (exclusive).
+     */
+    private void paintColumns(Graphics g, CandleSeries series, int fromX, int toX) {
+        int level = 31 - Integer.numberOfLeadingZeros(candlesPerColumn);
+        CandleSeries groups = series.getLevel(level);
+
+        // Cada grupo se asigna a la columna en la que empieza, por lo que el primer grupo de la columna x es el primero
+        // que empieza en la vela x * candlesPerColumn o después.
+        int i = firstGroup(Math.max(fromX, 0), level);
+        int size = Math.min(firstGroup(Math.max(toX, 0), level), groups.size());
+        while(i < size) {
+            int x = column(i, level);
+            double open = groups.getOpen(i);
+            double high = groups.getHigh(i);
+            double low = groups.getLow(i);
+            double close = groups.getClose(i);
+            for(i++; i < size && column(i, level) == x; i++) {
+                high = Math.max(high, groups.getHigh(i));
+                low = Math.min(low, groups.getLow(i));
+                close = groups.getClose(i);
+            }
+
+            g.setColor(open > close ? Color.RED : Color.GREEN);
+            g.drawLine(x, positionOfPrice(high), x, positionOfPrice(low));
+        }
+    }
+
+
+    /**
+     * Método auxiliar que obtiene el primer grupo de velas que empieza en la columna indicada o en una posterior.
+     *
+     * @param column Columna.
+     * @param level Nivel de agrupación.
+     * @return Índice del grupo.
+     */
+    private int firstGroup(int column, int level) {
+        long groupSize = 1L << level;
+        return (int) Math.min((column * (long) candlesPerColumn + groupSize - 1) / groupSize, Integer.MAX_VALUE);
+    }
+
+
+    /**
+     * Método auxiliar que obtiene la columna en la que empieza un grupo de velas.
+     *
+     * @param group Índice del grupo.
+     * @param level Nivel de agrupación.
+     * @return Columna del grupo.
+     */
+    private int column(int group, int level) {
+        return (int) (((long) group << level) / candlesPerColumn);
+    }
+
+
+    /**
+     * Método auxiliar que dibuja la línea que une los primeros puntos calculados, o un punto si solo hay uno.
+     *
+     * @param g El contexto gráfico en el que dibujar la línea.
+     * @param points Número de puntos de la línea.
+     */
+    private void paintPolyline(Graphics g, int points) {
+        if(points == 1) {
+            g.drawLine(pointsX[0], pointsY[0], pointsX[0], pointsY[0]);
+        }
+        else if(points > 1) {
+            g.drawPolyline(pointsX, pointsY, points);
+        }
+    }
+
+
+    /**
+     * Calcula la posición en píxeles en el eje Y del precio proporcionado.
+     *
+     * @param price Precio de vela para calcular su posición.
+     * @return Posición en pixel en el eje Y.
+     */
+    private int positionOfPrice(double price) {
+        return (int) ((rangeUp - price) / ((rangeUp - rangeDown) / height));
+    }
+}
@@ -1,12 +1,8 @@
 package candleChart.view;
 
-import candleChart.controller.CandleSize;
-import candleChart.model.Candle;
+import candleChart.data.CandleSeries;
 
-import javax.swing.*;
 import java.awt.*;
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * La clase CandleView representa una vista que muestra una serie de velas en un gráfico.
@@ -14,166 +10,61 @@ import java.util.List;
  * y el rectángulo representa la diferencia entre los precios de apertura y cierre. El color de la vela depende de si
  * el precio de apertura es mayor o menor que el precio de cierre, siendo verde si el precio de cierre es mayor que el
  * precio de apertura y rojo si el precio de cierre es menor que el precio de apertura.
+ * Cuando se establecen varias velas por columna, la vista entra en modo de nivel de detalle: cada columna de un píxel
+ * agrupa las velas que le corresponden y se dibuja como una línea entre su máximo y su mínimo, con el color que indica
+ * la apertura de la primera vela y el cierre de la última. De esta forma el coste del pintado depende del ancho de la
+ * vista y no del número de velas representadas.
+ * Sobre las velas se pueden dibujar las líneas de indicadores técnicos asociados al buffer de las velas, con la misma
+ * escala de precios que las velas. Es el panel principal del gráfico, bajo el que pueden apilarse otros paneles
+ * (ChartPane) que comparten su ventana de velas.
  */
-public class CandleView extends JPanel {
-    private List<Candle> candleList;
-
-    private CandleSize candleSize;
-    private double rangeUp, rangeDown;
-
+public class CandleView extends ChartPane {
 
     /**
      * Constructor de la clase CandleView.
      * Crea una nueva instancia de CandleView con valores predeterminados para las propiedades.
      */
     public CandleView() {
-        candleList = new ArrayList<>();
-        candleSize = CandleSize.SMALL;
-        rangeUp = 0;
-        rangeDown = 0;
-
-        setOpaque(false);
     }
 
 
     /**
-     * Sobrescribe el método paintComponent para dibujar las velas en un gráfico.
-     * Este método se llama automáticamente cuando el componente necesita ser repintado.
+     * Dibuja las velas en la imagen de la capa. Este método se llama cuando cambian las velas, el rango de precios o
+     * el tamaño de la vista. Solo se dibujan las velas o columnas que intersecan con el área de recorte del contexto
+     * gráfico, de forma que el coste de redibujar una región es proporcional a su ancho.
      *
      * @param g El contexto gráfico en el que dibujar las velas.
+     * @param fromX Primera columna a dibujar (inclusive).
+     * @param toX Última columna a dibujar (exclusive).
      */
     @Override
-    protected void paintComponent(Graphics g) {
-        super.paintComponent(g);
-
-        if(!candleList.isEmpty()) {
-            int candleWidth = candleSize.getCandleWidth();
-            // Itera sobre la lista en orden inverso para dibujar las velas más recientes al final.
-            for (int i = candleList.size() -1; i >= 0; i--) {
-                // Se dibuja las lineas de las velas.
-                g.setColor(candleList.get(i).openPrice() > candleList.get(i).closePrice() ? new Color(127, 0, 0) : new Color(0, 127, 0));
-                g.drawLine(positionOfCandle(i), positionOfPrice(candleList.get(i).highPrice()),
-                           positionOfCandle(i), positionOfPrice(candleList.get(i).lowPrice()));
-
-                // Se dibuja el rectángulo de las velas.
-                double maxOpenOrClose = Math.max(candleList.get(i).openPrice(), candleList.get(i).closePrice());
-                double minOpenOrClose = Math.min(candleList.get(i).openPrice(), candleList.get(i).closePrice());
-                int rectY = positionOfPrice(maxOpenOrClose);
-                int rectHeight = positionOfPrice(minOpenOrClose) - rectY;
-                g.drawRect(positionOfCandle(i) - (candleWidth / 2) , rectY, candleWidth - 1, rectHeight);
-                g.setColor(candleList.get(i).openPrice() > candleList.get(i).closePrice() ? new Color(255, 0, 0) : new Color(0, 255, 0));
-                g.fillRect(positionOfCandle(i) - (candleWidth / 2) + 1, rectY, candleWidth - 2, rectHeight);
-            }
-        }
-    }
-
-
-    /**
-     * Establece la lista de velas que será representada en la vista.
-     *
-     * @param candleList Lista de velas a representar.
-     */
-    public void setCandleList(List<Candle> candleList) {
-        if(candleList == null) {
-            throw new NullPointerException("No se permiten valores nulos");
-        }
-
-        this.candleList = candleList;
-        repaint();
-    }
-
-
-    /**
-     * Obtiene la lista de velas representadas en la vista del gráfico.
-     *
-     * @return La lista de velas.
-     */
-    public List<Candle> getCandleList() {
-        return candleList;
-    }
-
-
-    /**
-     * Establece un objeto de tipo CandleSize el cual contiene la posición relativa y tamaño de la vela.
-     *
-     * @param candleSize Objeto de tipo CandleSize ha establecer.
-     */
-    public void setCandleSize(CandleSize candleSize) {
-        if(candleSize == null) {
-            throw new NullPointerException("No se permiten valores nulos para 'candleSize'.");
-        }
-
-        this.candleSize = candleSize;
-        repaint();
-    }
-
-
-    /**
-     * Obtiene un objeto de tipo CandleSize que contiene posición relativa y tamaño de la vela.
-     *
-     * @return Objeto de tipo CandleSize.
-     */
-    public CandleSize getCandleSize() {
-        return candleSize;
-    }
-
-
-    /**
-     * Establece el rango de precios que será representado en el gráfico.
-     *
-     * @param rangeUp Precio del rango superior.
-     * @param rangeDown Precio del rango inferior.
-     */
-    public void setPriceRange(double rangeUp, double rangeDown) {
-        if (rangeUp < rangeDown) {
-            throw new IllegalArgumentException("El rango superior no puede ser menos que el rango inferior.");
-        }
-
-        this.rangeUp = rangeUp;
-        this.rangeDown = rangeDown;
-        repaint();
-    }
-
-
-    /**
-     * Obtiene el rango de precio superior representado en el gráfico.
-     *
-     * @return El precio del rango superior.
-     */
-    public double getRangeUp() {
-        return rangeUp;
+    protected void paintValues(Graphics2D g, int fromX, int toX) {
+        getPainter().paint(g, CandleSeries.of(getCandleList()), fromX, toX);    // Acceso sin crear objetos Candle.
     }
 
 
     /**
-     * Obtiene el rango de precio inferior representado en el gráfico.
+     * Obtiene el mayor precio de las velas representadas, mediante el índice de máximos y mínimos del buffer cuando la
+     * lista es un rango del buffer.
      *
-     * @return El precio del rango inferior.
+     * @return El mayor precio, o Double.NaN si no hay velas.
      */
-    public double getRangeDown() {
-        return rangeDown;
-    }
-
-
-    /**
-     * Calcula la posición en píxeles en el eje X del índice de vela proporcionado.
-     *
-     * @param index Índice de vela para calcular su posición.
-     * @return Posición en pixel en el eje X.
-     */
-    private int positionOfCandle(int index) {
-        int relativePosition = candleSize.getRelativePosition();
-        return index * relativePosition -1;
+    @Override
+    protected double getHighestValue() {
+        CandleSeries series = CandleSeries.of(getCandleList());
+        return series.size() > 0? series.getHighest(0, series.size()): Double.NaN;
     }
 
 
     /**
-     * Calcula la posición en píxeles en el eje Y del precio proporcionado.
+     * Obtiene el menor precio de las velas representadas, mediante el índice de máximos y mínimos del buffer cuando la
+     * lista es un rango del buffer.
      *
-     * @param price Precio de vela para calcular su posición.
-     * @return Posición en pixel en el eje Y.
+     * @return El menor precio, o Double.NaN si no hay velas.
      */
-    private int positionOfPrice(double price) {
-        return (int) ((rangeUp - price) / ((rangeUp - rangeDown) / getHeight()));
+    @Override
+    protected double getLowestValue() {
+        CandleSeries series = CandleSeries.of(getCandleList());
+        return series.size() > 0? series.getLowest(0, series.size()): Double.NaN;
     }
 }
@@ -0,0 +1,500 @@
+package candleChart.view;
+
+import candleChart.controller.CandleSize;
+import candleChart.data.Buffer;
+import candleChart.data.Indicator;
+import candleChart.model.Candle;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Clase base de los paneles del gráfico. Todos los paneles representan la misma ventana de velas del buffer, con el
+ * mismo tamaño de vela y número de velas por columna, de forma que comparten el eje de tiempo, mientras que cada panel
+ * tiene su propio rango de valores en el eje vertical. El panel principal es la vista de velas (CandleView), y bajo él
+ * pueden apilarse paneles secundarios con indicadores u otras series, como los osciladores.
+ * La ventana de velas se establece mediante setCandleList, y si la nueva ventana es la anterior desplazada, el método
+ * scrollCandles desplaza la imagen del panel y solo dibuja las columnas de las velas que no estaban representadas.
+ * Sobre el contenido de cada panel se pueden dibujar las líneas de indicadores técnicos asociados al buffer de las
+ * velas, con la escala de valores del panel.
+ * Las subclases dibujan su serie en el método paintValues, y pueden calcular su rango de valores a partir de los
+ * valores representados sobrescribiendo los métodos getHighestValue y getLowestValue.
+ */
+public abstract class ChartPane extends CachedLayer {
+    private List<Candle> candleList;
+    private boolean candleListChanged;  // La lista ha cambiado y la imagen de la capa aún no se ha invalidado.
+    private int previousCandleCount;    // Número de velas de la lista representada en la imagen de la capa.
+    private int bufferIndex;            // Índice en el buffer de la primera vela de la lista.
+    private final List<Overlay> overlays;
+
+    private CandleSize candleSize;
+    private int candlesPerColumn;
+    private double rangeUp, rangeDown;
+    private final CandlePainter painter;
+
+
+    /**
+     * Constructor de la clase ChartPane.
+     * Crea un nuevo panel sin velas, con valores predeterminados para las propiedades.
+     */
+    protected ChartPane() {
+        candleList = new ArrayList<>();
+        overlays = new ArrayList<>();
+        painter = new CandlePainter();
+        candleSize = CandleSize.SMALL;
+        candlesPerColumn = 1;
+        rangeUp = 0;
+        rangeDown = 0;
+    }
+
+
+    /**
+     * Dibuja la serie del panel en la imagen de la capa. Solo es necesario dibujar los valores de las columnas que
+     * intersecan con el rango indicado, que corresponde al área de recorte del contexto gráfico.
+     *
+     * @param g El contexto gráfico en el que dibujar la serie.
+     * @param fromX Primera columna a dibujar (inclusive).
+     * @param toX Última columna a dibujar (exclusive).
+     */
+    protected abstract void paintValues(Graphics2D g, int fromX, int toX);
+
+
+    /**
+     * Sobrescribe el método paintComponent para invalidar la imagen de la capa si la lista de velas ha cambiado sin
+     * haberse desplazado su contenido mediante el método scrollCandles.
+     *
+     * @param g El contexto gráfico en el que dibujar el panel.
+     */
+    @Override
+    protected void paintComponent(Graphics g) {
+        if(candleListChanged) {
+            candleListChanged = false;
+            discardLayer();
+        }
+        super.paintComponent(g);
+    }
+
+
+    /**
+     * Dibuja la serie del panel y las líneas de sus indicadores en la imagen de la capa. Este método se llama cuando
+     * cambian las velas, el rango de valores o el tamaño del panel.
+     *
+     * @param g El contexto gráfico en el que dibujar el panel.
+     */
+    @Override
+    protected final void paintLayer(Graphics2D g) {
+        Rectangle clip = g.getClipBounds();
+        int clipX = clip != null? clip.x: 0;
+        int clipWidth = clip != null? clip.width: getWidth();
+        painter.setScale(candleSize, candlesPerColumn, rangeUp, rangeDown, getHeight());
+        paintValues(g, clipX, clipX + clipWidth);
+
+        for(int i = 0; i < overlays.size(); i++) {
+            Overlay overlay = overlays.get(i);
+            g.setColor(overlay.color());
+            painter.paintIndicator(g, overlay.indicator(), bufferIndex, candleList.size(), clipX, clipX + clipWidth);
+        }
+    }
+
+
+    /**
+     * Obtiene el objeto encargado de dibujar las velas y los indicadores, con la escala del panel ya establecida
+     * durante el pintado.
+     *
+     * @return Objeto de pintado del panel.
+     */
+    CandlePainter getPainter() {
+        return painter;
+    }
+
+
+    /**
+     * Establece la lista de velas que será representada en el panel. El panel se vuelve a dibujar completo, salvo que
+     * a continuación se indique mediante el método scrollCandles que la nueva lista es la anterior desplazada.
+     *
+     * @param candleList Lista de velas a representar.
+     */
+    public void setCandleList(List<Candle> candleList) {
+        setCandleList(candleList, 0);
+    }
+
+
+    /**
+     * Establece la lista de velas que será representada en el panel, indicando el índice en el buffer de su primera
+     * vela, que es el índice a partir del cual se obtienen los valores de los indicadores representados.
+     *
+     * @param candleList Lista de velas a representar.
+     * @param bufferIndex Índice en el buffer de la primera vela de la lista.
+     */
+    public void setCandleList(List<Candle> candleList, int bufferIndex) {
+        if(candleList == null) {
+            throw new NullPointerException("No se permiten valores nulos");
+        }
+
+        if(!candleListChanged) {
+            previousCandleCount = this.candleList.size();
+        }
+        this.candleList = candleList;
+        this.bufferIndex = bufferIndex;
+        candleListChanged = true;
+        repaint();
+    }
+
+
+    /**
+     * Obtiene la lista de velas representadas en el panel.
+     *
+     * @return La lista de velas.
+     */
+    public List<Candle> getCandleList() {
+        return candleList;
+    }
+
+
+    /**
+     * Obtiene el índice en el buffer de la primera vela de la lista representada.
+     *
+     * @return Índice en el buffer de la primera vela.
+     */
+    public int getBufferIndex() {
+        return bufferIndex;
+    }
+
+
+    /**
+     * Añade un indicador que será representado como una línea por cada una de las líneas de valores del indicador. El
+     * indicador debe estar asociado al buffer de las velas representadas.
+     *
+     * @param indicator Indicador a representar.
+     * @param color Color de las líneas del indicador.
+     * @throws NullPointerException Si el indicador o el color proporcionados son nulos.
+     */
+    public void addIndicator(Indicator indicator, Color color) {
+        if(indicator == null) {
+            throw new NullPointerException("No se permiten valores nulos para el valor 'indicator'.");
+        }
+        if(color == null) {
+            throw new NullPointerException("No se permiten valores nulos para el valor 'color'.");
+        }
+
+        overlays.add(new Overlay(indicator, color));
+        invalidateLayer();
+    }
+
+
+    /**
+     * Elimina un indicador representado en el panel.
+     *
+     * @param indicator Indicador a eliminar.
+     * @return True si el indicador estaba representado, o false en caso contrario.
+     */
+    public boolean removeIndicator(Indicator indicator) {
+        if(overlays.removeIf(overlay -> overlay.indicator() == indicator)) {
+            invalidateLayer();
+            return true;
+        }
+        return false;
+    }
+
+
+    /**
+     * Obtiene los indicadores representados en el panel.
+     *
+     * @return Lista de los indicadores representados.
+     */
+    public List<Indicator> getIndicators() {
+        List<Indicator> indicators = new ArrayList<>();
+        for(Overlay overlay: overlays) {
+            indicators.add(overlay.indicator());
+        }
+        return indicators;
+    }
+
+
+    /**
+     * Indica que la última lista establecida mediante setCandleList es la lista anterior desplazada el número de
+     * velas indicado, con el mismo rango de valores. En lugar de volver a dibujar todas las velas, se desplaza la
+     * imagen del panel y solo se dibujan las columnas de las velas que no estaban representadas. Si la imagen no
+     * puede desplazarse, por haber cambiado también otras propiedades del panel, se dibuja el panel completo.
+     *
+     * @param shift Número de velas que se ha desplazado el inicio de la lista, positivo hacia las velas más recientes.
+     */
+    public void scrollCandles(int shift) {
+        if(!candleListChanged) {
+            return;
+        }
+
+        double dx;
+        if(candlesPerColumn > 1) {
+            // En el modo de nivel de detalle solo se desplazan columnas completas de grupos de la pirámide.
+            if(Integer.bitCount(candlesPerColumn) != 1 || shift % candlesPerColumn != 0) {
+                return;
+            }
+            dx = -(long) shift / candlesPerColumn;
+        }
+        else {
+            // Con una posición relativa fraccionaria las velas solo conservan su posición si el desplazamiento es un
+            // número entero de píxeles.
+            dx = -shift * candleSize.getRelativePosition();
+            if(dx != Math.rint(dx)) {
+                return;
+            }
+        }
+
+        if(Math.abs(dx) < getWidth() && scrollLayer((int) dx)) {
+            candleListChanged = false;
+            int retained = previousCandleCount - shift;   // Índice siguiente a la última vela conservada.
+            invalidateCandles(Math.max(Math.min(retained, candleList.size()), 0), Math.max(retained, candleList.size()));
+        }
+    }
+
+
+    /**
+     * Repinta únicamente la columna de la vela del índice indicado. Permite reflejar los cambios de una vela sin
+     * repintar el resto del panel, siempre que el rango de valores no haya cambiado. Si se representan indicadores,
+     * se repinta también la columna de la vela anterior, ya que sus líneas unen ambas velas.
+     *
+     * @param index Índice de la vela en la lista de velas representada.
+     */
+    public void repaintCandle(int index) {
+        if(!overlays.isEmpty()) {
+            invalidateCandles(index, index + 1);    // Incluye el segmento de los indicadores desde la vela anterior.
+        }
+        else if(candlesPerColumn > 1) {
+            invalidateLayer(index / candlesPerColumn, 0, 1, getHeight());
+        }
+        else {
+            int candleWidth = candleSize.getCandleWidth();
+            invalidateLayer(positionOfCandle(index) - (candleWidth / 2) - 1, 0, candleWidth + 2, getHeight());
+        }
+    }
+
+
+    /**
+     * Método auxiliar que invalida las columnas del rango de velas indicado.
+     *
+     * @param fromIndex Índice de la primera vela (inclusive).
+     * @param toIndex Índice de la última vela (exclusive).
+     */
+    private void invalidateCandles(int fromIndex, int toIndex) {
+        if(fromIndex >= toIndex) {
+            return;
+        }
+        if(!overlays.isEmpty()) {
+            fromIndex = Math.max(fromIndex - 1, 0);     // Los indicadores unen la primera vela con la anterior.
+        }
+
+        if(candlesPerColumn > 1) {
+            int x = fromIndex / candlesPerColumn;
+            invalidateLayer(x, 0, (toIndex - 1) / candlesPerColumn + 1 - x, getHeight());
+        }
+        else {
+            int candleWidth = candleSize.getCandleWidth();
+            int x = positionOfCandle(fromIndex) - (candleWidth / 2) - 1;
+            invalidateLayer(x, 0, positionOfCandle(toIndex - 1) - positionOfCandle(fromIndex) + candleWidth + 2,
+                    getHeight());
+        }
+    }
+
+
+    /**
+     * Establece un objeto de tipo CandleSize el cual contiene la posición relativa y tamaño de la vela.
+     *
+     * @param candleSize Objeto de tipo CandleSize ha establecer.
+     */
+    public void setCandleSize(CandleSize candleSize) {
+        if(candleSize == null) {
+            throw new NullPointerException("No se permiten valores nulos para 'candleSize'.");
+        }
+
+        this.candleSize = candleSize;
+        invalidateLayer();
+    }
+
+
+    /**
+     * Obtiene un objeto de tipo CandleSize que contiene posición relativa y tamaño de la vela.
+     *
+     * @return Objeto de tipo CandleSize.
+     */
+    public CandleSize getCandleSize() {
+        return candleSize;
+    }
+
+
+    /**
+     * Establece el número de velas agrupadas en cada columna de un píxel. Con el valor 1 cada vela se dibuja con el
+     * tamaño establecido por CandleSize, y con valores mayores el panel pasa al modo de nivel de detalle.
+     *
+     * @param candlesPerColumn Número de velas por columna.
+     * @throws IllegalArgumentException Si el número de velas por columna no es positivo.
+     */
+    public void setCandlesPerColumn(int candlesPerColumn) {
+        if(candlesPerColumn < 1) {
+            throw new IllegalArgumentException("El número de velas por columna debe ser un valor positivo.");
+        }
+
+        this.candlesPerColumn = candlesPerColumn;
+        invalidateLayer();
+    }
+
+
+    /**
+     * Obtiene el número de velas agrupadas en cada columna de un píxel.
+     *
+     * @return Número de velas por columna.
+     */
+    public int getCandlesPerColumn() {
+        return candlesPerColumn;
+    }
+
+
+    /**
+     * Establece el rango de valores que será representado en el panel, que en la vista de velas es el rango de precios.
+     *
+     * @param rangeUp Valor del rango superior.
+     * @param rangeDown Valor del rango inferior.
+     * @throws IllegalArgumentException Si el rango superior es inferior al rango inferior.
+     */
+    public void setPriceRange(double rangeUp, double rangeDown) {
+        if (rangeUp < rangeDown) {
+            throw new IllegalArgumentException("El rango superior no puede ser menos que el rango inferior.");
+        }
+
+        this.rangeUp = rangeUp;
+        this.rangeDown = rangeDown;
+        invalidateLayer();
+    }
+
+
+    /**
+     * Obtiene el valor del rango superior representado en el panel.
+     *
+     * @return El valor del rango superior.
+     */
+    public double getRangeUp() {
+        return rangeUp;
+    }
+
+
+    /**
+     * Obtiene el valor del rango inferior representado en el panel.
+     *
+     * @return El valor del rango inferior.
+     */
+    public double getRangeDown() {
+        return rangeDown;
+    }
+
+
+    /**
+     * Ajusta el rango de valores del panel a los valores representados en la ventana de velas actual. El panel solo se
+     * vuelve a dibujar si el rango cambia, y si no hay ningún valor representado el rango es cero.
+     *
+     * @return True si ha cambiado el rango de valores, o false en caso contrario.
+     */
+    public boolean updateValueRange() {
+        double highest = getHighestValue();
+        double lowest = getLowestValue();
+        if(Double.isNaN(highest) || Double.isNaN(lowest)) {
+            highest = 0;
+            lowest = 0;
+        }
+
+        if(highest == rangeUp && lowest == rangeDown) {
+            return false;
+        }
+        setPriceRange(highest, lowest);
+        return true;
+    }
+
+
+    /**
+     * Obtiene el mayor valor representado en el panel. Por defecto es el mayor valor de las líneas de los indicadores
+     * en los puntos que se dibujan, que en el modo de nivel de detalle son las últimas velas de cada columna, por lo
+     * que el coste depende del ancho del panel y no del número de velas representadas.
+     *
+     * @return El mayor valor representado, o Double.NaN si no hay ningún valor.
+     */
+    protected double getHighestValue() {
+        return indicatorExtreme(true);
+    }
+
+
+    /**
+     * Obtiene el menor valor representado en el panel. Por defecto es el menor valor de las líneas de los indicadores
+     * en los puntos que se dibujan.
+     *
+     * @return El menor valor representado, o Double.NaN si no hay ningún valor.
+     */
+    protected double getLowestValue() {
+        return indicatorExtreme(false);
+    }
+
+
+    /**
+     * Calcula la posición en píxeles en el eje X del índice de vela proporcionado. En el modo de nivel de detalle es la
+     * columna que agrupa la vela.
+     *
+     * @param index Índice de vela en la lista de velas representada.
+     * @return Posición en pixel en el eje X.
+     */
+    protected int positionOfCandle(int index) {
+        return candlesPerColumn > 1? index / candlesPerColumn: CandlePainter.positionOfCandle(index, candleSize);
+    }
+
+
+    /**
+     * Calcula la posición en píxeles en el eje Y del valor proporcionado, según el rango de valores del panel.
+     *
+     * @param value Valor para calcular su posición.
+     * @return Posición en pixel en el eje Y.
+     */
+    protected int positionOfValue(double value) {
+        return (int) ((rangeUp - value) / ((rangeUp - rangeDown) / getHeight()));
+    }
+
+
+    /**
+     * Método auxiliar que obtiene el mayor o el menor valor de las líneas de los indicadores en los puntos que se
+     * dibujan, que son los mismos que recorre CandlePainter.paintIndicator.
+     *
+     * @param highest True para obtener el mayor valor, o false para obtener el menor.
+     * @return Valor extremo de los indicadores, o Double.NaN si no hay ningún valor.
+     */
+    private double indicatorExtreme(boolean highest) {
+        double extreme = Double.NaN;
+        for(int i = 0; i < overlays.size(); i++) {
+            Indicator indicator = overlays.get(i).indicator();
+            Buffer buffer = indicator.getBuffer();
+            if(buffer == null) {
+                continue;
+            }
+
+            int size = Math.min(candleList.size(), buffer.size() - bufferIndex);
+            long points = candlesPerColumn > 1? ((long) size + candlesPerColumn - 1) / candlesPerColumn: size;
+            for(int line = 0; line < indicator.getLineCount(); line++) {
+                for(int point = 0; point < points; point++) {
+                    int index = candlesPerColumn > 1?
+                            (int) Math.min((point + 1L) * candlesPerColumn - 1, size - 1): point;
+                    double value = indicator.getValue(line, bufferIndex + index);
+                    if(!Double.isNaN(value) && (Double.isNaN(extreme) || (highest? value > extreme: value < extreme))) {
+                        extreme = value;
+                    }
+                }
+            }
+        }
+        return extreme;
+    }
+
+
+    /**
+     * Indicador representado en el panel junto con el color de sus líneas.
+     *
+     * @param indicator Indicador representado.
+     * @param color Color de las líneas.
+     */
+    private record Overlay(Indicator indicator, Color color) {
+    }
+}
@@ -0,0 +1,481 @@
+package candleChart.view;
+
+import candleChart.controller.CandleSize;
+import candleChart.data.Buffer;
+import candleChart.data.CandleSeries;
+import candleChart.model.Candle;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+
+/**
+ * Clase que dibuja un gráfico de velas directamente en una imagen, sin crear ni mostrar ningún componente. Está pensada
+ * para generar imágenes del gráfico en un servidor, por ejemplo para informes o alertas, y funciona en modo headless
+ * (java.awt.headless=true).
+ * El gráfico se compone del área de velas con su cuadrícula, la línea de precios a la derecha y la línea de tiempo en
+ * la parte inferior, con la misma disposición y lógica de pintado que los componentes de TraderChart. Se representan
+ * las velas del buffer que caben en el área de velas hasta el índice indicado, con el rango de precios ajustado a ellas.
+ * Los métodos de dibujo pueden llamarse simultáneamente desde varios hilos. El acceso al buffer se sincroniza sobre el
+ * propio buffer, por lo que si otro hilo lo modifica mientras tanto debe sincronizarse también sobre él.
+ */
+public class ChartRenderer {
+    private static final int PRICE_LINE_WIDTH = 70;
+    private static final int TIME_LINE_HEIGHT = 40;
+
+    private volatile CandleSize candleSize;
+    private volatile int candlesPerColumn;
+    private volatile boolean gridVisible;
+    private volatile PriceFormatter priceFormat;    // Solo se usa para leer el formato, no para formatear precios.
+
+
+    /**
+     * Constructor de la clase ChartRenderer.
+     * Crea una nueva instancia de ChartRenderer con valores predeterminados para las propiedades.
+     */
+    public ChartRenderer() {
+        candleSize = CandleSize.SMALL;
+        candlesPerColumn = 1;
+        gridVisible = true;
+        priceFormat = new PriceFormatter();
+    }
+
+
+    /**
+     * Dibuja en una nueva imagen las velas más recientes del buffer que caben en el gráfico.
+     *
+     * @param buffer Buffer de velas a representar.
+     * @param width Anchura de la imagen.
+     * @param height Altura de la imagen.
+     * @return Imagen del gráfico.
+     * @throws NullPointerException Si el buffer es nulo.
+     * @throws IllegalArgumentException Si el tamaño de la imagen no es positivo.
+     */
+    public BufferedImage render(Buffer buffer, int width, int height) {
+        if(buffer == null) {
+            throw new NullPointerException("No se permiten valores nulos para el valor 'buffer'.");
+        }
+
+        synchronized (buffer) {
+            return render(buffer, buffer.size(), width, height);
+        }
+    }
+
+
+    /**
+     * Dibuja en una nueva imagen las velas del buffer que caben en el gráfico, terminando en el índice indicado.
+     *
+     * @param buffer Buffer de velas a representar.
+     * @param toIndex Índice siguiente a la última vela a representar.
+     * @param width Anchura de la imagen.
+     * @param height Altura de la imagen.
+     * @return Imagen del gráfico.
+     * @throws NullPointerException Si el buffer es nulo.
+     * @throws IllegalArgumentException Si el tamaño de la imagen no es positivo.
+     * @throws IndexOutOfBoundsException Si el índice está fuera del rango del buffer.
+     */
+    public BufferedImage render(Buffer buffer, int toIndex, int width, int height) {
+        if(width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("El tamaño de la imagen debe ser un valor positivo.");
+        }
+
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            render(g, buffer, toIndex, width, height);
+        }
+        finally {
+            g.dispose();
+        }
+        return image;
+    }
+
+
+    /**
+     * Dibuja en el contexto gráfico proporcionado las velas del buffer que caben en el gráfico, terminando en el índice
+     * indicado. Permite reutilizar la misma imagen para generar varios gráficos.
+     *
+     * @param g El contexto gráfico en el que dibujar el gráfico.
+     * @param buffer Buffer de velas a representar.
+     * @param toIndex Índice siguiente a la última vela a representar.
+     * @param width Anchura del gráfico.
+     * @param height Altura del gráfico.
+     * @throws NullPointerException Si el contexto gráfico o el buffer son nulos.
+     * @throws IndexOutOfBoundsException Si el índice está fuera del rango del buffer.
+     */
+    public void render(Graphics2D g, Buffer buffer, int toIndex, int width, int height) {
+        if(g == null) {
+            throw new NullPointerException("No se permiten valores nulos para el valor 'g'.");
+        }
+        if(buffer == null) {
+            throw new NullPointerException("No se permiten valores nulos para el valor 'buffer'.");
+        }
+
+        synchronized (buffer) {
+            paintFrame(g, createFrame(buffer, toIndex, width, height), new CandlePainter());
+        }
+    }
+
+
+    /**
+     * Dibuja el gráfico en franjas verticales de la anchura indicada, que se dibujan en paralelo en el pool común de
+     * ForkJoin. Las franjas se entregan al consumidor en orden de izquierda a derecha, desde el hilo que llama al
+     * método, por lo que pueden componerse en una imagen o escribirse directamente a disco. Como mucho hay tantas
+     * franjas pendientes de entregar como hilos tiene el pool, de forma que la memoria necesaria depende del tamaño
+     * de la franja y no del tamaño del gráfico.
+     *
+     * @param buffer Buffer de velas a representar.
+     * @param toIndex Índice siguiente a la última vela a representar.
+     * @param width Anchura del gráfico.
+     * @param height Altura del gráfico.
+     * @param tileWidth Anchura de las franjas.
+     * @param consumer Consumidor que recibe cada franja y su posición en el eje X.
+     * @throws IOException Si el consumidor produce un error al procesar una franja.
+     * @throws NullPointerException Si el buffer o el consumidor son nulos.
+     * @throws IllegalArgumentException Si el tamaño del gráfico o de las franjas no es positivo.
+     * @throws IndexOutOfBoundsException Si el índice está fuera del rango del buffer.
+     */
+    public void renderTiles(Buffer buffer, int toIndex, int width, int height, int tileWidth, TileConsumer consumer)
+            throws IOException {
+        renderTiles(buffer, toIndex, width, height, tileWidth, ForkJoinPool.commonPool(), consumer);
+    }
+
+
+    /**
+     * Dibuja el gráfico en franjas verticales de la anchura indicada, que se dibujan en paralelo en el pool
+     * proporcionado. Las franjas se entregan al consumidor en orden de izquierda a derecha, desde el hilo que llama al
+     * método. Durante el dibujo se mantiene la sincronización sobre el buffer.
+     *
+     * @param buffer Buffer de velas a representar.
+     * @param toIndex Índice siguiente a la última vela a representar.
+     * @param width Anchura del gráfico.
+     * @param height Altura del gráfico.
+     * @param tileWidth Anchura de las franjas.
+     * @param pool Pool en el que se dibujan las franjas.
+     * @param consumer Consumidor que recibe cada franja y su posición en el eje X.
+     * @throws IOException Si el consumidor produce un error al procesar una franja.
+     * @throws NullPointerException Si el buffer, el pool o el consumidor son nulos.
+     * @throws IllegalArgumentException Si el tamaño del gráfico o de las franjas no es positivo.
+     * @throws IndexOutOfBoundsException Si el índice está fuera del rango del buffer.
+     */
+    public void renderTiles(Buffer buffer, int toIndex, int width, int height, int tileWidth, ForkJoinPool pool,
+                            TileConsumer consumer) throws IOException {
+        if(buffer == null) {
+            throw new NullPointerException("No se permiten valores nulos para el valor 'buffer'.");
+        }
+        if(pool == null) {
+            throw new NullPointerException("No se permiten valores nulos para el valor 'pool'.");
+        }
+        if(consumer == null) {
+            throw new NullPointerException("No se permiten valores nulos para el valor 'consumer'.");
+        }
+        if(width <= 0 || height <= 0 || tileWidth <= 0) {
+            throw new IllegalArgumentException("El tamaño de la imagen debe ser un valor positivo.");
+        }
+
+        synchronized (buffer) {
+            Frame frame = createFrame(buffer, toIndex, width, height);
+            int tiles = (width + tileWidth - 1) / tileWidth;
+            int maxPending = Math.max(pool.getParallelism(), 1);
+            ArrayDeque<ForkJoinTask<BufferedImage>> pending = new ArrayDeque<>();
+            try {
+                int next = 0;
+                for(int tile = 0; tile < tiles; tile++) {
+                    while(next < tiles && pending.size() < maxPending) {
+                        int x = next++ * tileWidth;
+                        pending.add(pool.submit(() -> renderTile(frame, x, Math.min(tileWidth, width - x))));
+                    }
+                    consumer.accept(pending.remove().join(), tile * tileWidth);
+                }
+            }
+            finally {
+                pending.forEach(task -> task.cancel(false));
+            }
+        }
+    }
+
+
+    /**
+     * Establece el tamaño de las velas del gráfico.
+     *
+     * @param candleSize Tamaño de las velas.
+     * @throws NullPointerException Si el tamaño de las velas es nulo.
+     */
+    public void setCandleSize(CandleSize candleSize) {
+        if(candleSize == null) {
+            throw new NullPointerException("No se permiten valores nulos para el valor 'candleSize'.");
+        }
+        this.candleSize = candleSize;
+    }
+
+
+    /**
+     * Obtiene el tamaño de las velas del gráfico.
+     *
+     * @return Tamaño de las velas.
+     */
+    public CandleSize getCandleSize() {
+        return candleSize;
+    }
+
+
+    /**
+     * Establece el número de velas agrupadas en cada columna de un píxel del gráfico. Con valores mayores que 1 el
+     * gráfico se dibuja en modo de nivel de detalle.
+     *
+     * @param candlesPerColumn Número de velas por columna.
+     * @throws IllegalArgumentException Si el número de velas por columna no es positivo.
+     */
+    public void setCandlesPerColumn(int candlesPerColumn) {
+        if(candlesPerColumn < 1) {
+            throw new IllegalArgumentException("El número de velas por columna debe ser un valor positivo.");
+        }
+        this.candlesPerColumn = candlesPerColumn;
+    }
+
+
+    /**
+     * Obtiene el número de velas agrupadas en cada columna de un píxel del gráfico.
+     *
+     * @return Número de velas por columna.
+     */
+    public int getCandlesPerColumn() {
+        return candlesPerColumn;
+    }
+
+
+    /**
+     * Establece la visibilidad de la cuadrícula del gráfico.
+     *
+     * @param gridVisible Visibilidad de la cuadrícula.
+     */
+    public void setGridVisible(boolean gridVisible) {
+        this.gridVisible = gridVisible;
+    }
+
+
+    /**
+     * Obtiene la visibilidad de la cuadrícula del gráfico.
+     *
+     * @return Visibilidad de la cuadrícula.
+     */
+    public boolean isGridVisible() {
+        return gridVisible;
+    }
+
+
+    /**
+     * Establece el formato de los precios del gráfico según el tamaño del tick y el número de decimales del símbolo
+     * representado.
+     *
+     * @param tickSize Variación mínima del precio del símbolo.
+     * @param decimals Número de decimales con los que se muestran los precios.
+     * @throws IllegalArgumentException Si el tamaño del tick no es positivo o el número de decimales no es válido.
+     */
+    public void setPriceFormat(double tickSize, int decimals) {
+        priceFormat = new PriceFormatter(tickSize, decimals);
+    }
+
+
+    /**
+     * Obtiene el tamaño del tick con el que se formatean los precios.
+     *
+     * @return Tamaño del tick.
+     */
+    public double getTickSize() {
+        return priceFormat.getTickSize();
+    }
+
+
+    /**
+     * Obtiene el número de decimales con los que se muestran los precios.
+     *
+     * @return Número de decimales.
+     */
+    public int getPriceDecimals() {
+        return priceFormat.getDecimals();
+    }
+
+
+    /**
+     * Método auxiliar que calcula las velas representadas y su rango de precios. También se consultan los índices del
+     * buffer que se utilizan al dibujar, ya que se construyen al consultarse por primera vez, y a partir de ese momento
+     * el buffer puede leerse desde varios hilos mientras no se modifique.
+     *
+     * @param buffer Buffer de velas a representar.
+     * @param toIndex Índice siguiente a la última vela a representar.
+     * @param width Anchura del gráfico.
+     * @param height Altura del gráfico.
+     * @return Datos del gráfico a dibujar.
+     * @throws IndexOutOfBoundsException Si el índice está fuera del rango del buffer.
+     */
+    private Frame createFrame(Buffer buffer, int toIndex, int width, int height) {
+        if(toIndex < 0 || toIndex > buffer.size()) {
+            throw new IndexOutOfBoundsException("Índice fuera de rango: " + toIndex);
+        }
+
+        // Se leen las propiedades una sola vez para que no varíen durante el dibujo.
+        CandleSize candleSize = this.candleSize;
+        int candlesPerColumn = this.candlesPerColumn;
+        int areaWidth = Math.max(width - PRICE_LINE_WIDTH, 0);
+        int areaHeight = Math.max(height - TIME_LINE_HEIGHT, 0);
+
+        // El área de velas queda dentro del borde del área del gráfico.
+        int fromIndex = firstVisibleIndex(buffer, toIndex, Math.max(areaWidth - 2, 0), candleSize, candlesPerColumn);
+        List<Candle> candleList = buffer.getAll().subList(fromIndex, toIndex);
+        double rangeUp = 0;
+        double rangeDown = 0;
+        if(fromIndex < toIndex) {
+            rangeUp = buffer.getHighest(fromIndex, toIndex);
+            rangeDown = buffer.getLowest(fromIndex, toIndex);
+            if(candlesPerColumn > 1) {
+                int level = 31 - Integer.numberOfLeadingZeros(candlesPerColumn);
+                CandleSeries groups = CandleSeries.of(candleList).getLevel(level);
+                if(groups.size() > 2) {
+                    groups.getHigh(1);  // Grupo completo, obtenido de la pirámide de agrupación del buffer.
+                }
+            }
+        }
+        PriceFormatter priceFormat = this.priceFormat;
+        return new Frame(width, height, areaWidth, areaHeight, candleSize, candlesPerColumn, gridVisible, candleList,
+                rangeUp, rangeDown, priceFormat.getTickSize(), priceFormat.getDecimals());
+    }
+
+
+    /**
+     * Método auxiliar que dibuja una franja del gráfico en una nueva imagen.
+     *
+     * @param frame Datos del gráfico a dibujar.
+     * @param x Posición de la franja en el eje X.
+     * @param tileWidth Anchura de la franja.
+     * @return Imagen de la franja.
+     */
+    private static BufferedImage renderTile(Frame frame, int x, int tileWidth) {
+        BufferedImage tile = new BufferedImage(tileWidth, frame.height(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = tile.createGraphics();
+        try {
+            g.translate(-x, 0);
+            g.clipRect(x, 0, tileWidth, frame.height());
+            paintFrame(g, frame, new CandlePainter());
+        }
+        finally {
+            g.dispose();
+        }
+        return tile;
+    }
+
+
+    /**
+     * Método auxiliar que dibuja el gráfico en el contexto gráfico proporcionado. Las velas, la cuadrícula y las fechas
+     * solo se dibujan en el área de recorte del contexto gráfico.
+     *
+     * @param g El contexto gráfico en el que dibujar el gráfico.
+     * @param frame Datos del gráfico a dibujar.
+     * @param painter Objeto encargado de dibujar las velas.
+     */
+    private static void paintFrame(Graphics2D g, Frame frame, CandlePainter painter) {
+        int areaWidth = frame.areaWidth();
+        int areaHeight = frame.areaHeight();
+        int viewWidth = Math.max(areaWidth - 2, 0);
+        int viewHeight = Math.max(areaHeight - 2, 0);
+
+        g.setColor(Color.BLACK);
+        g.fillRect(0, 0, frame.width(), frame.height());
+
+        // Área de velas con la cuadrícula, ajustada a las divisiones de las líneas de tiempo y precio. El área de velas
+        // empieza un píxel después que las líneas de tiempo y precio.
+        TimeLabels labels = TimeLine.createLabels(frame.width(), frame.candleList(), frame.candleSize(),
+                frame.candlesPerColumn());
+        Graphics2D area = (Graphics2D) g.create(1, 1, viewWidth, viewHeight);
+        if(frame.gridVisible()) {
+            int[] ticksX = new int[labels.size()];
+            for(int i = 0; i < ticksX.length; i++) {
+                ticksX[i] = labels.getPosition(i) - 1;
+            }
+            int[] ticksY = new int[PriceLine.tickCount(areaHeight)];
+            for(int i = 0; i < ticksY.length; i++) {
+                ticksY[i] = PriceLine.tickPosition(areaHeight, i) - 1;
+            }
+            Grid.paintGrid(area, viewWidth, viewHeight, ticksX, ticksX.length, ticksY, ticksY.length);
+        }
+        Rectangle clip = area.getClipBounds();
+        if(clip != null && !clip.isEmpty()) {
+            painter.setScale(frame.candleSize(), frame.candlesPerColumn(), frame.rangeUp(), frame.rangeDown(),
+                    viewHeight);
+            painter.paint(area, CandleSeries.of(frame.candleList()), clip.x, clip.x + clip.width);
+        }
+        area.dispose();
+
+        // Línea de precios.
+        Graphics priceLine = g.create(areaWidth, 0, PRICE_LINE_WIDTH, areaHeight);
+        PriceLine.paintDividers(priceLine, areaHeight);
+        PriceLine.paintPrices(priceLine, areaHeight, frame.rangeUp(), frame.rangeDown(),
+                new PriceFormatter(frame.tickSize(), frame.priceDecimals()));
+        priceLine.dispose();
+
+        // Línea de tiempo.
+        Graphics timeLine = g.create(0, areaHeight, frame.width(), TIME_LINE_HEIGHT);
+        TimeLine.paintLabels(timeLine, labels);
+        timeLine.dispose();
+
+        g.setColor(Color.GRAY);
+        g.drawRect(0, 0, areaWidth - 1, areaHeight - 1);
+    }
+
+
+    /**
+     * Método auxiliar que obtiene el índice de la primera vela representada. En el modo de nivel de detalle las
+     * columnas se alinean según el número de secuencia de las velas, al igual que en el controlador de la vista.
+     *
+     * @param buffer Buffer de velas.
+     * @param toIndex Índice siguiente a la última vela a representar.
+     * @param viewWidth Anchura del área de velas.
+     * @param candleSize Tamaño de las velas.
+     * @param candlesPerColumn Número de velas por columna.
+     * @return Índice de la primera vela.
+     */
+    private static int firstVisibleIndex(Buffer buffer, int toIndex, int viewWidth, CandleSize candleSize,
+                                         int candlesPerColumn) {
+        if(toIndex == 0) {
+            return 0;
+        }
+        if(candlesPerColumn > 1) {
+            long visibleCandleCount = viewWidth * (long) candlesPerColumn;
+            long lastColumn = Math.floorDiv(buffer.getSequence(toIndex - 1), candlesPerColumn) * candlesPerColumn;
+            long first = lastColumn - buffer.getSequence(0) - (visibleCandleCount - candlesPerColumn);
+            return (int) Math.min(Math.max(first, 0), toIndex);
+        }
+        return Math.max(toIndex - (int) (viewWidth / candleSize.getRelativePosition()), 0);
+    }
+
+
+    /**
+     * Consumidor de las franjas del gráfico generadas por el método renderTiles.
+     */
+    @FunctionalInterface
+    public interface TileConsumer {
+
+        /**
+         * Recibe una franja del gráfico. La imagen de la franja no se reutiliza, por lo que puede conservarse.
+         *
+         * @param tile Imagen de la franja.
+         * @param x Posición de la franja en el eje X del gráfico.
+         * @throws IOException Si se produce un error al procesar la franja.
+         */
+        void accept(BufferedImage tile, int x) throws IOException;
+    }
+
+
+    /**
+     * Datos del gráfico a dibujar, calculados antes de empezar a dibujar.
+     */
+    private record Frame(int width, int height, int areaWidth, int areaHeight, CandleSize candleSize,
+                         int candlesPerColumn, boolean gridVisible, List<Candle> candleList, double rangeUp,
+                         double rangeDown, double tickSize, int priceDecimals) {
+    }
+}
@@ -0,0 +1,53 @@
+package candleChart.view;
+
+
+/**
+ * Conversiones entre días desde la época y meses del calendario gregoriano, sin crear ningún objeto. Los meses se
+ * identifican por el número de meses transcurridos desde enero del año cero, de forma que el año y el mes se obtienen
+ * con una división y un resto entre doce, y avanzar un número de meses es una suma.
+ * Las conversiones cuentan los años empezando en marzo, de forma que el día bisiesto queda al final del año y la
+ * longitud de los meses sigue un patrón que se calcula con aritmética entera.
+ */
+final class CivilDate {
+    private static final int DAYS_FROM_YEAR_ZERO = 719_468;     // Días desde el 1 de marzo del año cero a la época.
+    private static final int DAYS_PER_ERA = 146_097;            // Días de un ciclo de 400 años.
+
+
+    private CivilDate() {
+    }
+
+
+    /**
+     * Obtiene el mes del calendario que contiene un día.
+     *
+     * @param epochDay Día desde la época.
+     * @return Número de meses desde enero del año cero.
+     */
+    static long epochMonth(long epochDay) {
+        long days = epochDay + DAYS_FROM_YEAR_ZERO;
+        long era = Math.floorDiv(days, DAYS_PER_ERA);
+        int dayOfEra = (int) (days - era * DAYS_PER_ERA);
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int monthIndex = (5 * dayOfYear + 2) / 153;    // Mes empezando en marzo.
+        return (era * 400 + yearOfEra) * 12 + monthIndex + 2;
+    }
+
+
+    /**
+     * Obtiene el primer día de un mes del calendario.
+     *
+     * @param epochMonth Número de meses desde enero del año cero.
+     * @return Día desde la época del primer día del mes.
+     */
+    static long firstDay(long epochMonth) {
+        long marchMonth = epochMonth - 2;   // Meses desde marzo del año cero.
+        long era = Math.floorDiv(marchMonth, 400 * 12);
+        int monthOfEra = (int) (marchMonth - era * 400 * 12);
+        int yearOfEra = monthOfEra / 12;
+        int monthIndex = monthOfEra % 12;
+        int dayOfYear = (153 * monthIndex + 2) / 5;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * DAYS_PER_ERA + dayOfEra - DAYS_FROM_YEAR_ZERO;
+    }
+}
@@ -7,6 +7,10 @@ import java.awt.*;
  * Clase que representa un componente que dibuja las líneas horizontal y vertical de un cursor en una interfaz de
  * usuario gráfica. Esta clase permite la renderización de las líneas de un cursor con la
  * visibilidad personalizada.
+ * Al mover el cursor solo se repintan las franjas de un píxel de sus líneas anteriores y nuevas, de forma que las capas
+ * que se encuentran bajo el cursor únicamente copian esas franjas de sus imágenes en memoria.
+ * La línea horizontal puede ocultarse por separado, como en los paneles del gráfico sobre los que no se encuentra el
+ * ratón, que solo muestran la línea vertical.
  */
 public class Cursor extends JPanel {
 
@@ -14,6 +18,7 @@ public class Cursor extends JPanel {
     private int locationX;
     private int locationY;
     private boolean cursorVisible;
+    private boolean horizontalLineVisible;
 
     /**
      * Construye un nuevo componente con los datos predeterminados del cursor.
@@ -23,6 +28,7 @@ public class Cursor extends JPanel {
         locationX = 0;
         locationY = 0;
         cursorVisible = false;
+        horizontalLineVisible = true;
 
         // Configuración de la vista Cursor.
         setOpaque(false);
@@ -42,7 +48,9 @@ public class Cursor extends JPanel {
         if (cursorVisible) {
             g.setColor(Color.GRAY);
             g.drawLine(locationX, 0, locationX, getHeight());
-            g.drawLine(0, locationY, getWidth(), locationY);
+            if(horizontalLineVisible) {
+                g.drawLine(0, locationY, getWidth(), locationY);
+            }
         }
     }
 
@@ -54,9 +62,14 @@ public class Cursor extends JPanel {
      * @param y Coordenadas del cursor en el eje Y.
      */
     public void setCursorLocation(int x, int y) {
+        if(x == locationX && y == locationY) {
+            return;
+        }
+
+        repaintLines();
         locationX = x;
         locationY = y;
-        repaint();
+        repaintLines();
     }
 
 
@@ -101,4 +114,44 @@ public class Cursor extends JPanel {
     public boolean isCursorVisible() {
         return cursorVisible;
     }
+
+
+    /**
+     * Establece la visibilidad de la línea horizontal del cursor, sin modificar la de la línea vertical.
+     *
+     * @param visible True para mostrar la línea horizontal, o false para ocultarla.
+     */
+    public void setHorizontalLineVisible(boolean visible) {
+        if(visible != horizontalLineVisible) {
+            horizontalLineVisible = visible;
+            if(cursorVisible) {
+                paintImmediately(0, locationY, getWidth(), 1);
+            }
+        }
+    }
+
+
+    /**
+     * Indica si la línea horizontal del cursor es visible.
+     *
+     * @return True si la línea horizontal es visible, o false en caso contrario.
+     */
+    public boolean isHorizontalLineVisible() {
+        return horizontalLineVisible;
+    }
+
+
+    /**
+     * Método auxiliar que repinta las franjas ocupadas por las líneas del cursor en caso de que sea visible. Las
+     * franjas se pintan de inmediato por separado, ya que al acumularse como una única región pendiente de repintar
+     * abarcarían todo el componente.
+     */
+    private void repaintLines() {
+        if(cursorVisible) {
+            paintImmediately(locationX, 0, 1, getHeight());
+            if(horizontalLineVisible) {
+                paintImmediately(0, locationY, getWidth(), 1);
+            }
+        }
+    }
 }
@@ -1,19 +1,31 @@
 package candleChart.view;
 
-import javax.swing.*;
 import java.awt.*;
-import java.awt.geom.Line2D;
+import java.util.Arrays;
 
 /**
  * Clase que representa un componente que dibuja una cuadrícula en una interfaz de usuario gráfica.
  * Esta clase permite la renderización de una cuadrícula con tamaño de cuadrícula y visibilidad personalizables.
+ * La cuadrícula se dibuja en la imagen de la capa, que solo se actualiza al cambiar su tamaño o configuración, con un
+ * trazo discontinuo compartido y líneas de coordenadas enteras, sin crear objetos por línea.
+ * Las líneas pueden ajustarse a las divisiones de las líneas de precio y tiempo, en lugar de dibujarse con una
+ * separación fija, de forma que la cuadrícula y los ejes queden alineados.
  */
-public class Grid extends JPanel {
+public class Grid extends CachedLayer {
+    private static final float[] DASH_PATTERN = {5.0f, 4.0f};
+    private static final int DASH_PERIOD = 9;   // Longitud del patrón del trazo discontinuo.
+    private static final BasicStroke DASHED_STROKE = new BasicStroke(1.0f, BasicStroke.CAP_BUTT,
+            BasicStroke.JOIN_ROUND, 0.0f, DASH_PATTERN, 0.0f);
 
     // Propiedades de la cuadrícula
     private int gridX;
     private int gridY;
     private boolean gridVisible;
+    private boolean snapToTicks;
+
+    // Posiciones de las divisiones de las líneas de tiempo y precio.
+    private int[] ticksX, ticksY;
+    private int ticksXCount, ticksYCount;
 
 
     /**
@@ -24,41 +36,156 @@ public class Grid extends JPanel {
         gridX = 32;
         gridY = 32;
         gridVisible = true;
-
-        // Se establece el fondo de la cuadrícula como transparente.
-        setOpaque(false);
+        snapToTicks = false;
+        ticksX = new int[0];
+        ticksY = new int[0];
     }
 
 
     /**
-     * Pinta el componente de cuadrícula en el contexto gráfico.
-     * Sobrescribe el método paintComponent de JPanel.
+     * Pinta la cuadrícula en la imagen de la capa.
      *
-     * @param g El contexto gráfico en el que pintar.
+     * @param g2d El contexto gráfico en el que pintar.
      */
     @Override
-    protected void paintComponent(Graphics g) {
-        super.paintComponent(g);
-        Graphics2D g2d = (Graphics2D) g;
-
+    protected void paintLayer(Graphics2D g2d) {
         // Pinta la cuadrícula si gridVisible está establecido como true.
-        if (gridVisible) {
-            // Se establece la forma del trazo de las líneas.
-            float[] dashPattern = {5.0f, 4.0f};
-            BasicStroke dashedStroke = new BasicStroke(1.0f, BasicStroke.CAP_BUTT, BasicStroke.JOIN_ROUND, 0.0f, dashPattern, 0.0f);
-            g2d.setStroke(dashedStroke);
-            g2d.setColor(Color.DARK_GRAY);
-
-            // Dibuja las líneas verticales.
-            for (int x = -1; x < getWidth(); x += gridX) {
-                g2d.draw(new Line2D.Double(x, 0, x, getHeight()));
-            }
+        if (gridVisible && snapToTicks) {
+            paintGrid(g2d, getWidth(), getHeight(), ticksX, ticksXCount, ticksY, ticksYCount);
+        }
+        else if (gridVisible) {
+            paintGrid(g2d, getWidth(), getHeight(), gridX, gridY);
+        }
+    }
+
+
+    /**
+     * Dibuja una cuadrícula del tamaño indicado en el contexto gráfico proporcionado. Solo se dibujan las líneas que
+     * intersecan con el área de recorte, y las líneas horizontales se recortan a ella manteniendo la fase del trazo
+     * discontinuo, de forma que el resultado es el mismo que al dibujar la cuadrícula completa.
+     *
+     * @param g2d El contexto gráfico en el que pintar.
+     * @param width Anchura del área de la cuadrícula.
+     * @param height Altura del área de la cuadrícula.
+     * @param gridX Anchura de la división vertical.
+     * @param gridY Altura de la división horizontal.
+     */
+    static void paintGrid(Graphics2D g2d, int width, int height, int gridX, int gridY) {
+        g2d.setStroke(DASHED_STROKE);
+        g2d.setColor(Color.DARK_GRAY);
 
-            // Dibuja las líneas horizontales.
-            for (int i = getHeight()+1; i > 0; i -= gridY) {
-                g2d.draw(new Line2D.Double(0, i, getWidth(), i));
+        Rectangle clip = g2d.getClipBounds();
+        int fromX = clip != null? Math.max(clip.x, 0): 0;
+        int toX = clip != null? Math.min(clip.x + clip.width, width): width;
+
+        // Dibuja las líneas verticales.
+        for (int x = (fromX + 1) / gridX * gridX - 1; x < toX; x += gridX) {
+            g2d.drawLine(x, 0, x, height);
+        }
+
+        // Dibuja las líneas horizontales.
+        for (int i = height+1; i > 0; i -= gridY) {
+            paintHorizontalLine(g2d, i, fromX, toX);
+        }
+    }
+
+
+    /**
+     * Dibuja una cuadrícula con las líneas en las posiciones indicadas, normalmente las de las divisiones de las
+     * líneas de tiempo y precio. Solo se dibujan las líneas que intersecan con el área de recorte.
+     *
+     * @param g2d El contexto gráfico en el que pintar.
+     * @param width Anchura del área de la cuadrícula.
+     * @param height Altura del área de la cuadrícula.
+     * @param ticksX Posiciones de las líneas verticales.
+     * @param ticksXCount Número de líneas verticales.
+     * @param ticksY Posiciones de las líneas horizontales.
+     * @param ticksYCount Número de líneas horizontales.
+     */
+    static void paintGrid(Graphics2D g2d, int width, int height, int[] ticksX, int ticksXCount, int[] ticksY,
+                          int ticksYCount) {
+        g2d.setStroke(DASHED_STROKE);
+        g2d.setColor(Color.DARK_GRAY);
+
+        Rectangle clip = g2d.getClipBounds();
+        int fromX = clip != null? Math.max(clip.x, 0): 0;
+        int toX = clip != null? Math.min(clip.x + clip.width, width): width;
+
+        for (int i = 0; i < ticksXCount; i++) {
+            if (ticksX[i] >= fromX && ticksX[i] < toX) {
+                g2d.drawLine(ticksX[i], 0, ticksX[i], height);
             }
         }
+        for (int i = 0; i < ticksYCount; i++) {
+            paintHorizontalLine(g2d, ticksY[i], fromX, toX);
+        }
+    }
+
+
+    /**
+     * Método auxiliar que dibuja una línea horizontal entre las posiciones indicadas, empezando en un múltiplo del
+     * periodo del trazo para conservar su fase.
+     *
+     * @param g2d El contexto gráfico en el que pintar.
+     * @param y Posición de la línea en el eje Y.
+     * @param fromX Posición inicial de la línea.
+     * @param toX Posición final de la línea.
+     */
+    private static void paintHorizontalLine(Graphics2D g2d, int y, int fromX, int toX) {
+        g2d.drawLine(fromX - fromX % DASH_PERIOD, y, toX, y);
+    }
+
+
+    /**
+     * Establece las posiciones de las divisiones de las líneas de tiempo y precio, en coordenadas de la cuadrícula.
+     * Si la cuadrícula se ajusta a las divisiones y las posiciones han cambiado, la cuadrícula se vuelve a dibujar.
+     *
+     * @param ticksX Posiciones de las divisiones de la línea de tiempo.
+     * @param ticksXCount Número de divisiones de la línea de tiempo.
+     * @param ticksY Posiciones de las divisiones de la línea de precios.
+     * @param ticksYCount Número de divisiones de la línea de precios.
+     */
+    public void setTicks(int[] ticksX, int ticksXCount, int[] ticksY, int ticksYCount) {
+        if(Arrays.equals(this.ticksX, 0, this.ticksXCount, ticksX, 0, ticksXCount)
+                && Arrays.equals(this.ticksY, 0, this.ticksYCount, ticksY, 0, ticksYCount)) {
+            return;
+        }
+
+        if(this.ticksX.length < ticksXCount) {
+            this.ticksX = new int[Math.max(ticksXCount, this.ticksX.length * 2)];
+        }
+        if(this.ticksY.length < ticksYCount) {
+            this.ticksY = new int[Math.max(ticksYCount, this.ticksY.length * 2)];
+        }
+        System.arraycopy(ticksX, 0, this.ticksX, 0, ticksXCount);
+        System.arraycopy(ticksY, 0, this.ticksY, 0, ticksYCount);
+        this.ticksXCount = ticksXCount;
+        this.ticksYCount = ticksYCount;
+        if(snapToTicks) {
+            invalidateLayer();
+        }
+    }
+
+
+    /**
+     * Establece si las líneas de la cuadrícula se ajustan a las divisiones de las líneas de tiempo y precio
+     * establecidas mediante setTicks, en lugar de dibujarse con la separación establecida mediante setGridSize.
+     *
+     * @param snapToTicks True para ajustar la cuadrícula a las divisiones, o false para utilizar una separación fija.
+     */
+    public void setSnapToTicks(boolean snapToTicks) {
+        this.snapToTicks = snapToTicks;
+        invalidateLayer();
+    }
+
+
+    /**
+     * Indica si las líneas de la cuadrícula se ajustan a las divisiones de las líneas de tiempo y precio.
+     *
+     * @return True si la cuadrícula se ajusta a las divisiones, o false si utiliza una separación fija.
+     */
+    public boolean isSnapToTicks() {
+        return snapToTicks;
     }
 
 
@@ -72,7 +199,7 @@ public class Grid extends JPanel {
         if(gridX > 1 && gridY > 1) {
             this.gridX = gridX;
             this.gridY = gridY;
-            repaint();
+            invalidateLayer();
         }
     }
 
@@ -105,7 +232,7 @@ public class Grid extends JPanel {
      */
     public void setGridVisible(boolean gridVisible) {
         this.gridVisible = gridVisible;
-        repaint();
+        invalidateLayer();
     }
 
 
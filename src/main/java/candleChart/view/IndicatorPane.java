@@ -0,0 +1,46 @@
+package candleChart.view;
+
+import candleChart.data.Indicator;
+
+import java.awt.*;
+
+/**
+ * Panel secundario del gráfico que representa indicadores técnicos con su propia escala de valores, como los
+ * osciladores (RSI) o el rango verdadero medio, cuyos valores no son comparables con los precios de las velas. El panel
+ * comparte la ventana de velas del panel principal, y su rango de valores se ajusta a los valores de los indicadores
+ * representados en ella.
+ */
+public class IndicatorPane extends ChartPane {
+
+    /**
+     * Constructor de la clase IndicatorPane.
+     * Crea un panel sin indicadores, que pueden añadirse mediante el método addIndicator.
+     */
+    public IndicatorPane() {
+    }
+
+
+    /**
+     * Constructor de la clase IndicatorPane.
+     * Crea un panel que representa el indicador proporcionado.
+     *
+     * @param indicator Indicador a representar.
+     * @param color Color de las líneas del indicador.
+     * @throws NullPointerException Si el indicador o el color proporcionados son nulos.
+     */
+    public IndicatorPane(Indicator indicator, Color color) {
+        addIndicator(indicator, color);
+    }
+
+
+    /**
+     * El panel no tiene otra serie que las líneas de sus indicadores, que se dibujan en ChartPane.
+     *
+     * @param g El contexto gráfico en el que dibujar la serie.
+     * @param fromX Primera columna a dibujar (inclusive).
+     * @param toX Última columna a dibujar (exclusive).
+     */
+    @Override
+    protected void paintValues(Graphics2D g, int fromX, int toX) {
+    }
+}
@@ -8,6 +8,8 @@ import java.awt.*;
 /**
  * Panel de información destinado a mostrar detalles sobre el gráfico. Proporciona métodos para agregar, actualizar,
  * eliminar y establecer la visibilidad de la información mostrada en el panel.
+ * Cada elemento de información dibuja su texto directamente, sin notificar cambios de propiedades, por lo que actualizar
+ * un elemento con un texto ya creado no crea ningún objeto.
  */
 public class Info extends JPanel {
     private static final Color FONT_COLOR = Color.GRAY;
@@ -36,11 +38,8 @@ public class Info extends JPanel {
             throw new IllegalArgumentException("El parámetro 'info' proporcionado es nulo");
         }
 
-        JLabel lblInfo = new JLabel();
-        lblInfo.setForeground(FONT_COLOR);
-        lblInfo.setFont(FONT);
+        InfoLabel lblInfo = new InfoLabel();
         lblInfo.setText(info);
-        lblInfo.setBorder(new EmptyBorder(0, 0, 0, 10));
         add(lblInfo);
     }
 
@@ -57,7 +56,7 @@ public class Info extends JPanel {
             throw new IndexOutOfBoundsException("Valor fuera de rango");
         }
 
-        JLabel lblInfo = (JLabel) getComponent(n);
+        InfoLabel lblInfo = (InfoLabel) getComponent(n);
         return lblInfo.getText();
     }
 
@@ -79,7 +78,7 @@ public class Info extends JPanel {
             throw new IllegalArgumentException("El parámetro 'info' proporcionado es nulo");
         }
 
-        JLabel lblInfo = (JLabel) this.getComponent(n);
+        InfoLabel lblInfo = (InfoLabel) this.getComponent(n);
         lblInfo.setText(info);
     }
 
@@ -111,7 +110,7 @@ public class Info extends JPanel {
             throw new IndexOutOfBoundsException("Valor fuera de rango");
         }
 
-        JLabel lblInfo = (JLabel) this.getComponent(n);
+        InfoLabel lblInfo = (InfoLabel) this.getComponent(n);
         lblInfo.setVisible(visibility);
     }
 
@@ -128,7 +127,7 @@ public class Info extends JPanel {
             throw new IndexOutOfBoundsException("Valor fuera de rango");
         }
 
-        JLabel lblInfo = (JLabel) this.getComponent(n);
+        InfoLabel lblInfo = (InfoLabel) this.getComponent(n);
         return lblInfo.isVisible();
     }
 
@@ -141,4 +140,82 @@ public class Info extends JPanel {
             this.remove(i);
         }
     }
+
+
+    /**
+     * Elemento de información del panel. Dibuja su texto con la fuente y el color del panel.
+     */
+    private static class InfoLabel extends JComponent {
+        private String text;
+
+
+        /**
+         * Constructor de la clase InfoLabel.
+         */
+        InfoLabel() {
+            text = "";
+            setForeground(FONT_COLOR);
+            setFont(FONT);
+            setBorder(new EmptyBorder(0, 0, 0, 10));
+        }
+
+
+        /**
+         * Establece el texto del elemento y solicita su repintado en caso de haber cambiado.
+         *
+         * @param text Texto del elemento.
+         */
+        void setText(String text) {
+            if(text.equals(this.text)) {
+                return;
+            }
+
+            this.text = text;
+            revalidate();
+            repaint();
+        }
+
+
+        /**
+         * Obtiene el texto del elemento.
+         *
+         * @return Texto del elemento.
+         */
+        String getText() {
+            return text;
+        }
+
+
+        @Override
+        public Dimension getPreferredSize() {
+            FontMetrics metrics = getFontMetrics(getFont());
+            Insets insets = getInsets();
+            return new Dimension(metrics.stringWidth(text) + insets.left + insets.right,
+                    metrics.getHeight() + insets.top + insets.bottom);
+        }
+
+
+        @Override
+        public Dimension getMinimumSize() {
+            return getPreferredSize();
+        }
+
+
+        @Override
+        public Dimension getMaximumSize() {
+            return getPreferredSize();
+        }
+
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            FontMetrics metrics = g.getFontMetrics(getFont());
+            Insets insets = getInsets();
+            int innerHeight = getHeight() - insets.top - insets.bottom;
+
+            g.setFont(getFont());
+            g.setColor(getForeground());
+            g.drawString(text, insets.left, insets.top + (innerHeight - metrics.getHeight()) / 2 + metrics.getAscent());
+        }
+    }
 }
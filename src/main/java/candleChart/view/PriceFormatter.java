@@ -0,0 +1,232 @@
+package candleChart.view;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.DecimalFormatSymbols;
+import java.util.Arrays;
+
+
+/**
+ * Formateador de precios con un número fijo de decimales. Los precios se redondean al múltiplo más cercano del tamaño
+ * del tick del símbolo y se escriben dígito a dígito en un array de caracteres reutilizado, sin pasar por
+ * String.format. Los textos de los últimos precios formateados se guardan en una caché indexada por el número de ticks
+ * del precio, de forma que volver a formatear un precio reciente no crea ningún objeto.
+ * Los precios cuyo número de ticks o valor escalado por el número de decimales no cabe en un long se formatean con
+ * BigDecimal, sin pasar por la caché, y los precios no finitos se escriben como "NaN", "∞" o "-∞".
+ * Cada instancia reutiliza su array de caracteres y su caché, por lo que no debe compartirse entre hilos.
+ */
+public class PriceFormatter {
+    private static final double DEFAULT_TICK_SIZE = 0.00001;
+    private static final int DEFAULT_DECIMALS = 5;
+    private static final int MAX_DECIMALS = 15;
+    private static final int CACHE_SIZE = 256;  // Debe ser potencia de dos.
+    private static final double LONG_LIMIT = 0x1p62;  // Límite con margen para redondear a long sin desbordamiento.
+    private static final char DECIMAL_SEPARATOR = DecimalFormatSymbols.getInstance().getDecimalSeparator();
+    private static final String NAN = "NaN";
+    private static final String INFINITY = "∞";
+    private static final String NEGATIVE_INFINITY = "-∞";
+
+    private final double tickSize;
+    private final int decimals;
+    private final long scale;           // 10 elevado al número de decimales.
+
+    private final char[] chars;         // Array en el que se escriben los precios formateados.
+    private final long[] cachedTicks;   // Número de ticks de los precios guardados en la caché.
+    private final String[] cachedText;  // Textos de los precios guardados en la caché.
+
+
+    /**
+     * Constructor de la clase PriceFormatter. Crea un formateador con un tamaño de tick de 0.00001 y cinco decimales.
+     */
+    public PriceFormatter() {
+        this(DEFAULT_TICK_SIZE, DEFAULT_DECIMALS);
+    }
+
+
+    /**
+     * Constructor de la clase PriceFormatter.
+     *
+     * @param tickSize Variación mínima del precio del símbolo. Los precios se redondean a múltiplos de este valor.
+     * @param decimals Número de decimales con los que se escriben los precios, entre 0 y 15.
+     * @throws IllegalArgumentException Si el tamaño del tick no es positivo o el número de decimales no es válido.
+     */
+    public PriceFormatter(double tickSize, int decimals) {
+        if(!(tickSize > 0) || Double.isInfinite(tickSize)) {
+            throw new IllegalArgumentException("El tamaño del tick debe ser un valor positivo.");
+        }
+        if(decimals < 0 || decimals > MAX_DECIMALS) {
+            throw new IllegalArgumentException("El número de decimales debe estar entre 0 y " + MAX_DECIMALS + ".");
+        }
+
+        this.tickSize = tickSize;
+        this.decimals = decimals;
+        long value = 1;
+        for(int i = 0; i < decimals; i++) {
+            value *= 10;
+        }
+        scale = value;
+
+        chars = new char[48];
+        cachedTicks = new long[CACHE_SIZE];
+        cachedText = new String[CACHE_SIZE];
+    }
+
+
+    /**
+     * Obtiene el tamaño del tick con el que se redondean los precios.
+     *
+     * @return Tamaño del tick.
+     */
+    public double getTickSize() {
+        return tickSize;
+    }
+
+
+    /**
+     * Obtiene el número de decimales con los que se escriben los precios.
+     *
+     * @return Número de decimales.
+     */
+    public int getDecimals() {
+        return decimals;
+    }
+
+
+    /**
+     * Formatea un precio. Si el precio se ha formateado recientemente se devuelve el mismo texto sin crear ningún
+     * objeto.
+     *
+     * @param price Precio a formatear.
+     * @return Texto del precio.
+     */
+    public String format(double price) {
+        if(!Double.isFinite(price)) {
+            return formatNonFinite(price);
+        }
+        if(overflows(price)) {
+            return formatLarge(price);
+        }
+
+        long ticks = Math.round(price / tickSize);
+        int slot = (int) (ticks ^ (ticks >>> 32)) & (CACHE_SIZE - 1);
+        String text = cachedText[slot];
+        if(text == null || cachedTicks[slot] != ticks) {
+            text = new String(chars, 0, write(ticks, chars, 0));
+            cachedTicks[slot] = ticks;
+            cachedText[slot] = text;
+        }
+        return text;
+    }
+
+
+    /**
+     * Escribe un precio en el array de caracteres proporcionado, sin crear ningún objeto.
+     *
+     * @param price Precio a formatear.
+     * @param buffer Array en el que escribir los caracteres del precio, con espacio para al menos 40 caracteres a
+     *               partir de la posición indicada, o más si la parte entera del precio tiene más de 20 dígitos.
+     * @param offset Posición del primer carácter.
+     * @return Posición siguiente al último carácter escrito.
+     */
+    public int format(double price, char[] buffer, int offset) {
+        if(!Double.isFinite(price) || overflows(price)) {
+            String text = Double.isFinite(price)? formatLarge(price): formatNonFinite(price);
+            text.getChars(0, text.length(), buffer, offset);
+            return offset + text.length();
+        }
+        return write(Math.round(price / tickSize), buffer, offset);
+    }
+
+
+    /**
+     * Vacía la caché de precios formateados.
+     */
+    public void clearCache() {
+        Arrays.fill(cachedText, null);
+    }
+
+
+    /**
+     * Método auxiliar que indica si el número de ticks del precio o su valor escalado por el número de decimales no
+     * caben en un long, en cuyo caso el precio no puede escribirse dígito a dígito.
+     *
+     * @param price Precio a formatear, que debe ser finito.
+     * @return True si el precio debe formatearse con BigDecimal, o false en caso contrario.
+     */
+    private boolean overflows(double price) {
+        double abs = Math.abs(price);
+        return abs * scale >= LONG_LIMIT || abs / tickSize >= LONG_LIMIT;
+    }
+
+
+    /**
+     * Método auxiliar que obtiene el texto de un precio no finito, que no puede redondearse al tamaño del tick.
+     *
+     * @param price Precio a formatear, NaN o infinito.
+     * @return Texto del precio.
+     */
+    private static String formatNonFinite(double price) {
+        if(Double.isNaN(price)) {
+            return NAN;
+        }
+        return price > 0? INFINITY: NEGATIVE_INFINITY;
+    }
+
+
+    /**
+     * Método auxiliar que formatea con BigDecimal un precio que no puede escribirse dígito a dígito. El precio se
+     * redondea al múltiplo más cercano del tamaño del tick en aritmética decimal, con los dígitos más cortos que
+     * representan el double, de forma que no aparecen dígitos sobrantes de la representación binaria.
+     *
+     * @param price Precio a formatear.
+     * @return Texto del precio.
+     */
+    private String formatLarge(double price) {
+        BigDecimal tick = BigDecimal.valueOf(tickSize);
+        String text = BigDecimal.valueOf(price).divide(tick, 0, RoundingMode.HALF_UP).multiply(tick)
+                .setScale(decimals, RoundingMode.HALF_UP).toPlainString();
+        return DECIMAL_SEPARATOR == '.'? text: text.replace('.', DECIMAL_SEPARATOR);
+    }
+
+
+    /**
+     * Método auxiliar que escribe el precio correspondiente a un número de ticks.
+     *
+     * @param ticks Número de ticks del precio.
+     * @param buffer Array en el que escribir los caracteres.
+     * @param offset Posición del primer carácter.
+     * @return Posición siguiente al último carácter escrito.
+     */
+    private int write(long ticks, char[] buffer, int offset) {
+        double price = ticks * tickSize;
+        long scaled = Math.round(Math.abs(price) * scale);
+        long integerPart = scaled / scale;
+        long decimalPart = scaled % scale;
+
+        int position = offset;
+        if(price < 0 && scaled != 0) {
+            buffer[position++] = '-';
+        }
+
+        // Los dígitos se escriben de derecha a izquierda.
+        int digits = 1;
+        for(long value = integerPart; value >= 10; value /= 10) {
+            digits++;
+        }
+        for(int i = position + digits - 1; i >= position; i--) {
+            buffer[i] = (char) ('0' + integerPart % 10);
+            integerPart /= 10;
+        }
+        position += digits;
+
+        if(decimals > 0) {
+            buffer[position++] = DECIMAL_SEPARATOR;
+            for(int i = position + decimals - 1; i >= position; i--) {
+                buffer[i] = (char) ('0' + decimalPart % 10);
+                decimalPart /= 10;
+            }
+            position += decimals;
+        }
+        return position;
+    }
+}
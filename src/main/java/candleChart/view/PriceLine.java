@@ -8,6 +8,9 @@ import java.awt.*;
  * Clase que representa un componente que dibuja la línea de precios de un gráfico.
  * Esta clase permite la renderización de la línea vertical de precios de un gráfico, junto con sus divisiones y el
  * precio actual del puntero del ratón donde se encuentra en ese momento.
+ * Los precios de las divisiones se dibujan directamente en paintComponent a partir de textos ya formateados, que solo
+ * se vuelven a formatear al cambiar el rango de precios o la altura del componente. La etiqueta del precio del cursor se
+ * dibuja a partir de un array de caracteres reutilizado, de forma que mover el cursor no crea ningún objeto.
  */
 public class PriceLine extends JPanel {
     private static final int DIVIDER_WIDTH = 4;
@@ -15,10 +18,16 @@ public class PriceLine extends JPanel {
     private static final int PRICE_TAG_HEIGHT = 15;
     private static final int SIZE_GRID = 32;
 
-    private final JLabel currentPrice;
+    private final char[] currentPrice;  // Caracteres del precio al que apunta el cursor.
+    private int currentPriceLength;
+    private boolean cursorVisible;
 
     private int cursorLocationY;
     private double rangeUp, rangeDown;
+    private PriceFormatter priceFormatter;
+
+    private String[] chartPrices;       // Precios formateados de las divisiones, desde la inferior.
+    private int chartPricesHeight;      // Altura del componente con la que se formatearon los precios.
 
 
     /**
@@ -30,18 +39,16 @@ public class PriceLine extends JPanel {
         rangeUp = 0;
         rangeDown = 0;
 
-        currentPrice = new JLabel();
-        currentPrice.setBackground(Color.GRAY);
-        currentPrice.setForeground(Color.BLACK);
-        currentPrice.setHorizontalAlignment(SwingConstants.CENTER);
-        currentPrice.setOpaque(true);
-        currentPrice.setVisible(false);
-        currentPrice.setSize(PRICE_TAG_WIDTH, PRICE_TAG_HEIGHT);
+        currentPrice = new char[48];
+        currentPriceLength = 0;
+        cursorVisible = false;
+        chartPrices = null;
+        priceFormatter = new PriceFormatter();
 
         setPreferredSize(new Dimension(70, 0));
+        setFont(UIManager.getFont("Label.font"));
         setBackground(Color.BLACK);
         setLayout(null);
-        add(currentPrice);
         setFocusable(false);
     }
 
@@ -55,16 +62,132 @@ public class PriceLine extends JPanel {
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
+        paintDividers(g, getHeight());
+        paintLabels(g, getHeight(), chartPrices());
+
+        // Pintado línea actual de precio y etiqueta del precio al que apunta el cursor.
+        if(cursorVisible) {
+            g.drawLine(0, cursorLocationY, 5, cursorLocationY);
+            paintCurrentPrice(g);
+        }
+    }
+
+
+    /**
+     * Dibuja las divisiones de la línea de precios.
+     *
+     * @param g El contexto gráfico en el que dibujar las divisiones.
+     * @param height Altura de la línea de precios.
+     */
+    static void paintDividers(Graphics g, int height) {
         g.setColor(Color.GRAY);
+        for (int i = 0; i < tickCount(height); i++) {
+            int positionY = tickPosition(height, i);
+            g.drawLine(0, positionY, DIVIDER_WIDTH, positionY);
+        }
+    }
+
+
+    /**
+     * Obtiene el número de divisiones de una línea de precios de la altura indicada.
+     *
+     * @param height Altura de la línea de precios.
+     * @return Número de divisiones.
+     */
+    static int tickCount(int height) {
+        return height >= 0? height / SIZE_GRID + 1: 0;
+    }
+
+
+    /**
+     * Obtiene la posición en el eje Y de una división de una línea de precios de la altura indicada. Las divisiones se
+     * cuentan desde la inferior.
+     *
+     * @param height Altura de la línea de precios.
+     * @param index Índice de la división.
+     * @return Posición de la división en el eje Y.
+     */
+    static int tickPosition(int height, int index) {
+        return height - index * SIZE_GRID;
+    }
 
-        // Pintado de divisiones.
-        for (int i = getHeight(); i >= 0; i -= SIZE_GRID) {
-            g.drawLine(0, i, DIVIDER_WIDTH, i);
+
+    /**
+     * Obtiene el número de divisiones de la línea de precios.
+     *
+     * @return Número de divisiones.
+     */
+    public int getTickCount() {
+        return tickCount(getHeight());
+    }
+
+
+    /**
+     * Obtiene la posición en el eje Y de una división de la línea de precios. Las divisiones se cuentan desde la
+     * inferior.
+     *
+     * @param index Índice de la división, entre 0 y el número de divisiones (exclusive).
+     * @return Posición de la división en el eje Y.
+     */
+    public int getTickPosition(int index) {
+        return tickPosition(getHeight(), index);
+    }
+
+
+    /**
+     * Dibuja los precios de las divisiones de la línea de precios, en la misma posición y con el mismo formato que las
+     * etiquetas del componente.
+     *
+     * @param g El contexto gráfico en el que dibujar los precios.
+     * @param height Altura de la línea de precios.
+     * @param rangeUp Rango superior del precio.
+     * @param rangeDown Rango inferior del precio.
+     * @param priceFormatter Formateador de los precios.
+     */
+    static void paintPrices(Graphics g, int height, double rangeUp, double rangeDown, PriceFormatter priceFormatter) {
+        paintLabels(g, height, formatPrices(height, rangeUp, rangeDown, priceFormatter));
+    }
+
+
+    /**
+     * Método auxiliar que formatea los precios de las divisiones de la línea de precios.
+     *
+     * @param height Altura de la línea de precios.
+     * @param rangeUp Rango superior del precio.
+     * @param rangeDown Rango inferior del precio.
+     * @param priceFormatter Formateador de los precios.
+     * @return Precios formateados de las divisiones, desde la división inferior.
+     */
+    private static String[] formatPrices(int height, double rangeUp, double rangeDown,
+                                         PriceFormatter priceFormatter) {
+        double pricePixel = (rangeUp - rangeDown) / height;
+        String[] prices = new String[Math.max(height / SIZE_GRID, 0)];
+        for(int i = 1; i <= prices.length; i++) {
+            prices[i - 1] = priceFormatter.format(rangeUp - (height - (i * SIZE_GRID)) * pricePixel);
         }
+        return prices;
+    }
 
-        // Pintado línea actual de precio.
-        if(currentPrice.isVisible()) {
-            g.drawLine(0, cursorLocationY, 5, cursorLocationY);
+
+    /**
+     * Método auxiliar que dibuja los precios formateados de las divisiones, centrados verticalmente en su división.
+     * Solo se dibujan los precios que intersecan con el área de recorte.
+     *
+     * @param g El contexto gráfico en el que dibujar los precios.
+     * @param height Altura de la línea de precios.
+     * @param prices Precios formateados de las divisiones, desde la división inferior.
+     */
+    private static void paintLabels(Graphics g, int height, String[] prices) {
+        Rectangle clip = g.getClipBounds();
+        FontMetrics metrics = g.getFontMetrics();
+        int baseline = (PRICE_TAG_HEIGHT - metrics.getHeight()) / 2 + metrics.getAscent();
+
+        g.setColor(Color.GRAY);
+        for(int i = 1; i <= prices.length; i++) {
+            int positionY = height - (i * SIZE_GRID) - PRICE_TAG_HEIGHT / 2;
+            if(clip == null || (positionY < clip.y + clip.height && positionY + PRICE_TAG_HEIGHT > clip.y)) {
+                g.drawString(prices[i - 1], 8, positionY + baseline);
+            }
         }
     }
 
@@ -75,17 +198,6 @@ public class PriceLine extends JPanel {
      * @param locationY Posición del cursor en el eje Y.
      */
     public void setCursorLocation(int locationY) {
-        int positionY;
-
-        if(locationY < PRICE_TAG_HEIGHT / 2) {
-            positionY = 0;
-        } else if (locationY >= getHeight() - PRICE_TAG_HEIGHT / 2) {
-            positionY = getHeight() - PRICE_TAG_HEIGHT;
-        } else {
-            positionY = locationY - PRICE_TAG_HEIGHT / 2;
-        }
-        currentPrice.setLocation(5, positionY);
-
         this.cursorLocationY = locationY;
         repaint();
         updateCurrentPrice();
@@ -108,7 +220,7 @@ public class PriceLine extends JPanel {
      * @param visibility Visibilidad del cursor.
      */
     public void setCursorVisible(boolean visibility) {
-        currentPrice.setVisible(visibility);
+        cursorVisible = visibility;
         repaint();
         updateCurrentPrice();
     }
@@ -120,7 +232,7 @@ public class PriceLine extends JPanel {
      * @return Visibilidad del cursor y del precio al que apunta el cursor.
      */
     public boolean isCursorVisible() {
-        return currentPrice.isVisible();
+        return cursorVisible;
     }
 
 
@@ -164,42 +276,89 @@ public class PriceLine extends JPanel {
 
 
     /**
-     * Método que actualiza los valores de las divisiones de la línea de precios.
+     * Establece el formato de los precios de la línea de precios según el tamaño del tick y el número de decimales del
+     * símbolo representado.
+     *
+     * @param tickSize Variación mínima del precio del símbolo.
+     * @param decimals Número de decimales con los que se muestran los precios.
+     * @throws IllegalArgumentException Si el tamaño del tick no es positivo o el número de decimales no es válido.
      */
-    private void updateChartPrices() {
-        double pricePixel = (rangeUp - rangeDown) / getHeight();
-        int requiredLabels = getHeight() / SIZE_GRID;
+    public void setPriceFormat(double tickSize, int decimals) {
+        priceFormatter = new PriceFormatter(tickSize, decimals);
+        updateChartPrices();
+        updateCurrentPrice();
+    }
 
-        // Agrega o elimina etiquetas de las divisiones según sea necesario.
-        while (getComponentCount() > requiredLabels + 1) {
-            remove(getComponentCount() - 1);
-        }
 
-        while (getComponentCount() <= requiredLabels) {
-            JLabel label = new JLabel();
-            label.setForeground(Color.GRAY);
-            label.setSize(PRICE_TAG_WIDTH, PRICE_TAG_HEIGHT);
-            label.setOpaque(false);
-            add(label);
-        }
+    /**
+     * Obtiene el tamaño del tick con el que se formatean los precios.
+     *
+     * @return Tamaño del tick.
+     */
+    public double getTickSize() {
+        return priceFormatter.getTickSize();
+    }
 
-        // Actualiza el valor de las etiquetas de las divisiones de la línea de precios.
-        for(int i = 1; i < getComponentCount(); i++) {
-            String formattedNumber = String.format("%.5f", rangeUp - (getHeight() - (i * SIZE_GRID)) * pricePixel);
 
-            JLabel label = (JLabel) getComponent(i);
-            label.setLocation(8, getHeight() - (i * SIZE_GRID) - PRICE_TAG_HEIGHT / 2);
-            label.setText(formattedNumber);
+    /**
+     * Obtiene el número de decimales con los que se muestran los precios.
+     *
+     * @return Número de decimales.
+     */
+    public int getPriceDecimals() {
+        return priceFormatter.getDecimals();
+    }
+
+
+    /**
+     * Método que descarta los precios formateados de las divisiones de la línea de precios, de forma que se vuelvan a
+     * formatear en el siguiente pintado.
+     */
+    private void updateChartPrices() {
+        chartPrices = null;
+        repaint();
+    }
+
+
+    /**
+     * Método auxiliar que obtiene los precios formateados de las divisiones, formateándolos únicamente si han sido
+     * descartados o ha cambiado la altura del componente.
+     *
+     * @return Precios formateados de las divisiones, desde la división inferior.
+     */
+    private String[] chartPrices() {
+        if(chartPrices == null || chartPricesHeight != getHeight()) {
+            chartPrices = formatPrices(getHeight(), rangeUp, rangeDown, priceFormatter);
+            chartPricesHeight = getHeight();
         }
+        return chartPrices;
     }
 
 
     /**
-     * Método que actualiza el valor de la etiqueta que muestra el precio donde apunta el cursor.
+     * Método que actualiza los caracteres de la etiqueta que muestra el precio donde apunta el cursor.
      */
     private void updateCurrentPrice() {
         double pricePixel = (rangeUp - rangeDown) / getHeight();
-        String formattedNumber = String.format("%.5f", rangeUp - cursorLocationY * pricePixel);
-        currentPrice.setText(formattedNumber);
+        currentPriceLength = priceFormatter.format(rangeUp - cursorLocationY * pricePixel, currentPrice, 0);
+    }
+
+
+    /**
+     * Método auxiliar que dibuja la etiqueta del precio al que apunta el cursor, centrada verticalmente en el cursor
+     * sin salirse de la línea de precios.
+     *
+     * @param g El contexto gráfico en el que dibujar la etiqueta.
+     */
+    private void paintCurrentPrice(Graphics g) {
+        int positionY = Math.max(Math.min(cursorLocationY - PRICE_TAG_HEIGHT / 2, getHeight() - PRICE_TAG_HEIGHT), 0);
+        g.setColor(Color.GRAY);
+        g.fillRect(5, positionY, PRICE_TAG_WIDTH, PRICE_TAG_HEIGHT);
+
+        FontMetrics metrics = g.getFontMetrics();
+        int textWidth = metrics.charsWidth(currentPrice, 0, currentPriceLength);
+        g.setColor(Color.BLACK);
+        g.drawChars(currentPrice, 0, currentPriceLength, 5 + (PRICE_TAG_WIDTH - textWidth) / 2,
+                positionY + (PRICE_TAG_HEIGHT - metrics.getHeight()) / 2 + metrics.getAscent());
     }
 }
@@ -0,0 +1,235 @@
+package candleChart.view;
+
+import candleChart.controller.CandleSize;
+import candleChart.data.CandleSeries;
+
+import java.util.Arrays;
+
+
+/**
+ * Etiquetas de fecha de la línea de tiempo. Las etiquetas se colocan en los límites naturales del calendario (minutos,
+ * horas, días, meses y años), eligiendo el paso más pequeño que deja al menos LABEL_SPACING píxeles entre etiquetas.
+ * La vela de cada límite se localiza mediante una búsqueda binaria en las fechas de las velas, por lo que el coste de
+ * recalcular las etiquetas es proporcional al número de etiquetas por el logaritmo del número de velas.
+ * Los textos de las etiquetas se guardan en una caché indexada por el minuto desde la época, de forma que al desplazar
+ * el gráfico solo se formatean las fechas que no se habían mostrado recientemente. Cada instancia reutiliza sus arrays,
+ * por lo que no debe compartirse entre hilos.
+ */
+class TimeLabels {
+    static final int LABEL_SPACING = 64;        // Separación mínima entre etiquetas, en píxeles.
+    private static final int CACHE_SIZE = 256;  // Debe ser potencia de dos.
+    private static final long NANOS_PER_MINUTE = 60_000_000_000L;
+    private static final int MINUTES_PER_DAY = 1440;
+    private static final double MINUTES_PER_MONTH = 43_830;
+
+    // Pasos de las etiquetas, en minutos hasta un día y en meses a partir de un día.
+    private static final int[] MINUTE_STEPS = {1, 5, 15, 30, 60, 120, 240, 360, 720, MINUTES_PER_DAY};
+    private static final int[] MONTH_STEPS = {1, 3, 6, 12};
+
+    private int count;                  // Número de etiquetas.
+    private int[] positions;            // Posición de las etiquetas en el eje X.
+    private String[] days, hours;       // Textos de las etiquetas, con la fecha y la hora en dos líneas.
+
+    private final char[] chars;         // Array en el que se escriben las fechas formateadas.
+    private final long[] cachedMinutes; // Minuto desde la época de las fechas guardadas en la caché.
+    private final String[] cachedDays, cachedHours;
+
+
+    /**
+     * Constructor de la clase TimeLabels. Crea una instancia sin etiquetas.
+     */
+    TimeLabels() {
+        positions = new int[16];
+        days = new String[16];
+        hours = new String[16];
+        chars = new char[64];
+        cachedMinutes = new long[CACHE_SIZE];
+        cachedDays = new String[CACHE_SIZE];
+        cachedHours = new String[CACHE_SIZE];
+    }
+
+
+    /**
+     * Recalcula las etiquetas de la línea de tiempo para las velas representadas. Solo se generan etiquetas cuya
+     * posición es menor que el límite indicado.
+     *
+     * @param series Velas representadas en el gráfico, ordenadas por fecha.
+     * @param candleSize Tamaño de las velas.
+     * @param candlesPerColumn Número de velas por columna.
+     * @param limitX Posición límite de las etiquetas en el eje X (exclusive).
+     */
+    void update(CandleSeries series, CandleSize candleSize, int candlesPerColumn, int limitX) {
+        count = 0;
+        int size = series.size();
+        if(size == 0 || limitX <= 0) {
+            return;
+        }
+
+        // El paso se estima a partir de la duración media de las velas y de los píxeles que ocupa cada vela.
+        double pixelsPerCandle = candlesPerColumn > 1? 1.0 / candlesPerColumn: candleSize.getRelativePosition();
+        double minutesPerCandle = size > 1
+                ? (double) (series.getTime(size - 1) - series.getTime(0)) / NANOS_PER_MINUTE / (size - 1)
+                : 1;
+        double minutesPerLabel = LABEL_SPACING * Math.max(minutesPerCandle, 1e-9) / pixelsPerCandle;
+        int minuteStep = 0;
+        int monthStep = MONTH_STEPS[MONTH_STEPS.length - 1];
+        for(int step: MINUTE_STEPS) {
+            if(step >= minutesPerLabel) {
+                minuteStep = step;
+                break;
+            }
+        }
+        if(minuteStep == 0) {
+            for(int step: MONTH_STEPS) {
+                if(step * MINUTES_PER_MONTH >= minutesPerLabel) {
+                    monthStep = step;
+                    break;
+                }
+            }
+        }
+
+        // Cada etiqueta se coloca en la primera vela del primer límite posterior a la vela mínima, que es la primera
+        // vela situada al menos LABEL_SPACING píxeles después de la etiqueta anterior.
+        int minIndex = 0;
+        while(minIndex < size) {
+            long minute = Math.floorDiv(series.getTime(minIndex) - 1, NANOS_PER_MINUTE);
+            long boundary = minuteStep > 0
+                    ? nextMinuteBoundary(minute, minuteStep)
+                    : nextMonthBoundary(minute, monthStep);
+            int index = series.indexOfTime(boundary * NANOS_PER_MINUTE, minIndex, size);
+            if(index >= size) {
+                break;
+            }
+
+            int x = candlesPerColumn > 1? index / candlesPerColumn: CandlePainter.positionOfCandle(index, candleSize);
+            if(x >= limitX) {
+                break;
+            }
+            add(x, Math.floorDiv(series.getTime(index), NANOS_PER_MINUTE));
+
+            minIndex = firstIndexAt(x + LABEL_SPACING, candleSize, candlesPerColumn, size);
+        }
+    }
+
+
+    /**
+     * Obtiene el número de etiquetas.
+     *
+     * @return Número de etiquetas.
+     */
+    int size() {
+        return count;
+    }
+
+
+    /**
+     * Obtiene la posición de una etiqueta en el eje X.
+     *
+     * @param index Índice de la etiqueta.
+     * @return Posición de la etiqueta en el eje X.
+     */
+    int getPosition(int index) {
+        return positions[index];
+    }
+
+
+    /**
+     * Obtiene la fecha de una etiqueta, con el mismo formato que el patrón "dd MMM".
+     *
+     * @param index Índice de la etiqueta.
+     * @return Fecha de la etiqueta.
+     */
+    String getDay(int index) {
+        return days[index];
+    }
+
+
+    /**
+     * Obtiene la hora de una etiqueta, con el mismo formato que el patrón "HH:mm".
+     *
+     * @param index Índice de la etiqueta.
+     * @return Hora de la etiqueta.
+     */
+    String getHour(int index) {
+        return hours[index];
+    }
+
+
+    /**
+     * Método auxiliar que añade una etiqueta, obteniendo sus textos de la caché o formateándolos si no se encuentran
+     * en ella.
+     *
+     * @param x Posición de la etiqueta en el eje X.
+     * @param epochMinute Minuto desde la época de la fecha de la etiqueta.
+     */
+    private void add(int x, long epochMinute) {
+        if(count == positions.length) {
+            positions = Arrays.copyOf(positions, count * 2);
+            days = Arrays.copyOf(days, count * 2);
+            hours = Arrays.copyOf(hours, count * 2);
+        }
+
+        int slot = (int) (epochMinute ^ (epochMinute >>> 32)) & (CACHE_SIZE - 1);
+        if(cachedDays[slot] == null || cachedMinutes[slot] != epochMinute) {
+            // La fecha se escribe como "dd MMM HH:mm", y la hora son los últimos cinco caracteres.
+            int length = TimeLine.formatDateTime(epochMinute * NANOS_PER_MINUTE, chars);
+            cachedMinutes[slot] = epochMinute;
+            cachedDays[slot] = new String(chars, 0, length - 6);
+            cachedHours[slot] = new String(chars, length - 5, 5);
+        }
+
+        positions[count] = x;
+        days[count] = cachedDays[slot];
+        hours[count] = cachedHours[slot];
+        count++;
+    }
+
+
+    /**
+     * Método auxiliar que obtiene el índice de la primera vela representada en la posición indicada del eje X o
+     * después.
+     *
+     * @param positionX Posición en el eje X.
+     * @param candleSize Tamaño de las velas.
+     * @param candlesPerColumn Número de velas por columna.
+     * @param size Número de velas.
+     * @return Índice de la vela, o el número de velas si no hay ninguna.
+     */
+    private static int firstIndexAt(int positionX, CandleSize candleSize, int candlesPerColumn, int size) {
+        long index;
+        if(candlesPerColumn > 1) {
+            index = (long) positionX * candlesPerColumn;
+        }
+        else {
+            index = candleSize.firstIndexAt(positionX);
+        }
+        return (int) Math.min(index, size);
+    }
+
+
+    /**
+     * Método auxiliar que obtiene el primer límite de un paso en minutos posterior a un minuto. Los pasos de un día o
+     * menos son divisores de un día, por lo que los límites coinciden con las horas y los días del calendario.
+     *
+     * @param epochMinute Minuto desde la época.
+     * @param step Paso en minutos.
+     * @return Minuto desde la época del límite.
+     */
+    static long nextMinuteBoundary(long epochMinute, int step) {
+        return Math.floorDiv(epochMinute, step) * step + step;
+    }
+
+
+    /**
+     * Método auxiliar que obtiene el primer inicio de mes posterior a un minuto, entre los meses múltiplos del paso
+     * indicado contando desde enero.
+     *
+     * @param epochMinute Minuto desde la época.
+     * @param step Paso en meses, divisor de doce.
+     * @return Minuto desde la época del inicio del mes.
+     */
+    static long nextMonthBoundary(long epochMinute, int step) {
+        long month = CivilDate.epochMonth(Math.floorDiv(epochMinute, MINUTES_PER_DAY));
+        return CivilDate.firstDay(Math.floorDiv(month, step) * step + step) * MINUTES_PER_DAY;
+    }
+}
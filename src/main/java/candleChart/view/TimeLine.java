@@ -1,10 +1,12 @@
 package candleChart.view;
 
 import candleChart.controller.CandleSize;
+import candleChart.data.CandleSeries;
 import candleChart.model.Candle;
 
 import javax.swing.*;
 import java.awt.*;
+import java.time.Month;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
@@ -14,20 +16,34 @@ import java.util.List;
  * Clase que representa un componente que dibuja la línea de tiempo de un gráfico.
  * Esta clase permite la renderización de la línea horizontal de tiempo de un gráfico, junto con sus divisiones y la
  * fecha actual del puntero del ratón donde se encuentra en ese momento.
+ * Las divisiones se colocan en los límites naturales del calendario y sus fechas se dibujan directamente en
+ * paintComponent a partir de las etiquetas calculadas por TimeLabels, que solo se recalculan al cambiar las velas
+ * representadas o la anchura del componente. La etiqueta de la fecha del
+ * cursor se dibuja a partir de un array de caracteres reutilizado, de forma que mover el cursor no crea ningún objeto.
  */
 public class TimeLine extends JPanel {
     private static final int DIVIDER_HEIGHT = 4;
-    private static final int DIVIDER_SIZE = 64;
     private static final int CURRENT_TIME_WIDTH = 100;
     private static final int CURRENT_TIME_HEIGHT = 15;
     private static final int CURRENT_TIME_LOCATION_X = 0;
     private static final int CURRENT_TIME_LOCATION_Y = 5;
+    private static final int LABEL_LOCATION_Y = 5;
+    private static final int LABEL_WIDTH = 62;
+    private static final char[][] MONTHS = monthNames();
 
     private int cursorLocationX;
-    private final JLabel currentTime;
+    private final char[] currentTime;   // Caracteres de la fecha a la que apunta el cursor.
+    private int currentTimeLength;
+    private boolean cursorVisible;
     private List<Candle> candleList;
-    private Candle candleFromCursor;
+    private CandleSeries candleSeries;  // Lista de velas accedida por columnas, sin crear objetos Candle.
+    private int candleIndexFromCursor;
     private CandleSize candleSize;
+    private int candlesPerColumn;
+
+    private final TimeLabels timeLabels;        // Etiquetas de las divisiones de la línea de tiempo.
+    private boolean chartDatesValid;            // Indica si las etiquetas corresponden a las velas representadas.
+    private int chartDatesWidth;                // Anchura del componente con la que se calcularon las etiquetas.
 
 
     /**
@@ -36,21 +52,20 @@ public class TimeLine extends JPanel {
      */
     public TimeLine() {
         candleSize = CandleSize.SMALL;
+        candlesPerColumn = 1;
         cursorLocationX = 0;
         candleList = new ArrayList<>();
-
-        currentTime = new JLabel();
-        currentTime.setVisible(false);
-        currentTime.setOpaque(true);
-        currentTime.setSize(CURRENT_TIME_WIDTH, CURRENT_TIME_HEIGHT);
-        currentTime.setHorizontalAlignment(SwingConstants.CENTER);
-        currentTime.setLocation(CURRENT_TIME_LOCATION_X, CURRENT_TIME_LOCATION_Y);
-        currentTime.setBackground(Color.GRAY);
+        candleSeries = CandleSeries.of(candleList);
+        candleIndexFromCursor = -1;
+        timeLabels = new TimeLabels();
+        currentTime = new char[64];
+        currentTimeLength = 0;
+        cursorVisible = false;
 
         setPreferredSize(new Dimension(0, 40));
+        setFont(UIManager.getFont("Label.font"));
         setLayout(null);
         setBackground(Color.BLACK);
-        add(currentTime);
     }
 
 
@@ -63,20 +78,67 @@ public class TimeLine extends JPanel {
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
+        paintChartDates(g);
 
-        // Se pinta divisiones
-        g.setColor(Color.GRAY);
-        for (int x = 0; x < getWidth() - 70; x += DIVIDER_SIZE) {
-            g.drawLine(x, 0, x, DIVIDER_HEIGHT);
+        // Se pinta posición del cursor y la etiqueta de la fecha a la que apunta.
+        if (cursorVisible) {
+            g.drawLine(cursorLocationX, 0, cursorLocationX, DIVIDER_HEIGHT);
+            paintCurrentTime(g);
         }
+    }
 
-        // Se pinta posición del cursor.
-        if (currentTime.isVisible()) {
-            g.drawLine(cursorLocationX, 0, cursorLocationX, DIVIDER_HEIGHT);
+
+    /**
+     * Calcula las etiquetas de la línea de tiempo para las velas representadas.
+     *
+     * @param width Anchura de la línea de tiempo.
+     * @param candleList Lista de velas representadas en el gráfico.
+     * @param candleSize Tamaño de las velas.
+     * @param candlesPerColumn Número de velas por columna.
+     * @return Etiquetas de la línea de tiempo.
+     */
+    static TimeLabels createLabels(int width, List<Candle> candleList, CandleSize candleSize, int candlesPerColumn) {
+        TimeLabels labels = new TimeLabels();
+        labels.update(CandleSeries.of(candleList), candleSize, candlesPerColumn, width - 70);
+        return labels;
+    }
+
+
+    /**
+     * Dibuja las divisiones y las fechas de las etiquetas que intersecan con el área de recorte. Las divisiones se
+     * colocan en los límites del calendario calculados para las velas representadas.
+     *
+     * @param g El contexto gráfico en el que dibujar las fechas.
+     * @param labels Etiquetas de la línea de tiempo.
+     */
+    static void paintLabels(Graphics g, TimeLabels labels) {
+        Rectangle clip = g.getClipBounds();
+        g.setColor(Color.GRAY);
+        for(int i = 0; i < labels.size(); i++) {
+            int x = labels.getPosition(i);
+            if(clip == null || (x < clip.x + clip.width && x + LABEL_WIDTH > clip.x)) {
+                g.drawLine(x, 0, x, DIVIDER_HEIGHT);
+                paintDate(g, x, labels.getDay(i), labels.getHour(i));
+            }
         }
     }
 
 
+    /**
+     * Método auxiliar que dibuja la fecha de una división a la derecha de la división, con la fecha y la hora en dos líneas.
+     *
+     * @param g El contexto gráfico en el que dibujar la fecha.
+     * @param x Posición de la división en el eje X.
+     * @param day Fecha de la división.
+     * @param hour Hora de la división.
+     */
+    private static void paintDate(Graphics g, int x, String day, String hour) {
+        FontMetrics metrics = g.getFontMetrics();
+        g.drawString(day, x, LABEL_LOCATION_Y + metrics.getAscent());
+        g.drawString(hour, x, LABEL_LOCATION_Y + metrics.getHeight() + metrics.getAscent());
+    }
+
+
     /**
      * Establece la posición del ratón en el eje X. Este método actualiza tanto la ubicación del cursor, como la
      * posición de la etiqueta de la fecha a la que apunta esta posición.
@@ -84,9 +146,6 @@ public class TimeLine extends JPanel {
      * @param cursorLocationX Posición del ratón en el eje X.
      */
     public void setCursorLocation(int cursorLocationX) {
-        int positionX = cursorLocationX < CURRENT_TIME_WIDTH / 2 ? 0 : cursorLocationX - CURRENT_TIME_WIDTH / 2;
-        currentTime.setLocation(positionX, CURRENT_TIME_LOCATION_Y);
-
         this.cursorLocationX = cursorLocationX;
         repaint();
         updateCurrentDate();
@@ -111,7 +170,7 @@ public class TimeLine extends JPanel {
      * @param visibility Visibilidad del cursor en la línea de tiempo.
      */
     public void setCursorVisible(boolean visibility) {
-        currentTime.setVisible(visibility);
+        cursorVisible = visibility;
         repaint();
     }
 
@@ -123,7 +182,7 @@ public class TimeLine extends JPanel {
      * @return la visibilidad del cursor en la línea de tiempo.
      */
     public boolean isCursorVisible() {
-        return currentTime.isVisible();
+        return cursorVisible;
     }
 
 
@@ -141,6 +200,7 @@ public class TimeLine extends JPanel {
         }
 
         this.candleList = candleList;
+        this.candleSeries = CandleSeries.of(candleList);
         repaint();
         updateChartDate();
     }
@@ -171,7 +231,7 @@ public class TimeLine extends JPanel {
         }
 
         this.candleSize = candleSize;
-        repaint();
+        updateChartDate();
     }
 
 
@@ -186,68 +246,227 @@ public class TimeLine extends JPanel {
     }
 
 
+    /**
+     * Establece el número de velas agrupadas en cada columna de un píxel del gráfico. Con valores mayores que 1 la
+     * posición de las velas se calcula por columnas en lugar de mediante el tamaño de vela.
+     *
+     * @param candlesPerColumn Número de velas por columna.
+     * @throws IllegalArgumentException Si el número de velas por columna no es positivo.
+     */
+    public void setCandlesPerColumn(int candlesPerColumn) {
+        if(candlesPerColumn < 1) {
+            throw new IllegalArgumentException("El número de velas por columna debe ser un valor positivo.");
+        }
+
+        this.candlesPerColumn = candlesPerColumn;
+        repaint();
+        updateChartDate();
+    }
+
+
+    /**
+     * Obtiene el número de velas agrupadas en cada columna de un píxel del gráfico.
+     *
+     * @return Número de velas por columna.
+     */
+    public int getCandlesPerColumn() {
+        return candlesPerColumn;
+    }
+
+
+    /**
+     * Obtiene la vela a la que apunta el cursor.
+     *
+     * @return Vela a la que apunta el cursor, o null si el cursor no apunta a ninguna vela.
+     */
     public Candle getCandleFromCursor() {
-        return candleFromCursor;
+        return candleIndexFromCursor >= 0? candleList.get(candleIndexFromCursor): null;
+    }
+
+
+    /**
+     * Obtiene el índice en la lista de velas de la vela a la que apunta el cursor.
+     *
+     * @return Índice de la vela a la que apunta el cursor, o -1 si el cursor no apunta a ninguna vela.
+     */
+    public int getCandleIndexFromCursor() {
+        return candleIndexFromCursor;
     }
 
 
     /**
-     * Método que actualiza los valores de las fechas de la línea de tiempo.
+     * Obtiene el número de divisiones de la línea de tiempo, que se colocan en los límites del calendario de las velas
+     * representadas.
+     *
+     * @return Número de divisiones.
+     */
+    public int getTickCount() {
+        return updatedLabels().size();
+    }
+
+
+    /**
+     * Obtiene la posición en el eje X de una división de la línea de tiempo.
+     *
+     * @param index Índice de la división, entre 0 y el número de divisiones (exclusive).
+     * @return Posición de la división en el eje X.
+     */
+    public int getTickPosition(int index) {
+        return updatedLabels().getPosition(index);
+    }
+
+
+    /**
+     * Método que descarta las etiquetas de la línea de tiempo, de forma que se vuelvan a calcular en el siguiente
+     * pintado.
      */
     private void updateChartDate() {
-        int numLabels = (getWidth() - 71) / DIVIDER_SIZE + 1;
+        chartDatesValid = false;
+        repaint();
+    }
 
-        // Agrega o elimina etiquetas de las divisiones según sea necesario.
-        while (getComponentCount() > numLabels +1) {
-            remove(getComponentCount() -1);
-        }
 
-        while (getComponentCount() <= numLabels) {
-            JLabel label = new JLabel();
-            label.setForeground(Color.GRAY);
-            label.setSize(62, 30);
-            label.setOpaque(false);
-            add(label);
-        }
+    /**
+     * Método auxiliar que dibuja las divisiones y las fechas que intersecan con el área de recorte. Las etiquetas solo
+     * se recalculan si han sido descartadas o ha cambiado la anchura del componente.
+     *
+     * @param g El contexto gráfico en el que dibujar las fechas.
+     */
+    private void paintChartDates(Graphics g) {
+        paintLabels(g, updatedLabels());
+    }
 
-        // Actualiza los valores de las fechas de las etiquetas.
-        for(int i = 1; i < getComponentCount(); i++) {
-            int relativePosition = candleSize.getRelativePosition();
-            int indexCandleTime = i * (DIVIDER_SIZE / relativePosition) - (DIVIDER_SIZE / relativePosition);
-            if(candleList.size() > indexCandleTime) {
-                DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd MMM HH:mm");
-                String formattedDateTime = candleList.get(indexCandleTime).dateTime().format(formatter);
-
-                JLabel label = (JLabel) getComponent(i);
-                label.setLocation(i * DIVIDER_SIZE - DIVIDER_SIZE, 5);
-                label.setText("<html>" + formattedDateTime + "</html>");
-            }
+
+    /**
+     * Método auxiliar que obtiene las etiquetas de la línea de tiempo, recalculándolas si han sido descartadas o ha
+     * cambiado la anchura del componente.
+     *
+     * @return Etiquetas de la línea de tiempo.
+     */
+    private TimeLabels updatedLabels() {
+        if(!chartDatesValid || chartDatesWidth != getWidth()) {
+            timeLabels.update(candleSeries, candleSize, candlesPerColumn, getWidth() - 70);
+            chartDatesValid = true;
+            chartDatesWidth = getWidth();
         }
+        return timeLabels;
     }
 
 
     /**
-     * Método que actualiza el valor de la etiqueta que representa el valor en el cual se encuentra el cursor del ratón.
+     * Método que actualiza la vela a la que apunta el cursor y los caracteres de la etiqueta de su fecha.
      */
     private void updateCurrentDate() {
-        int relativePosition = candleSize.getRelativePosition();
-        int indexCandleTime = (cursorLocationX + relativePosition / 2) / relativePosition;  // Vela a la que apunta el cursor.
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd MMM HH:mm");  // Formato de fecha a mostrar.
-        JLabel label = (JLabel) getComponent(0);    // Etiqueta que muestra la fecha de la vela a la que apunta el cursor.
-
-        // Se muestra y actualiza el valor de la vela a la que apunta el cursor en caso de existir.
-        if(candleList.size() > indexCandleTime) {
-            label.setText(candleList.get(indexCandleTime).dateTime().format(formatter));
-            candleFromCursor = candleList.get(indexCandleTime);
-
-            if (currentTime.isVisible()) {
-                label.setVisible(true);
-            }
+        int indexCandleTime = indexOfPosition(cursorLocationX);  // Vela a la que apunta el cursor.
+
+        // Se actualiza el valor de la vela a la que apunta el cursor en caso de existir.
+        if(indexCandleTime >= 0 && candleSeries.size() > indexCandleTime) {
+            candleIndexFromCursor = indexCandleTime;
+            currentTimeLength = formatDateTime(candleSeries.getTime(indexCandleTime), currentTime);
         }
         else {
-            label.setText("");
-            label.setVisible(false);
-            candleFromCursor = null;
+            candleIndexFromCursor = -1;
+            currentTimeLength = 0;
+        }
+    }
+
+
+    /**
+     * Método auxiliar que dibuja la etiqueta de la fecha a la que apunta el cursor, centrada horizontalmente en el
+     * cursor. La etiqueta no se dibuja si el cursor no apunta a ninguna vela.
+     *
+     * @param g El contexto gráfico en el que dibujar la etiqueta.
+     */
+    private void paintCurrentTime(Graphics g) {
+        if(currentTimeLength == 0) {
+            return;
+        }
+
+        int positionX = Math.max(cursorLocationX - CURRENT_TIME_WIDTH / 2, CURRENT_TIME_LOCATION_X);
+        g.setColor(Color.GRAY);
+        g.fillRect(positionX, CURRENT_TIME_LOCATION_Y, CURRENT_TIME_WIDTH, CURRENT_TIME_HEIGHT);
+
+        FontMetrics metrics = g.getFontMetrics();
+        int textWidth = metrics.charsWidth(currentTime, 0, currentTimeLength);
+        g.setColor(Color.BLACK);
+        g.drawChars(currentTime, 0, currentTimeLength, positionX + (CURRENT_TIME_WIDTH - textWidth) / 2,
+                CURRENT_TIME_LOCATION_Y + (CURRENT_TIME_HEIGHT - metrics.getHeight()) / 2 + metrics.getAscent());
+    }
+
+
+    /**
+     * Escribe una fecha en el array de caracteres proporcionado, en el mismo formato que el patrón "dd MMM HH:mm" pero
+     * sin crear ningún objeto.
+     *
+     * @param epochNanos Fecha a escribir, en nanosegundos desde la época en UTC.
+     * @param chars Array en el que escribir los caracteres de la fecha.
+     * @return Número de caracteres escritos.
+     */
+    static int formatDateTime(long epochNanos, char[] chars) {
+        long epochMinute = Math.floorDiv(epochNanos, 60_000_000_000L);
+        long epochDay = Math.floorDiv(epochMinute, 1440);
+        int minuteOfDay = Math.floorMod(epochMinute, 1440);
+        long epochMonth = CivilDate.epochMonth(epochDay);
+        int dayOfMonth = (int) (epochDay - CivilDate.firstDay(epochMonth)) + 1;
+        int month = Math.floorMod(epochMonth, 12);
+
+        int length = writeTwoDigits(dayOfMonth, chars, 0);
+        chars[length++] = ' ';
+
+        char[] monthName = MONTHS[month];
+        System.arraycopy(monthName, 0, chars, length, monthName.length);
+        length += monthName.length;
+
+        chars[length++] = ' ';
+        length = writeTwoDigits(minuteOfDay / 60, chars, length);
+        chars[length++] = ':';
+        return writeTwoDigits(minuteOfDay % 60, chars, length);
+    }
+
+
+    /**
+     * Método auxiliar que escribe un número de dos dígitos en el array de caracteres proporcionado.
+     *
+     * @param value Número a escribir, entre 0 y 99.
+     * @param chars Array en el que escribir los dígitos.
+     * @param offset Posición del primer dígito.
+     * @return Posición siguiente al último dígito.
+     */
+    private static int writeTwoDigits(int value, char[] chars, int offset) {
+        chars[offset] = (char) ('0' + value / 10);
+        chars[offset + 1] = (char) ('0' + value % 10);
+        return offset + 2;
+    }
+
+
+    /**
+     * Método auxiliar que obtiene los nombres abreviados de los meses según la configuración regional, tal como los
+     * escribe el patrón "MMM".
+     *
+     * @return Nombres abreviados de los meses.
+     */
+    private static char[][] monthNames() {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM");
+        char[][] months = new char[12][];
+        for(Month month: Month.values()) {
+            months[month.ordinal()] = formatter.format(month).toCharArray();
+        }
+        return months;
+    }
+
+
+    /**
+     * Método auxiliar que obtiene el índice de la vela representada en la posición indicada del eje X. En el modo de
+     * nivel de detalle se obtiene la primera vela de la columna.
+     *
+     * @param positionX Posición en el eje X.
+     * @return Índice de la vela en la lista de velas.
+     */
+    private int indexOfPosition(int positionX) {
+        if(candlesPerColumn > 1) {
+            return (int) Math.min(Math.max(positionX, 0) * (long) candlesPerColumn, Integer.MAX_VALUE);
         }
+        double relativePosition = candleSize.getRelativePosition();
+        return (int) Math.floor((positionX + relativePosition / 2) / relativePosition);
     }
 }
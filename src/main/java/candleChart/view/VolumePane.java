@@ -0,0 +1,139 @@
+package candleChart.view;
+
+import candleChart.data.CandleSeries;
+
+import java.awt.*;
+
+/**
+ * Panel secundario del gráfico que representa el volumen de las velas como un histograma de barras verticales desde
+ * la base del panel, alineadas con las velas del panel principal. Cada barra es verde si la vela es alcista y roja si
+ * es bajista.
+ * En el modo de nivel de detalle cada columna de un píxel representa el mayor volumen de las velas que agrupa, con el
+ * color que indica la apertura de la primera vela y el cierre de la última. Tanto el volumen de cada columna como el
+ * rango de valores del panel se obtienen mediante el índice de volúmenes máximos del buffer cuando la lista de velas es
+ * un rango de este, de forma que no es necesario recorrer todas las velas representadas en cada pintado.
+ */
+public class VolumePane extends ChartPane {
+    private static final Color BULLISH = new Color(0, 191, 0);
+    private static final Color BEARISH = new Color(191, 0, 0);
+
+
+    /**
+     * Constructor de la clase VolumePane.
+     * Crea un nuevo panel de volumen con valores predeterminados para las propiedades.
+     */
+    public VolumePane() {
+    }
+
+
+    /**
+     * Dibuja las barras de volumen que intersecan con el rango de columnas indicado. Las barras se dibujan con una
+     * pasada por color, de forma que el color del contexto gráfico solo cambia dos veces por pintado.
+     *
+     * @param g El contexto gráfico en el que dibujar las barras.
+     * @param fromX Primera columna a dibujar (inclusive).
+     * @param toX Última columna a dibujar (exclusive).
+     */
+    @Override
+    protected void paintValues(Graphics2D g, int fromX, int toX) {
+        CandleSeries series = CandleSeries.of(getCandleList());    // Acceso sin crear objetos Candle.
+        if(series.size() == 0 || getRangeUp() <= getRangeDown()) {
+            return;
+        }
+
+        if(getCandlesPerColumn() > 1) {
+            paintColumns(g, series, fromX, toX, BEARISH, false);
+            paintColumns(g, series, fromX, toX, BULLISH, true);
+        }
+        else {
+            // Una vela ocupa los píxeles desde su posición menos la mitad de su ancho hasta completar su ancho.
+            int candleWidth = getCandleSize().getCandleWidth();
+            int left = candleWidth / 2;
+            long from = getCandleSize().firstIndexAt((double) fromX + left - (candleWidth - 1));
+            long to = getCandleSize().firstIndexAt((double) toX + left);
+            int fromIndex = (int) Math.max(from, 0);
+            int toIndex = (int) Math.min(to, series.size());
+            paintBars(g, series, fromIndex, toIndex, BEARISH, false);
+            paintBars(g, series, fromIndex, toIndex, BULLISH, true);
+        }
+    }
+
+
+    /**
+     * Obtiene el mayor volumen de las velas representadas, mediante el índice de volúmenes máximos del buffer cuando
+     * la lista es un rango del buffer.
+     *
+     * @return El mayor volumen, o Double.NaN si no hay velas.
+     */
+    @Override
+    protected double getHighestValue() {
+        CandleSeries series = CandleSeries.of(getCandleList());
+        return series.size() > 0? series.getHighestVolume(0, series.size()): Double.NaN;
+    }
+
+
+    /**
+     * Obtiene el menor valor del panel, que es siempre cero ya que las barras parten de la base del panel.
+     *
+     * @return Cero, o Double.NaN si no hay velas.
+     */
+    @Override
+    protected double getLowestValue() {
+        return getCandleList().isEmpty()? Double.NaN: 0;
+    }
+
+
+    /**
+     * Método auxiliar que dibuja las barras de las velas del rango indicado con el sentido proporcionado.
+     *
+     * @param g El contexto gráfico en el que dibujar las barras.
+     * @param series Serie de velas a representar.
+     * @param fromIndex Índice de la primera vela a dibujar (inclusive).
+     * @param toIndex Índice de la última vela a dibujar (exclusive).
+     * @param color Color de las barras.
+     * @param bullish True para dibujar las velas alcistas, o false para dibujar las bajistas.
+     */
+    private void paintBars(Graphics g, CandleSeries series, int fromIndex, int toIndex, Color color, boolean bullish) {
+        int candleWidth = getCandleSize().getCandleWidth();
+        int left = candleWidth / 2;
+        int height = getHeight();
+
+        g.setColor(color);
+        for(int i = fromIndex; i < toIndex; i++) {
+            if((series.getOpen(i) <= series.getClose(i)) == bullish) {
+                int top = positionOfValue(series.getVolume(i));
+                g.fillRect(positionOfCandle(i) - left, top, candleWidth, height - top);
+            }
+        }
+    }
+
+
+    /**
+     * Método auxiliar que dibuja las columnas del modo de nivel de detalle con el sentido proporcionado. Cada columna
+     * agrupa candlesPerColumn velas consecutivas y se dibuja como una línea desde la base del panel hasta el mayor
+     * volumen de sus velas.
+     *
+     * @param g El contexto gráfico en el que dibujar las columnas.
+     * @param series Serie de velas a representar.
+     * @param fromX Primera columna a dibujar (inclusive).
+     * @param toX Última columna a dibujar (exclusive).
+     * @param color Color de las columnas.
+     * @param bullish True para dibujar las columnas alcistas, o false para dibujar las bajistas.
+     */
+    private void paintColumns(Graphics g, CandleSeries series, int fromX, int toX, Color color, boolean bullish) {
+        long candlesPerColumn = getCandlesPerColumn();
+        int size = series.size();
+        int columns = (int) ((size + candlesPerColumn - 1) / candlesPerColumn);
+        int height = getHeight();
+
+        g.setColor(color);
+        for(int x = Math.max(fromX, 0); x < Math.min(toX, columns); x++) {
+            int from = (int) (x * candlesPerColumn);
+            int to = (int) Math.min(from + candlesPerColumn, size);
+            if((series.getOpen(from) <= series.getClose(to - 1)) == bullish) {
+                int top = positionOfValue(series.getHighestVolume(from, to));
+                g.drawLine(x, top, x, height - 1);
+            }
+        }
+    }
+}
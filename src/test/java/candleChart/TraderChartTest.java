@@ -3,12 +3,16 @@ package candleChart;
 import candleChart.controller.CandleSize;
 import candleChart.controller.ChartController;
 import candleChart.data.Buffer;
+import candleChart.data.SimpleMovingAverage;
+import candleChart.model.Candle;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.awt.*;
 import java.lang.reflect.Field;
+import java.time.LocalDateTime;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -63,6 +67,33 @@ public class TraderChartTest {
         verify(chartControllerMock, times(1)).setBuffer(any());
     }
 
+    @Test
+    public void testUpdateLast_TriggerChartController() {
+        traderChart.updateLast();
+
+        verify(chartControllerMock, times(1)).updateLast();
+        verify(chartControllerMock, never()).setBuffer(any());
+    }
+
+    @Test
+    public void testUpdateLast_NullCandle() {
+        NullPointerException exception;
+        exception = assertThrows(NullPointerException.class, () -> traderChart.updateLast(null));
+        assertEquals("El valor proporcionado para 'candle' es nulo.", exception.getMessage());
+    }
+
+    @Test
+    public void testUpdateLast_ReplaceLastCandle() {
+        Candle candle = new Candle(LocalDateTime.now(), 1.25, 1.30, 1.20, 1.22);
+        buffer.addLast(new Candle(LocalDateTime.now(), 2.25, 2.30, 2.20, 2.22));
+        traderChart.setBuffer(buffer);
+
+        traderChart.updateLast(candle);
+
+        assertEquals(candle, buffer.get(0));
+        verify(chartControllerMock, times(1)).updateLast();
+    }
+
     @Test
     public void testSetGridVisible_TriggerChartController() {
         traderChart.setGridVisible(true);
@@ -99,6 +130,71 @@ public class TraderChartTest {
         assertFalse(traderChart.isCursorVisible());
     }
 
+    @Test
+    public void testSetMaxFrameRate_TriggerChartController() {
+        traderChart.setMaxFrameRate(30);
+        verify(chartControllerMock, times(1)).setMaxFrameRate(30);
+
+        when(chartControllerMock.getMaxFrameRate()).thenReturn(30);
+        assertEquals(30, traderChart.getMaxFrameRate());
+    }
+
+    @Test
+    public void testSetMaxFrameRate_InvalidValue() {
+        IllegalArgumentException exception;
+        exception = assertThrows(IllegalArgumentException.class, () -> traderChart.setMaxFrameRate(0));
+        assertEquals("La tasa máxima de fotogramas debe ser un valor positivo.", exception.getMessage());
+    }
+
+    @Test
+    public void testSetCandlesPerColumn_TriggerChartController() {
+        traderChart.setCandlesPerColumn(50);
+        verify(chartControllerMock, times(1)).setCandlesPerColumn(50);
+
+        when(chartControllerMock.getCandlesPerColumn()).thenReturn(50);
+        assertEquals(50, traderChart.getCandlesPerColumn());
+    }
+
+    @Test
+    public void testSetGridSnapToAxes_TriggerChartController() {
+        traderChart.setGridSnapToAxes(false);
+        verify(chartControllerMock, times(1)).setGridSnapToAxes(false);
+
+        when(chartControllerMock.isGridSnapToAxes()).thenReturn(true);
+        assertTrue(traderChart.isGridSnapToAxes());
+    }
+
+    @Test
+    public void testSetPixelsPerCandle_TriggerChartController() {
+        traderChart.setPixelsPerCandle(2.5);
+        verify(chartControllerMock, times(1)).setPixelsPerCandle(2.5);
+
+        when(chartControllerMock.getPixelsPerCandle()).thenReturn(2.5);
+        assertEquals(2.5, traderChart.getPixelsPerCandle());
+    }
+
+    @Test
+    public void testAddIndicator_AttachesToBufferAndTriggerChartController() {
+        traderChart.setBuffer(buffer);
+        SimpleMovingAverage sma = new SimpleMovingAverage(5);
+
+        traderChart.addIndicator(sma, Color.BLUE);
+
+        assertSame(buffer, sma.getBuffer());
+        verify(chartControllerMock, times(1)).addIndicator(sma, Color.BLUE);
+
+        traderChart.removeIndicator(sma);
+        verify(chartControllerMock, times(1)).removeIndicator(sma);
+        assertSame(buffer, sma.getBuffer());
+    }
+
+    @Test
+    public void testSetCandlesPerColumn_InvalidValue() {
+        IllegalArgumentException exception;
+        exception = assertThrows(IllegalArgumentException.class, () -> traderChart.setCandlesPerColumn(0));
+        assertEquals("El número de velas por columna debe ser un valor positivo.", exception.getMessage());
+    }
+
     @Test
     public void testSetCandleSize_TriggerChartController() {
         traderChart.setCandleSize(CandleSize.VERY_SMALL);
@@ -157,6 +253,31 @@ public class TraderChartTest {
         assertEquals("EUR/USD", traderChart.getSymbol());
     }
 
+    @Test
+    public void testSetSymbolWithPriceFormat_TriggerChartController() {
+        traderChart.setSymbol("ES", 0.25, 2);
+        verify(chartControllerMock, times(1)).setPriceFormat(0.25, 2);
+        verify(chartControllerMock, times(1)).setSymbol("ES");
+    }
+
+    @Test
+    public void testSetSymbolWithPriceFormat_NullSymbol() {
+        NullPointerException exception;
+        exception = assertThrows(NullPointerException.class, () -> traderChart.setSymbol(null, 0.25, 2));
+        assertEquals("El valor proporcionado para 'symbol' es nulo.", exception.getMessage());
+    }
+
+    @Test
+    public void testSetPriceFormat_TriggerChartController() {
+        traderChart.setPriceFormat(0.01, 2);
+        verify(chartControllerMock, times(1)).setPriceFormat(0.01, 2);
+
+        when(chartControllerMock.getTickSize()).thenReturn(0.01);
+        when(chartControllerMock.getPriceDecimals()).thenReturn(2);
+        assertEquals(0.01, traderChart.getTickSize());
+        assertEquals(2, traderChart.getPriceDecimals());
+    }
+
     @Test
     public void testAdvance_OneSteps() {
         traderChart.advance();
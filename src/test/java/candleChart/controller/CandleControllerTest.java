@@ -13,6 +13,7 @@ import java.util.ArrayList;
 
 import candleChart.model.Candle;
 import candleChart.view.CandleView;
+import candleChart.view.ChartPane;
 
 public class CandleControllerTest {
     private CandleController candleController;
@@ -116,7 +117,7 @@ public class CandleControllerTest {
         candleController.retrieve(4);
         candleController.advance(2);
 
-        verify(candleView, atLeastOnce()).setCandleList(buffer.getAll().subList(4,5));
+        verify(candleView, atLeastOnce()).setCandleList(buffer.getAll().subList(5,6), 5);
     }
 
     @Test
@@ -126,7 +127,7 @@ public class CandleControllerTest {
         candleController.retrieve(4);
         candleController.advance(20);
 
-        verify(candleView, atLeastOnce()).setCandleList(buffer.getAll().subList(6,7));
+        verify(candleView, atLeastOnce()).setCandleList(buffer.getAll().subList(7,8), 7);
     }
 
     @Test
@@ -152,7 +153,7 @@ public class CandleControllerTest {
         candleController.setBuffer(buffer);
         candleController.retrieve(4);
 
-        verify(candleView, atLeastOnce()).setCandleList(buffer.getAll().subList(2,3));
+        verify(candleView, atLeastOnce()).setCandleList(buffer.getAll().subList(3,4), 3);
     }
 
     @Test
@@ -161,6 +162,262 @@ public class CandleControllerTest {
         candleController.setBuffer(buffer);
         candleController.retrieve(20);
 
-        verify(candleView, atLeastOnce()).setCandleList(buffer.getAll().subList(0,1));
+        verify(candleView, atLeastOnce()).setCandleList(buffer.getAll().subList(0,1), 0);
+    }
+
+    @Test
+    public void testRetrieve_SamePriceRangeScrollsView() {
+        when(candleView.getWidth()).thenReturn(10);
+        candleController.setBuffer(buffer);
+        candleController.retrieve(4);
+
+        verify(candleView, times(1)).scrollCandles(-4);
+        verify(candleView, times(1)).setPriceRange(anyDouble(), anyDouble());
+    }
+
+    @Test
+    public void testRetrieve_PriceRangeChanged() {
+        when(candleView.getWidth()).thenReturn(10);
+        candleController.setBuffer(buffer);
+        candleController.retrieve(1);
+
+        verify(candleView, never()).scrollCandles(anyInt());
+        verify(candleView, times(1)).setPriceRange(1.20, 1.10);
+    }
+
+    @Test
+    public void testUpdateLast_SamePriceRange() {
+        when(candleView.getWidth()).thenReturn(200);
+        candleController.setBuffer(buffer);
+
+        buffer.updateLast(new Candle(LocalDateTime.now(), 2.25, 2.28, 2.15, 2.26));
+
+        assertFalse(candleController.updateLast());
+        verify(candleView, times(1)).repaintCandle(7);
+        verify(candleView, times(1)).setPriceRange(anyDouble(), anyDouble());
+    }
+
+    @Test
+    public void testUpdateLast_PriceRangeChanged() {
+        when(candleView.getWidth()).thenReturn(200);
+        candleController.setBuffer(buffer);
+
+        buffer.updateLast(new Candle(LocalDateTime.now(), 2.25, 3.10, 2.20, 3.05));
+
+        assertTrue(candleController.updateLast());
+        assertEquals(3.10, candleController.getMaxPrice());
+        assertEquals(1.10, candleController.getMinPrice());
+        verify(candleView, times(1)).setPriceRange(3.10, 1.10);
+        verify(candleView, never()).repaintCandle(anyInt());
+    }
+
+    @Test
+    public void testUpdateLast_CandleNotVisible() {
+        when(candleView.getWidth()).thenReturn(10);
+        candleController.setBuffer(buffer);
+        candleController.retrieve(4);
+
+        buffer.updateLast(new Candle(LocalDateTime.now(), 2.25, 3.10, 2.20, 3.05));
+
+        assertFalse(candleController.updateLast());
+        verify(candleView, never()).repaintCandle(anyInt());
+    }
+
+    @Test
+    public void testUpdateLast_BufferSizeChanged() {
+        when(candleView.getWidth()).thenReturn(200);
+        candleController.setBuffer(buffer);
+
+        buffer.addLast(new Candle(LocalDateTime.now(), 2.25, 3.10, 2.20, 3.05));
+
+        assertTrue(candleController.updateLast());
+        verify(candleView, atLeastOnce()).setCandleList(buffer.getAll().subList(0,9), 0);
+        assertEquals(3.10, candleController.getMaxPrice());
+    }
+
+    @Test
+    public void testUpdateLast_FullBufferDiscardsFirstCandle() {
+        when(candleView.getWidth()).thenReturn(200);
+        buffer.setMaxSize(8);
+        candleController.setBuffer(buffer);
+
+        // El buffer está lleno, por lo que la nueva vela descarta la primera sin que varíe el tamaño.
+        buffer.addLast(new Candle(LocalDateTime.now(), 2.25, 2.28, 2.15, 2.26));
+
+        assertTrue(candleController.updateLast());
+        verify(candleView, times(2)).setCandleList(anyList(), eq(0));
+        verify(candleView, never()).repaintCandle(anyInt());
+    }
+
+    @Test
+    public void testAddPane_SharesVisibleCandles() {
+        when(candleView.getWidth()).thenReturn(10);
+        candleController.setBuffer(buffer);
+        candleController.retrieve(2);
+        ChartPane pane = mock(ChartPane.class);
+        candleController.addPane(pane);
+
+        verify(pane, times(1)).setCandleSize(CandleSize.SMALL);
+        verify(pane, times(1)).setCandlesPerColumn(1);
+        verify(pane, times(1)).setCandleList(buffer.getAll().subList(5, 6), 5);
+        verify(pane, times(1)).updateValueRange();
+
+        // Los cambios de escala y de la ventana de velas se aplican a todos los paneles.
+        candleController.setCandlesPerColumn(4);
+        verify(pane, times(1)).setCandlesPerColumn(4);
+        verify(pane, atLeastOnce()).setCandleList(any(), anyInt());
+
+        assertThrows(NullPointerException.class, () -> candleController.addPane(null));
+    }
+
+    @Test
+    public void testRetrieve_PaneScrollsWithSameValueRange() {
+        when(candleView.getWidth()).thenReturn(10);
+        candleController.setBuffer(buffer);
+        ChartPane pane = mock(ChartPane.class);
+        candleController.addPane(pane);
+        candleController.retrieve(4);
+
+        verify(pane, times(1)).scrollCandles(-4);
+    }
+
+    @Test
+    public void testRetrieve_PaneValueRangeChanged() {
+        when(candleView.getWidth()).thenReturn(10);
+        candleController.setBuffer(buffer);
+        ChartPane pane = mock(ChartPane.class);
+        when(pane.updateValueRange()).thenReturn(true);
+        candleController.addPane(pane);
+        candleController.retrieve(4);
+
+        verify(candleView, times(1)).scrollCandles(-4);
+        verify(pane, never()).scrollCandles(anyInt());
+    }
+
+    @Test
+    public void testUpdateLast_PaneValueRange() {
+        when(candleView.getWidth()).thenReturn(200);
+        candleController.setBuffer(buffer);
+        ChartPane pane = mock(ChartPane.class);
+        candleController.addPane(pane);
+
+        buffer.updateLast(new Candle(LocalDateTime.now(), 2.25, 2.28, 2.15, 2.26));
+        assertFalse(candleController.updateLast());
+        verify(pane, times(1)).repaintCandle(7);
+
+        // Si cambia el rango de valores del panel, deben actualizarse sus ejes.
+        when(pane.updateValueRange()).thenReturn(true);
+        assertTrue(candleController.updateLast());
+        verify(pane, times(1)).repaintCandle(7);
+        verify(candleView, times(2)).repaintCandle(7);
+    }
+
+    @Test
+    public void testRemovePane() {
+        ChartPane pane = mock(ChartPane.class);
+        candleController.addPane(pane);
+
+        assertTrue(candleController.removePane(pane));
+        assertFalse(candleController.removePane(pane));
+
+        when(candleView.getWidth()).thenReturn(200);
+        candleController.setBuffer(buffer);
+        verify(pane, times(1)).setCandleList(any(), anyInt());
+    }
+
+    @Test
+    public void testSetCandlesPerColumn_InvalidValue() {
+        IllegalArgumentException exception;
+        exception = assertThrows(IllegalArgumentException.class, () -> {
+            candleController.setCandlesPerColumn(0);
+        });
+        assertEquals("El número de velas por columna debe ser un valor positivo.", exception.getMessage());
+    }
+
+    @Test
+    public void testSetCandlesPerColumn_AlignedColumns() {
+        when(candleView.getWidth()).thenReturn(2);
+        candleController.setBuffer(buffer);
+        candleController.setCandlesPerColumn(3);
+
+        assertEquals(3, candleController.getCandlesPerColumn());
+        verify(candleView, times(1)).setCandlesPerColumn(3);
+        verify(candleView, atLeastOnce()).setCandleList(buffer.getAll().subList(3,8), 3);
+    }
+
+    @Test
+    public void testSetPixelsPerCandle_FractionalCandleSize() {
+        when(candleView.getWidth()).thenReturn(20);
+        candleController.setBuffer(buffer);
+        candleController.setPixelsPerCandle(2.5);
+
+        assertEquals(2.5, candleController.getPixelsPerCandle());
+        assertEquals(CandleSize.of(2.5), candleController.getCandleSize());
+        assertEquals(1, candleController.getCandlesPerColumn());
+        verify(candleView, atLeastOnce()).setCandleList(buffer.getAll().subList(0,8), 0);
+    }
+
+    @Test
+    public void testSetPixelsPerCandle_AggregatedBelowOnePixel() {
+        candleController.setPixelsPerCandle(0.25);
+
+        assertEquals(0.25, candleController.getPixelsPerCandle());
+        assertEquals(4, candleController.getCandlesPerColumn());
+        verify(candleView, times(1)).setCandlesPerColumn(4);
+    }
+
+    @Test
+    public void testSetPixelsPerCandle_InvalidValue() {
+        IllegalArgumentException exception;
+        exception = assertThrows(IllegalArgumentException.class, () -> candleController.setPixelsPerCandle(65));
+        assertEquals("El número de píxeles por vela debe estar entre 1/65536 y 64.", exception.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> candleController.setPixelsPerCandle(Double.NaN));
+    }
+
+    @Test
+    public void testZoom_AnchoredCandleKeepsPosition() {
+        Buffer largeBuffer = new Buffer();
+        for(int i = 0; i < 100; i++) {
+            largeBuffer.addLast(i * 60_000_000_000L, 1.25, 1.30, 1.20, 1.22);
+        }
+        when(candleView.getWidth()).thenReturn(200);
+        candleController.setBuffer(largeBuffer);
+
+        // Con 8 píxeles por vela se representan las velas 75 a 99, y en la posición 100 se encuentra la vela 87.5.
+        candleController.zoom(2, 100);
+
+        assertEquals(CandleSize.LARGE, candleController.getCandleSize());
+        verify(candleView, atLeastOnce()).setCandleList(largeBuffer.getAll().subList(81,93), 81);
+    }
+
+    @Test
+    public void testZoom_LimitedScale() {
+        candleController.zoom(100, 0);
+        assertEquals(CandleController.MAX_PIXELS_PER_CANDLE, candleController.getPixelsPerCandle());
+
+        candleController.zoom(1e-9, 0);
+        assertEquals(CandleController.MIN_PIXELS_PER_CANDLE, candleController.getPixelsPerCandle());
+
+        IllegalArgumentException exception;
+        exception = assertThrows(IllegalArgumentException.class, () -> candleController.zoom(0, 0));
+        assertEquals("El factor de zoom debe ser un valor positivo.", exception.getMessage());
+    }
+
+    @Test
+    public void testZoom_SingleStepsCrossOnePixel() {
+        // Cada paso por separado no cambia el número de velas por columna redondeado, pero los pasos se acumulan.
+        candleController.setPixelsPerCandle(1.05);
+        for(int i = 0; i < 10; i++) {
+            candleController.zoom(1 / 1.1, 400);
+        }
+        assertEquals(2, candleController.getCandlesPerColumn());
+        assertEquals(0.5, candleController.getPixelsPerCandle());
+
+        candleController.setPixelsPerCandle(1.0 / 3);
+        for(int i = 0; i < 12; i++) {
+            candleController.zoom(1.1, 400);
+        }
+        assertEquals(1, candleController.getCandlesPerColumn());
+        assertTrue(candleController.getPixelsPerCandle() > 1);
     }
 }
@@ -5,6 +5,8 @@ import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class CandleSizeTest {
 
@@ -69,4 +71,42 @@ public class CandleSizeTest {
         CandleSize size = CandleSize.getByIndex(5);
         assertNull(size);
     }
+
+    @Test
+    public void testOf_PredefinedSize() {
+        assertSame(CandleSize.SMALL, CandleSize.of(8));
+        assertSame(CandleSize.VERY_LARGE, CandleSize.of(32));
+    }
+
+    @Test
+    public void testOf_FractionalSize() {
+        CandleSize size = CandleSize.of(2.5);
+
+        assertEquals(0, size.getIndex());
+        assertEquals(2.5, size.getRelativePosition());
+        assertEquals(1, size.getCandleWidth());
+        assertEquals(CandleSize.of(2.5), size);
+        assertEquals(CandleSize.of(2.5).hashCode(), size.hashCode());
+        assertEquals(4, size.positionOf(2));
+    }
+
+    @Test
+    public void testOf_InvalidSize() {
+        IllegalArgumentException exception;
+        exception = assertThrows(IllegalArgumentException.class, () -> CandleSize.of(0.5));
+        assertEquals("La posición relativa de la vela debe estar entre 1 y 64.", exception.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> CandleSize.of(64.5));
+    }
+
+    @Test
+    public void testPositionOf_FirstIndexAt() {
+        for(double relativePosition: new double[] {1, 2.5, 4, 7.3, 32}) {
+            CandleSize size = CandleSize.of(relativePosition);
+            for(int i = 0; i < 100; i++) {
+                assertEquals((int) Math.floor(i * relativePosition) - 1, size.positionOf(i));
+                assertEquals(i, size.firstIndexAt(size.positionOf(i)));
+                assertEquals(i + 1, size.firstIndexAt(size.positionOf(i) + 1));
+            }
+        }
+    }
 }
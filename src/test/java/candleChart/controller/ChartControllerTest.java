@@ -1,14 +1,21 @@
 package candleChart.controller;
 
 import candleChart.data.Buffer;
+import candleChart.data.RelativeStrengthIndex;
 import candleChart.model.Candle;
+import candleChart.view.CandleView;
+import candleChart.view.ChartPane;
+import candleChart.view.IndicatorPane;
+import candleChart.view.VolumePane;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import javax.swing.*;
 
+import java.awt.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -102,4 +109,147 @@ class ChartControllerTest {
         chartController.setSymbol("IBEX35");
         assertEquals("IBEX35", chartController.getSymbol());
     }
+
+    @Test
+    public void testSetCandlesPerColumn() {
+        chartController.setBuffer(buffer);
+        chartController.setCandlesPerColumn(4);
+        assertEquals(4, chartController.getCandlesPerColumn());
+
+        IllegalArgumentException exception;
+        exception = assertThrows(IllegalArgumentException.class, () -> chartController.setCandlesPerColumn(0));
+        assertEquals("El número de velas por columna debe ser un valor positivo.", exception.getMessage());
+    }
+
+    @Test
+    public void testSetMaxFrameRate() {
+        assertEquals(60, chartController.getMaxFrameRate());
+        chartController.setMaxFrameRate(30);
+        assertEquals(30, chartController.getMaxFrameRate());
+    }
+
+    @Test
+    public void testSetPixelsPerCandle() {
+        chartController.setBuffer(buffer);
+        chartController.setPixelsPerCandle(12.5);
+        assertEquals(12.5, chartController.getPixelsPerCandle());
+        assertEquals(CandleSize.of(12.5), chartController.getCandleSize());
+
+        chartController.zoom(0.01, 0);
+        assertEquals(0.125, chartController.getPixelsPerCandle());
+        assertEquals(8, chartController.getCandlesPerColumn());
+    }
+
+    @Test
+    public void testSetGridSnapToAxes() {
+        assertTrue(chartController.isGridSnapToAxes());
+
+        chartController.setGridSnapToAxes(false);
+        assertFalse(chartController.isGridSnapToAxes());
+    }
+
+    @Test
+    public void testAddPane() {
+        RelativeStrengthIndex rsi = new RelativeStrengthIndex(2);
+        buffer.addIndicator(rsi);
+        IndicatorPane pane = chartController.addIndicatorPane(rsi, Color.ORANGE);
+        assertEquals(List.of(pane), chartController.getPanes());
+        assertEquals(List.of(rsi), pane.getIndicators());
+
+        IllegalArgumentException exception;
+        exception = assertThrows(IllegalArgumentException.class, () -> chartController.addPane(pane));
+        assertEquals("El panel ya se encuentra en el gráfico.", exception.getMessage());
+
+        NullPointerException nullException;
+        nullException = assertThrows(NullPointerException.class, () -> chartController.addPane(null));
+        assertEquals("No se permiten valores nulos para el valor 'pane'.", nullException.getMessage());
+    }
+
+    @Test
+    public void testAddPane_SharesChartSettings() {
+        chartController.setCursorVisible(false);
+        chartController.setGridVisible(false);
+        ChartPane pane = new IndicatorPane();
+        chartController.addPane(pane);
+        chartController.setCandleSize(CandleSize.LARGE);
+
+        assertEquals(CandleSize.LARGE, pane.getCandleSize());
+        chartController.setCandlesPerColumn(4);
+        assertEquals(4, pane.getCandlesPerColumn());
+    }
+
+    @Test
+    public void testRemovePane() {
+        ChartPane pane = new IndicatorPane();
+        chartController.addPane(pane);
+
+        assertTrue(chartController.removePane(pane));
+        assertFalse(chartController.removePane(pane));
+        assertTrue(chartController.getPanes().isEmpty());
+
+        // Tras eliminarlo el panel deja de seguir la escala del gráfico.
+        chartController.setCandlesPerColumn(8);
+        assertEquals(1, pane.getCandlesPerColumn());
+    }
+
+    @Test
+    public void testAddVolumePane() {
+        VolumePane pane = chartController.addVolumePane();
+
+        assertEquals(List.of(pane), chartController.getPanes());
+        assertEquals(chartController.getCandleSize(), pane.getCandleSize());
+    }
+
+    @Test
+    public void testAddPane_StackedUnderMainPane() {
+        JPanel panel = new JPanel();
+        chartController = new ChartController(panel);
+        ChartPane pane = new IndicatorPane();
+        chartController.addPane(pane);
+        panel.setSize(800, 600);
+        layout(panel);
+
+        // Los paneles quedan alineados horizontalmente, con el panel secundario bajo el principal.
+        Component candleView = findCandleView(panel);
+        assertEquals(candleView.getWidth(), pane.getWidth());
+        assertEquals(SwingUtilities.convertPoint(candleView, 0, 0, panel).x,
+                SwingUtilities.convertPoint(pane, 0, 0, panel).x);
+        assertTrue(SwingUtilities.convertPoint(pane, 0, 0, panel).y > candleView.getHeight());
+        assertTrue(pane.getHeight() > 0 && pane.getHeight() < candleView.getHeight());
+    }
+
+    /**
+     * Aplica la disposición de un contenedor y de todos sus descendientes.
+     *
+     * @param container Contenedor.
+     */
+    private static void layout(Container container) {
+        container.doLayout();
+        for(Component component: container.getComponents()) {
+            if(component instanceof Container child) {
+                layout(child);
+            }
+        }
+    }
+
+    /**
+     * Busca la vista de velas entre los descendientes de un contenedor.
+     *
+     * @param container Contenedor.
+     * @return La vista de velas, o null si no se encuentra.
+     */
+    private static Component findCandleView(Container container) {
+        for(Component component: container.getComponents()) {
+            if(component instanceof CandleView) {
+                return component;
+            }
+            if(component instanceof Container child) {
+                Component found = findCandleView(child);
+                if(found != null) {
+                    return found;
+                }
+            }
+        }
+        return null;
+    }
 }
@@ -0,0 +1,66 @@
+package candleChart.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FrameSchedulerTest {
+
+    private List<Integer> frames;
+    private FrameScheduler frameScheduler;
+
+    @BeforeEach
+    public void setup() {
+        frames = new ArrayList<>();
+        frameScheduler = new FrameScheduler(frames::add);
+    }
+
+    @Test
+    public void testDefaultMaxFrameRate() {
+        assertEquals(60, frameScheduler.getMaxFrameRate());
+    }
+
+    @Test
+    public void testSetMaxFrameRate_InvalidValue() {
+        IllegalArgumentException exception;
+        exception = assertThrows(IllegalArgumentException.class, () -> frameScheduler.setMaxFrameRate(0));
+        assertEquals("La tasa máxima de fotogramas debe ser un valor positivo.", exception.getMessage());
+    }
+
+    @Test
+    public void testRequest_CoalescesFlags() {
+        frameScheduler.setMaxFrameRate(1);
+        frameScheduler.runFrame();
+        for(int i = 0; i < 1000; i++) {
+            frameScheduler.request(1);
+        }
+        frameScheduler.request(4);
+        assertTrue(frameScheduler.isPending());
+
+        frameScheduler.runFrame();
+        frameScheduler.runFrame();
+
+        assertEquals(List.of(5), frames);
+        assertFalse(frameScheduler.isPending());
+    }
+
+    @Test
+    public void testRequest_RunsFrameOnEventDispatchThread() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        frameScheduler = new FrameScheduler(flags -> {
+            assertTrue(SwingUtilities.isEventDispatchThread());
+            latch.countDown();
+        });
+        frameScheduler.request(2);
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertFalse(frameScheduler.isPending());
+    }
+}
@@ -0,0 +1,220 @@
+package candleChart.controller;
+
+import candleChart.data.Buffer;
+import candleChart.model.Candle;
+import candleChart.view.Cursor;
+import candleChart.view.Info;
+import candleChart.view.PriceLine;
+import candleChart.view.TimeLine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.sun.management.ThreadMXBean;
+import javax.swing.*;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HoverControllerTest {
+
+    private TimeLine timeLine;
+    private PriceLine priceLine;
+    private Cursor cursor;
+    private Info info;
+    private HoverController hoverController;
+    private Buffer buffer;
+
+    @BeforeEach
+    public void setup() {
+        timeLine = new TimeLine();
+        priceLine = new PriceLine();
+        cursor = new Cursor();
+        info = new Info();
+        info.addInfo("");
+        info.addInfo("");
+        timeLine.setSize(800, 40);
+        priceLine.setSize(70, 400);
+        cursor.setSize(800, 400);
+        hoverController = new HoverController(timeLine, priceLine, cursor, info);
+
+        ArrayList<Candle> candleList = new ArrayList<>();
+        LocalDateTime dateTime = LocalDateTime.of(2024, 3, 5, 9, 30);
+        for(int i = 0; i < 200; i++) {
+            candleList.add(new Candle(dateTime.plusMinutes(i), 1.25, 1.30, 1.20, 1.22));
+        }
+        buffer = new Buffer();
+        buffer.addAll(candleList);
+
+        timeLine.setCandleList(buffer.getAll());
+        priceLine.setPriceRange(1.5, 1.0);
+    }
+
+    @Test
+    public void testApply_UpdatesComponents() {
+        hoverController.move(10, 20);
+        hoverController.move(21, 40);
+        assertFalse(cursor.isCursorVisible());
+
+        hoverController.apply();
+
+        assertTrue(cursor.isCursorVisible());
+        assertEquals(20, cursor.getLocationX());
+        assertEquals(39, cursor.getLocationY());
+        assertEquals(21, timeLine.getCursorLocationX());
+        assertEquals(40, priceLine.getCursorLocation());
+        assertEquals(buffer.get(3).toString(), info.getInfo(1));
+        assertTrue(info.isVisibleInfo(1));
+    }
+
+    @Test
+    public void testApply_Exit() {
+        hoverController.move(10, 20);
+        hoverController.apply();
+        hoverController.exit();
+        hoverController.apply();
+
+        assertFalse(cursor.isCursorVisible());
+        assertFalse(timeLine.isCursorVisible());
+        assertFalse(priceLine.isCursorVisible());
+        assertFalse(info.isVisibleInfo(1));
+    }
+
+    @Test
+    public void testApply_MultiplePanes() {
+        PriceLine panePriceLine = new PriceLine();
+        Cursor paneCursor = new Cursor();
+        panePriceLine.setSize(70, 100);
+        paneCursor.setSize(800, 100);
+        hoverController.addPane(panePriceLine, paneCursor);
+
+        // El cursor sobre el panel secundario muestra la línea vertical en todos los paneles.
+        hoverController.move(1, 21, 40);
+        hoverController.apply();
+        assertTrue(cursor.isCursorVisible());
+        assertTrue(paneCursor.isCursorVisible());
+        assertEquals(20, cursor.getLocationX());
+        assertEquals(20, paneCursor.getLocationX());
+        assertFalse(cursor.isHorizontalLineVisible());
+        assertTrue(paneCursor.isHorizontalLineVisible());
+        assertEquals(39, paneCursor.getLocationY());
+        assertFalse(priceLine.isCursorVisible());
+        assertTrue(panePriceLine.isCursorVisible());
+        assertEquals(buffer.get(3).toString(), info.getInfo(1));
+
+        hoverController.move(30, 50);
+        hoverController.apply();
+        assertTrue(cursor.isHorizontalLineVisible());
+        assertFalse(paneCursor.isHorizontalLineVisible());
+        assertTrue(priceLine.isCursorVisible());
+        assertFalse(panePriceLine.isCursorVisible());
+        assertEquals(29, paneCursor.getLocationX());
+
+        hoverController.removePane(1);
+        assertFalse(paneCursor.isCursorVisible());
+    }
+
+    @Test
+    public void testApply_LastCandleChanged() {
+        hoverController.move(8 * 199, 20);
+        hoverController.apply();
+
+        buffer.updateLast(new Candle(buffer.get(199).dateTime(), 1.25, 1.40, 1.20, 1.35));
+        hoverController.apply();
+
+        assertEquals(buffer.get(199).toString(), info.getInfo(1));
+    }
+
+    @Test
+    @Tag("allocation")
+    public void testApply_SteadyStateDoesNotAllocate() throws Exception {
+        ThreadMXBean threadBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        AtomicLong allocated = new AtomicLong();
+        AtomicLong updates = new AtomicLong();
+
+        SwingUtilities.invokeAndWait(() -> {
+            // Se visitan todas las posiciones antes de medir, para crear los textos y compilar el código.
+            for(int i = 0; i < 100; i++) {
+                hover();
+            }
+
+            long threadId = Thread.currentThread().getId();
+            long before = threadBean.getThreadAllocatedBytes(threadId);
+            for(int i = 0; i < 20; i++) {
+                updates.addAndGet(hover());
+            }
+            allocated.set(threadBean.getThreadAllocatedBytes(threadId) - before);
+        });
+
+        // Se admite un margen por las desoptimizaciones del compilador, inferior a un byte por actualización, mientras
+        // que cualquier objeto creado en cada actualización ocuparía al menos 16 bytes.
+        assertTrue(allocated.get() < updates.get(), "Bytes reservados: " + allocated.get());
+    }
+
+    @Test
+    @Tag("allocation")
+    public void testApply_AggregatedColumnsUseFixedCache() throws Exception {
+        ThreadMXBean threadBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        AtomicLong firstPass = new AtomicLong();
+        AtomicLong allocated = new AtomicLong();
+        AtomicLong updates = new AtomicLong();
+
+        // En el modo de nivel de detalle el cursor apunta a velas con índices de hasta 800 * 256.
+        Buffer largeBuffer = new Buffer();
+        largeBuffer.setMaxSize(800 * 256);
+        for(int i = 0; i < 800 * 256; i++) {
+            largeBuffer.addLast(i * 60_000_000_000L, 1.25, 1.30, 1.20, 1.22);
+        }
+        timeLine.setCandlesPerColumn(256);
+        timeLine.setCandleList(largeBuffer.getAll());
+
+        SwingUtilities.invokeAndWait(() -> {
+            long threadId = Thread.currentThread().getId();
+            long before = threadBean.getThreadAllocatedBytes(threadId);
+            hover(760);
+            firstPass.set(threadBean.getThreadAllocatedBytes(threadId) - before);
+
+            for(int i = 0; i < 100; i++) {
+                hover(760);
+            }
+
+            before = threadBean.getThreadAllocatedBytes(threadId);
+            for(int i = 0; i < 20; i++) {
+                updates.addAndGet(hover(760));
+            }
+            allocated.set(threadBean.getThreadAllocatedBytes(threadId) - before);
+        });
+
+        // La primera pasada solo crea los textos de las velas visitadas, sin reservar espacio por índice de vela.
+        assertTrue(firstPass.get() < 2_000_000, "Bytes reservados en la primera pasada: " + firstPass.get());
+        assertTrue(allocated.get() < updates.get(), "Bytes reservados: " + allocated.get());
+    }
+
+    /**
+     * Mueve el cursor por todo el gráfico aplicando cada posición.
+     *
+     * @return Número de actualizaciones aplicadas.
+     */
+    private int hover() {
+        return hover(800);
+    }
+
+    /**
+     * Mueve el cursor por el gráfico hasta la posición indicada, aplicando cada posición.
+     *
+     * @param toX Posición del eje X hasta la que se mueve el cursor (exclusive).
+     * @return Número de actualizaciones aplicadas.
+     */
+    private int hover(int toX) {
+        int updates = 0;
+        for(int x = 0; x < toX; x += 3) {
+            hoverController.move(x, x / 2);
+            hoverController.apply();
+            updates++;
+        }
+        return updates;
+    }
+}
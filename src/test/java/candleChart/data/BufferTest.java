@@ -1,10 +1,13 @@
 package candleChart.data;
 
+import candleChart.exceptions.InvalidCandleException;
 import candleChart.model.Candle;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -275,6 +278,251 @@ public class BufferTest {
         assertEquals(0, buffer.size());
     }
 
+    @Test
+    public void testAddLastUpToMaxSize() {
+        Buffer buffer = new Buffer();
+        buffer.setMaxSize(3);
+
+        for(int i = 0; i < 5; i++) {
+            buffer.addLast(new Candle(LocalDateTime.now(), i, i, i, i));
+        }
+
+        assertEquals(3, buffer.size());
+        assertEquals(2, buffer.get(0).closePrice());
+        assertEquals(4, buffer.get(2).closePrice());
+    }
+
+    @Test
+    public void testIndexAccessors() {
+        Buffer buffer = new Buffer();
+        LocalDateTime dateTime = LocalDateTime.of(2024, 5, 10, 14, 30, 15, 123456789);
+        Candle candle = new Candle(dateTime, 1.2, 1.5, 1.1, 1.3);
+
+        buffer.addLast(candle);
+
+        assertEquals(CandleSeries.toEpochNanos(dateTime), buffer.getTime(0));
+        assertEquals(1.2, buffer.getOpen(0));
+        assertEquals(1.5, buffer.getHigh(0));
+        assertEquals(1.1, buffer.getLow(0));
+        assertEquals(1.3, buffer.getClose(0));
+        assertEquals(candle, buffer.get(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> buffer.getHigh(1));
+    }
+
+    @Test
+    public void testGetAllIsViewOverBuffer() {
+        Buffer buffer = new Buffer();
+        List<Candle> candles = buffer.getAll();
+
+        for(int i = 0; i < 5; i++) {
+            buffer.addLast(new Candle(LocalDateTime.now(), i, i, i, i));
+        }
+        List<Candle> subList = candles.subList(1, 4);
+
+        assertEquals(5, candles.size());
+        assertEquals(3, subList.size());
+        assertEquals(buffer.get(1), subList.get(0));
+        assertInstanceOf(CandleSeries.class, subList);
+        assertEquals(3, ((CandleSeries) subList).getHigh(2));
+    }
+
+    @Test
+    public void testAddFirstAndLastWrappingAround() {
+        Buffer buffer = new Buffer();
+        buffer.setMaxSize(20);
+
+        for(int i = 0; i < 45; i++) {
+            buffer.addLast(new Candle(LocalDateTime.now(), i, i, i, i));
+        }
+        buffer.addFirst(new Candle(LocalDateTime.now(), 100, 100, 100, 100));
+
+        assertEquals(20, buffer.size());
+        assertEquals(100, buffer.get(0).closePrice());
+        assertEquals(25, buffer.get(1).closePrice());
+        assertEquals(43, buffer.get(19).closePrice());
+    }
+
+    @Test
+    public void testAutoSizeGrowsWrappedBuffer() {
+        Buffer buffer = new Buffer();
+        buffer.setAutoSize(true);
+
+        for(int i = 0; i < 10; i++) {
+            buffer.addFirst(new Candle(LocalDateTime.now(), i, i, i, i));
+        }
+        for(int i = 10; i < 40; i++) {
+            buffer.addLast(new Candle(LocalDateTime.now(), i, i, i, i));
+        }
+
+        assertEquals(40, buffer.size());
+        assertEquals(9, buffer.get(0).closePrice());
+        assertEquals(0, buffer.get(9).closePrice());
+        assertEquals(39, buffer.get(39).closePrice());
+    }
+
+    @Test
+    public void testRemoveKeepsOrder() {
+        Buffer buffer = new Buffer();
+        for(int i = 0; i < 10; i++) {
+            buffer.addLast(new Candle(LocalDateTime.now(), i, i, i, i));
+        }
+
+        buffer.remove(2);
+        buffer.remove(6);
+
+        assertEquals(8, buffer.size());
+        assertEquals(1, buffer.get(1).closePrice());
+        assertEquals(3, buffer.get(2).closePrice());
+        assertEquals(6, buffer.get(5).closePrice());
+        assertEquals(8, buffer.get(6).closePrice());
+    }
+
+    @Test
+    public void testGetHighestAndLowest() {
+        Buffer buffer = new Buffer();
+        buffer.setMaxSize(300);
+        Random random = new Random(7);
+
+        for(int i = 0; i < 1000; i++) {
+            double low = 1 + random.nextDouble();
+            double high = low + random.nextDouble();
+            Candle candle = new Candle(LocalDateTime.now(), low, high, low, high);
+            if(i % 3 == 0) {
+                buffer.addFirst(candle);
+            }
+            else {
+                buffer.addLast(candle);
+            }
+
+            int from = random.nextInt(buffer.size());
+            int to = from + random.nextInt(buffer.size() - from + 1);
+            double max = buffer.getAll().subList(from, to).stream().mapToDouble(Candle::highPrice).max().orElse(-Double.MAX_VALUE);
+            double min = buffer.getAll().subList(from, to).stream().mapToDouble(Candle::lowPrice).min().orElse(Double.MAX_VALUE);
+
+            assertEquals(max, buffer.getHighest(from, to));
+            assertEquals(min, buffer.getLowest(from, to));
+        }
+    }
+
+    @Test
+    public void testGetHighestAfterRemove() {
+        Buffer buffer = new Buffer();
+        for(int i = 0; i < 100; i++) {
+            buffer.addLast(new Candle(LocalDateTime.now(), i, i, i, i));
+        }
+
+        assertEquals(99, buffer.getHighest(0, 100));
+        buffer.remove(99);
+
+        assertEquals(98, buffer.getHighest(0, 99));
+        assertEquals(10, buffer.getLowest(10, 50));
+        assertThrows(IndexOutOfBoundsException.class, () -> buffer.getHighest(0, 100));
+    }
+
+    @Test
+    public void testGetHighest_IndexGrowsWithBuffer() {
+        // El índice se dimensiona según el tamaño del buffer, por lo que debe redimensionarse mientras el buffer crece,
+        // y sus bloques dan la vuelta a las hojas del árbol una vez que el buffer lleno descarta velas.
+        Buffer buffer = new Buffer();
+        buffer.setMaxSize(700);
+        Random random = new Random(11);
+        for(int i = 0; i < 3000; i++) {
+            double low = 1 + random.nextDouble();
+            double high = low + random.nextDouble();
+            if(i % 7 == 0) {
+                buffer.addFirst(new Candle(LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(i), low, high, low, high,
+                        high * 100));
+            }
+            else {
+                buffer.addLast(i * 60_000_000_000L, low, high, low, high, high * 100);
+            }
+
+            int from = random.nextInt(buffer.size());
+            int to = from + random.nextInt(buffer.size() - from + 1);
+            double max = -Double.MAX_VALUE;
+            double min = Double.MAX_VALUE;
+            double volume = -Double.MAX_VALUE;
+            for(int j = from; j < to; j++) {
+                max = Math.max(max, buffer.getHigh(j));
+                min = Math.min(min, buffer.getLow(j));
+                volume = Math.max(volume, buffer.getVolume(j));
+            }
+
+            assertEquals(max, buffer.getHighest(from, to));
+            assertEquals(min, buffer.getLowest(from, to));
+            assertEquals(volume, buffer.getHighestVolume(from, to));
+        }
+    }
+
+    @Test
+    public void testAddLastAndUpdateLastWithValues() {
+        Buffer buffer = new Buffer();
+        LocalDateTime dateTime = LocalDateTime.of(2024, 2, 1, 9, 0);
+        long time = CandleSeries.toEpochNanos(dateTime);
+
+        buffer.addLast(time, 1.0, 1.2, 0.9, 1.1);
+        buffer.updateLast(time, 1.0, 1.4, 0.9, 1.3);
+
+        assertEquals(1, buffer.size());
+        assertEquals(new Candle(dateTime, 1.0, 1.4, 0.9, 1.3), buffer.get(0));
+        assertEquals(1.4, buffer.getHighest(0, 1));
+        assertThrows(InvalidCandleException.class, () -> buffer.updateLast(time, 1.0, 0.8, 0.9, 1.0));
+        assertThrows(IndexOutOfBoundsException.class, () -> new Buffer().updateLast(time, 1, 1, 1, 1));
+    }
+
+    @Test
+    public void testVolumeColumn() {
+        Buffer buffer = new Buffer();
+        LocalDateTime dateTime = LocalDateTime.of(2024, 2, 1, 9, 0);
+        long time = CandleSeries.toEpochNanos(dateTime);
+
+        buffer.addLast(new Candle(dateTime, 1.0, 1.2, 0.9, 1.1, 300));
+        buffer.addLast(time, 1.0, 1.2, 0.9, 1.1, 500);
+        buffer.addLast(time, 1.0, 1.2, 0.9, 1.1);
+
+        assertEquals(300, buffer.getVolume(0));
+        assertEquals(500, buffer.get(1).volume());
+        assertEquals(0, buffer.getVolume(2));
+        assertEquals(500, buffer.getAll().subList(1, 3).get(0).volume());
+
+        buffer.updateLast(time, 1.0, 1.2, 0.9, 1.1, 700);
+        assertEquals(700, buffer.getHighestVolume(0, 3));
+        buffer.updateLast(time, 1.0, 1.3, 0.9, 1.2);
+        assertEquals(700, buffer.getVolume(2));
+        assertEquals(500, buffer.getHighestVolume(0, 2));
+        assertThrows(InvalidCandleException.class, () -> buffer.updateLast(time, 1.0, 1.2, 0.9, 1.1, -1));
+        assertThrows(InvalidCandleException.class, () -> buffer.addLast(time, 1.0, 1.2, 0.9, 1.1, -1));
+    }
+
+    @Test
+    public void testGetHighestVolume() {
+        Buffer buffer = new Buffer();
+        buffer.setMaxSize(300);
+        Random random = new Random(11);
+
+        for(int i = 0; i < 1000; i++) {
+            Candle candle = new Candle(LocalDateTime.now(), 1, 1, 1, 1, random.nextInt(10_000));
+            if(i % 3 == 0) {
+                buffer.addFirst(candle);
+            }
+            else {
+                buffer.addLast(candle);
+            }
+
+            // El rango puede dar la vuelta al buffer circular.
+            int from = random.nextInt(buffer.size());
+            int to = from + random.nextInt(buffer.size() - from + 1);
+            CandleSeries series = (CandleSeries) buffer.getAll().subList(from, to);
+            double max = buffer.getAll().subList(from, to).stream().mapToDouble(Candle::volume).max().orElse(-Double.MAX_VALUE);
+
+            assertEquals(max, buffer.getHighestVolume(from, to));
+            assertEquals(max, series.getHighestVolume(0, to - from));
+        }
+
+        buffer.addAll(new ArrayList<>(List.of(new Candle(LocalDateTime.now(), 1, 1, 1, 1, 5))));
+        assertEquals(5, buffer.getHighestVolume(0, 1));
+    }
+
     private ArrayList<Candle> candleList() {
         ArrayList<Candle> arrayList = new ArrayList<>();
 
@@ -287,4 +535,158 @@ public class BufferTest {
         }
         return arrayList;
     }
+
+    @Test
+    public void testUpdateLastWithCandle() {
+        Buffer buffer = new Buffer();
+        Candle candle = new Candle(LocalDateTime.now(), 1.25, 1.40, 1.20, 1.35);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> buffer.updateLast(candle));
+
+        buffer.addLast(new Candle(LocalDateTime.now(), 2.25, 2.30, 2.20, 2.22));
+        buffer.addLast(new Candle(LocalDateTime.now(), 1.25, 1.30, 1.20, 1.22));
+        buffer.updateLast(candle);
+
+        assertEquals(2, buffer.size());
+        assertEquals(candle, buffer.get(1));
+        assertEquals(2.30, buffer.getHighest(0, 2));
+        assertEquals(1.20, buffer.getLowest(0, 2));
+
+        NullPointerException exception;
+        exception = assertThrows(NullPointerException.class, () -> buffer.updateLast(null));
+        assertEquals("No se permiten valores nulos para el valor 'candle'.", exception.getMessage());
+    }
+
+    @Test
+    public void testGetLevelMatchesCandles() {
+        Buffer buffer = new Buffer();
+        buffer.setMaxSize(300);
+        Random random = new Random(11);
+
+        for(int i = 0; i < 1000; i++) {
+            double low = 1 + random.nextDouble();
+            double high = low + random.nextDouble();
+            Candle candle = new Candle(LocalDateTime.now(), low, high, low, high);
+            if(i % 5 == 0) {
+                buffer.addFirst(candle);
+            }
+            else if(i % 7 == 0) {
+                buffer.updateLast(candle);
+            }
+            else {
+                buffer.addLast(candle);
+            }
+
+            int level = 1 + random.nextInt(6);
+            int from = random.nextInt(buffer.size());
+            int to = from + random.nextInt(buffer.size() - from + 1);
+            assertLevel(CandleSeries.of(buffer.getAll().subList(from, to)), level);
+            if(i % 50 == 0) {
+                assertLevel(buffer, level);
+            }
+        }
+    }
+
+    @Test
+    public void testGetLevelAfterBulkOperations() {
+        Buffer buffer = new Buffer();
+        ArrayList<Candle> candleList = new ArrayList<>();
+        for(int i = 0; i < 100; i++) {
+            candleList.add(new Candle(LocalDateTime.now(), i, i + 1, i, i + 1));
+        }
+
+        buffer.addAll(candleList);
+        assertLevel(buffer, 3);
+
+        buffer.remove(40);
+        buffer.addAllFirst(new ArrayList<>(candleList.subList(0, 13)));
+        buffer.setMaxSize(90);
+        assertLevel(buffer, 2);
+        assertLevel(buffer, 4);
+
+        CandleSeries level = buffer.getLevel(3);
+        assertEquals(12, level.size());
+        assertSame(buffer, buffer.getLevel(0));
+        assertThrows(IllegalArgumentException.class, () -> buffer.getLevel(31));
+    }
+
+    @Test
+    public void testGetLevel_PyramidGrowsWithBuffer() {
+        // Los niveles de la pirámide se dimensionan según el tamaño del buffer, por lo que deben redimensionarse
+        // mientras el buffer crece sin que cambie la capacidad del almacenamiento.
+        Buffer buffer = new Buffer();
+        buffer.setMaxSize(5000);
+        Random random = new Random(3);
+        for(int i = 0; i < 4096; i++) {
+            double low = 1 + random.nextDouble();
+            double high = low + random.nextDouble();
+            buffer.addLast(i * 60_000_000_000L, low, high, low, high);
+            if(Integer.bitCount(i + 1) == 1 || i % 1000 == 0) {
+                assertLevel(buffer, 2);
+                assertLevel(buffer, 5);
+                assertLevel(buffer, 7);
+            }
+        }
+        assertLevel(buffer, 11);
+    }
+
+    @Test
+    public void testGetSequence() {
+        Buffer buffer = new Buffer();
+        buffer.setMaxSize(3);
+        for(int i = 0; i < 5; i++) {
+            buffer.addLast(new Candle(LocalDateTime.now(), 1.25, 1.30, 1.20, 1.22));
+        }
+
+        assertEquals(2, buffer.getSequence(0));
+        assertEquals(4, buffer.getSequence(2));
+
+        buffer.addFirst(new Candle(LocalDateTime.now(), 1.25, 1.30, 1.20, 1.22));
+        assertEquals(1, buffer.getSequence(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> buffer.getSequence(3));
+    }
+
+    @Test
+    public void testGetColumns_WrapAroundCircularBuffer() {
+        Buffer buffer = new Buffer();
+        buffer.setMaxSize(4);
+        for(int i = 0; i < 6; i++) {
+            buffer.addLast(i * 60_000_000_000L, 1 + i, 2 + i, i, 1.5 + i);
+        }
+
+        double[] highs = new double[3], lows = new double[3], closes = new double[3];
+        buffer.getHighs(1, highs, 3);
+        buffer.getLows(1, lows, 3);
+        buffer.getCloses(1, closes, 3);
+        assertArrayEquals(new double[] {5, 6, 7}, highs);
+        assertArrayEquals(new double[] {3, 4, 5}, lows);
+        assertArrayEquals(new double[] {4.5, 5.5, 6.5}, closes);
+        assertThrows(IndexOutOfBoundsException.class, () -> buffer.getCloses(2, closes, 3));
+    }
+
+    /**
+     * Comprueba que la serie agrupada de una serie coincide con la agrupación de sus velas.
+     */
+    private static void assertLevel(CandleSeries series, int level) {
+        CandleSeries groups = series.getLevel(level);
+        int groupSize = 1 << level;
+        assertEquals((series.size() + groupSize - 1) / groupSize, groups.size());
+
+        for(int i = 0; i < groups.size(); i++) {
+            int from = i * groupSize;
+            int to = Math.min(from + groupSize, series.size());
+            double max = -Double.MAX_VALUE;
+            double min = Double.MAX_VALUE;
+            for(int j = from; j < to; j++) {
+                max = Math.max(max, series.getHigh(j));
+                min = Math.min(min, series.getLow(j));
+            }
+
+            assertEquals(series.getTime(from), groups.getTime(i));
+            assertEquals(series.getOpen(from), groups.getOpen(i));
+            assertEquals(max, groups.getHigh(i));
+            assertEquals(min, groups.getLow(i));
+            assertEquals(series.getClose(to - 1), groups.getClose(i));
+        }
+    }
 }
@@ -0,0 +1,97 @@
+package candleChart.data;
+
+import candleChart.model.Candle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CandleAggregatorTest {
+    private static final long MINUTE = 60_000;
+    private static final long START = LocalDateTime.of(2024, 6, 3, 10, 0).toEpochSecond(ZoneOffset.UTC) * 1000;
+
+    private Buffer buffer;
+    private CandleAggregator aggregator;
+    private List<Boolean> notifications;
+
+    @BeforeEach
+    public void setup() {
+        buffer = new Buffer();
+        aggregator = new CandleAggregator(buffer, Duration.ofMinutes(1));
+        notifications = new ArrayList<>();
+        aggregator.setListener(notifications::add);
+    }
+
+    @Test
+    public void testConstructor_InvalidTimeframe() {
+        IllegalArgumentException exception;
+        exception = assertThrows(IllegalArgumentException.class, () -> new CandleAggregator(buffer, Duration.ZERO));
+        assertEquals("El periodo de las velas debe ser positivo.", exception.getMessage());
+    }
+
+    @Test
+    public void testTicksInSamePeriod() {
+        aggregator.addTick(START + 1000, 1.10);
+        aggregator.addTick(START + 2000, 1.15);
+        aggregator.addTick(START + 3000, 1.05);
+        aggregator.addTick(START + 59_999, 1.12);
+
+        assertEquals(1, buffer.size());
+        assertEquals(new Candle(LocalDateTime.of(2024, 6, 3, 10, 0), 1.10, 1.15, 1.05, 1.12), buffer.get(0));
+        assertEquals(List.of(true, false, false, false), notifications);
+    }
+
+    @Test
+    public void testTickCrossingBoundarySealsCandle() {
+        aggregator.addTick(START, 1.10);
+        aggregator.addTick(START + 30_000, 1.20);
+        aggregator.addTick(START + 3 * MINUTE + 5, 1.30);
+
+        assertEquals(2, buffer.size());
+        assertEquals(1.20, buffer.getClose(0));
+        assertEquals(new Candle(LocalDateTime.of(2024, 6, 3, 10, 3), 1.30, 1.30, 1.30, 1.30), buffer.get(1));
+        assertEquals(List.of(true, false, true), notifications);
+    }
+
+    @Test
+    public void testLateTickIsDiscarded() {
+        aggregator.addTick(START + MINUTE, 1.10);
+
+        assertFalse(aggregator.addTick(START, 2.0));
+        assertEquals(1, buffer.size());
+        assertEquals(1.10, buffer.getHigh(0));
+    }
+
+    @Test
+    public void testResumeLastCandleOfBuffer() {
+        buffer.addLast(new Candle(LocalDateTime.of(2024, 6, 3, 10, 0), 1.0, 1.5, 0.9, 1.2));
+
+        aggregator.addTick(START + 10_000, 1.6);
+
+        assertEquals(1, buffer.size());
+        assertEquals(new Candle(LocalDateTime.of(2024, 6, 3, 10, 0), 1.0, 1.6, 0.9, 1.6), buffer.get(0));
+        assertEquals(List.of(false), notifications);
+    }
+
+    @Test
+    public void testResumeKeepsVolumeOfLastCandle() {
+        buffer.addLast(new Candle(LocalDateTime.of(2024, 6, 3, 10, 0), 1.0, 1.5, 0.9, 1.2, 750));
+
+        aggregator.addTick(START + 10_000, 1.6);
+        aggregator.addTick(START + 20_000, 1.1);
+
+        assertEquals(new Candle(LocalDateTime.of(2024, 6, 3, 10, 0), 1.0, 1.6, 0.9, 1.1, 750), buffer.get(0));
+        assertEquals(750, buffer.getHighestVolume(0, 1));
+    }
+
+    @Test
+    public void testNegativePrice() {
+        assertThrows(IllegalArgumentException.class, () -> aggregator.addTick(START, -1));
+    }
+}
@@ -0,0 +1,114 @@
+package candleChart.data;
+
+import candleChart.model.Candle;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CandleSeriesTest {
+
+    @Test
+    public void testOf_ListOfCandles() {
+        LocalDateTime dateTime = LocalDateTime.of(2024, 1, 2, 3, 4);
+        ArrayList<Candle> candleList = new ArrayList<>();
+        candleList.add(new Candle(dateTime, 1.25, 1.30, 1.20, 1.22));
+
+        CandleSeries series = CandleSeries.of(candleList);
+
+        assertEquals(1, series.size());
+        assertEquals(1.25, series.getOpen(0));
+        assertEquals(1.30, series.getHigh(0));
+        assertEquals(1.20, series.getLow(0));
+        assertEquals(1.22, series.getClose(0));
+        assertEquals(dateTime, series.getDateTime(0));
+    }
+
+    @Test
+    public void testOf_BufferList() {
+        Buffer buffer = new Buffer();
+        List<Candle> candleList = buffer.getAll();
+
+        assertSame(candleList, CandleSeries.of(candleList));
+    }
+
+    @Test
+    public void testGetSequence() {
+        Buffer buffer = new Buffer();
+        for(int i = 0; i < 5; i++) {
+            buffer.addLast(i, 1, 1, 1, 1);
+        }
+        buffer.addFirst(new Candle(LocalDateTime.of(1969, 12, 31, 23, 59), 1, 1, 1, 1));
+
+        CandleSeries series = (CandleSeries) buffer.getAll().subList(2, 4);
+        assertEquals(1, series.getSequence(0));
+        assertEquals(2, series.getSequence(1));
+        assertEquals(3, CandleSeries.of(new ArrayList<>(buffer.getAll())).getSequence(3));
+    }
+
+    @Test
+    public void testEpochNanosConversion() {
+        LocalDateTime dateTime = LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999);
+
+        assertEquals(dateTime, CandleSeries.toDateTime(CandleSeries.toEpochNanos(dateTime)));
+        assertEquals(0, CandleSeries.toEpochNanos(LocalDateTime.of(1970, 1, 1, 0, 0)));
+    }
+
+    @Test
+    public void testGetLevel_ListOfCandles() {
+        ArrayList<Candle> candleList = new ArrayList<>();
+        candleList.add(new Candle(LocalDateTime.of(2024, 1, 1, 0, 0), 1.0, 2.0, 1.0, 1.5));
+        candleList.add(new Candle(LocalDateTime.of(2024, 1, 1, 0, 1), 1.5, 3.0, 1.5, 2.0));
+        candleList.add(new Candle(LocalDateTime.of(2024, 1, 1, 0, 2), 2.0, 2.5, 0.5, 1.0));
+
+        CandleSeries level = CandleSeries.of(candleList).getLevel(1);
+
+        assertEquals(2, level.size());
+        assertEquals(LocalDateTime.of(2024, 1, 1, 0, 0), level.getDateTime(0));
+        assertEquals(1.0, level.getOpen(0));
+        assertEquals(3.0, level.getHigh(0));
+        assertEquals(1.0, level.getLow(0));
+        assertEquals(2.0, level.getClose(0));
+        assertEquals(0.5, level.getLow(1));
+        assertEquals(1.0, level.getClose(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> level.getHigh(2));
+        assertThrows(IllegalArgumentException.class, () -> CandleSeries.of(candleList).getLevel(-1));
+    }
+
+    @Test
+    public void testGetVolume_ListOfCandlesAndLevels() {
+        ArrayList<Candle> candleList = new ArrayList<>();
+        candleList.add(new Candle(LocalDateTime.of(2024, 1, 1, 0, 0), 1, 1, 1, 1, 100));
+        candleList.add(new Candle(LocalDateTime.of(2024, 1, 1, 0, 1), 1, 1, 1, 1, 300));
+        candleList.add(new Candle(LocalDateTime.of(2024, 1, 1, 0, 2), 1, 1, 1, 1, 200));
+
+        CandleSeries series = CandleSeries.of(candleList);
+        CandleSeries level = series.getLevel(1);
+
+        assertEquals(300, series.getVolume(1));
+        assertEquals(300, series.getHighestVolume(0, 3));
+        assertEquals(-Double.MAX_VALUE, series.getHighestVolume(1, 1));
+        // El volumen de un grupo es la suma de los volúmenes de sus velas.
+        assertEquals(400, level.getVolume(0));
+        assertEquals(200, level.getVolume(1));
+    }
+
+    @Test
+    public void testIndexOfTime() {
+        Buffer buffer = new Buffer();
+        for(int i = 0; i < 10; i++) {
+            buffer.addLast(i * 100L, 1.25, 1.30, 1.20, 1.22);
+        }
+        CandleSeries series = CandleSeries.of(buffer.getAll());
+
+        assertEquals(0, series.indexOfTime(-5, 0, 10));
+        assertEquals(3, series.indexOfTime(300, 0, 10));
+        assertEquals(4, series.indexOfTime(301, 0, 10));
+        assertEquals(10, series.indexOfTime(901, 0, 10));
+        assertEquals(5, series.indexOfTime(0, 5, 8));
+        assertEquals(8, series.indexOfTime(900, 5, 8));
+    }
+}
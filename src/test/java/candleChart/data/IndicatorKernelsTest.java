@@ -0,0 +1,158 @@
+package candleChart.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IndicatorKernelsTest {
+    private static final double DELTA = 1e-9;
+    private static final int[] COUNTS = {0, 1, 7, 100, 1023, 1024, 1025, 5000};
+    private static final int[] PERIODS = {1, 2, 5, 20, 1024, 1500, 3000};
+
+    @Test
+    public void testIsVectorized() {
+        // Las pruebas se ejecutan con el módulo jdk.incubator.vector añadido.
+        assertEquals(VectorKernels.lanes() > 1, IndicatorKernels.isVectorized());
+    }
+
+    @Test
+    public void testMovingAverage() {
+        for(int count: COUNTS) {
+            double[] values = randomWalk(count, 1.2);
+            for(int period: PERIODS) {
+                double[] scalar = new double[count];
+                double[] vector = new double[count];
+                IndicatorKernels.scalarMovingAverage(values, count, period, scalar);
+                VectorKernels.movingAverage(values, count, period, vector);
+
+                for(int i = 0; i < count; i++) {
+                    if(i + 1 < period) {
+                        assertTrue(Double.isNaN(scalar[i]));
+                        assertTrue(Double.isNaN(vector[i]));
+                    }
+                    else {
+                        double expected = mean(values, i + 1 - period, i + 1);
+                        assertEquals(expected, scalar[i], DELTA);
+                        assertEquals(expected, vector[i], DELTA);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testMovingDeviation() {
+        for(int count: COUNTS) {
+            double[] values = randomWalk(count, 15000);
+            for(int period: PERIODS) {
+                double[] scalarAverages = new double[count];
+                double[] scalarDeviations = new double[count];
+                double[] vectorAverages = new double[count];
+                double[] vectorDeviations = new double[count];
+                IndicatorKernels.scalarMovingDeviation(values, count, period, scalarAverages, scalarDeviations);
+                VectorKernels.movingDeviation(values, count, period, vectorAverages, vectorDeviations);
+
+                for(int i = 0; i < count; i++) {
+                    if(i + 1 < period) {
+                        assertTrue(Double.isNaN(scalarDeviations[i]));
+                        assertTrue(Double.isNaN(vectorDeviations[i]));
+                    }
+                    else {
+                        double mean = mean(values, i + 1 - period, i + 1);
+                        double variance = 0;
+                        for(int j = i + 1 - period; j <= i; j++) {
+                            variance += (values[j] - mean) * (values[j] - mean);
+                        }
+                        double deviation = Math.sqrt(variance / period);
+                        assertEquals(mean, scalarAverages[i], 1e-7);
+                        assertEquals(mean, vectorAverages[i], 1e-7);
+                        assertEquals(deviation, scalarDeviations[i], 1e-5);
+                        assertEquals(deviation, vectorDeviations[i], 1e-5);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testMovingDeviation_ConstantValues() {
+        double[] values = new double[100];
+        Arrays.fill(values, 1.23456);
+        double[] averages = new double[100];
+        double[] deviations = new double[100];
+        VectorKernels.movingDeviation(values, 100, 10, averages, deviations);
+
+        for(int i = 9; i < 100; i++) {
+            assertEquals(1.23456, averages[i], DELTA);
+            assertEquals(0, deviations[i]);
+        }
+    }
+
+    @Test
+    public void testTrueRange() {
+        for(int count: COUNTS) {
+            Random random = new Random(count);
+            double[] closes = randomWalk(count, 1.2);
+            double[] highs = new double[count];
+            double[] lows = new double[count];
+            for(int i = 0; i < count; i++) {
+                highs[i] = closes[i] + random.nextDouble() * 0.01;
+                lows[i] = closes[i] - random.nextDouble() * 0.01;
+                if(i > 0 && random.nextInt(4) == 0) {
+                    highs[i] += 0.02;   // Saltos respecto al cierre anterior.
+                }
+            }
+
+            double[] scalar = new double[count];
+            double[] vector = new double[count];
+            IndicatorKernels.scalarTrueRange(highs, lows, closes, count, scalar);
+            VectorKernels.trueRange(highs, lows, closes, count, vector);
+            for(int i = 0; i < count; i++) {
+                double expected = highs[i] - lows[i];
+                if(i > 0) {
+                    expected = Math.max(expected, Math.max(Math.abs(highs[i] - closes[i - 1]),
+                            Math.abs(lows[i] - closes[i - 1])));
+                }
+                assertEquals(expected, scalar[i]);
+                assertEquals(expected, vector[i]);
+            }
+        }
+    }
+
+    /**
+     * Calcula la media de un rango de valores.
+     *
+     * @param values Valores.
+     * @param from Posición del primer valor (inclusive).
+     * @param to Posición del último valor (exclusive).
+     * @return Media de los valores.
+     */
+    private static double mean(double[] values, int from, int to) {
+        double sum = 0;
+        for(int i = from; i < to; i++) {
+            sum += values[i];
+        }
+        return sum / (to - from);
+    }
+
+    /**
+     * Genera una serie de precios mediante un paseo aleatorio.
+     *
+     * @param count Número de precios.
+     * @param start Precio inicial.
+     * @return Array de precios.
+     */
+    private static double[] randomWalk(int count, double start) {
+        Random random = new Random(42);
+        double[] values = new double[count];
+        double price = start;
+        for(int i = 0; i < count; i++) {
+            price += (random.nextDouble() - 0.5) * start * 0.001;
+            values[i] = price;
+        }
+        return values;
+    }
+}
@@ -0,0 +1,364 @@
+package candleChart.data;
+
+import candleChart.model.Candle;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IndicatorTest {
+    private static final long NANOS_PER_MINUTE = 60_000_000_000L;
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void testSimpleMovingAverage() {
+        Buffer buffer = buffer(50);
+        SimpleMovingAverage sma = new SimpleMovingAverage(5);
+        buffer.addIndicator(sma);
+
+        assertTrue(Double.isNaN(sma.getValue(3)));
+        for(int i = 4; i < buffer.size(); i++) {
+            double sum = 0;
+            for(int j = i - 4; j <= i; j++) {
+                sum += buffer.getClose(j);
+            }
+            assertEquals(sum / 5, sma.getValue(i), DELTA);
+        }
+    }
+
+    @Test
+    public void testExponentialMovingAverage() {
+        Buffer buffer = buffer(50);
+        ExponentialMovingAverage ema = new ExponentialMovingAverage(10);
+        buffer.addIndicator(ema);
+
+        assertTrue(Double.isNaN(ema.getValue(8)));
+        double expected = 0;
+        for(int i = 0; i < 10; i++) {
+            expected += buffer.getClose(i) / 10;
+        }
+        assertEquals(expected, ema.getValue(9), DELTA);
+        for(int i = 10; i < buffer.size(); i++) {
+            expected += 2.0 / 11 * (buffer.getClose(i) - expected);
+            assertEquals(expected, ema.getValue(i), DELTA);
+        }
+    }
+
+    @Test
+    public void testBollingerBands() {
+        Buffer buffer = buffer(50);
+        BollingerBands bands = new BollingerBands(20, 2);
+        buffer.addIndicator(bands);
+
+        assertEquals(3, bands.getLineCount());
+        assertTrue(Double.isNaN(bands.getValue(BollingerBands.UPPER, 18)));
+        for(int i = 19; i < buffer.size(); i++) {
+            double mean = 0;
+            for(int j = i - 19; j <= i; j++) {
+                mean += buffer.getClose(j) / 20;
+            }
+            double variance = 0;
+            for(int j = i - 19; j <= i; j++) {
+                variance += Math.pow(buffer.getClose(j) - mean, 2) / 20;
+            }
+            assertEquals(mean, bands.getValue(BollingerBands.MIDDLE, i), DELTA);
+            assertEquals(mean + 2 * Math.sqrt(variance), bands.getValue(BollingerBands.UPPER, i), 1e-7);
+            assertEquals(mean - 2 * Math.sqrt(variance), bands.getValue(BollingerBands.LOWER, i), 1e-7);
+        }
+    }
+
+    @Test
+    public void testRelativeStrengthIndex() {
+        Buffer buffer = buffer(50);
+        RelativeStrengthIndex rsi = new RelativeStrengthIndex(14);
+        buffer.addIndicator(rsi);
+
+        assertTrue(Double.isNaN(rsi.getValue(13)));
+        double gain = 0, loss = 0;
+        for(int i = 1; i <= 14; i++) {
+            double change = buffer.getClose(i) - buffer.getClose(i - 1);
+            gain += Math.max(change, 0) / 14;
+            loss += Math.max(-change, 0) / 14;
+        }
+        assertEquals(100 - 100 / (1 + gain / loss), rsi.getValue(14), DELTA);
+        for(int i = 15; i < buffer.size(); i++) {
+            double change = buffer.getClose(i) - buffer.getClose(i - 1);
+            gain = (gain * 13 + Math.max(change, 0)) / 14;
+            loss = (loss * 13 + Math.max(-change, 0)) / 14;
+            assertEquals(100 - 100 / (1 + gain / loss), rsi.getValue(i), DELTA);
+        }
+    }
+
+    @Test
+    public void testRelativeStrengthIndex_WithoutChanges() {
+        Buffer buffer = new Buffer();
+        for(int i = 0; i < 5; i++) {
+            buffer.addLast(i * NANOS_PER_MINUTE, 1.25, 1.30, 1.20, 1.22);
+        }
+        RelativeStrengthIndex rsi = new RelativeStrengthIndex(2);
+        buffer.addIndicator(rsi);
+
+        assertEquals(50, rsi.getValue(4));
+    }
+
+    @Test
+    public void testAverageTrueRange() {
+        Buffer buffer = buffer(50);
+        AverageTrueRange atr = new AverageTrueRange(14);
+        buffer.addIndicator(atr);
+
+        assertTrue(Double.isNaN(atr.getValue(12)));
+        double expected = 0;
+        for(int i = 0; i < 14; i++) {
+            expected += trueRange(buffer, i) / 14;
+        }
+        assertEquals(expected, atr.getValue(13), DELTA);
+        for(int i = 14; i < buffer.size(); i++) {
+            expected = (expected * 13 + trueRange(buffer, i)) / 14;
+            assertEquals(expected, atr.getValue(i), DELTA);
+        }
+    }
+
+    @Test
+    public void testUpdate_AddLastAndUpdateLastMatchFullComputation() {
+        Buffer buffer = new Buffer();
+        List<Indicator> indicators = indicators();
+        indicators.forEach(buffer::addIndicator);
+        Random random = new Random(7);
+
+        double price = 100;
+        for(int i = 0; i < 300; i++) {
+            buffer.addLast(i * NANOS_PER_MINUTE, price, price, price, price);
+            indicators.forEach(indicator -> indicator.getValue(0, buffer.size() - 1));
+            // Se simulan varios ticks de la vela en formación.
+            for(int t = 0; t < 3; t++) {
+                double close = price + random.nextGaussian();
+                buffer.updateLast(i * NANOS_PER_MINUTE, price, Math.max(price, close) + 0.5,
+                        Math.min(price, close) - 0.5, close);
+                assertMatchesFullComputation(buffer, indicators);
+            }
+            price = buffer.getClose(buffer.size() - 1);
+        }
+    }
+
+    @Test
+    public void testUpdate_ComputesOnlyChangedCandles() {
+        Buffer buffer = buffer(100);
+        buffer.setMaxSize(100);
+        int[] computed = new int[1];
+        SimpleMovingAverage sma = new SimpleMovingAverage(5) {
+            @Override
+            void compute(Buffer buffer, int index, boolean commit) {
+                computed[0]++;
+                super.compute(buffer, index, commit);
+            }
+        };
+        buffer.addIndicator(sma);
+        sma.getValue(0);
+        computed[0] = 0;
+
+        // La vela en formación se recalcula sola, y una vela nueva requiere además cerrar la anterior.
+        buffer.updateLast(99 * NANOS_PER_MINUTE, 1.25, 1.30, 1.20, 1.22);
+        assertEquals(1, computed[0]);
+        buffer.addLast(100 * NANOS_PER_MINUTE, 1.25, 1.30, 1.20, 1.22);
+        assertEquals(3, computed[0]);
+        sma.getValue(99);
+        assertEquals(3, computed[0]);
+    }
+
+    @Test
+    public void testUpdate_DiscardsFirstCandles() {
+        Buffer buffer = buffer(40);
+        buffer.setMaxSize(40);
+        SimpleMovingAverage sma = new SimpleMovingAverage(5);
+        buffer.addIndicator(sma);
+        double closed = sma.getValue(38);
+        double last = sma.getValue(39);
+
+        buffer.addLast(40 * NANOS_PER_MINUTE, 1.25, 1.30, 1.20, 1.22);
+
+        // Los valores se conservan desplazados un índice al descartar la primera vela. El valor de la vela que se cierra
+        // se calcula de nuevo de forma incremental, por lo que puede diferir del recálculo completo en el redondeo.
+        assertEquals(40, buffer.size());
+        assertEquals(closed, sma.getValue(37));
+        assertEquals(last, sma.getValue(38), DELTA);
+        double sum = 0;
+        for(int j = 35; j < 40; j++) {
+            sum += buffer.getClose(j);
+        }
+        assertEquals(sum / 5, sma.getValue(39), DELTA);
+    }
+
+    @Test
+    public void testUpdate_OtherChangesInvalidate() {
+        Buffer buffer = buffer(60);
+        List<Indicator> indicators = indicators();
+        indicators.forEach(buffer::addIndicator);
+        indicators.forEach(indicator -> indicator.getValue(0, 0));
+
+        buffer.remove(30);
+        assertMatchesFullComputation(buffer, indicators);
+
+        buffer.addFirst(new Candle(LocalDateTime.of(2000, 1, 1, 0, 0), 2.0, 2.5, 1.5, 1.8));
+        assertMatchesFullComputation(buffer, indicators);
+
+        ArrayList<Candle> candleList = new ArrayList<>();
+        candleList.add(new Candle(LocalDateTime.of(1999, 1, 1, 0, 0), 3.0, 3.5, 2.5, 2.8));
+        buffer.addAllFirst(candleList);
+        assertMatchesFullComputation(buffer, indicators);
+
+        buffer.clear();
+        buffer.addLast(0, 1.25, 1.30, 1.20, 1.22);
+        assertMatchesFullComputation(buffer, indicators);
+    }
+
+    @Test
+    public void testAddIndicator() {
+        Buffer buffer = buffer(10);
+        SimpleMovingAverage sma = new SimpleMovingAverage(3);
+
+        buffer.addIndicator(sma);
+
+        assertSame(buffer, sma.getBuffer());
+        assertEquals(List.of(sma), buffer.getIndicators());
+        assertThrows(IllegalArgumentException.class, () -> new Buffer().addIndicator(sma));
+        assertThrows(NullPointerException.class, () -> buffer.addIndicator(null));
+
+        assertTrue(buffer.removeIndicator(sma));
+        assertNull(sma.getBuffer());
+        assertFalse(buffer.removeIndicator(sma));
+        assertThrows(IllegalStateException.class, () -> sma.getValue(0));
+    }
+
+    @Test
+    public void testInvalidPeriod() {
+        assertThrows(IllegalArgumentException.class, () -> new SimpleMovingAverage(0));
+        assertThrows(IllegalArgumentException.class, () -> new ExponentialMovingAverage(0));
+        assertThrows(IllegalArgumentException.class, () -> new BollingerBands(0, 2));
+        assertThrows(IllegalArgumentException.class, () -> new BollingerBands(20, -1));
+        assertThrows(IllegalArgumentException.class, () -> new RelativeStrengthIndex(0));
+        assertThrows(IllegalArgumentException.class, () -> new AverageTrueRange(0));
+    }
+
+    @Test
+    public void testSetPeriod_RecomputesAllCandles() {
+        Buffer buffer = buffer(80);
+        List<Indicator> indicators = indicators();
+        indicators.forEach(buffer::addIndicator);
+        indicators.forEach(indicator -> indicator.getValue(0, 0));
+
+        indicators.forEach(indicator -> indicator.setPeriod(indicator.getPeriod() + 3));
+        buffer.addLast(80 * NANOS_PER_MINUTE, 1.25, 1.30, 1.20, 1.22);
+        assertEquals(8, indicators.get(0).getPeriod());
+        assertTrue(Double.isNaN(indicators.get(0).getValue(6)));
+        assertFalse(Double.isNaN(indicators.get(0).getValue(7)));
+
+        // Tras el recálculo las velas siguientes se actualizan de forma incremental con el nuevo periodo.
+        buffer.updateLast(80 * NANOS_PER_MINUTE, 1.25, 1.35, 1.18, 1.31);
+        buffer.addLast(81 * NANOS_PER_MINUTE, 1.31, 1.33, 1.27, 1.28);
+        assertMatchesFullComputation(buffer, indicators);
+        assertThrows(IllegalArgumentException.class, () -> indicators.get(0).setPeriod(0));
+    }
+
+    @Test
+    public void testComputeAll_ValuesWrapAroundArrays() {
+        Buffer buffer = new Buffer();
+        buffer.setMaxSize(100);
+        Buffer source = buffer(150);
+        for(int i = 0; i < source.size(); i++) {
+            buffer.addLast(source.getTime(i), source.getOpen(i), source.getHigh(i), source.getLow(i),
+                    source.getClose(i));
+        }
+
+        // Tras descartar velas del principio, los valores del recálculo completo dan la vuelta a los arrays circulares.
+        List<Indicator> indicators = indicators();
+        indicators.forEach(buffer::addIndicator);
+        assertEquals(50, buffer.getSequence(0));
+        assertMatchesFullComputation(buffer, indicators);
+    }
+
+    @Test
+    public void testGetValue_IndexOutOfBounds() {
+        Buffer buffer = buffer(10);
+        SimpleMovingAverage sma = new SimpleMovingAverage(3);
+        buffer.addIndicator(sma);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> sma.getValue(10));
+        assertThrows(IndexOutOfBoundsException.class, () -> sma.getValue(1, 5));
+    }
+
+    /**
+     * Comprueba que los valores de los indicadores coinciden con los de un indicador recalculado completo.
+     *
+     * @param buffer Buffer de los indicadores.
+     * @param indicators Indicadores a comprobar.
+     */
+    private static void assertMatchesFullComputation(Buffer buffer, List<Indicator> indicators) {
+        List<Indicator> expected = indicators();
+        for(int k = 0; k < indicators.size(); k++) {
+            expected.get(k).setPeriod(indicators.get(k).getPeriod());
+        }
+        Buffer copy = new Buffer();
+        copy.setMaxSize(buffer.size());
+        copy.addAll(new ArrayList<>(buffer.getAll()));
+        expected.forEach(copy::addIndicator);
+
+        for(int k = 0; k < indicators.size(); k++) {
+            for(int line = 0; line < indicators.get(k).getLineCount(); line++) {
+                for(int i = 0; i < buffer.size(); i++) {
+                    assertEquals(expected.get(k).getValue(line, i), indicators.get(k).getValue(line, i), 1e-7);
+                }
+            }
+        }
+    }
+
+    /**
+     * Crea un indicador de cada tipo.
+     *
+     * @return Lista de indicadores.
+     */
+    private static List<Indicator> indicators() {
+        return List.of(new SimpleMovingAverage(5), new ExponentialMovingAverage(8), new BollingerBands(10, 2),
+                new RelativeStrengthIndex(6), new AverageTrueRange(7));
+    }
+
+    /**
+     * Obtiene el rango verdadero de una vela.
+     *
+     * @param buffer Buffer de velas.
+     * @param index Índice de la vela.
+     * @return Rango verdadero de la vela.
+     */
+    private static double trueRange(Buffer buffer, int index) {
+        double range = buffer.getHigh(index) - buffer.getLow(index);
+        if(index > 0) {
+            double close = buffer.getClose(index - 1);
+            range = Math.max(range, Math.max(Math.abs(buffer.getHigh(index) - close),
+                    Math.abs(buffer.getLow(index) - close)));
+        }
+        return range;
+    }
+
+    /**
+     * Crea un buffer con velas de precios aleatorios.
+     *
+     * @param size Número de velas.
+     * @return Buffer de velas.
+     */
+    private static Buffer buffer(int size) {
+        Buffer buffer = new Buffer();
+        Random random = new Random(42);
+        double price = 100;
+        for(int i = 0; i < size; i++) {
+            double close = price + random.nextGaussian();
+            buffer.addLast(i * NANOS_PER_MINUTE, price, Math.max(price, close) + random.nextDouble(),
+                    Math.min(price, close) - random.nextDouble(), close);
+            price = close;
+        }
+        return buffer;
+    }
+}
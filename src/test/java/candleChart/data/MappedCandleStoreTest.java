@@ -0,0 +1,153 @@
+package candleChart.data;
+
+import candleChart.model.Candle;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.sun.management.ThreadMXBean;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class MappedCandleStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testConstructor_InvalidCapacity() {
+        IllegalArgumentException exception;
+        exception = assertThrows(IllegalArgumentException.class, () -> new MappedCandleStore(tempDir.resolve("a.bin"), 0));
+        assertEquals("La capacidad debe ser un valor positivo.", exception.getMessage());
+    }
+
+    @Test
+    public void testConstructor_MapFailureClosesChannel() throws Exception {
+        // Una tubería con nombre se abre como un fichero vacío, pero no puede mapearse en memoria.
+        Path fifo = tempDir.resolve("candles.fifo");
+        Path descriptors = Path.of("/proc/self/fd");
+        assumeTrue(Files.isDirectory(descriptors));
+        assumeTrue(new ProcessBuilder("mkfifo", fifo.toString()).start().waitFor() == 0);
+
+        UncheckedIOException exception = assertThrows(UncheckedIOException.class, () -> new MappedCandleStore(fifo, 4));
+        assertEquals("No se ha podido mapear el fichero " + fifo, exception.getMessage());
+        Path target = fifo.toRealPath();
+        try (Stream<Path> files = Files.list(descriptors)) {
+            assertTrue(files.noneMatch(descriptor -> target.equals(readLink(descriptor))));
+        }
+    }
+
+    @Test
+    public void testBufferOverMappedStore() {
+        try (MappedCandleStore store = new MappedCandleStore(tempDir.resolve("candles.bin"), 10)) {
+            Buffer buffer = new Buffer(store);
+
+            for(int i = 0; i < 15; i++) {
+                buffer.addLast(new Candle(LocalDateTime.of(2024, 1, 1, 0, i), i, i + 1, i, i));
+            }
+
+            assertEquals(10, buffer.getMaxSize());
+            assertEquals(10, buffer.size());
+            assertEquals(5, buffer.get(0).openPrice());
+            assertEquals(15, buffer.getHigh(9));
+            assertEquals(LocalDateTime.of(2024, 1, 1, 0, 14), buffer.get(9).dateTime());
+        }
+    }
+
+    @Test
+    @Tag("allocation")
+    public void testRangeIndexSizedFromBuffer() {
+        // Los índices de precios y volúmenes se dimensionan según las velas del buffer, no según la capacidad del
+        // fichero, que con 2^21 velas requeriría varios megabytes por índice.
+        ThreadMXBean threadBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        try (MappedCandleStore store = new MappedCandleStore(tempDir.resolve("candles.bin"), 1 << 21)) {
+            Buffer buffer = new Buffer(store);
+            for(int i = 0; i < 100; i++) {
+                buffer.addLast(i * 60_000_000_000L, i, i + 1, i, i, i * 10);
+            }
+
+            long threadId = Thread.currentThread().getId();
+            long before = threadBean.getThreadAllocatedBytes(threadId);
+            double highest = buffer.getHighest(0, 100);
+            double lowest = buffer.getLowest(0, 100);
+            double highestVolume = buffer.getHighestVolume(0, 100);
+            long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+            assertEquals(100, highest);
+            assertEquals(0, lowest);
+            assertEquals(990, highestVolume);
+            assertTrue(allocated < 64 * 1024, "Bytes reservados: " + allocated);
+        }
+    }
+
+    @Test
+    public void testReopenKeepsCandles() {
+        Path file = tempDir.resolve("candles.bin");
+        Candle candle = new Candle(LocalDateTime.of(2024, 3, 4, 5, 6), 1.1, 1.3, 1.0, 1.2);
+
+        try (MappedCandleStore store = new MappedCandleStore(file, 4)) {
+            Buffer buffer = new Buffer(store);
+            buffer.addLast(new Candle(LocalDateTime.of(2024, 3, 4, 5, 5), 1, 1, 1, 1));
+            buffer.addLast(candle);
+            buffer.addFirst(new Candle(LocalDateTime.of(2024, 3, 4, 5, 4), 2, 2, 2, 2));
+        }
+
+        try (MappedCandleStore store = new MappedCandleStore(file, 4)) {
+            Buffer buffer = new Buffer(store);
+
+            assertEquals(3, buffer.size());
+            assertEquals(2, buffer.getClose(0));
+            assertEquals(candle, buffer.get(2));
+        }
+    }
+
+    @Test
+    public void testReopenKeepsVolumes() {
+        Path file = tempDir.resolve("candles.bin");
+        Candle candle = new Candle(LocalDateTime.of(2024, 3, 4, 5, 6), 1.1, 1.3, 1.0, 1.2, 2500);
+
+        try (MappedCandleStore store = new MappedCandleStore(file, 4)) {
+            Buffer buffer = new Buffer(store);
+            buffer.addLast(candle);
+            buffer.addLast(CandleSeries.toEpochNanos(candle.dateTime()), 1, 1, 1, 1, 4000);
+        }
+
+        try (MappedCandleStore store = new MappedCandleStore(file, 4)) {
+            Buffer buffer = new Buffer(store);
+
+            assertEquals(candle, buffer.get(0));
+            assertEquals(4000, buffer.getVolume(1));
+            assertEquals(4000, buffer.getHighestVolume(0, 2));
+        }
+    }
+
+    @Test
+    public void testReopenWithDifferentCapacity() {
+        Path file = tempDir.resolve("candles.bin");
+        new MappedCandleStore(file, 4).close();
+
+        assertThrows(IllegalArgumentException.class, () -> new MappedCandleStore(file, 8));
+    }
+
+    /**
+     * Obtiene el destino de un enlace simbólico, o null si el enlace ya no existe.
+     *
+     * @param link Enlace simbólico.
+     * @return Destino del enlace.
+     */
+    private static Path readLink(Path link) {
+        try {
+            return Files.readSymbolicLink(link);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
@@ -6,7 +6,9 @@ import org.junit.jupiter.api.Test;
 import java.time.LocalDateTime;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class CandleTest {
     private final LocalDateTime dateTime = LocalDateTime.of(2013, 10, 15, 12, 55);
@@ -154,4 +156,30 @@ public class CandleTest {
         });
         assertEquals("Formato de precios incorrecto", exception.getMessage());
     }
+
+    @Test
+    public void testConstructor_Volume() {
+        Candle candle = new Candle(dateTime, openPrice, highPrice, lowPrice, closePrice, 1500);
+
+        assertEquals(1500, candle.volume());
+        assertEquals(0, new Candle(dateTime, openPrice, highPrice, lowPrice, closePrice).volume());
+    }
+
+    @Test
+    public void testConstructor_NegativeVolume() {
+        InvalidCandleException exception;
+        exception = assertThrows(InvalidCandleException.class, () -> {
+            new Candle(dateTime, openPrice, highPrice, lowPrice, closePrice, -1);
+        });
+        assertEquals("No puede haber un volumen negativo", exception.getMessage());
+    }
+
+    @Test
+    public void testToString_ShowsVolumeOnlyWhenPresent() {
+        Candle candle = new Candle(dateTime, openPrice, highPrice, lowPrice, closePrice);
+        Candle withVolume = new Candle(dateTime, openPrice, highPrice, lowPrice, closePrice, 1500);
+
+        assertFalse(candle.toString().contains("V:"));
+        assertTrue(withVolume.toString().contains("  V: 1500.0  D: "));
+    }
 }
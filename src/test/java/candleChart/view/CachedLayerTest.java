@@ -0,0 +1,105 @@
+package candleChart.view;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CachedLayerTest {
+
+    private TestLayer layer;
+
+    @BeforeEach
+    public void setup() {
+        layer = new TestLayer();
+        layer.setSize(40, 20);
+    }
+
+    @Test
+    public void testPaint_ReusesLayerImage() {
+        BufferedImage image = paint(layer);
+        paint(layer);
+
+        assertEquals(1, layer.clips.size());
+        assertEquals(new Rectangle(0, 0, 40, 20), layer.clips.get(0));
+        assertEquals(Color.WHITE.getRGB(), image.getRGB(10, 5));
+    }
+
+    @Test
+    public void testInvalidateLayer_RendersAgain() {
+        paint(layer);
+        layer.invalidateLayer();
+        paint(layer);
+
+        assertEquals(2, layer.clips.size());
+    }
+
+    @Test
+    public void testInvalidateLayerRegion_RendersOnlyRegion() {
+        paint(layer);
+        layer.invalidateLayer(5, 0, 3, 20);
+        layer.invalidateLayer(10, 0, 2, 20);
+        paint(layer);
+
+        assertEquals(2, layer.clips.size());
+        assertEquals(new Rectangle(5, 0, 7, 20), layer.clips.get(1));
+    }
+
+    @Test
+    public void testResize_RendersAgain() {
+        paint(layer);
+        layer.setSize(50, 20);
+        BufferedImage image = paint(layer);
+
+        assertEquals(2, layer.clips.size());
+        assertEquals(Color.WHITE.getRGB(), image.getRGB(45, 5));
+    }
+
+    @Test
+    public void testScrollLayer_RendersOnlyExposedRegion() {
+        paint(layer);
+        assertTrue(layer.scrollLayer(-6));
+        paint(layer);
+
+        assertEquals(2, layer.clips.size());
+        assertEquals(new Rectangle(34, 0, 6, 20), layer.clips.get(1));
+    }
+
+    @Test
+    public void testScrollLayer_InvalidLayer() {
+        assertFalse(layer.scrollLayer(3));
+        paint(layer);
+        layer.invalidateLayer();
+
+        assertFalse(layer.scrollLayer(3));
+        paint(layer);
+        assertFalse(layer.scrollLayer(40));
+    }
+
+    private static BufferedImage paint(Component component) {
+        BufferedImage image = new BufferedImage(component.getWidth(), component.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        component.paint(g);
+        g.dispose();
+        return image;
+    }
+
+    /**
+     * Capa de prueba que rellena su área y registra las regiones dibujadas.
+     */
+    private static class TestLayer extends CachedLayer {
+        private final List<Rectangle> clips = new ArrayList<>();
+
+        @Override
+        protected void paintLayer(Graphics2D g) {
+            clips.add(g.getClipBounds());
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, getWidth(), getHeight());
+        }
+    }
+}
@@ -1,15 +1,24 @@
 package candleChart.view;
 
 import candleChart.controller.CandleSize;
+import candleChart.data.Buffer;
+import candleChart.data.Indicator;
+import candleChart.data.SimpleMovingAverage;
 import candleChart.model.Candle;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.awt.*;
+import java.awt.image.BufferedImage;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 public class CandleViewTest {
@@ -49,6 +58,19 @@ public class CandleViewTest {
         assertEquals(candleList, candleView.getCandleList());
     }
 
+    @Test
+    public void testRepaintCandle_RepaintCandleColumn() {
+        candleView = spy(new CandleView());
+        candleView.setSize(200, 100);
+        candleView.setCandleSize(CandleSize.SMALL);
+
+        candleView.repaintCandle(3);
+
+        int candleWidth = CandleSize.SMALL.getCandleWidth();
+        int positionX = (int) (3 * CandleSize.SMALL.getRelativePosition()) - 1;
+        verify(candleView, times(1)).repaint(positionX - candleWidth / 2 - 1, 0, candleWidth + 2, 100);
+    }
+
     @Test
     public void testSetCandleSize_TriggerRepaint() {
         candleView = spy(new CandleView());
@@ -108,4 +130,213 @@ public class CandleViewTest {
         assertEquals(rangeUp, candleView.getRangeUp());
         assertEquals(rangeDown, candleView.getRangeDown());
     }
+
+    @Test
+    public void testSetCandlesPerColumn_TriggerRepaint() {
+        candleView = spy(new CandleView());
+        candleView.setCandlesPerColumn(10);
+
+        verify(candleView, atLeastOnce()).repaint();
+        assertEquals(10, candleView.getCandlesPerColumn());
+    }
+
+    @Test
+    public void testSetCandlesPerColumn_InvalidValue() {
+        IllegalArgumentException exception;
+        exception = assertThrows(IllegalArgumentException.class, () -> {
+            candleView.setCandlesPerColumn(0);
+        });
+        assertEquals("El número de velas por columna debe ser un valor positivo.", exception.getMessage());
+    }
+
+    @Test
+    public void testPaintColumns_DrawsEnvelopePerColumn() {
+        ArrayList<Candle> candleList = new ArrayList<>();
+        candleList.add(new Candle(LocalDateTime.now(), 1.0, 2.0, 1.0, 1.5));
+        candleList.add(new Candle(LocalDateTime.now(), 1.5, 3.0, 1.5, 2.0));
+        candleList.add(new Candle(LocalDateTime.now(), 3.5, 4.0, 2.0, 2.5));
+        candleList.add(new Candle(LocalDateTime.now(), 2.5, 2.5, 0.0, 1.0));
+
+        candleView.setSize(2, 40);
+        candleView.setCandleList(candleList);
+        candleView.setCandlesPerColumn(2);
+        candleView.setPriceRange(4.0, 0.0);
+
+        BufferedImage image = new BufferedImage(2, 40, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        candleView.paint(g);
+        g.dispose();
+
+        // Primera columna: alcista entre 3.0 y 1.0. Segunda columna: bajista entre 4.0 y 0.0.
+        assertEquals(Color.GREEN.getRGB(), image.getRGB(0, 20));
+        assertEquals(Color.BLACK.getRGB(), image.getRGB(0, 5));
+        assertEquals(Color.RED.getRGB(), image.getRGB(1, 5));
+        assertEquals(Color.RED.getRGB(), image.getRGB(1, 35));
+    }
+
+    @Test
+    public void testPaintCandles_DrawsBodiesAndWicks() {
+        ArrayList<Candle> candleList = new ArrayList<>();
+        candleList.add(new Candle(LocalDateTime.now(), 1.0, 1.0, 1.0, 1.0));
+        candleList.add(new Candle(LocalDateTime.now(), 1.0, 3.5, 0.5, 3.0));
+        candleList.add(new Candle(LocalDateTime.now(), 3.0, 3.5, 0.5, 1.0));
+
+        candleView.setSize(20, 40);
+        candleView.setPriceRange(4.0, 0.0);
+        candleView.setCandleList(candleList);
+        BufferedImage image = paint(candleView);
+
+        // Vela alcista en la posición 7 y bajista en la posición 15, con el cuerpo entre 3.0 y 1.0.
+        assertEquals(new Color(0, 255, 0).getRGB(), image.getRGB(6, 20));
+        assertEquals(new Color(0, 127, 0).getRGB(), image.getRGB(7, 6));
+        assertEquals(new Color(255, 0, 0).getRGB(), image.getRGB(14, 20));
+        assertEquals(new Color(127, 0, 0).getRGB(), image.getRGB(15, 33));
+        assertEquals(Color.BLACK.getRGB(), image.getRGB(7, 2));
+    }
+
+    @Test
+    public void testPaintCandles_OnlyCandlesInClip() {
+        Set<Integer> accessed = new HashSet<>();
+        ArrayList<Candle> candleList = new ArrayList<>() {
+            @Override
+            public Candle get(int index) {
+                accessed.add(index);
+                return super.get(index);
+            }
+        };
+        for(int i = 0; i < 20; i++) {
+            candleList.add(new Candle(LocalDateTime.now(), 1.0, 3.5, 0.5, 3.0));
+        }
+        candleView.setSize(160, 40);
+        candleView.setPriceRange(4.0, 0.0);
+        candleView.setCandleList(candleList);
+        paint(candleView);
+
+        accessed.clear();
+        candleView.repaintCandle(10);
+        paint(candleView);
+
+        assertTrue(accessed.contains(10));
+        assertTrue(Set.of(9, 10, 11).containsAll(accessed));
+    }
+
+    @Test
+    public void testScrollCandles_MatchesFullRepaint() {
+        ArrayList<Candle> candleList = new ArrayList<>();
+        for(int i = 0; i < 20; i++) {
+            double open = 1.0 + (i * 7 % 5) * 0.5;
+            double close = 1.0 + (i * 3 % 5) * 0.5;
+            candleList.add(new Candle(LocalDateTime.now(), open, Math.max(open, close) + 0.25,
+                    Math.min(open, close) - 0.25, close));
+        }
+        candleView.setSize(60, 40);
+        candleView.setPriceRange(4.0, 0.0);
+        candleView.setCandleList(candleList.subList(4, 16));
+        paint(candleView);
+
+        candleView.setCandleList(candleList.subList(7, 19));
+        candleView.scrollCandles(3);
+        assertImageEquals(paint(fullView(candleList.subList(7, 19))), paint(candleView));
+
+        candleView.setCandleList(candleList.subList(2, 12));
+        candleView.scrollCandles(-5);
+        assertImageEquals(paint(fullView(candleList.subList(2, 12))), paint(candleView));
+    }
+
+    @Test
+    public void testPaintIndicator_DrawsLineOverCandles() {
+        Buffer buffer = new Buffer();
+        for(int i = 0; i < 20; i++) {
+            buffer.addLast(i * 60_000_000_000L, 2.0, 3.5, 0.5, 2.0);
+        }
+        buffer.addIndicator(new SimpleMovingAverage(3));
+        candleView.setSize(160, 40);
+        candleView.setPriceRange(4.0, 0.0);
+        candleView.setCandleList(buffer.getAll().subList(0, 20), 0);
+        candleView.addIndicator(buffer.getIndicators().get(0), Color.BLUE);
+
+        BufferedImage image = paint(candleView);
+
+        // La media empieza en la tercera vela, en la posición 15, con el precio 2.0 a la altura 20.
+        assertEquals(Color.BLUE.getRGB(), image.getRGB(19, 20));
+        assertEquals(Color.BLACK.getRGB(), image.getRGB(11, 20));
+        assertEquals(Color.BLACK.getRGB(), image.getRGB(19, 21));
+    }
+
+    @Test
+    public void testScrollCandles_WithIndicatorMatchesFullRepaint() {
+        Buffer buffer = new Buffer();
+        for(int i = 0; i < 20; i++) {
+            double open = 1.0 + (i * 7 % 5) * 0.5;
+            double close = 1.0 + (i * 3 % 5) * 0.5;
+            buffer.addLast(i * 60_000_000_000L, open, Math.max(open, close) + 0.25, Math.min(open, close) - 0.25,
+                    close);
+        }
+        SimpleMovingAverage sma = new SimpleMovingAverage(3);
+        buffer.addIndicator(sma);
+        candleView.setSize(60, 40);
+        candleView.setPriceRange(4.0, 0.0);
+        candleView.addIndicator(sma, Color.BLUE);
+        candleView.setCandleList(buffer.getAll().subList(4, 16), 4);
+        paint(candleView);
+
+        candleView.setCandleList(buffer.getAll().subList(7, 19), 7);
+        candleView.scrollCandles(3);
+        assertImageEquals(paint(fullView(buffer, sma, 7, 19)), paint(candleView));
+
+        // Al actualizar la última vela se repinta también el segmento desde la vela anterior.
+        buffer.updateLast(19 * 60_000_000_000L, 1.0, 3.75, 1.0, 3.5);
+        candleView.setCandleList(buffer.getAll().subList(8, 20), 8);
+        candleView.scrollCandles(1);
+        paint(candleView);
+        buffer.updateLast(19 * 60_000_000_000L, 1.0, 3.75, 0.75, 1.0);
+        candleView.repaintCandle(11);
+        assertImageEquals(paint(fullView(buffer, sma, 8, 20)), paint(candleView));
+    }
+
+    @Test
+    public void testAddIndicator() {
+        SimpleMovingAverage sma = new SimpleMovingAverage(3);
+
+        candleView.addIndicator(sma, Color.BLUE);
+
+        assertEquals(List.of(sma), candleView.getIndicators());
+        assertThrows(NullPointerException.class, () -> candleView.addIndicator(null, Color.BLUE));
+        assertThrows(NullPointerException.class, () -> candleView.addIndicator(sma, null));
+        assertTrue(candleView.removeIndicator(sma));
+        assertTrue(candleView.getIndicators().isEmpty());
+    }
+
+    private static CandleView fullView(Buffer buffer, Indicator indicator, int fromIndex, int toIndex) {
+        CandleView view = new CandleView();
+        view.setSize(60, 40);
+        view.setPriceRange(4.0, 0.0);
+        view.addIndicator(indicator, Color.BLUE);
+        view.setCandleList(buffer.getAll().subList(fromIndex, toIndex), fromIndex);
+        return view;
+    }
+
+    private static CandleView fullView(List<Candle> candleList) {
+        CandleView view = new CandleView();
+        view.setSize(60, 40);
+        view.setPriceRange(4.0, 0.0);
+        view.setCandleList(candleList);
+        return view;
+    }
+
+    private static BufferedImage paint(Component component) {
+        BufferedImage image = new BufferedImage(component.getWidth(), component.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        component.paint(g);
+        g.dispose();
+        return image;
+    }
+
+    private static void assertImageEquals(BufferedImage expected, BufferedImage actual) {
+        for(int x = 0; x < expected.getWidth(); x++) {
+            for(int y = 0; y < expected.getHeight(); y++) {
+                assertEquals(expected.getRGB(x, y), actual.getRGB(x, y), "Píxel (" + x + ", " + y + ")");
+            }
+        }
+    }
 }
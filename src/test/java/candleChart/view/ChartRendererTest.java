@@ -0,0 +1,181 @@
+package candleChart.view;
+
+import candleChart.controller.CandleSize;
+import candleChart.data.Buffer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChartRendererTest {
+
+    private ChartRenderer chartRenderer;
+    private Buffer buffer;
+
+    @BeforeEach
+    public void setup() {
+        chartRenderer = new ChartRenderer();
+        buffer = new Buffer();
+        for(int i = 0; i < 100; i++) {
+            double open = 1.0 + (i % 10) * 0.1;
+            double close = i % 2 == 0? open + 0.05: open - 0.05;
+            buffer.addLast(i * 60_000_000_000L, open, Math.max(open, close) + 0.02, Math.min(open, close) - 0.02, close);
+        }
+    }
+
+    @Test
+    public void testDefaultConstructor() {
+        assertEquals(CandleSize.SMALL, chartRenderer.getCandleSize());
+        assertEquals(1, chartRenderer.getCandlesPerColumn());
+        assertTrue(chartRenderer.isGridVisible());
+    }
+
+    @Test
+    public void testRender_NullBuffer() {
+        NullPointerException exception;
+        exception = assertThrows(NullPointerException.class, () -> {
+            chartRenderer.render(null, 200, 100);
+        });
+        assertEquals("No se permiten valores nulos para el valor 'buffer'.", exception.getMessage());
+    }
+
+    @Test
+    public void testRender_InvalidSize() {
+        IllegalArgumentException exception;
+        exception = assertThrows(IllegalArgumentException.class, () -> {
+            chartRenderer.render(buffer, 0, 100);
+        });
+        assertEquals("El tamaño de la imagen debe ser un valor positivo.", exception.getMessage());
+    }
+
+    @Test
+    public void testRender_IndexOutOfBounds() {
+        assertThrows(IndexOutOfBoundsException.class, () -> chartRenderer.render(buffer, 101, 200, 100));
+    }
+
+    @Test
+    public void testSetCandlesPerColumn_InvalidValue() {
+        IllegalArgumentException exception;
+        exception = assertThrows(IllegalArgumentException.class, () -> {
+            chartRenderer.setCandlesPerColumn(0);
+        });
+        assertEquals("El número de velas por columna debe ser un valor positivo.", exception.getMessage());
+    }
+
+    @Test
+    public void testSetPriceFormat() {
+        chartRenderer.setPriceFormat(0.25, 2);
+        assertEquals(0.25, chartRenderer.getTickSize());
+        assertEquals(2, chartRenderer.getPriceDecimals());
+
+        IllegalArgumentException exception;
+        exception = assertThrows(IllegalArgumentException.class, () -> chartRenderer.setPriceFormat(0.25, 20));
+        assertEquals("El número de decimales debe estar entre 0 y 15.", exception.getMessage());
+    }
+
+    @Test
+    public void testRender_DrawsChart() {
+        BufferedImage image = chartRenderer.render(buffer, 400, 240);
+
+        assertEquals(400, image.getWidth());
+        assertEquals(240, image.getHeight());
+        assertEquals(Color.GRAY.getRGB(), image.getRGB(0, 100));                // Borde del área del gráfico.
+        assertTrue(countColor(image, new Color(0, 255, 0)) > 0);                // Cuerpos de velas alcistas.
+        assertTrue(countColor(image, new Color(255, 0, 0)) > 0);                // Cuerpos de velas bajistas.
+        assertTrue(countColor(image.getSubimage(330, 0, 70, 200), Color.GRAY) > 100);  // Precios.
+        assertTrue(countColor(image.getSubimage(0, 200, 330, 40), Color.GRAY) > 100);  // Fechas.
+    }
+
+    @Test
+    public void testRender_EmptyBuffer() {
+        BufferedImage image = chartRenderer.render(new Buffer(), 200, 100);
+
+        assertEquals(0, countColor(image, new Color(0, 255, 0)));
+        assertEquals(0, countColor(image, new Color(255, 0, 0)));
+    }
+
+    @Test
+    public void testRender_ConcurrentCalls() throws Exception {
+        chartRenderer.setCandlesPerColumn(2);
+        BufferedImage expected = chartRenderer.render(buffer, 300, 200);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<BufferedImage>> futures = new ArrayList<>();
+            for(int i = 0; i < 16; i++) {
+                futures.add(executor.submit(() -> chartRenderer.render(buffer, 300, 200)));
+            }
+            for(Future<BufferedImage> future : futures) {
+                BufferedImage image = future.get();
+                for(int x = 0; x < 300; x++) {
+                    for(int y = 0; y < 200; y++) {
+                        assertEquals(expected.getRGB(x, y), image.getRGB(x, y));
+                    }
+                }
+            }
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testRenderTiles_MatchesRender() throws Exception {
+        for(int candlesPerColumn : new int[]{1, 2}) {
+            chartRenderer.setCandlesPerColumn(candlesPerColumn);
+            BufferedImage expected = chartRenderer.render(buffer, 90, 700, 300);
+            BufferedImage composite = new BufferedImage(700, 300, BufferedImage.TYPE_INT_RGB);
+            List<Integer> positions = new ArrayList<>();
+
+            chartRenderer.renderTiles(buffer, 90, 700, 300, 96, (tile, x) -> {
+                positions.add(x);
+                composite.createGraphics().drawImage(tile, x, 0, null);
+            });
+
+            assertEquals(List.of(0, 96, 192, 288, 384, 480, 576, 672), positions);
+            for(int x = 0; x < 700; x++) {
+                for(int y = 0; y < 300; y++) {
+                    assertEquals(expected.getRGB(x, y), composite.getRGB(x, y), "Píxel (" + x + ", " + y + ")");
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRenderTiles_ConsumerError() {
+        IOException exception;
+        exception = assertThrows(IOException.class, () -> {
+            chartRenderer.renderTiles(buffer, 100, 400, 200, 50, (tile, x) -> {
+                throw new IOException("Error de escritura");
+            });
+        });
+        assertEquals("Error de escritura", exception.getMessage());
+    }
+
+    @Test
+    public void testRenderTiles_InvalidTileWidth() {
+        assertThrows(IllegalArgumentException.class, () -> chartRenderer.renderTiles(buffer, 100, 400, 200, 0,
+                (tile, x) -> { }));
+    }
+
+    private static int countColor(BufferedImage image, Color color) {
+        int count = 0;
+        for(int x = 0; x < image.getWidth(); x++) {
+            for(int y = 0; y < image.getHeight(); y++) {
+                if(image.getRGB(x, y) == color.getRGB()) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,39 @@
+package candleChart.view;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CivilDateTest {
+
+    @Test
+    public void testEpochMonth() {
+        // Se recorren varios ciclos de 400 años a ambos lados de la época, incluidos los años bisiestos seculares.
+        for(long epochDay = LocalDate.of(1599, 1, 1).toEpochDay(); epochDay < LocalDate.of(2401, 1, 1).toEpochDay();
+                epochDay += 3) {
+            LocalDate date = LocalDate.ofEpochDay(epochDay);
+            assertEquals(date.getYear() * 12L + date.getMonthValue() - 1, CivilDate.epochMonth(epochDay), date.toString());
+        }
+        assertEquals(0, CivilDate.epochMonth(LocalDate.of(0, 1, 31).toEpochDay()));
+        assertEquals(-1, CivilDate.epochMonth(LocalDate.of(-1, 12, 31).toEpochDay()));
+    }
+
+    @Test
+    public void testFirstDay() {
+        for(int year = 1599; year <= 2401; year++) {
+            for(int month = 1; month <= 12; month++) {
+                LocalDate date = LocalDate.of(year, month, 1);
+                assertEquals(date.toEpochDay(), CivilDate.firstDay(year * 12L + month - 1), date.toString());
+            }
+        }
+        assertEquals(LocalDate.of(-1, 12, 1).toEpochDay(), CivilDate.firstDay(-1));
+    }
+
+    @Test
+    public void testFirstDayOfEpochMonth() {
+        LocalDate date = LocalDate.of(2024, 2, 29);
+        assertEquals(LocalDate.of(2024, 2, 1).toEpochDay(), CivilDate.firstDay(CivilDate.epochMonth(date.toEpochDay())));
+    }
+}
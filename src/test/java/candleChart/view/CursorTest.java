@@ -24,9 +24,41 @@ public class CursorTest {
     @Test
     public void testSetCursorLocation_TriggerRepaint() {
         cursor = spy(new Cursor());
-        cursor.setCursorLocation(20,20);
+        cursor.setSize(100, 50);
+        cursor.setCursorVisible(true);
+        cursor.setCursorLocation(20,30);
 
-        verify(cursor, atLeastOnce()).repaint();
+        // Solo se repintan las franjas de las líneas anteriores y nuevas del cursor.
+        verify(cursor, times(1)).paintImmediately(0, 0, 1, 50);
+        verify(cursor, times(1)).paintImmediately(0, 0, 100, 1);
+        verify(cursor, times(1)).paintImmediately(20, 0, 1, 50);
+        verify(cursor, times(1)).paintImmediately(0, 30, 100, 1);
+    }
+
+    @Test
+    public void testSetHorizontalLineVisible_RepaintsOnlyVerticalLine() {
+        cursor = spy(new Cursor());
+        cursor.setSize(100, 50);
+        cursor.setCursorVisible(true);
+        assertTrue(cursor.isHorizontalLineVisible());
+
+        cursor.setHorizontalLineVisible(false);
+        assertFalse(cursor.isHorizontalLineVisible());
+        verify(cursor, times(1)).paintImmediately(0, 0, 100, 1);
+
+        // Sin línea horizontal, al mover el cursor solo se repintan las franjas de la línea vertical.
+        cursor.setCursorLocation(20, 30);
+        verify(cursor, times(1)).paintImmediately(0, 0, 1, 50);
+        verify(cursor, times(1)).paintImmediately(20, 0, 1, 50);
+        verify(cursor, never()).paintImmediately(0, 30, 100, 1);
+    }
+
+    @Test
+    public void testSetCursorLocation_HiddenCursor() {
+        cursor = spy(new Cursor());
+        cursor.setCursorLocation(20,30);
+
+        verify(cursor, never()).paintImmediately(anyInt(), anyInt(), anyInt(), anyInt());
     }
 
     @Test
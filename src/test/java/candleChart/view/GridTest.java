@@ -4,6 +4,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -58,4 +61,39 @@ public class GridTest {
         grid.setGridVisible(true);
         assertTrue(grid.isGridVisible());
     }
+
+    @Test
+    public void testSetTicks_OnlyRepaintsWhenChanged() {
+        grid = spy(new Grid());
+        grid.setSnapToTicks(true);
+        grid.setTicks(new int[] {10, 50}, 2, new int[] {20}, 1);
+        clearInvocations(grid);
+
+        grid.setTicks(new int[] {10, 50, 99}, 2, new int[] {20}, 1);
+        verify(grid, never()).repaint();
+
+        grid.setTicks(new int[] {10, 60}, 2, new int[] {20}, 1);
+        verify(grid, atLeastOnce()).repaint();
+    }
+
+    @Test
+    public void testSnapToTicks_PaintsLinesAtTicks() {
+        grid.setSize(100, 60);
+        grid.setSnapToTicks(true);
+        grid.setTicks(new int[] {10, 70}, 2, new int[] {30}, 1);
+        assertTrue(grid.isSnapToTicks());
+
+        BufferedImage image = new BufferedImage(100, 60, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        grid.paint(g);
+        g.dispose();
+
+        int gray = Color.DARK_GRAY.getRGB();
+        assertEquals(gray, image.getRGB(10, 0));
+        assertEquals(gray, image.getRGB(70, 0));
+        assertEquals(gray, image.getRGB(0, 30));
+        for(int y = 0; y < 30; y++) {
+            assertNotEquals(gray, image.getRGB(31, y));
+        }
+    }
 }
@@ -0,0 +1,107 @@
+package candleChart.view;
+
+import candleChart.data.Buffer;
+import candleChart.data.SimpleMovingAverage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IndicatorPaneTest {
+
+    private Buffer buffer;
+    private SimpleMovingAverage closes;
+    private IndicatorPane pane;
+
+    @BeforeEach
+    public void setup() {
+        // Cierres: 10, 20, 30, 40, 50, 60, 70, 80, 90, 100 con dos mínimos en las velas 3 y 6.
+        buffer = new Buffer();
+        for(int i = 0; i < 10; i++) {
+            double close = i == 3 || i == 6? 5.0 * i: 10.0 * (i + 1);
+            buffer.addLast(i * 60_000_000_000L, close, close, close, close);
+        }
+        closes = new SimpleMovingAverage(1);
+        buffer.addIndicator(closes);
+        pane = new IndicatorPane(closes, Color.BLUE);
+    }
+
+    @Test
+    public void testConstructor_NullIndicator() {
+        NullPointerException exception = assertThrows(NullPointerException.class,
+                () -> new IndicatorPane(null, Color.BLUE));
+        assertEquals("No se permiten valores nulos para el valor 'indicator'.", exception.getMessage());
+    }
+
+    @Test
+    public void testUpdateValueRange_FitsVisibleValues() {
+        pane.setCandleList(buffer.getAll().subList(2, 6), 2);
+
+        assertTrue(pane.updateValueRange());
+        assertEquals(60.0, pane.getRangeUp());
+        assertEquals(15.0, pane.getRangeDown());
+
+        // El rango solo cambia si cambian los valores representados.
+        assertFalse(pane.updateValueRange());
+        pane.setCandleList(buffer.getAll().subList(3, 6), 3);
+        assertFalse(pane.updateValueRange());
+    }
+
+    @Test
+    public void testUpdateValueRange_AggregatedColumnsUseDrawnPoints() {
+        // En el modo de nivel de detalle solo se representa la última vela de cada columna: 2 (40), 4 (60) y 6 (30).
+        pane.setCandlesPerColumn(2);
+        pane.setCandleList(buffer.getAll().subList(1, 8), 1);
+
+        assertTrue(pane.updateValueRange());
+        assertEquals(80.0, pane.getRangeUp());
+        assertEquals(30.0, pane.getRangeDown());
+    }
+
+    @Test
+    public void testUpdateValueRange_WithoutValues() {
+        SimpleMovingAverage average = new SimpleMovingAverage(20);
+        buffer.addIndicator(average);
+        pane = new IndicatorPane(average, Color.BLUE);
+        pane.setCandleList(buffer.getAll(), 0);
+
+        // Sin valores calculados el rango es cero.
+        assertFalse(pane.updateValueRange());
+        assertEquals(0.0, pane.getRangeUp());
+        assertEquals(0.0, pane.getRangeDown());
+
+        pane = new IndicatorPane();
+        pane.setCandleList(buffer.getAll(), 0);
+        assertFalse(pane.updateValueRange());
+    }
+
+    @Test
+    public void testPaint_DrawsIndicatorWithPaneScale() {
+        List<Integer> rows = new ArrayList<>();
+        pane.setSize(80, 100);
+        pane.setCandleList(buffer.getAll(), 0);
+        pane.updateValueRange();
+
+        BufferedImage image = new BufferedImage(80, 100, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        pane.paint(g);
+        g.dispose();
+
+        // El valor máximo (100) se dibuja en el borde superior y el mínimo (15) en el inferior.
+        for(int y = 0; y < 100; y++) {
+            for(int x = 0; x < 80; x++) {
+                if(image.getRGB(x, y) == Color.BLUE.getRGB()) {
+                    rows.add(y);
+                    break;
+                }
+            }
+        }
+        assertEquals(0, rows.get(0));
+        assertTrue(rows.get(rows.size() - 1) >= 98);
+    }
+}
@@ -0,0 +1,121 @@
+package candleChart.view;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.text.DecimalFormatSymbols;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PriceFormatterTest {
+    private static final char SEPARATOR = DecimalFormatSymbols.getInstance().getDecimalSeparator();
+
+    private PriceFormatter priceFormatter;
+
+    @BeforeEach
+    public void setup() {
+        priceFormatter = new PriceFormatter();
+    }
+
+    @Test
+    public void testDefaultConstructor() {
+        assertEquals(0.00001, priceFormatter.getTickSize());
+        assertEquals(5, priceFormatter.getDecimals());
+    }
+
+    @Test
+    public void testConstructor_InvalidTickSize() {
+        IllegalArgumentException exception;
+        exception = assertThrows(IllegalArgumentException.class, () -> new PriceFormatter(0, 2));
+        assertEquals("El tamaño del tick debe ser un valor positivo.", exception.getMessage());
+
+        assertThrows(IllegalArgumentException.class, () -> new PriceFormatter(Double.NaN, 2));
+    }
+
+    @Test
+    public void testConstructor_InvalidDecimals() {
+        IllegalArgumentException exception;
+        exception = assertThrows(IllegalArgumentException.class, () -> new PriceFormatter(0.01, 16));
+        assertEquals("El número de decimales debe estar entre 0 y 15.", exception.getMessage());
+
+        assertThrows(IllegalArgumentException.class, () -> new PriceFormatter(0.01, -1));
+    }
+
+    @Test
+    public void testFormat_SameAsStringFormat() {
+        for(double price: new double[] {0, 1.0159, 12345.678901, 0.000004, -2.5, 98765.4321}) {
+            assertEquals(String.format("%.5f", price), priceFormatter.format(price));
+        }
+    }
+
+    @Test
+    public void testFormat_RoundsToTickSize() {
+        PriceFormatter formatter = new PriceFormatter(0.25, 2);
+
+        assertEquals("4512" + SEPARATOR + "25", formatter.format(4512.3));
+        assertEquals("4512" + SEPARATOR + "50", formatter.format(4512.4));
+        assertEquals("-0" + SEPARATOR + "25", formatter.format(-0.2));
+    }
+
+    @Test
+    public void testFormat_WithoutDecimals() {
+        PriceFormatter formatter = new PriceFormatter(5, 0);
+
+        assertEquals("38125", formatter.format(38123.4));
+        assertEquals("0", formatter.format(1));
+    }
+
+    @Test
+    public void testFormat_LargePriceWithManyDecimals() {
+        // 12345.678901234567 por 10^15 no cabe en un long.
+        PriceFormatter formatter = new PriceFormatter(1e-15, 15);
+        assertEquals("12345" + SEPARATOR + "678901234567000", formatter.format(12345.678901234567));
+        assertEquals("-12345" + SEPARATOR + "678901234567000", formatter.format(-12345.678901234567));
+
+        char[] buffer = new char[40];
+        int end = formatter.format(9999.5, buffer, 1);
+        assertEquals("9999" + SEPARATOR + "500000000000000", new String(buffer, 1, end - 1));
+
+        formatter = new PriceFormatter(0.25, 2);
+        assertEquals("100000000000000000000" + SEPARATOR + "00", formatter.format(1e20));
+        assertEquals("1000" + SEPARATOR + "25", formatter.format(1000.3));
+    }
+
+    @Test
+    public void testFormat_NonFinitePrices() {
+        assertEquals("NaN", priceFormatter.format(Double.NaN));
+        assertEquals("∞", priceFormatter.format(Double.POSITIVE_INFINITY));
+        assertEquals("-∞", priceFormatter.format(Double.NEGATIVE_INFINITY));
+
+        char[] buffer = new char[8];
+        int end = priceFormatter.format(Double.NaN, buffer, 1);
+        assertEquals("NaN", new String(buffer, 1, end - 1));
+        end = priceFormatter.format(Double.NEGATIVE_INFINITY, buffer, 0);
+        assertEquals("-∞", new String(buffer, 0, end));
+
+        // Los precios no finitos no ocupan la caché de los precios finitos.
+        assertEquals("0" + SEPARATOR + "00000", priceFormatter.format(0));
+    }
+
+    @Test
+    public void testFormat_CachesRecentPrices() {
+        String price = priceFormatter.format(1.23456);
+
+        assertSame(price, priceFormatter.format(1.234561));
+        assertNotSame(price, priceFormatter.format(1.23457));
+
+        priceFormatter.clearCache();
+        assertNotSame(price, priceFormatter.format(1.23456));
+        assertEquals(price, priceFormatter.format(1.23456));
+    }
+
+    @Test
+    public void testFormat_WritesIntoBuffer() {
+        char[] chars = new char[48];
+        chars[0] = '$';
+
+        int end = priceFormatter.format(1.5, chars, 1);
+
+        assertEquals("$1" + SEPARATOR + "50000", new String(chars, 0, end));
+    }
+}
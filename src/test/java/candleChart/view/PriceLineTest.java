@@ -3,6 +3,9 @@ package candleChart.view;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -67,5 +70,51 @@ public class PriceLineTest {
         });
         assertEquals("El rango superior no puede ser menos que el rango inferior.", exception.getMessage());
     }
-}
 
+    @Test
+    public void testSetPriceFormat() {
+        assertEquals(0.00001, priceLine.getTickSize());
+        assertEquals(5, priceLine.getPriceDecimals());
+
+        priceLine.setPriceFormat(0.25, 2);
+        assertEquals(0.25, priceLine.getTickSize());
+        assertEquals(2, priceLine.getPriceDecimals());
+
+        assertThrows(IllegalArgumentException.class, () -> priceLine.setPriceFormat(-1, 2));
+        assertEquals(0.25, priceLine.getTickSize());
+    }
+
+    @Test
+    public void testSetPriceRange_PaintsPricesWithoutComponents() {
+        priceLine.setSize(70, 200);
+        priceLine.setPriceRange(1.5, 1.0);
+
+        BufferedImage image = new BufferedImage(70, 200, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        priceLine.paint(g);
+        g.dispose();
+
+        assertEquals(0, priceLine.getComponentCount());
+        assertTrue(hasTextPixels(image, 8, 200 - 32 - 7, 60, 15));
+    }
+
+    private static boolean hasTextPixels(BufferedImage image, int x, int y, int width, int height) {
+        for(int i = x; i < x + width; i++) {
+            for(int j = y; j < y + height; j++) {
+                if(image.getRGB(i, j) == Color.GRAY.getRGB()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Test
+    public void testGetTickPosition() {
+        priceLine.setSize(70, 100);
+
+        assertEquals(4, priceLine.getTickCount());
+        assertEquals(100, priceLine.getTickPosition(0));
+        assertEquals(4, priceLine.getTickPosition(3));
+    }
+}
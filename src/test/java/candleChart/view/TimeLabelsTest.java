@@ -0,0 +1,139 @@
+package candleChart.view;
+
+import candleChart.controller.CandleSize;
+import candleChart.data.Buffer;
+import candleChart.data.CandleSeries;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimeLabelsTest {
+    private static final DateTimeFormatter DAY_FORMATTER = DateTimeFormatter.ofPattern("dd MMM");
+    private static final long NANOS_PER_MINUTE = 60_000_000_000L;
+
+    @Test
+    public void testUpdate_MinuteCandlesAtQuarterHours() {
+        CandleSeries series = series(LocalDateTime.of(2024, 3, 5, 9, 3), 1, 100);
+        TimeLabels labels = new TimeLabels();
+
+        labels.update(series, CandleSize.SMALL, 1, 330);
+
+        assertEquals(2, labels.size());
+        assertEquals(12 * 8 - 1, labels.getPosition(0));
+        assertEquals("09:15", labels.getHour(0));
+        assertEquals(LocalDateTime.of(2024, 3, 5, 0, 0).format(DAY_FORMATTER), labels.getDay(0));
+        assertEquals(27 * 8 - 1, labels.getPosition(1));
+        assertEquals("09:30", labels.getHour(1));
+    }
+
+    @Test
+    public void testUpdate_LabelsAreSeparated() {
+        CandleSeries series = series(LocalDateTime.of(2024, 3, 5, 9, 3), 7, 20000);
+        for(CandleSize candleSize: CandleSize.values()) {
+            for(int candlesPerColumn: new int[] {1, 2, 16}) {
+                TimeLabels labels = new TimeLabels();
+                labels.update(series, candleSize, candlesPerColumn, 1000);
+
+                assertTrue(labels.size() > 0);
+                for(int i = 1; i < labels.size(); i++) {
+                    assertTrue(labels.getPosition(i) - labels.getPosition(i - 1) >= TimeLabels.LABEL_SPACING);
+                }
+                assertTrue(labels.getPosition(labels.size() - 1) < 1000);
+            }
+        }
+    }
+
+    @Test
+    public void testUpdate_DailyCandlesAtMonths() {
+        CandleSeries series = series(LocalDateTime.of(2023, 11, 20, 0, 0), 1440, 100);
+        TimeLabels labels = new TimeLabels();
+
+        labels.update(series, CandleSize.VERY_SMALL, 1, 1000);
+
+        // Con velas diarias de 4 píxeles las etiquetas son mensuales.
+        assertEquals(3, labels.size());
+        assertEquals(LocalDateTime.of(2023, 12, 1, 0, 0).format(DAY_FORMATTER), labels.getDay(0));
+        assertEquals(LocalDateTime.of(2024, 1, 1, 0, 0).format(DAY_FORMATTER), labels.getDay(1));
+        assertEquals(LocalDateTime.of(2024, 2, 1, 0, 0).format(DAY_FORMATTER), labels.getDay(2));
+        assertEquals(11 * 4 - 1, labels.getPosition(0));
+    }
+
+    @Test
+    public void testUpdate_SkipsGaps() {
+        Buffer buffer = new Buffer();
+        LocalDateTime dateTime = LocalDateTime.of(2024, 3, 5, 9, 0);
+        for(int i = 0; i < 10; i++) {
+            buffer.addLast(CandleSeries.toEpochNanos(dateTime.plusMinutes(i)), 1.25, 1.30, 1.20, 1.22);
+        }
+        for(int i = 0; i < 10; i++) {
+            buffer.addLast(CandleSeries.toEpochNanos(dateTime.plusHours(5).plusMinutes(7 + i)), 1.25, 1.30, 1.20,
+                    1.22);
+        }
+        TimeLabels labels = new TimeLabels();
+
+        labels.update(CandleSeries.of(buffer.getAll()), CandleSize.VERY_LARGE, 1, 1000);
+
+        // La primera vela tras el hueco es la de las 14:07, que es la primera posterior al límite siguiente.
+        assertEquals(2, labels.size());
+        assertEquals("09:00", labels.getHour(0));
+        assertEquals("14:07", labels.getHour(1));
+        assertEquals(10 * 32 - 1, labels.getPosition(1));
+    }
+
+    @Test
+    public void testUpdate_ReusesCachedText() {
+        CandleSeries series = series(LocalDateTime.of(2024, 3, 5, 9, 3), 1, 100);
+        TimeLabels labels = new TimeLabels();
+        labels.update(series, CandleSize.SMALL, 1, 330);
+        String hour = labels.getHour(0);
+        String day = labels.getDay(0);
+
+        labels.update(series, CandleSize.SMALL, 1, 330);
+
+        assertSame(hour, labels.getHour(0));
+        assertSame(day, labels.getDay(0));
+    }
+
+    @Test
+    public void testUpdate_EmptySeries() {
+        TimeLabels labels = new TimeLabels();
+        labels.update(CandleSeries.of(new Buffer().getAll()), CandleSize.SMALL, 1, 330);
+
+        assertEquals(0, labels.size());
+    }
+
+    @Test
+    public void testNextMonthBoundary() {
+        LocalDateTime dateTime = LocalDateTime.of(1968, 12, 31, 23, 59);
+        for(int i = 0; i < 400; i++) {
+            dateTime = dateTime.plusDays(37).plusMinutes(71);
+            long minute = CandleSeries.toEpochNanos(dateTime) / NANOS_PER_MINUTE;
+
+            LocalDateTime month = dateTime.withDayOfMonth(1).toLocalDate().atStartOfDay().plusMonths(1);
+            assertEquals(CandleSeries.toEpochNanos(month) / NANOS_PER_MINUTE, TimeLabels.nextMonthBoundary(minute, 1));
+
+            LocalDateTime year = LocalDateTime.of(dateTime.getYear() + 1, 1, 1, 0, 0);
+            assertEquals(CandleSeries.toEpochNanos(year) / NANOS_PER_MINUTE, TimeLabels.nextMonthBoundary(minute, 12));
+        }
+    }
+
+    /**
+     * Crea una serie de velas consecutivas.
+     *
+     * @param start Fecha de la primera vela.
+     * @param minutes Duración de las velas en minutos.
+     * @param size Número de velas.
+     * @return Serie de velas.
+     */
+    private static CandleSeries series(LocalDateTime start, int minutes, int size) {
+        Buffer buffer = new Buffer();
+        buffer.setMaxSize(size);
+        for(int i = 0; i < size; i++) {
+            buffer.addLast(CandleSeries.toEpochNanos(start.plusMinutes((long) i * minutes)), 1.25, 1.30, 1.20, 1.22);
+        }
+        return CandleSeries.of(buffer.getAll());
+    }
+}
@@ -1,11 +1,15 @@
 package candleChart.view;
 
 import candleChart.controller.CandleSize;
+import candleChart.data.CandleSeries;
 import candleChart.model.Candle;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.awt.*;
+import java.awt.image.BufferedImage;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -103,4 +107,79 @@ public class TimeLineTest {
 
         assertEquals(CandleSize.LARGE, timeLine.getCandleSize());
     }
+
+    @Test
+    public void testSetCandlesPerColumn_InvalidValue() {
+        IllegalArgumentException exception;
+        exception = assertThrows(IllegalArgumentException.class, () -> timeLine.setCandlesPerColumn(-1));
+        assertEquals("El número de velas por columna debe ser un valor positivo.", exception.getMessage());
+    }
+
+    @Test
+    public void testSetCandlesPerColumn_CandleFromCursor() {
+        ArrayList<Candle> candleList = new ArrayList<>();
+        for(int i = 0; i < 10; i++) {
+            candleList.add(new Candle(LocalDateTime.of(2024, 3, 5, 9, 3).plusMinutes(i), 1.25, 1.30, 1.20, 1.22));
+        }
+
+        timeLine.setCandleList(candleList);
+        timeLine.setCandlesPerColumn(3);
+        timeLine.setCursorLocation(2);
+
+        assertEquals(3, timeLine.getCandlesPerColumn());
+        assertEquals(candleList.get(6), timeLine.getCandleFromCursor());
+    }
+
+    @Test
+    public void testFormatDateTime_SameAsDateTimeFormatter() {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd MMM HH:mm");
+        char[] chars = new char[64];
+        LocalDateTime dateTime = LocalDateTime.of(1969, 12, 31, 23, 59);
+        for(int i = 0; i < 400; i++) {
+            dateTime = dateTime.plusDays(37).plusMinutes(71);
+            int length = TimeLine.formatDateTime(CandleSeries.toEpochNanos(dateTime), chars);
+            assertEquals(dateTime.format(formatter), new String(chars, 0, length));
+        }
+    }
+
+    @Test
+    public void testSetCandleList_PaintsDatesWithoutComponents() {
+        ArrayList<Candle> candleList = new ArrayList<>();
+        for(int i = 0; i < 100; i++) {
+            candleList.add(new Candle(LocalDateTime.of(2024, 3, 5, 9, 3).plusMinutes(i), 1.25, 1.30, 1.20, 1.22));
+        }
+        timeLine.setSize(400, 40);
+        timeLine.setCandleList(candleList);
+
+        BufferedImage image = new BufferedImage(400, 40, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        timeLine.paint(g);
+        g.dispose();
+
+        assertEquals(0, timeLine.getComponentCount());
+        // Con velas de un minuto de tamaño SMALL las etiquetas son de quince minutos, y la primera corresponde a las
+        // 09:15, que es la vela 12.
+        boolean textPainted = false;
+        for(int x = 12 * 8 - 1; x < 12 * 8 - 1 + 62; x++) {
+            for(int y = 5; y < 40; y++) {
+                textPainted |= image.getRGB(x, y) == Color.GRAY.getRGB();
+            }
+        }
+        assertTrue(textPainted);
+    }
+
+    @Test
+    public void testGetTickPosition_CalendarBoundaries() {
+        ArrayList<Candle> candleList = new ArrayList<>();
+        for(int i = 0; i < 100; i++) {
+            candleList.add(new Candle(LocalDateTime.of(2024, 3, 5, 9, 3).plusMinutes(i), 1.25, 1.30, 1.20, 1.22));
+        }
+        timeLine.setSize(400, 40);
+        timeLine.setCandleList(candleList);
+
+        // Divisiones de quince minutos en las velas de las 09:15 y las 09:30.
+        assertEquals(2, timeLine.getTickCount());
+        assertEquals(12 * 8 - 1, timeLine.getTickPosition(0));
+        assertEquals(27 * 8 - 1, timeLine.getTickPosition(1));
+    }
 }
@@ -0,0 +1,111 @@
+package candleChart.view;
+
+import candleChart.controller.CandleSize;
+import candleChart.data.Buffer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VolumePaneTest {
+
+    private Buffer buffer;
+    private VolumePane pane;
+
+    @BeforeEach
+    public void setup() {
+        // Volúmenes: 100, 200, ..., 1000. Las velas pares son alcistas y las impares bajistas.
+        buffer = new Buffer();
+        for(int i = 0; i < 10; i++) {
+            double open = i % 2 == 0? 1.0: 2.0;
+            double close = i % 2 == 0? 2.0: 1.0;
+            buffer.addLast(i * 60_000_000_000L, open, 2.0, 1.0, close, 100.0 * (i + 1));
+        }
+        pane = new VolumePane();
+    }
+
+    @Test
+    public void testUpdateValueRange_FitsVisibleVolumes() {
+        pane.setCandleList(buffer.getAll().subList(2, 6), 2);
+
+        assertTrue(pane.updateValueRange());
+        assertEquals(600.0, pane.getRangeUp());
+        assertEquals(0.0, pane.getRangeDown());
+
+        // El rango solo cambia si cambia el mayor volumen representado.
+        assertFalse(pane.updateValueRange());
+        pane.setCandleList(buffer.getAll().subList(0, 6), 0);
+        assertFalse(pane.updateValueRange());
+        buffer.updateLast(9 * 60_000_000_000L, 2.0, 2.0, 1.0, 1.0, 5000);
+        pane.setCandleList(buffer.getAll(), 0);
+        assertTrue(pane.updateValueRange());
+        assertEquals(5000.0, pane.getRangeUp());
+    }
+
+    @Test
+    public void testUpdateValueRange_WithoutCandles() {
+        pane.setCandleList(new Buffer().getAll(), 0);
+
+        assertFalse(pane.updateValueRange());
+        assertEquals(0.0, pane.getRangeUp());
+        assertEquals(0.0, pane.getRangeDown());
+    }
+
+    @Test
+    public void testPaint_DrawsBarsFromBottom() {
+        pane.setSize(200, 100);
+        pane.setCandleSize(CandleSize.LARGE);
+        pane.setCandleList(buffer.getAll(), 0);
+        pane.updateValueRange();
+        BufferedImage image = paint();
+
+        // La última vela tiene el mayor volumen y su barra ocupa toda la altura del panel.
+        int last = CandleSize.LARGE.positionOf(9);
+        assertTrue(isBearish(image.getRGB(last, 0)));
+        assertTrue(isBearish(image.getRGB(last, 99)));
+        // La segunda vela tiene una quinta parte del mayor volumen.
+        int second = CandleSize.LARGE.positionOf(1);
+        assertTrue(isBearish(image.getRGB(second, 99)));
+        assertTrue(isBearish(image.getRGB(second, 81)));
+        assertFalse(isBearish(image.getRGB(second, 75)));
+        assertTrue(isBullish(image.getRGB(CandleSize.LARGE.positionOf(2), 99)));
+    }
+
+    @Test
+    public void testPaint_AggregatedColumnsUseHighestVolume() {
+        pane.setSize(5, 100);
+        pane.setCandlesPerColumn(4);
+        pane.setCandleList(buffer.getAll(), 0);
+        pane.updateValueRange();
+        BufferedImage image = paint();
+
+        // La columna 0 agrupa las velas 0 a 3 (mayor volumen 400) y la columna 2 las velas 8 y 9 (mayor volumen 1000).
+        // Ambas columnas abren y cierran en 1.0, por lo que se dibujan como alcistas.
+        assertTrue(isBullish(image.getRGB(0, 99)));
+        assertTrue(isBullish(image.getRGB(0, 61)));
+        assertFalse(isBullish(image.getRGB(0, 55)));
+        assertTrue(isBullish(image.getRGB(2, 0)));
+        assertEquals(Color.BLACK.getRGB(), image.getRGB(3, 99));
+    }
+
+    private BufferedImage paint() {
+        BufferedImage image = new BufferedImage(pane.getWidth(), pane.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        pane.paint(g);
+        g.dispose();
+        return image;
+    }
+
+    private static boolean isBullish(int rgb) {
+        Color color = new Color(rgb);
+        return color.getGreen() > 0 && color.getRed() == 0;
+    }
+
+    private static boolean isBearish(int rgb) {
+        Color color = new Color(rgb);
+        return color.getRed() > 0 && color.getGreen() == 0;
+    }
+}